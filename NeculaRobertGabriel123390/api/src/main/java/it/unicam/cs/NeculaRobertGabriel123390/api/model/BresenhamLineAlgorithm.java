@@ -56,10 +56,11 @@ public final class BresenhamLineAlgorithm {
      * @param end The ending {@link Position} of the line.
      * @return A list of {@link Position} objects representing the points of the line
      *         from the start to the end position, inclusive.
+     * @throws NullPointerException if {@code start} or {@code end} is {@code null}.
      */
     public static List<Position> getPositionsBetween(Position start, Position end) {
-        PositionUtils.validateCircuitNodePosition(start);
-        PositionUtils.validateCircuitNodePosition(end);
+        PositionUtils.validatePosition(start);
+        PositionUtils.validatePosition(end);
 
         List<Position> positions = new ArrayList<>();
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
+
+
+/**
+ * A record representing the rectangle, in pixels, of the circuit changed by a move: its segment and the markers
+ * of the car at its ends. A move only redraws its region, so the cost of drawing it depends only on its length.
+ *
+ * @param x The X-coordinate of the top left corner.
+ * @param y The Y-coordinate of the top left corner.
+ * @param width The width of the region.
+ * @param height The height of the region.
+ */
+public record DirtyRegion(double x, double y, double width, double height) {
+
+
+    /**
+     * The space around the segment of a move covered by its region, enough for the markers of the car and the width of the line.
+     */
+    public static final double PADDING = Renderer.CIRCLE_RADIUS + Renderer.LINE_WIDTH;
+
+
+    /**
+     * Constructs a new {@code DirtyRegion}.
+     *
+     * @param x The X-coordinate of the top left corner.
+     * @param y The Y-coordinate of the top left corner.
+     * @param width The width of the region.
+     * @param height The height of the region.
+     * @throws IllegalArgumentException if {@code width} or {@code height} is negative.
+     */
+    public DirtyRegion {
+        if(width < 0 || height < 0)
+            throw new IllegalArgumentException("width and height can't be negative");
+    }
+
+
+    /**
+     * Creates the region of the move between the given positions of the circuit.
+     *
+     * @param from The position the move starts from.
+     * @param to The position the move ends at.
+     * @return The region covering the segment of the move and the markers at its ends.
+     * @throws NullPointerException if any of the positions is {@code null}.
+     * @throws IllegalArgumentException if any of the positions is out of bounds for the circuit.
+     */
+    public static DirtyRegion ofMove(Position from, Position to) {
+        PositionUtils.validateCircuitNodePosition(from);
+        PositionUtils.validateCircuitNodePosition(to);
+
+        Position scaledFrom = PositionUtils.scalePositionToDraw(from);
+        Position scaledTo = PositionUtils.scalePositionToDraw(to);
+        double minX = Math.min(scaledFrom.getX(), scaledTo.getX()) - PADDING;
+        double minY = Math.min(scaledFrom.getY(), scaledTo.getY()) - PADDING;
+        double maxX = Math.max(scaledFrom.getX(), scaledTo.getX()) + PADDING;
+        double maxY = Math.max(scaledFrom.getY(), scaledTo.getY()) + PADDING;
+        return new DirtyRegion(minX, minY, maxX - minX, maxY - minY);
+    }
+
+
+    /**
+     * Checks if this region overlaps the given one.
+     *
+     * @param other The other region.
+     * @return {@code true} if the two regions have some area in common.
+     * @throws NullPointerException if {@code other} is {@code null}.
+     */
+    public boolean intersects(DirtyRegion other) {
+        if(other == null)
+            throw new NullPointerException("other is null");
+        return this.x < other.x + other.width && other.x < this.x + this.width
+                && this.y < other.y + other.height && other.y < this.y + this.height;
+    }
+
+
+    /**
+     * Creates the smallest region containing this region and the given one.
+     *
+     * @param other The other region.
+     * @return The region covering both regions.
+     * @throws NullPointerException if {@code other} is {@code null}.
+     */
+    public DirtyRegion union(DirtyRegion other) {
+        if(other == null)
+            throw new NullPointerException("other is null");
+
+        double minX = Math.min(this.x, other.x);
+        double minY = Math.min(this.y, other.y);
+        double maxX = Math.max(this.x + this.width, other.x + other.width);
+        double maxY = Math.max(this.y + this.height, other.y + other.height);
+        return new DirtyRegion(minX, minY, maxX - minX, maxY - minY);
+    }
+
+
+    /**
+     * Creates the region shared by this region and the given one.
+     *
+     * @param other The other region, which has to intersect this region.
+     * @return The region covered by both regions.
+     * @throws NullPointerException if {@code other} is {@code null}.
+     * @throws IllegalArgumentException if the regions don't overlap.
+     */
+    public DirtyRegion intersection(DirtyRegion other) {
+        if(other == null)
+            throw new NullPointerException("other is null");
+
+        double minX = Math.max(this.x, other.x);
+        double minY = Math.max(this.y, other.y);
+        double maxX = Math.min(this.x + this.width, other.x + other.width);
+        double maxY = Math.min(this.y + this.height, other.y + other.height);
+        return new DirtyRegion(minX, minY, maxX - minX, maxY - minY);
+    }
+}
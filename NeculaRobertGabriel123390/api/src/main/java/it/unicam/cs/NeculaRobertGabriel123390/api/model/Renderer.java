@@ -24,28 +24,41 @@
 package it.unicam.cs.NeculaRobertGabriel123390.api.model;
 
 
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetup;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
-import javafx.scene.layout.Pane;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Line;
-
 
 /**
  * The {@code Renderer} class is responsible for rendering and updating the visual representation
  * of the race circuit and players on a graphical user interface.
  *
  * <p>This class provides static methods to draw the circuit grid, circuit shape, and player positions
- * on the GUI. It can draw lines representing the circuit and circles representing players' positions.
+ * on the GUI. It can draw tiles of the grid, lines representing the circuit and circles representing players' positions.
  * The {@code render} and {@code update} methods delegate rendering and updating tasks to the appropriate
  * objects, ensuring separation of concerns and modularity in the rendering process.</p>
+ *
+ * <p>Everything is drawn on the {@link GraphicsContext} of a {@code Canvas}, so drawing doesn't add nodes
+ * to the scene graph: its size stays the same however long the race lasts.</p>
  */
 public final class Renderer {
 
 
+    /**
+     * The width of the lines of the circuit and of the moves.
+     */
+    public static final double LINE_WIDTH = 2;
+
+
+    /**
+     * The radius of the circles representing the positions of the players.
+     */
+    public static final double CIRCLE_RADIUS = 4;
+
+
     /**
      * Renders the graphical representation of some given {@link Renderable} object(s).
      *
@@ -74,19 +87,19 @@ public final class Renderer {
     /**
      * Validates the positions and color for drawing a line.
      *
-     * @param pane The Pane where the line will be drawn.
+     * @param graphics The GraphicsContext where the line will be drawn.
      * @param pos1 The starting position of the line.
      * @param pos2 The ending position of the line.
      * @param color The color of the line.
-     * @throws NullPointerException if {@code pane}, {@code pos1}, {@code pos2} or {@code color} is {@code null}.
+     * @throws NullPointerException if {@code graphics}, {@code pos1}, {@code pos2} or {@code color} is {@code null}.
      * @throws IllegalArgumentException if {@code pos1} or {@code pos2} have invalid coordinate values.
      */
-    private static void validateLineToDraw(Pane pane, Position pos1, Position pos2, Color color) {
+    private static void validateLineToDraw(GraphicsContext graphics, Position pos1, Position pos2, Color color) {
         PositionUtils.validateCircuitNodePosition(pos1);
         PositionUtils.validateCircuitNodePosition(pos2);
 
-        if(pane == null)
-            throw new NullPointerException("pane is null");
+        if(graphics == null)
+            throw new NullPointerException("graphics is null");
         if(color == null)
             throw new NullPointerException("color is null");
     }
@@ -95,19 +108,61 @@ public final class Renderer {
     /**
      * Validates the positions and color for drawing a circle, which represents the current position of a player.
      *
-     * @param pane The Pane where the circle will be drawn.
+     * @param graphics The GraphicsContext where the circle will be drawn.
      * @param centerPosition The center position for the circle
      * @param color The color of the circle.
-     * @throws NullPointerException if {@code pane}, {@code pos1}, {@code pos2} or {@code color} is {@code null}.
+     * @throws NullPointerException if {@code graphics}, {@code centerPosition} or {@code color} is {@code null}.
      * @throws IllegalArgumentException if {@code centerPosition} has invalid coordinate values.
      */
-    private static void validateCircleToDraw(Pane pane, Position centerPosition, Color color) {
+    private static void validateCircleToDraw(GraphicsContext graphics, Position centerPosition, Color color) {
         PositionUtils.validateCircuitNodePosition(centerPosition);
 
         if(color == null)
             throw new NullPointerException("color is null");
-        if(pane == null)
-            throw new NullPointerException("pane is null");
+        if(graphics == null)
+            throw new NullPointerException("graphics is null");
+    }
+
+
+    /**
+     * Restricts the following drawings on the given {@link GraphicsContext} to a region, until {@link GraphicsContext#restore()} is called.
+     *
+     * @param graphics The {@link GraphicsContext} to clip.
+     * @param region The region where the drawings are allowed.
+     * @throws NullPointerException if {@code graphics} or {@code region} is {@code null}.
+     */
+    public static void clip(GraphicsContext graphics, DirtyRegion region) {
+        if(graphics == null)
+            throw new NullPointerException("graphics is null");
+        if(region == null)
+            throw new NullPointerException("region is null");
+
+        graphics.save();
+        graphics.beginPath();
+        graphics.rect(region.x(), region.y(), region.width(), region.height());
+        graphics.clip();
+    }
+
+
+    /**
+     * Draws a tile of the grid of the circuit, a white square with a dark gray border whose top left corner is the given position.
+     *
+     * @param graphics The {@link GraphicsContext} where the tile will be drawn.
+     * @param tilePosition The position of the tile.
+     * @throws NullPointerException if {@code graphics} or {@code tilePosition} is {@code null}.
+     * @throws IllegalArgumentException if {@code tilePosition} is out of bounds for the circuit.
+     */
+    public static void drawTile(GraphicsContext graphics, Position tilePosition) {
+        PositionUtils.validateCircuitNodePosition(tilePosition);
+        if(graphics == null)
+            throw new NullPointerException("graphics is null");
+
+        Position scaledTilePosition = PositionUtils.scalePositionToDraw(tilePosition);
+        graphics.setFill(Color.WHITE);
+        graphics.fillRect(scaledTilePosition.getX(), scaledTilePosition.getY(), CircuitSetup.DIM_RECT, CircuitSetup.DIM_RECT);
+        graphics.setStroke(Color.DARKGRAY);
+        graphics.setLineWidth(1);
+        graphics.strokeRect(scaledTilePosition.getX(), scaledTilePosition.getY(), CircuitSetup.DIM_RECT, CircuitSetup.DIM_RECT);
     }
 
 
@@ -117,17 +172,17 @@ public final class Renderer {
      * This method draws lines between consecutive positions in the circuit line. It handles lines with a maximum of two nodes.
      * </p>
      *
-     * @param container The container where the line will be drawn
+     * @param graphics The {@link GraphicsContext} where the line will be drawn
      * @param line The line data to draw
      */
-    public static void drawLine(Pane container, CircuitLine line) {
+    public static void drawLine(GraphicsContext graphics, CircuitLine line) {
         if(line == null)
             throw new NullPointerException("line is null");
 
         for (int i = 0; i < line.getPositions().size() - 1; i++) {
             Position pos1 = line.getNode(i);
             Position pos2 = line.getNode(i + 1);
-            drawLine(container, pos1, pos2, line.getColor());
+            drawLine(graphics, pos1, pos2, line.getColor());
         }
 
     }
@@ -136,63 +191,52 @@ public final class Renderer {
     /**
      * Draws a line between two positions with the specified color.
      *
-     * @param container The {@link Pane} where the line will be added.
+     * @param graphics The {@link GraphicsContext} where the line will be drawn.
      * @param pos1 The starting position of the line.
      * @param pos2 The ending position of the line.
      * @param color The color of the line.
      */
-    public static void drawLine(Pane container, Position pos1, Position pos2, Color color) {
-        validateLineToDraw(container, pos1, pos2, color);
+    public static void drawLine(GraphicsContext graphics, Position pos1, Position pos2, Color color) {
+        validateLineToDraw(graphics, pos1, pos2, color);
 
-        Line drawLine = new Line();
         Position scaledPos1 = PositionUtils.scalePositionToDraw(pos1);
         Position scaledPos2 = PositionUtils.scalePositionToDraw(pos2);
 
-        drawLine.setStartX(scaledPos1.getX());
-        drawLine.setStartY(scaledPos1.getY());
-
-        drawLine.setEndX(scaledPos2.getX());
-        drawLine.setEndY(scaledPos2.getY());
-
-        drawLine.setStroke(color);
-        drawLine.setStrokeWidth(2);
-        container.getChildren().add(drawLine);
+        graphics.setStroke(color);
+        graphics.setLineWidth(LINE_WIDTH);
+        graphics.strokeLine(scaledPos1.getX(), scaledPos1.getY(), scaledPos2.getX(), scaledPos2.getY());
     }
 
 
     /**
      * Draws a circle representing the current position of a player on the circuit.
      *
-     * @param container   the {@link Pane} where the circle will be added.
+     * @param graphics   the {@link GraphicsContext} where the circle will be drawn.
      * @param player the {@link Player} whose position will be represented by the circle.
-     * @throws NullPointerException if {@code container} or {@code player} is {@code null}.
+     * @throws NullPointerException if {@code graphics} or {@code player} is {@code null}.
      */
-    public static void drawCircle(Pane container, Player player) {
+    public static void drawCircle(GraphicsContext graphics, Player player) {
         PlayerValidator.validate(player);
-        drawCircle(container, player.getPosition(), player.getColor());
+        drawCircle(graphics, player.getPosition(), player.getColor());
     }
 
 
     /**
      * Draws a circle representing the current position of a player on the circuit.
      *
-     * @param container   the {@link Pane} to which the circle will be added.
+     * @param graphics   the {@link GraphicsContext} where the circle will be drawn.
      * @param centerPosition the position whose position will be represented by the circle.
      * @param color The color of the circle.
-     * @throws NullPointerException if {@code container} or {@code player} is {@code null}.
+     * @throws NullPointerException if {@code graphics}, {@code centerPosition} or {@code color} is {@code null}.
      */
-    public static void drawCircle(Pane container, Position centerPosition, Color color) {
-        validateCircleToDraw(container, centerPosition, color);
+    public static void drawCircle(GraphicsContext graphics, Position centerPosition, Color color) {
+        validateCircleToDraw(graphics, centerPosition, color);
 
-        Circle playerPoint = new Circle();
         Position scaledToDrawPlayerPosition = PositionUtils.scalePositionToDraw(centerPosition);
 
-        playerPoint.setCenterX(scaledToDrawPlayerPosition.getX());
-        playerPoint.setCenterY(scaledToDrawPlayerPosition.getY());
-
-        playerPoint.setRadius(4);
-        playerPoint.setFill(color);
-        container.getChildren().add(playerPoint);
+        graphics.setFill(color);
+        graphics.fillOval(scaledToDrawPlayerPosition.getX() - CIRCLE_RADIUS, scaledToDrawPlayerPosition.getY() - CIRCLE_RADIUS,
+                2 * CIRCLE_RADIUS, 2 * CIRCLE_RADIUS);
     }
 
 }
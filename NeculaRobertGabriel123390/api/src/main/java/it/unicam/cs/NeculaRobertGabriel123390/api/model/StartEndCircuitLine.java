@@ -23,8 +23,13 @@
 
 package it.unicam.cs.NeculaRobertGabriel123390.api.model;
 
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
 
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
 
 /**
  * Represents a line segment in a circuit for start and end lines.
@@ -37,6 +42,9 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
  * <p>Use this class to define circuit lines that have specific start and end positions, ensuring
  * that each added node maintains proper adjacency within the circuit.</p>
  *
+ * <p>The line keeps track of the axes shared by all its nodes and of the positions it holds in a bit set,
+ * so adding a node takes constant time and a line of n nodes is built in linear time.</p>
+ *
  * <p>Example usage:</p>
  * <pre>
  *     StartEndCircuitLine line = new StartEndCircuitLine();
@@ -51,6 +59,30 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
 public final class StartEndCircuitLine extends CircuitLine{
 
 
+    /**
+     * The number of bits of the bit set used for each row of positions.
+     */
+    private static final int ROW_SIZE = TXTCircuitSetup.MAX_NODES_X + 1;
+
+
+    /**
+     * The positions of the nodes of the line, the node (x, y) is at index {@code y * ROW_SIZE + x}.
+     */
+    private final BitSet nodes = new BitSet();
+
+
+    /**
+     * Whether all the nodes of the line have the X-coordinate of the first node.
+     */
+    private boolean isXShared = true;
+
+
+    /**
+     * Whether all the nodes of the line have the Y-coordinate of the first node.
+     */
+    private boolean isYShared = true;
+
+
     /**
      * Constructs a {@code StartEndCircuitLine} instance with an empty list of nodes and no color.
      */
@@ -67,22 +99,44 @@ public final class StartEndCircuitLine extends CircuitLine{
      *   <li>Ensures the node is not {@code null}.</li>
      *   <li>If the line is empty, the node is added as the start node.</li>
      *   <li>If the line is not empty, the method validates the node's position and checks that it is
-     *       adjacent to the last node.</li>
+     *       on the same row or column as the other nodes.</li>
      * </ul>
+     * A node that fails any of the checks is not added.
      * @param node The node to add to the line. Must not be {@code null}.
      * @throws NullPointerException if the node is {@code null}.
-     * @throws IllegalArgumentException if the node is not adjacent to the last node in the line or the node already exists in the line.
+     * @throws IllegalArgumentException if the node is out of bounds, is not adjacent to the other nodes in the line
+     *                                  or the node already exists in the line.
      */
     @Override
     public void addNode(Position node) {
         if(node == null) throw new NullPointerException("node is null");
 
-        if(this.nodesOfLine.contains(node))
+        PositionUtils.validateCircuitNodePosition(node);
+        int index = node.getY() * ROW_SIZE + node.getX();
+        if(this.nodes.get(index))
             throw new IllegalArgumentException("Position " + node + " already exists");
 
+        if(!isEmpty()) {
+            Position first = this.nodesOfLine.getFirst();
+            boolean isXShared = this.isXShared && node.getX() == first.getX();
+            boolean isYShared = this.isYShared && node.getY() == first.getY();
+            if(!isXShared && !isYShared)
+                throw new IllegalArgumentException("nodes in the line are not adjacent");
+            this.isXShared = isXShared;
+            this.isYShared = isYShared;
+        }
 
         this.nodesOfLine.add(node);
-        PositionUtils.validateCircuitNodePosition(node);
-        PositionUtils.checkNodesAdjacency(getPositions());
+        this.nodes.set(index);
     }
+
+
+    /**
+     * Returns the list of positions (nodes) that define this line.
+     * The list can't be modified, since the nodes are only added through {@link #addNode(Position)}.
+     *
+     * @return An unmodifiable list of the positions that form the line.
+     */
+    @Override
+    public List<Position> getPositions() {return Collections.unmodifiableList(this.nodesOfLine);}
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.manager.RaceManager;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+
+/**
+ * Immutable snapshot of everything a {@link BotStrategy} needs to choose a move.
+ * <p>
+ * The snapshot does not share any mutable object with the race, so a strategy can use it
+ * outside the JavaFX application thread while the race goes on.
+ * </p>
+ *
+ * @param grid The layout of the circuit.
+ * @param position The current position of the bot.
+ * @param velocity The current velocity of the bot, i.e. the central move of its {@code PlayerMoves}.
+ * @param occupiedPositions The positions of the other players.
+ */
+public record BotContext(CircuitGrid grid, Position position, Position velocity, Set<Position> occupiedPositions) {
+
+
+    /**
+     * Constructs a new {@code BotContext}, copying the given positions.
+     *
+     * @param grid The layout of the circuit.
+     * @param position The current position of the bot.
+     * @param velocity The current velocity of the bot.
+     * @param occupiedPositions The positions of the other players.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public BotContext {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+        if(occupiedPositions == null)
+            throw new NullPointerException("occupiedPositions is null");
+        PositionUtils.validatePosition(position);
+        PositionUtils.validatePosition(velocity);
+
+        position = new Position(position.getX(), position.getY());
+        velocity = new Position(velocity.getX(), velocity.getY());
+        Set<Position> occupied = new HashSet<>();
+        for(Position occupiedPosition : occupiedPositions)
+            occupied.add(new Position(occupiedPosition.getX(), occupiedPosition.getY()));
+        occupiedPositions = Set.copyOf(occupied);
+    }
+
+
+    /**
+     * Creates the context of the player whose turn it is in the given race.
+     * Must be called from the thread driving the race.
+     *
+     * @param raceManager The manager of the race.
+     * @return The context of the current player.
+     * @throws NullPointerException if {@code raceManager} is {@code null}.
+     */
+    public static BotContext of(RaceManager raceManager) {
+        if(raceManager == null)
+            throw new NullPointerException("raceManager is null");
+
+        Player currentPlayer = raceManager.getCurrentPlayer();
+        Set<Position> occupiedPositions = new HashSet<>();
+        for(Player player : raceManager.getPlayersManager().getPlayers())
+            if(player != currentPlayer)
+                occupiedPositions.add(player.getPosition());
+
+        return new BotContext(raceManager.getCircuitManager().getGrid(), currentPlayer.getPosition(),
+                raceManager.getCurrentPlayerMoves().getMoves()[1][1], occupiedPositions);
+    }
+
+
+    /**
+     * Returns the move obtained by applying the given action to the current velocity.
+     *
+     * @param action The action, in {@code [0, 9)}, laid out as in {@code PlayerMoves}.
+     * @return The move, expressed as in {@code PlayerMoves}.
+     */
+    public Position moveOf(int action) {
+        return new Position(this.velocity.getX() + StateSpace.accelerationX(action),
+                this.velocity.getY() + StateSpace.accelerationY(action));
+    }
+
+
+    /**
+     * Returns the outcome of the nine moves of the bot, as defined in {@link LegalMoveMasks}.
+     *
+     * @return The mask of the current state of the bot.
+     */
+    public int getMoveMask() {
+        return LegalMoveMasks.of(this.grid).getMask(this.position.getX(), this.position.getY(), this.velocity.getX(), this.velocity.getY());
+    }
+
+
+    /**
+     * Returns the move to make when the bot has no move to suggest or misses its deadline:
+     * the current velocity if it doesn't crash, otherwise the first crash-free move, if any.
+     *
+     * @return The fallback move, expressed as in {@code PlayerMoves}.
+     */
+    public Position getFallbackMove() {
+        int crashFreeActions = LegalMoveMasks.crashFreeActions(getMoveMask());
+        if(crashFreeActions == 0 || LegalMoveMasks.isCrashFree(crashFreeActions, StateSpace.KEEP_VELOCITY_ACTION))
+            return this.velocity;
+        return moveOf(Integer.numberOfTrailingZeros(crashFreeActions));
+    }
+
+
+    /**
+     * Checks if the given coordinates are occupied by another player.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return {@code true} if another player is at the given coordinates.
+     */
+    public boolean isOccupied(int x, int y) {
+        return this.occupiedPositions.contains(new Position(x, y));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Table holding the best action of a bot for every state of a {@link StateSpace}.
+ * <p>
+ * Actions are packed two per byte: the state {@code s} is stored in the low nibble of byte {@code s / 2}
+ * when {@code s} is even, in the high nibble otherwise. The nibble {@link #NO_ACTION} marks the states
+ * from which the end line cannot be reached without crashing.
+ * </p>
+ * <p>
+ * The table is backed by a {@link ByteBuffer}, which may be a memory-mapped file: the policy is read-only
+ * and can be shared between threads and races.
+ * </p>
+ */
+public final class BotPolicy {
+
+
+    /**
+     * Nibble stored for the states that have no winning action.
+     */
+    public static final int NO_ACTION = 0xF;
+
+
+    private final StateSpace stateSpace;
+
+
+    private final ByteBuffer actions;
+
+
+    /**
+     * Constructs a {@code BotPolicy} over the given state space and action table.
+     *
+     * @param stateSpace The state space of the policy.
+     * @param actions The packed action table, read from index 0. The buffer is not copied.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if the table is too small for the state space.
+     */
+    BotPolicy(StateSpace stateSpace, ByteBuffer actions) {
+        if(stateSpace == null)
+            throw new NullPointerException("stateSpace is null");
+        if(actions == null)
+            throw new NullPointerException("actions is null");
+        if(actions.capacity() < tableSize(stateSpace))
+            throw new IllegalArgumentException("The action table is too small for the state space");
+
+        this.stateSpace = stateSpace;
+        this.actions = actions;
+    }
+
+
+    /**
+     * Returns the number of bytes needed to store the actions of the given state space.
+     *
+     * @param stateSpace The state space.
+     * @return The size of the packed action table.
+     */
+    static int tableSize(StateSpace stateSpace) {
+        return (stateSpace.getStateCount() + 1) / 2;
+    }
+
+
+    /**
+     * Returns the best action of the given state.
+     *
+     * @param state The index of the state.
+     * @return The action, in {@code [0, 9)}, or {@link #NO_ACTION}.
+     */
+    int getAction(int state) {
+        int packed = this.actions.get(state >>> 1);
+        return (state & 1) == 0 ? packed & 0xF : (packed >>> 4) & 0xF;
+    }
+
+
+    /**
+     * Returns the move a bot should make to reach the end line in the least number of turns.
+     *
+     * @param position The current position of the bot.
+     * @param velocity The current velocity of the bot, i.e. the central move of its {@code PlayerMoves}.
+     * @return The move to make, expressed as in {@code PlayerMoves}, or {@code null} if the policy
+     *         does not know any winning move for the given state.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public Position getMove(Position position, Position velocity) {
+        PositionUtils.validatePosition(position);
+        PositionUtils.validatePosition(velocity);
+
+        int state = this.stateSpace.indexOf(position.getX(), position.getY(), velocity.getX(), velocity.getY());
+        if(state < 0)
+            return null;
+
+        int action = getAction(state);
+        if(action == NO_ACTION)
+            return null;
+
+        return new Position(velocity.getX() + StateSpace.accelerationX(action),
+                velocity.getY() + StateSpace.accelerationY(action));
+    }
+
+
+    /**
+     * Returns the state space of the policy.
+     *
+     * @return The state space of the policy.
+     */
+    public StateSpace getStateSpace() {return this.stateSpace;}
+
+
+    /**
+     * Returns a read-only view of the packed action table.
+     *
+     * @return The packed action table, positioned at index 0.
+     */
+    ByteBuffer getActions() {return this.actions.asReadOnlyBuffer().clear();}
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Cache of the {@link BotPolicy} computed for each circuit.
+ * <p>
+ * Policies depend only on the layout of the circuit and on the speed limit, so they are stored in a
+ * directory under a name made of the content hash of the {@link CircuitGrid}, the speed limit and the
+ * version of the file format. A policy file is made of a fixed header followed by the packed action table:
+ * </p>
+ * <pre>
+ *     int magic, int version, int maxSpeed, int width, int height, int stateCount, byte[] actions
+ * </pre>
+ * <p>
+ * Files are memory-mapped when loaded, so a known circuit gets its policy without running the solver
+ * and without copying the table on the heap. Loaded policies are also kept in memory for the lifetime of the cache.
+ * </p>
+ * <p>
+ * Running the solver takes long on large circuits, so it is meant to be done while the race is set up, with
+ * {@link #getOrCompute(CircuitGrid, int)}; the decisions of the bots only use {@link #getIfAvailable(CircuitGrid, int)}.
+ * </p>
+ */
+public final class BotPolicyCache {
+
+
+    /**
+     * Speed limit used when none is given.
+     */
+    public static final int DEFAULT_MAX_SPEED = 8;
+
+
+    /**
+     * Directory used by {@link #getDefault()}.
+     */
+    public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".vektorrace", "policies");
+
+
+    /**
+     * Extension of the policy files.
+     */
+    public static final String EXTENSION = "vrp";
+
+
+    private static final int MAGIC = 0x56525050;
+
+
+    /**
+     * Version of the policy files, raised whenever the rules used to solve the policies change,
+     * so that the policies solved with the old rules are solved again.
+     */
+    private static final int VERSION = 2;
+
+
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+
+    private static volatile BotPolicyCache defaultCache;
+
+
+    private final Path directory;
+
+
+    private final Map<String, BotPolicy> loadedPolicies = new ConcurrentHashMap<>();
+
+
+    /**
+     * Constructs a {@code BotPolicyCache} storing its files in the given directory.
+     * The directory is created when the first policy is stored.
+     *
+     * @param directory The directory of the policy files.
+     * @throws NullPointerException if {@code directory} is {@code null}.
+     */
+    public BotPolicyCache(Path directory) {
+        if(directory == null)
+            throw new NullPointerException("directory is null");
+        this.directory = directory;
+    }
+
+
+    /**
+     * Returns the cache stored in the {@link #DEFAULT_DIRECTORY}.
+     *
+     * @return The default cache.
+     */
+    public static BotPolicyCache getDefault() {
+        BotPolicyCache cache = defaultCache;
+        if(cache == null) {
+            synchronized (BotPolicyCache.class) {
+                if(defaultCache == null)
+                    defaultCache = new BotPolicyCache(DEFAULT_DIRECTORY);
+                cache = defaultCache;
+            }
+        }
+        return cache;
+    }
+
+
+    /**
+     * Returns the policy of the given grid with the {@link #DEFAULT_MAX_SPEED}.
+     *
+     * @param grid The grid the bot races on.
+     * @return The optimal policy of the grid.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     * @see #getOrCompute(CircuitGrid, int)
+     */
+    public BotPolicy getOrCompute(CircuitGrid grid) {
+        return getOrCompute(grid, DEFAULT_MAX_SPEED);
+    }
+
+
+    /**
+     * Returns the policy of the given grid and speed limit.
+     * <p>
+     * The policy is looked up as in {@link #getIfAvailable(CircuitGrid, int)}; if it is not found,
+     * it is computed by the {@link BotPolicySolver} and stored in the directory. A policy file that cannot be
+     * read or does not match the grid is replaced, and a failure while storing does not prevent the computed
+     * policy from being returned.
+     * </p>
+     * <p>
+     * The solver runs on the calling thread without holding any lock, so other threads looking up policies are never
+     * blocked by it. Threads computing the same policy at the same time get the same instance.
+     * </p>
+     *
+     * @param grid The grid the bot races on.
+     * @param maxSpeed The maximum absolute value of each velocity component.
+     * @return The optimal policy of the grid.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     * @throws IllegalArgumentException if {@code maxSpeed} is not positive or the state space is too large.
+     * @throws java.util.concurrent.CancellationException if the calling thread is interrupted while running the solver.
+     */
+    public BotPolicy getOrCompute(CircuitGrid grid, int maxSpeed) {
+        BotPolicy policy = getIfAvailable(grid, maxSpeed);
+        if(policy != null)
+            return policy;
+
+        String fileName = fileName(grid, maxSpeed);
+        policy = BotPolicySolver.solve(grid, maxSpeed);
+        store(this.directory.resolve(fileName), policy);
+
+        BotPolicy previous = this.loadedPolicies.putIfAbsent(fileName, policy);
+        return previous != null ? previous : policy;
+    }
+
+
+    /**
+     * Returns the policy of the given grid and speed limit if it is available without running the solver.
+     * The policy is looked up in memory first, then mapped from the cache directory.
+     *
+     * @param grid The grid the bot races on.
+     * @param maxSpeed The maximum absolute value of each velocity component.
+     * @return The optimal policy of the grid, or {@code null} if it has not been computed yet.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     * @throws IllegalArgumentException if {@code maxSpeed} is not positive or the state space is too large.
+     */
+    public BotPolicy getIfAvailable(CircuitGrid grid, int maxSpeed) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+
+        String fileName = fileName(grid, maxSpeed);
+        BotPolicy policy = this.loadedPolicies.get(fileName);
+        if(policy != null)
+            return policy;
+
+        policy = load(this.directory.resolve(fileName), new StateSpace(grid, maxSpeed));
+        if(policy == null)
+            return null;
+        BotPolicy previous = this.loadedPolicies.putIfAbsent(fileName, policy);
+        return previous != null ? previous : policy;
+    }
+
+
+    /**
+     * Checks if the policy of the given grid and speed limit is available without running the solver.
+     *
+     * @param grid The grid the bot races on.
+     * @param maxSpeed The maximum absolute value of each velocity component.
+     * @return {@code true} if the policy is in memory or in the cache directory.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     */
+    public boolean contains(CircuitGrid grid, int maxSpeed) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+
+        String fileName = fileName(grid, maxSpeed);
+        return this.loadedPolicies.containsKey(fileName) || Files.isRegularFile(this.directory.resolve(fileName));
+    }
+
+
+    /**
+     * Returns the name of the file storing the policy of the given grid and speed limit.
+     */
+    private static String fileName(CircuitGrid grid, int maxSpeed) {
+        return grid.getContentHash() + "-s" + maxSpeed + "-v" + VERSION + "." + EXTENSION;
+    }
+
+
+    /**
+     * Maps the given policy file.
+     *
+     * @return The policy stored in the file, or {@code null} if the file is missing, unreadable
+     *         or does not match the state space.
+     */
+    private BotPolicy load(Path file, StateSpace stateSpace) {
+        if(!Files.isRegularFile(file))
+            return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long tableSize = BotPolicy.tableSize(stateSpace);
+            if(channel.size() != HEADER_SIZE + tableSize)
+                return null;
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(!isHeaderValid(mapped, stateSpace))
+                return null;
+
+            return new BotPolicy(stateSpace, mapped.slice(HEADER_SIZE, (int) tableSize));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+
+    private static boolean isHeaderValid(ByteBuffer header, StateSpace stateSpace) {
+        return header.getInt(0) == MAGIC
+                && header.getInt(4) == VERSION
+                && header.getInt(8) == stateSpace.getMaxSpeed()
+                && header.getInt(12) == stateSpace.getGrid().getWidth()
+                && header.getInt(16) == stateSpace.getGrid().getHeight()
+                && header.getInt(20) == stateSpace.getStateCount();
+    }
+
+
+    /**
+     * Writes the given policy to a temporary file and moves it in place, so that readers
+     * never see a partially written policy.
+     */
+    private void store(Path file, BotPolicy policy) {
+        StateSpace stateSpace = policy.getStateSpace();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(stateSpace.getMaxSpeed())
+                .putInt(stateSpace.getGrid().getWidth())
+                .putInt(stateSpace.getGrid().getHeight())
+                .putInt(stateSpace.getStateCount())
+                .flip();
+
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(this.directory);
+            temporaryFile = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                ByteBuffer[] content = {header, policy.getActions()};
+                while (content[1].hasRemaining())
+                    channel.write(content);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+
+    private static void deleteQuietly(Path file) {
+        if(file == null)
+            return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Nothing else can be done, the file will be overwritten by the next store.
+        }
+    }
+
+
+    /**
+     * Returns the directory of the policy files.
+     *
+     * @return The directory of the cache.
+     */
+    public Path getDirectory() {return this.directory;}
+}
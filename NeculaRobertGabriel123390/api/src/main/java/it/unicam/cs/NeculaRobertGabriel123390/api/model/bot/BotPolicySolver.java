@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.SegmentOutcome;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+
+/**
+ * Computes the {@link BotPolicy} that reaches the end line in the least number of turns.
+ * <p>
+ * The solver runs a breadth-first search backward from the end line over the {@link StateSpace}:
+ * the first layer contains the states having a move that crosses the end line, every following layer
+ * contains the states having a crash-free move into the previous one. Moves that crash are never chosen,
+ * and collisions with other players are ignored since they depend on the state of the race.
+ * </p>
+ * <p>
+ * The predecessors of a state {@code (p', v')} all lie on {@code p = p' - v'} and reach {@code p'} along
+ * the same segment, so a single segment check covers the nine candidate actions.
+ * </p>
+ * <p>
+ * Solving a large circuit takes long, so the solver checks the interrupted status of the current thread every
+ * {@link #INTERRUPT_CHECK_STATES} states and gives up as soon as it is set.
+ * </p>
+ */
+public final class BotPolicySolver {
+
+
+    /**
+     * The number of states visited between two checks of the interrupted status of the current thread.
+     */
+    static final int INTERRUPT_CHECK_STATES = 1024;
+
+
+    /**
+     * Don't allow user to instantiate a BotPolicySolver object because that's not how this class is meant to work.
+     */
+    private BotPolicySolver() {}
+
+
+    /**
+     * Computes the optimal policy for the given grid and speed limit.
+     *
+     * @param grid The grid the bot races on.
+     * @param maxSpeed The maximum absolute value of each velocity component.
+     * @return The optimal policy.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     * @throws IllegalArgumentException if {@code maxSpeed} is not positive or the state space is too large.
+     * @throws CancellationException if the current thread is interrupted, whose interrupted status is kept.
+     */
+    public static BotPolicy solve(CircuitGrid grid, int maxSpeed) {
+        StateSpace stateSpace = new StateSpace(grid, maxSpeed);
+        byte[] actions = new byte[BotPolicy.tableSize(stateSpace)];
+        Arrays.fill(actions, (byte) 0xFF);
+
+        int[] queue = new int[stateSpace.getStateCount()];
+        int tail = seedWinningStates(stateSpace, actions, queue);
+
+        for (int head = 0; head < tail; head++) {
+            checkInterrupted(head);
+            tail = expandPredecessors(stateSpace, actions, queue, queue[head], tail);
+        }
+
+        return new BotPolicy(stateSpace, ByteBuffer.wrap(actions));
+    }
+
+
+    /**
+     * Finds the states having a move that crosses the end line and enqueues them.
+     *
+     * @return The number of enqueued states.
+     */
+    private static int seedWinningStates(StateSpace stateSpace, byte[] actions, int[] queue) {
+        CircuitGrid grid = stateSpace.getGrid();
+        int tail = 0;
+
+        for (int state = 0; state < stateSpace.getStateCount(); state++) {
+            checkInterrupted(state);
+            int trackIndex = stateSpace.trackIndexOf(state);
+            int x = grid.getTrackCellX(trackIndex);
+            int y = grid.getTrackCellY(trackIndex);
+            if(grid.isEnd(x, y))
+                continue;
+
+            for (int action = 0; action < StateSpace.ACTIONS; action++) {
+                int vx = stateSpace.velocityXOf(state) + StateSpace.accelerationX(action);
+                int vy = stateSpace.velocityYOf(state) + StateSpace.accelerationY(action);
+                if(!stateSpace.isSpeedAllowed(vx) || !stateSpace.isSpeedAllowed(vy))
+                    continue;
+
+                if(grid.traceSegment(x, y, x + vx, y + vy) == SegmentOutcome.WIN) {
+                    setAction(actions, state, action);
+                    queue[tail++] = state;
+                    break;
+                }
+            }
+        }
+        return tail;
+    }
+
+
+    /**
+     * Enqueues the unsolved states that reach the given state with a crash-free move.
+     *
+     * @return The new tail of the queue.
+     */
+    private static int expandPredecessors(StateSpace stateSpace, byte[] actions, int[] queue, int state, int tail) {
+        CircuitGrid grid = stateSpace.getGrid();
+        int trackIndex = stateSpace.trackIndexOf(state);
+        int vx = stateSpace.velocityXOf(state);
+        int vy = stateSpace.velocityYOf(state);
+        int x = grid.getTrackCellX(trackIndex);
+        int y = grid.getTrackCellY(trackIndex);
+
+        int prevTrackIndex = grid.getTrackIndex(x - vx, y - vy);
+        if(prevTrackIndex < 0 || grid.traceSegment(x - vx, y - vy, x, y) != SegmentOutcome.CLEAR)
+            return tail;
+
+        for (int action = 0; action < StateSpace.ACTIONS; action++) {
+            int prevVx = vx - StateSpace.accelerationX(action);
+            int prevVy = vy - StateSpace.accelerationY(action);
+            if(!stateSpace.isSpeedAllowed(prevVx) || !stateSpace.isSpeedAllowed(prevVy))
+                continue;
+
+            int prevState = stateSpace.indexOf(prevTrackIndex, prevVx, prevVy);
+            if(getAction(actions, prevState) == BotPolicy.NO_ACTION) {
+                setAction(actions, prevState, action);
+                queue[tail++] = prevState;
+            }
+        }
+        return tail;
+    }
+
+
+    /**
+     * Gives up the computation if the current thread has been interrupted, checking it once every
+     * {@link #INTERRUPT_CHECK_STATES} visited states.
+     *
+     * @throws CancellationException if the current thread is interrupted.
+     */
+    private static void checkInterrupted(int visitedStates) {
+        if(visitedStates % INTERRUPT_CHECK_STATES == 0 && Thread.currentThread().isInterrupted())
+            throw new CancellationException("The computation of the policy has been interrupted");
+    }
+
+
+    private static int getAction(byte[] actions, int state) {
+        int packed = actions[state >>> 1];
+        return (state & 1) == 0 ? packed & 0xF : (packed >>> 4) & 0xF;
+    }
+
+
+    private static void setAction(byte[] actions, int state, int action) {
+        int index = state >>> 1;
+        if((state & 1) == 0)
+            actions[index] = (byte) ((actions[index] & 0xF0) | action);
+        else
+            actions[index] = (byte) ((actions[index] & 0x0F) | (action << 4));
+    }
+}
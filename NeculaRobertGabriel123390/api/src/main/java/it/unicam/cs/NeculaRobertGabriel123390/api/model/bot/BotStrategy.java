@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+
+
+/**
+ * Defines how a bot chooses its move.
+ * <p>
+ * Implementations are invoked outside the JavaFX application thread and may be shared between bots
+ * and races, so they must not keep any state depending on a single race, unless they document that each instance
+ * belongs to a single bot, like a {@link RandomBotStrategy} built with its own generator. Long computations should
+ * check the interrupted status of the current thread, since a decision missing its deadline is interrupted.
+ * </p>
+ */
+public interface BotStrategy {
+
+
+    /**
+     * Chooses the move of a bot.
+     *
+     * @param context The snapshot of the race from the point of view of the bot.
+     * @return The move, expressed as in {@code PlayerMoves}, or {@code null} to let the caller use its fallback move.
+     * @throws NullPointerException if {@code context} is {@code null}.
+     */
+    Position chooseMove(BotContext context);
+
+
+    /**
+     * Prepares the strategy for a race on the given grid, before the first decision.
+     * <p>
+     * It is invoked while the race is set up, outside the JavaFX application thread and without any deadline,
+     * so strategies can compute there the tables their decisions rely on. Strategies that don't need it do nothing.
+     * </p>
+     *
+     * @param grid The grid of the circuit of the race.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     */
+    default void prepare(CircuitGrid grid) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+    }
+
+
+    /**
+     * Returns the level of the strategy, as defined in {@link it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants}.
+     *
+     * @return The level of the strategy.
+     */
+    String getLevel();
+}
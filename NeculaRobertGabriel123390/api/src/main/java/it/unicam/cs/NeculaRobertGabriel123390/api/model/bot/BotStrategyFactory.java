@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * Factory class that provides the {@link BotStrategy} of each bot level.
+ * <p>
+ * This class uses a static map to associate each level defined in {@link BotStrategyConstants}
+ * with the constructor of its strategy, so that every request gets a new strategy.
+ * </p>
+ */
+public final class BotStrategyFactory {
+
+
+    private static final Map<String, Supplier<BotStrategy>> STRATEGIES = new LinkedHashMap<>();
+
+
+    static {
+        STRATEGIES.put(BotStrategyConstants.RANDOM, RandomBotStrategy::new);
+        STRATEGIES.put(BotStrategyConstants.GREEDY, GreedyBotStrategy::new);
+        STRATEGIES.put(BotStrategyConstants.LOOKAHEAD, LookaheadBotStrategy::new);
+        STRATEGIES.put(BotStrategyConstants.OPTIMAL, OptimalBotStrategy::new);
+    }
+
+
+    /**
+     * Don't allow user to instantiate a BotStrategyFactory object because that's not how this class is meant to work.
+     */
+    private BotStrategyFactory() {}
+
+
+    /**
+     * Retrieves a new strategy of the given level.
+     *
+     * @param level The level of the bot, as defined in {@link BotStrategyConstants}.
+     * @return A new {@link BotStrategy} of the given level.
+     * @throws IllegalArgumentException If the given level does not correspond to a known strategy.
+     */
+    public static BotStrategy getStrategy(String level) {
+        Supplier<BotStrategy> strategy = STRATEGIES.get(level);
+        if(strategy == null)
+            throw new IllegalArgumentException("Unexpected value for bot level: " + level);
+
+        return strategy.get();
+    }
+
+
+    /**
+     * Checks if the given level corresponds to a known strategy.
+     *
+     * @param level The level to check.
+     * @return {@code true} if the level is known, {@code false} otherwise.
+     */
+    public static boolean isLevel(String level) {return STRATEGIES.containsKey(level);}
+
+
+    /**
+     * Retrieves the known levels, from the weakest to the strongest.
+     *
+     * @return The list of the known levels.
+     */
+    public static List<String> getLevels() {return new ArrayList<>(STRATEGIES.keySet());}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+/**
+ * A record representing how fast the race scene plays the turns of the bots: either a fixed number of turns
+ * for every frame, or a number of turns per second of real time, independent of the frame rate.
+ *
+ * @param turnsPerFrame The turns played in every frame, or {@code 0} if the pace is given in real time.
+ * @param turnsPerSecond The turns played in a second, or {@code 0} if the pace is given per frame.
+ */
+public record BotTurnPace(int turnsPerFrame, double turnsPerSecond) {
+
+
+    /**
+     * The default pace of the bots, one turn per frame.
+     */
+    public static final BotTurnPace DEFAULT = perFrame(1);
+
+
+    /**
+     * Constructs a new {@code BotTurnPace}.
+     *
+     * @param turnsPerFrame The turns played in every frame, or {@code 0} if the pace is given in real time.
+     * @param turnsPerSecond The turns played in a second, or {@code 0} if the pace is given per frame.
+     * @throws IllegalArgumentException if any of the values is negative, or not exactly one of them is positive.
+     */
+    public BotTurnPace {
+        if(turnsPerFrame < 0 || !(turnsPerSecond >= 0) || Double.isInfinite(turnsPerSecond))
+            throw new IllegalArgumentException("The pace of the bots can't be negative");
+        if((turnsPerFrame > 0) == (turnsPerSecond > 0))
+            throw new IllegalArgumentException("The pace of the bots needs either turns per frame or turns per second");
+    }
+
+
+    /**
+     * Creates a pace playing the given number of turns in every frame.
+     *
+     * @param turns The turns played in every frame.
+     * @return The new pace.
+     * @throws IllegalArgumentException if {@code turns} is not positive.
+     */
+    public static BotTurnPace perFrame(int turns) {return new BotTurnPace(turns, 0);}
+
+
+    /**
+     * Creates a pace playing the given number of turns in a second, whatever the frame rate.
+     *
+     * @param turns The turns played in a second.
+     * @return The new pace.
+     * @throws IllegalArgumentException if {@code turns} is not positive.
+     */
+    public static BotTurnPace perSecond(double turns) {return new BotTurnPace(0, turns);}
+
+
+    /**
+     * Checks if the pace is given in real time.
+     *
+     * @return {@code true} if the pace is a number of turns per second.
+     */
+    public boolean isRealTime() {return this.turnsPerSecond > 0;}
+}
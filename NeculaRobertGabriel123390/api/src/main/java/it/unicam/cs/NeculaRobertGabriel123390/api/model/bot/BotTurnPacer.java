@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Decides how many turns of the bots are played in each frame of the race scene.
+ * <p>
+ * At the beginning of every frame the pacer grants the turns allowed by its {@link BotTurnPace}, and while they are
+ * played it checks the time left in the frame budget on its clock. The first turn of a frame is always allowed, so
+ * the race never stops; the others only while the budget lasts. Turns that are not played in their frame, because
+ * the budget has run out or the decision of a bot isn't ready yet, are dropped rather than owed to the next frames:
+ * under load the race slows down instead of freezing to catch up.
+ * </p>
+ * <p>
+ * The clock is given to the pacer, so that the pacing can be driven by a fake clock.
+ * </p>
+ */
+public final class BotTurnPacer {
+
+
+    /**
+     * Default time of a frame spent playing turns, leaving the rest of a 60 Hz frame to the rendering.
+     */
+    public static final Duration DEFAULT_FRAME_BUDGET = Duration.ofMillis(10);
+
+
+    private static final long NO_FRAME = -1;
+
+
+    private final BotTurnPace pace;
+
+
+    private final long frameBudgetNanos;
+
+
+    private final LongSupplier clock;
+
+
+    /**
+     * The turns earned and not yet granted by a real time pace.
+     */
+    private double turnCredit = 1;
+
+
+    private long lastFrame = NO_FRAME;
+
+
+    private int frameTurns;
+
+
+    private int playedTurns;
+
+
+    private long budgetEnd;
+
+
+    /**
+     * Constructs a {@code BotTurnPacer}.
+     *
+     * @param pace The pace of the turns.
+     * @param frameBudget The time of a frame spent playing turns.
+     * @param clock The clock measuring the frame budget, in nanoseconds, e.g. {@code System::nanoTime}.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if {@code frameBudget} is zero or negative.
+     */
+    public BotTurnPacer(BotTurnPace pace, Duration frameBudget, LongSupplier clock) {
+        if(pace == null)
+            throw new NullPointerException("pace is null");
+        if(frameBudget == null)
+            throw new NullPointerException("frameBudget is null");
+        if(frameBudget.isNegative() || frameBudget.isZero())
+            throw new IllegalArgumentException("frameBudget needs to be positive");
+        if(clock == null)
+            throw new NullPointerException("clock is null");
+
+        this.pace = pace;
+        this.frameBudgetNanos = frameBudget.toNanos();
+        this.clock = clock;
+    }
+
+
+    /**
+     * Starts the pacing again, e.g. when the bots start playing after a human player.
+     * A real time pace grants the first turn of the next frame right away.
+     */
+    public void restart() {
+        this.turnCredit = 1;
+        this.lastFrame = NO_FRAME;
+    }
+
+
+    /**
+     * Begins a frame, granting its turns and starting its budget on the clock.
+     * The turns of the previous frame that weren't played are dropped.
+     *
+     * @param now The time of the frame, in nanoseconds, as given by the animation timer.
+     * @return The number of turns granted to the frame.
+     */
+    public int beginFrame(long now) {
+        this.budgetEnd = this.clock.getAsLong() + this.frameBudgetNanos;
+        this.playedTurns = 0;
+        this.frameTurns = turnsOfFrame(now);
+        return this.frameTurns;
+    }
+
+
+    /**
+     * Returns the number of turns to play in the frame, taking the turns earned by a real time pace.
+     */
+    private int turnsOfFrame(long now) {
+        if(!this.pace.isRealTime())
+            return this.pace.turnsPerFrame();
+
+        if(this.lastFrame != NO_FRAME)
+            this.turnCredit += (now - this.lastFrame) / 1e9 * this.pace.turnsPerSecond();
+        this.lastFrame = now;
+
+        int turns = (int) this.turnCredit;
+        this.turnCredit -= turns;
+        return turns;
+    }
+
+
+    /**
+     * Checks if another turn can be played in the current frame.
+     *
+     * @return {@code true} if the frame has turns left and either no turn has been played yet or the budget isn't over.
+     */
+    public boolean canPlayTurn() {
+        return this.playedTurns < this.frameTurns && (this.playedTurns == 0 || this.clock.getAsLong() < this.budgetEnd);
+    }
+
+
+    /**
+     * Records that a turn has been played in the current frame.
+     *
+     * @throws IllegalStateException if the frame has no turns left.
+     */
+    public void turnPlayed() {
+        if(this.playedTurns >= this.frameTurns)
+            throw new IllegalStateException("The frame has no turns left");
+        this.playedTurns++;
+    }
+
+
+    /**
+     * Returns the time left in the budget of the current frame.
+     *
+     * @return The remaining time in nanoseconds, zero or negative if the budget is over.
+     */
+    public long getRemainingNanos() {return this.budgetEnd - this.clock.getAsLong();}
+
+
+    /**
+     * Returns the number of turns played in the current frame.
+     *
+     * @return The played turns.
+     */
+    public int getPlayedTurns() {return this.playedTurns;}
+
+
+    /**
+     * Returns the pace of the turns.
+     *
+     * @return The {@link BotTurnPace} of the pacer.
+     */
+    public BotTurnPace getPace() {return this.pace;}
+}
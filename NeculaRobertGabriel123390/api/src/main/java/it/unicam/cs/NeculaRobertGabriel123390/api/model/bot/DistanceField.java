@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Distance of every track node of a {@link CircuitGrid} from the end line.
+ * <p>
+ * The distance is the number of steps between 8-neighbour track nodes needed to reach the end line,
+ * computed once per circuit with a breadth-first search. Fields are cached by the content hash of the grid, and only
+ * the fields of the {@link #MAX_CACHED_GRIDS} most recently used grids are kept.
+ * </p>
+ */
+public final class DistanceField {
+
+
+    /**
+     * Distance of the nodes from which the end line cannot be reached.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+
+    /**
+     * Maximum number of grids whose fields are kept, evicting the least recently used ones.
+     */
+    public static final int MAX_CACHED_GRIDS = 8;
+
+
+    private static final Map<String, DistanceField> FIELDS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DistanceField> eldest) {
+            return size() > MAX_CACHED_GRIDS;
+        }
+    };
+
+
+    private final CircuitGrid grid;
+
+
+    /**
+     * Distance of each track node, indexed by the dense index of the node.
+     */
+    private final int[] distances;
+
+
+    private DistanceField(CircuitGrid grid) {
+        this.grid = grid;
+        this.distances = computeDistances(grid);
+    }
+
+
+    /**
+     * Returns the distance field of the given grid, computing it on the first request.
+     * The field is computed without holding the lock of the cache, so lookups of other grids don't wait for it.
+     *
+     * @param grid The grid of the circuit.
+     * @return The distance field of the grid.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     */
+    public static DistanceField of(CircuitGrid grid) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+
+        String contentHash = grid.getContentHash();
+        synchronized (FIELDS) {
+            DistanceField field = FIELDS.get(contentHash);
+            if(field != null)
+                return field;
+        }
+
+        DistanceField field = new DistanceField(grid);
+        synchronized (FIELDS) {
+            DistanceField cachedField = FIELDS.putIfAbsent(contentHash, field);
+            return cachedField == null ? field : cachedField;
+        }
+    }
+
+
+    private static int[] computeDistances(CircuitGrid grid) {
+        int[] distances = new int[grid.getTrackCellCount()];
+        Arrays.fill(distances, UNREACHABLE);
+
+        int[] queue = new int[distances.length];
+        int tail = 0;
+        for (int i = 0; i < distances.length; i++) {
+            if(grid.isEnd(grid.getTrackCellX(i), grid.getTrackCellY(i))) {
+                distances[i] = 0;
+                queue[tail++] = i;
+            }
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            int x = grid.getTrackCellX(current);
+            int y = grid.getTrackCellY(current);
+
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int neighbour = grid.getTrackIndex(x + dx, y + dy);
+                    if(neighbour >= 0 && distances[neighbour] == UNREACHABLE) {
+                        distances[neighbour] = distances[current] + 1;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+
+    /**
+     * Returns the distance of the given node from the end line.
+     *
+     * @param x The x-coordinate of the node.
+     * @param y The y-coordinate of the node.
+     * @return The distance of the node, or {@link #UNREACHABLE} if the node is not part of the track
+     *         or the end line cannot be reached from it.
+     */
+    public int getDistance(int x, int y) {
+        int trackIndex = this.grid.getTrackIndex(x, y);
+        return trackIndex < 0 ? UNREACHABLE : this.distances[trackIndex];
+    }
+}
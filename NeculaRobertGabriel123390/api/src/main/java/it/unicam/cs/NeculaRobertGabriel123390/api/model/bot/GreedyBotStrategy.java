@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+
+
+/**
+ * {@link BotStrategy} choosing the move that lands closest to the end line.
+ * <p>
+ * Moves crossing the end line are always preferred; moves that crash or land on another player are discarded,
+ * and the remaining ones are ranked by the {@link DistanceField} of the circuit. The outcome of the moves is read
+ * from the {@link LegalMoveMasks} of the circuit, so each decision costs at most nine segment checks, and none
+ * once the state has been visited.
+ * </p>
+ */
+public final class GreedyBotStrategy implements BotStrategy {
+
+
+    @Override
+    public Position chooseMove(BotContext context) {
+        if(context == null)
+            throw new NullPointerException("context is null");
+
+        DistanceField distanceField = DistanceField.of(context.grid());
+        int mask = context.getMoveMask();
+        int x = context.position().getX();
+        int y = context.position().getY();
+
+        int bestAction = -1;
+        int bestDistance = DistanceField.UNREACHABLE;
+
+        for (int action = 0; action < StateSpace.ACTIONS; action++) {
+            Position move = context.moveOf(action);
+            int newX = x + move.getX();
+            int newY = y + move.getY();
+
+            if(LegalMoveMasks.isWinning(mask, action))
+                return move;
+            if(!LegalMoveMasks.isCrashFree(mask, action) || context.isOccupied(newX, newY))
+                continue;
+
+            int distance = distanceField.getDistance(newX, newY);
+            if(bestAction < 0 || distance < bestDistance) {
+                bestAction = action;
+                bestDistance = distance;
+            }
+        }
+
+        return bestAction < 0 ? null : context.moveOf(bestAction);
+    }
+
+
+    @Override
+    public String getLevel() {return BotStrategyConstants.GREEDY;}
+}
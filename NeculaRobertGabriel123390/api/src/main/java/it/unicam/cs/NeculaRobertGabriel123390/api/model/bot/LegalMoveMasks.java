@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.SegmentOutcome;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Outcome of the nine moves available in every state of a {@link CircuitGrid}, packed in a 9-bit mask per outcome.
+ * <p>
+ * The mask of a state has bit {@code k} of the low 9 bits set if action {@code k} doesn't crash, and bit {@code k}
+ * of the following 9 bits set if action {@code k} crosses the end line. Actions follow the layout of
+ * {@link StateSpace}, which is also the order of the buttons of the moves grid.
+ * </p>
+ * <p>
+ * Masks are computed on the first request of each state and kept in pages allocated on demand, so only the states
+ * actually visited cost memory. States faster than {@link #MAX_SPEED} are not cached. The masks of a circuit are
+ * shared by every race on it, and are cached by the content hash of the grid; only the masks of the
+ * {@link #MAX_CACHED_GRIDS} most recently used grids are kept.
+ * </p>
+ */
+public final class LegalMoveMasks {
+
+
+    /**
+     * Mask of the crash-free actions of a state where every action is crash-free.
+     */
+    public static final int ALL_ACTIONS = (1 << StateSpace.ACTIONS) - 1;
+
+
+    /**
+     * Maximum absolute value of the velocity components of the cached states.
+     */
+    public static final int MAX_SPEED = BotPolicyCache.DEFAULT_MAX_SPEED;
+
+
+    /**
+     * Bit marking the cached masks, so that a computed mask is never confused with an empty page slot.
+     */
+    private static final int COMPUTED = 1 << (2 * StateSpace.ACTIONS);
+
+
+    /**
+     * Maximum number of grids whose masks are kept, evicting the least recently used ones.
+     */
+    public static final int MAX_CACHED_GRIDS = 8;
+
+
+    private static final int PAGE_BITS = 12;
+
+
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+
+    private static final Map<String, LegalMoveMasks> MASKS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LegalMoveMasks> eldest) {
+            return size() > MAX_CACHED_GRIDS;
+        }
+    };
+
+
+    private final CircuitGrid grid;
+
+
+    /**
+     * State space of the cached states, {@code null} if the circuit is too large to cache them.
+     */
+    private final StateSpace stateSpace;
+
+
+    private final AtomicReferenceArray<int[]> pages;
+
+
+    private LegalMoveMasks(CircuitGrid grid) {
+        this.grid = grid;
+        this.stateSpace = createStateSpace(grid);
+        int states = this.stateSpace == null ? 0 : this.stateSpace.getStateCount();
+        this.pages = new AtomicReferenceArray<>((states + PAGE_SIZE - 1) >> PAGE_BITS);
+    }
+
+
+    /**
+     * Returns the masks of the given grid, creating them on the first request.
+     * Creating the masks computes none of them, so it is done while holding the lock of the cache.
+     *
+     * @param grid The grid of the circuit.
+     * @return The masks of the grid.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     */
+    public static LegalMoveMasks of(CircuitGrid grid) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+        synchronized (MASKS) {
+            return MASKS.computeIfAbsent(grid.getContentHash(), hash -> new LegalMoveMasks(grid));
+        }
+    }
+
+
+    private static StateSpace createStateSpace(CircuitGrid grid) {
+        try {
+            return new StateSpace(grid, MAX_SPEED);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Returns the mask of the given state.
+     *
+     * @param x The x-coordinate of the player.
+     * @param y The y-coordinate of the player.
+     * @param vx The velocity of the player along the X-axis.
+     * @param vy The velocity of the player along the Y-axis.
+     * @return The mask of the state, to be read with {@link #isCrashFree(int, int)} and {@link #isWinning(int, int)}.
+     */
+    public int getMask(int x, int y, int vx, int vy) {
+        int state = this.stateSpace == null ? -1 : this.stateSpace.indexOf(x, y, vx, vy);
+        if(state < 0)
+            return computeMask(x, y, vx, vy);
+
+        int[] page = this.pages.get(state >> PAGE_BITS);
+        if(page == null) {
+            this.pages.compareAndSet(state >> PAGE_BITS, null, new int[PAGE_SIZE]);
+            page = this.pages.get(state >> PAGE_BITS);
+        }
+
+        int mask = page[state & (PAGE_SIZE - 1)];
+        if(mask == 0) {
+            mask = computeMask(x, y, vx, vy) | COMPUTED;
+            page[state & (PAGE_SIZE - 1)] = mask;
+        }
+        return mask & ~COMPUTED;
+    }
+
+
+    /**
+     * Traces the nine moves of the given state.
+     */
+    private int computeMask(int x, int y, int vx, int vy) {
+        int mask = 0;
+        for (int action = 0; action < StateSpace.ACTIONS; action++) {
+            int newVx = vx + StateSpace.accelerationX(action);
+            int newVy = vy + StateSpace.accelerationY(action);
+
+            SegmentOutcome outcome = this.grid.traceSegment(x, y, x + newVx, y + newVy);
+            if(outcome != SegmentOutcome.CRASH)
+                mask |= 1 << action;
+            if(outcome == SegmentOutcome.WIN)
+                mask |= 1 << (action + StateSpace.ACTIONS);
+        }
+        return mask;
+    }
+
+
+    /**
+     * Checks if the given action of a mask doesn't crash.
+     *
+     * @param mask The mask of a state.
+     * @param action The action, in {@code [0, 9)}.
+     * @return {@code true} if the action doesn't crash.
+     */
+    public static boolean isCrashFree(int mask, int action) {return (mask & (1 << action)) != 0;}
+
+
+    /**
+     * Checks if the given action of a mask crosses the end line.
+     *
+     * @param mask The mask of a state.
+     * @param action The action, in {@code [0, 9)}.
+     * @return {@code true} if the action wins the race.
+     */
+    public static boolean isWinning(int mask, int action) {return (mask & (1 << (action + StateSpace.ACTIONS))) != 0;}
+
+
+    /**
+     * Returns the crash-free actions of a mask.
+     *
+     * @param mask The mask of a state.
+     * @return The 9-bit mask of the crash-free actions.
+     */
+    public static int crashFreeActions(int mask) {return mask & ALL_ACTIONS;}
+
+
+    /**
+     * Returns the winning actions of a mask.
+     *
+     * @param mask The mask of a state.
+     * @return The 9-bit mask of the winning actions.
+     */
+    public static int winningActions(int mask) {return (mask >> StateSpace.ACTIONS) & ALL_ACTIONS;}
+
+
+    /**
+     * Returns the grid of the masks.
+     *
+     * @return The grid of the circuit.
+     */
+    public CircuitGrid getGrid() {return this.grid;}
+}
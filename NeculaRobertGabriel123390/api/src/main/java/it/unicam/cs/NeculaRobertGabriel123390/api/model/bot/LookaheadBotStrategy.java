@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+
+
+/**
+ * {@link BotStrategy} exploring every sequence of moves up to a fixed depth.
+ * <p>
+ * Each sequence costs one turn per move; sequences crossing the end line stop there, sequences crashing
+ * are discarded. At the end of the horizon the remaining cost is estimated from the {@link DistanceField}
+ * divided by the current speed, plus {@code riskWeight} times the fraction of the next moves that would crash.
+ * A higher risk weight makes the bot slow down earlier in front of walls.
+ * </p>
+ * <p>
+ * The outcome of the moves of each explored state is read from the {@link LegalMoveMasks} of the circuit, so a
+ * decision costs at most {@code 9^depth} mask lookups, each tracing the nine segments of the state only the first
+ * time the state is seen. The depth is bounded by {@link #MAX_DEPTH}.
+ * The search stops early, keeping the best move found so far, if the deciding thread is interrupted.
+ * </p>
+ */
+public final class LookaheadBotStrategy implements BotStrategy {
+
+
+    /**
+     * Depth used when none is given.
+     */
+    public static final int DEFAULT_DEPTH = 3;
+
+
+    /**
+     * Maximum depth of the search.
+     */
+    public static final int MAX_DEPTH = 4;
+
+
+    /**
+     * Risk weight used when none is given.
+     */
+    public static final double DEFAULT_RISK_WEIGHT = 2.0;
+
+
+    /**
+     * Cost of a sequence that crashes.
+     */
+    private static final double CRASH_COST = 1e6;
+
+
+    private final int depth;
+
+
+    private final double riskWeight;
+
+
+    /**
+     * Constructs a {@code LookaheadBotStrategy} with the {@link #DEFAULT_DEPTH} and {@link #DEFAULT_RISK_WEIGHT}.
+     */
+    public LookaheadBotStrategy() {
+        this(DEFAULT_DEPTH, DEFAULT_RISK_WEIGHT);
+    }
+
+
+    /**
+     * Constructs a {@code LookaheadBotStrategy} with the given parameters.
+     *
+     * @param depth The number of moves explored, in {@code [1, MAX_DEPTH]}.
+     * @param riskWeight The weight of the crash risk at the end of the horizon.
+     * @throws IllegalArgumentException if {@code depth} is out of range or {@code riskWeight} is negative or not finite.
+     */
+    public LookaheadBotStrategy(int depth, double riskWeight) {
+        if(depth < 1 || depth > MAX_DEPTH)
+            throw new IllegalArgumentException("depth needs to be between 1 and " + MAX_DEPTH);
+        if(riskWeight < 0 || !Double.isFinite(riskWeight))
+            throw new IllegalArgumentException("riskWeight needs to be a non negative number");
+        this.depth = depth;
+        this.riskWeight = riskWeight;
+    }
+
+
+    @Override
+    public Position chooseMove(BotContext context) {
+        if(context == null)
+            throw new NullPointerException("context is null");
+
+        LegalMoveMasks masks = LegalMoveMasks.of(context.grid());
+        DistanceField distanceField = DistanceField.of(context.grid());
+        int x = context.position().getX();
+        int y = context.position().getY();
+        int mask = context.getMoveMask();
+
+        int bestAction = -1;
+        double bestCost = CRASH_COST;
+
+        for (int action = 0; action < StateSpace.ACTIONS && !Thread.currentThread().isInterrupted(); action++) {
+            Position move = context.moveOf(action);
+            int newX = x + move.getX();
+            int newY = y + move.getY();
+
+            if(LegalMoveMasks.isWinning(mask, action))
+                return move;
+            if(!LegalMoveMasks.isCrashFree(mask, action) || context.isOccupied(newX, newY))
+                continue;
+
+            double cost = 1 + search(masks, distanceField, newX, newY, move.getX(), move.getY(), this.depth - 1);
+            if(cost < bestCost) {
+                bestAction = action;
+                bestCost = cost;
+            }
+        }
+
+        return bestAction < 0 ? null : context.moveOf(bestAction);
+    }
+
+
+    /**
+     * Returns the estimated number of turns needed to cross the end line from the given state.
+     */
+    private double search(LegalMoveMasks masks, DistanceField distanceField, int x, int y, int vx, int vy, int depthLeft) {
+        int mask = masks.getMask(x, y, vx, vy);
+        if(depthLeft == 0)
+            return estimate(distanceField, mask, x, y, vx, vy);
+        if(LegalMoveMasks.winningActions(mask) != 0)
+            return 1;
+
+        double bestCost = CRASH_COST;
+        for (int action = 0; action < StateSpace.ACTIONS; action++) {
+            int newVx = vx + StateSpace.accelerationX(action);
+            int newVy = vy + StateSpace.accelerationY(action);
+
+            if(LegalMoveMasks.isCrashFree(mask, action))
+                bestCost = Math.min(bestCost, 1 + search(masks, distanceField, x + newVx, y + newVy, newVx, newVy, depthLeft - 1));
+        }
+        return bestCost;
+    }
+
+
+    /**
+     * Estimates the number of turns needed to cross the end line from the given state, penalizing
+     * the states where many of the next moves crash.
+     */
+    private double estimate(DistanceField distanceField, int mask, int x, int y, int vx, int vy) {
+        int distance = distanceField.getDistance(x, y);
+        if(distance == DistanceField.UNREACHABLE)
+            return CRASH_COST;
+
+        int crashes = StateSpace.ACTIONS - Integer.bitCount(LegalMoveMasks.crashFreeActions(mask));
+
+        int speed = Math.max(1, Math.max(Math.abs(vx), Math.abs(vy)));
+        return (double) distance / speed + this.riskWeight * crashes / StateSpace.ACTIONS;
+    }
+
+
+    /**
+     * Returns the number of moves explored.
+     *
+     * @return The depth of the search.
+     */
+    public int getDepth() {return this.depth;}
+
+
+    /**
+     * Returns the weight of the crash risk at the end of the horizon.
+     *
+     * @return The risk weight.
+     */
+    public double getRiskWeight() {return this.riskWeight;}
+
+
+    @Override
+    public String getLevel() {return BotStrategyConstants.LOOKAHEAD;}
+
+
+    @Override
+    public String toString() {
+        return "LookaheadBotStrategy: depth " + this.depth + ", risk weight " + this.riskWeight;
+    }
+}
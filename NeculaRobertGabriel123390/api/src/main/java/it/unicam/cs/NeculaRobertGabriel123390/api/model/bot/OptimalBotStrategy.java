@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+
+
+/**
+ * {@link BotStrategy} following the min-turns {@link BotPolicy} of the circuit.
+ * <p>
+ * The policy is taken from a {@link BotPolicyCache}: {@link #prepare(CircuitGrid)} runs the {@link BotPolicySolver}
+ * on an unknown circuit while the race is set up, so every decision is a table lookup. When the policy is not
+ * available (e.g. the strategy has not been prepared for the circuit), has no move for the current state (e.g. the
+ * bot is faster than the speed limit of the policy), or the move would land on another player, the decision is
+ * delegated to a {@link GreedyBotStrategy}.
+ * </p>
+ */
+public final class OptimalBotStrategy implements BotStrategy {
+
+
+    private final BotPolicyCache policyCache;
+
+
+    private final int maxSpeed;
+
+
+    private final BotStrategy fallbackStrategy = new GreedyBotStrategy();
+
+
+    /**
+     * Constructs an {@code OptimalBotStrategy} using the default {@link BotPolicyCache}
+     * and the {@link BotPolicyCache#DEFAULT_MAX_SPEED}.
+     */
+    public OptimalBotStrategy() {
+        this(BotPolicyCache.getDefault(), BotPolicyCache.DEFAULT_MAX_SPEED);
+    }
+
+
+    /**
+     * Constructs an {@code OptimalBotStrategy} using the given cache and speed limit.
+     *
+     * @param policyCache The cache providing the policies.
+     * @param maxSpeed The speed limit of the policies.
+     * @throws NullPointerException if {@code policyCache} is {@code null}.
+     * @throws IllegalArgumentException if {@code maxSpeed} is not positive.
+     */
+    public OptimalBotStrategy(BotPolicyCache policyCache, int maxSpeed) {
+        if(policyCache == null)
+            throw new NullPointerException("policyCache is null");
+        if(maxSpeed <= 0)
+            throw new IllegalArgumentException("maxSpeed needs to be positive");
+        this.policyCache = policyCache;
+        this.maxSpeed = maxSpeed;
+    }
+
+
+    @Override
+    public Position chooseMove(BotContext context) {
+        if(context == null)
+            throw new NullPointerException("context is null");
+
+        BotPolicy policy = this.policyCache.getIfAvailable(context.grid(), this.maxSpeed);
+        Position move = policy == null ? null : policy.getMove(context.position(), context.velocity());
+
+        if(move == null || context.isOccupied(context.position().getX() + move.getX(), context.position().getY() + move.getY()))
+            return this.fallbackStrategy.chooseMove(context);
+        return move;
+    }
+
+
+    /**
+     * Computes or loads the policy of the given grid, so that the decisions of the race never run the solver.
+     *
+     * @param grid The grid of the circuit of the race.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted while running the solver.
+     */
+    @Override
+    public void prepare(CircuitGrid grid) {
+        this.policyCache.getOrCompute(grid, this.maxSpeed);
+    }
+
+
+    @Override
+    public String getLevel() {return BotStrategyConstants.OPTIMAL;}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * {@link BotStrategy} choosing one of the nine possible moves at random.
+ * <p>
+ * Moves that crash or land on another player are discarded using the {@link LegalMoveMasks} of the circuit,
+ * unless every move does. It is the cheapest strategy, costing a constant time per move.
+ * A strategy built with its own generator makes the same moves in the same situations, so that races can be repeated.
+ * </p>
+ * <p>
+ * Unlike the other strategies, a strategy built with its own generator keeps a state depending on a single race,
+ * the generator, which is not thread-safe: it belongs to one bot in one race and must not be shared between bots
+ * or races, as {@link BotStrategy} otherwise allows. A new one is created for every bot, e.g. with a generator split
+ * from the one of the race. The strategy built without a generator has no such state and can be shared.
+ * </p>
+ */
+public final class RandomBotStrategy implements BotStrategy {
+
+
+    /**
+     * The generator of the moves, or {@code null} to use the generator of the current thread.
+     */
+    private final RandomGenerator random;
+
+
+    /**
+     * Constructs a {@code RandomBotStrategy} using the {@link ThreadLocalRandom} of the thread choosing the move.
+     */
+    public RandomBotStrategy() {
+        this.random = null;
+    }
+
+
+    /**
+     * Constructs a {@code RandomBotStrategy} using the given generator, e.g. a generator created from a seed.
+     * The strategy belongs to a single bot in a single race and must not be shared, since the generator isn't thread-safe
+     * and its state depends on the moves already chosen.
+     *
+     * @param random The generator of the moves.
+     * @throws NullPointerException if {@code random} is {@code null}.
+     */
+    public RandomBotStrategy(RandomGenerator random) {
+        if(random == null)
+            throw new NullPointerException("random is null");
+        this.random = random;
+    }
+
+
+    @Override
+    public Position chooseMove(BotContext context) {
+        if(context == null)
+            throw new NullPointerException("context is null");
+        int allowedActions = 0;
+        int crashFreeActions = LegalMoveMasks.crashFreeActions(context.getMoveMask());
+        for (int action = 0; action < StateSpace.ACTIONS; action++) {
+            Position move = context.moveOf(action);
+            if(LegalMoveMasks.isCrashFree(crashFreeActions, action)
+                    && !context.isOccupied(context.position().getX() + move.getX(), context.position().getY() + move.getY()))
+                allowedActions |= 1 << action;
+        }
+
+        if(allowedActions == 0)
+            return context.moveOf(random().nextInt(StateSpace.ACTIONS));
+
+        int choice = random().nextInt(Integer.bitCount(allowedActions));
+        for (int i = 0; i < choice; i++)
+            allowedActions &= allowedActions - 1;
+        return context.moveOf(Integer.numberOfTrailingZeros(allowedActions));
+    }
+
+
+    private RandomGenerator random() {
+        return this.random != null ? this.random : ThreadLocalRandom.current();
+    }
+
+
+    @Override
+    public String getLevel() {return BotStrategyConstants.RANDOM;}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.bot;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+
+
+/**
+ * Indexes the states a bot can be in while racing on a {@link CircuitGrid}.
+ * <p>
+ * A state is made of the track node the bot is on and its current velocity, whose components are bounded
+ * by {@code maxSpeed} in absolute value. Every state is mapped to a dense index in {@code [0, getStateCount())},
+ * so that per-state tables can be stored in flat arrays or buffers.
+ * </p>
+ * <p>
+ * Actions follow the layout of {@link it.unicam.cs.NeculaRobertGabriel123390.api.model.PlayerMoves}: the action
+ * {@code k} in {@code [0, 9)} accelerates by {@code ((k % 3) - 1, (k / 3) - 1)}.
+ * </p>
+ */
+public final class StateSpace {
+
+
+    /**
+     * Number of actions available in every state.
+     */
+    public static final int ACTIONS = 9;
+
+
+    /**
+     * Action keeping the current velocity, i.e. the central move of {@code PlayerMoves}.
+     */
+    public static final int KEEP_VELOCITY_ACTION = 4;
+
+
+    /**
+     * Maximum number of states a state space is allowed to have.
+     */
+    public static final int MAX_STATES = 1 << 26;
+
+
+    private final CircuitGrid grid;
+
+
+    private final int maxSpeed;
+
+
+    /**
+     * Number of possible values of each velocity component.
+     */
+    private final int side;
+
+
+    private final int stateCount;
+
+
+    /**
+     * Constructs a {@code StateSpace} for the given grid and speed limit.
+     *
+     * @param grid The grid the bot races on.
+     * @param maxSpeed The maximum absolute value of each velocity component.
+     * @throws NullPointerException if {@code grid} is {@code null}.
+     * @throws IllegalArgumentException if {@code maxSpeed} is not positive or the state space is too large.
+     */
+    public StateSpace(CircuitGrid grid, int maxSpeed) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+        if(maxSpeed <= 0)
+            throw new IllegalArgumentException("maxSpeed needs to be positive");
+
+        this.grid = grid;
+        this.maxSpeed = maxSpeed;
+        this.side = 2 * maxSpeed + 1;
+
+        long states = (long) grid.getTrackCellCount() * this.side * this.side;
+        if(states > MAX_STATES)
+            throw new IllegalArgumentException("Too many states: " + states + ", the limit is " + MAX_STATES);
+        this.stateCount = (int) states;
+    }
+
+
+    /**
+     * Returns the x-component of the acceleration of the given action.
+     *
+     * @param action The action, in {@code [0, 9)}.
+     * @return The acceleration along the X-axis.
+     */
+    public static int accelerationX(int action) {return (action % 3) - 1;}
+
+
+    /**
+     * Returns the y-component of the acceleration of the given action.
+     *
+     * @param action The action, in {@code [0, 9)}.
+     * @return The acceleration along the Y-axis.
+     */
+    public static int accelerationY(int action) {return (action / 3) - 1;}
+
+
+    /**
+     * Returns the index of the given state.
+     *
+     * @param x The x-coordinate of the bot.
+     * @param y The y-coordinate of the bot.
+     * @param vx The velocity of the bot along the X-axis.
+     * @param vy The velocity of the bot along the Y-axis.
+     * @return The index of the state, or -1 if the bot is not on the track or is faster than the speed limit.
+     */
+    public int indexOf(int x, int y, int vx, int vy) {
+        int trackIndex = this.grid.getTrackIndex(x, y);
+        if(trackIndex < 0 || !isSpeedAllowed(vx) || !isSpeedAllowed(vy))
+            return -1;
+        return indexOf(trackIndex, vx, vy);
+    }
+
+
+    /**
+     * Returns the index of the state made of the given track node and velocity,
+     * without checking the bounds.
+     *
+     * @param trackIndex The dense index of the track node.
+     * @param vx The velocity along the X-axis.
+     * @param vy The velocity along the Y-axis.
+     * @return The index of the state.
+     */
+    int indexOf(int trackIndex, int vx, int vy) {
+        return (trackIndex * this.side + vy + this.maxSpeed) * this.side + vx + this.maxSpeed;
+    }
+
+
+    /**
+     * Checks if a velocity component is within the speed limit.
+     *
+     * @param speed The velocity component.
+     * @return {@code true} if the absolute value of {@code speed} does not exceed the limit.
+     */
+    public boolean isSpeedAllowed(int speed) {return speed >= -this.maxSpeed && speed <= this.maxSpeed;}
+
+
+    /**
+     * Returns the dense index of the track node of the given state.
+     *
+     * @param state The index of the state.
+     * @return The dense index of the track node.
+     */
+    int trackIndexOf(int state) {return state / (this.side * this.side);}
+
+
+    /**
+     * Returns the velocity along the X-axis of the given state.
+     *
+     * @param state The index of the state.
+     * @return The velocity along the X-axis.
+     */
+    int velocityXOf(int state) {return state % this.side - this.maxSpeed;}
+
+
+    /**
+     * Returns the velocity along the Y-axis of the given state.
+     *
+     * @param state The index of the state.
+     * @return The velocity along the Y-axis.
+     */
+    int velocityYOf(int state) {return (state / this.side) % this.side - this.maxSpeed;}
+
+
+    /**
+     * Returns the grid of the state space.
+     *
+     * @return The grid the bot races on.
+     */
+    public CircuitGrid getGrid() {return this.grid;}
+
+
+    /**
+     * Returns the speed limit of the state space.
+     *
+     * @return The maximum absolute value of each velocity component.
+     */
+    public int getMaxSpeed() {return this.maxSpeed;}
+
+
+    /**
+     * Returns the number of states.
+     *
+     * @return The number of states of the space.
+     */
+    public int getStateCount() {return this.stateCount;}
+}
@@ -36,6 +36,10 @@ import java.util.*;
 /**
  * Represents a circuit with nodes, start line, and end line.
  * The circuit consists of a map of positions to nodes and lines that define the start and end of the circuit.
+ * <p>
+ * The layout of a circuit is validated when it is built and can't be modified afterward,
+ * so the circuit remembers that it is valid and {@link CircuitValidator#validate(Circuit)} doesn't check it again.
+ * </p>
  */
 public class Circuit {
 
@@ -58,6 +62,18 @@ public class Circuit {
     private final CircuitLine endLine;
 
 
+    /**
+     * The compact layout of the circuit, built the first time it is requested.
+     */
+    private volatile CircuitGrid grid;
+
+
+    /**
+     * Whether the layout of the circuit has been validated.
+     */
+    private final boolean isValidated;
+
+
     /**
      * Constructs a new Circuit with the given nodes, start line, and end line.
      * Validates the integrity of the circuit map and the lines.
@@ -70,9 +86,29 @@ public class Circuit {
      */
     public Circuit(Map<Position, CircuitNode> circuitMap, CircuitLine startLine, CircuitLine endLine) {
         CircuitValidator.validate(circuitMap, startLine, endLine);
-        this.circuitMap = new LinkedHashMap<>(circuitMap);
+        this.circuitMap = Collections.unmodifiableMap(new LinkedHashMap<>(circuitMap));
         this.startLine = startLine;
         this.endLine = endLine;
+        this.isValidated = true;
+    }
+
+
+    /**
+     * Constructs a new Circuit from nodes and lines that have already been validated, with its compact layout.
+     * Used by {@link CompiledCircuit} and {@link CircuitReloader} to create circuits without validating the same
+     * layout again.
+     *
+     * @param circuitMap a map of circuit nodes keyed by their position, owned by the circuit from now on.
+     * @param startLine the starting line of the circuit.
+     * @param endLine the ending line of the circuit.
+     * @param grid the compact layout of the circuit, or {@code null} to build it when it is first requested.
+     */
+    Circuit(LinkedHashMap<Position, CircuitNode> circuitMap, CircuitLine startLine, CircuitLine endLine, CircuitGrid grid) {
+        this.circuitMap = Collections.unmodifiableMap(circuitMap);
+        this.startLine = startLine;
+        this.endLine = endLine;
+        this.grid = grid;
+        this.isValidated = true;
     }
 
 
@@ -128,11 +164,35 @@ public class Circuit {
     /**
      * Retrieves the map of all nodes in the circuit.
      *
-     * @return a map of positions to circuit nodes.
+     * @return an unmodifiable map of positions to circuit nodes.
      */
     public Map<Position, CircuitNode> getCircuitMap() {return this.circuitMap;}
 
 
+    /**
+     * Checks if the layout of the circuit has been validated by {@link CircuitValidator}.
+     *
+     * @return {@code true} if the circuit doesn't need to be validated again.
+     */
+    boolean isValidated() {return this.isValidated;}
+
+
+    /**
+     * Retrieves the compact layout of the circuit.
+     * The grid is built on the first call and reused afterward, since the layout of a circuit never changes.
+     *
+     * @return the grid describing the layout of the circuit.
+     */
+    public CircuitGrid getGrid() {
+        CircuitGrid circuitGrid = this.grid;
+        if(circuitGrid == null) {
+            circuitGrid = CircuitGrid.of(this);
+            this.grid = circuitGrid;
+        }
+        return circuitGrid;
+    }
+
+
     /**
      * Checks if the position given is part of the circuit or not.
      * @param position The position to check.
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+
+/**
+ * Watches the file of a {@link CircuitReloader} and reloads it every time it is saved.
+ * <p>
+ * The directory of the file is watched by a {@link WatchService} on a daemon thread. Editors often save a file
+ * with more than one write, so the file is reloaded only once no event has been seen for {@link #SETTLE_MILLIS}.
+ * The listeners are called on the watching thread: the data listener only when the content of the file changed,
+ * the error listener when the new content can't be loaded.
+ * </p>
+ */
+public final class CircuitFileWatcher implements Closeable {
+
+
+    /**
+     * The milliseconds without events after which a saved file is reloaded.
+     */
+    public static final long SETTLE_MILLIS = 100;
+
+
+    private final CircuitReloader reloader;
+
+
+    private final Consumer<CompiledCircuitData> onReload;
+
+
+    private final Consumer<RuntimeException> onError;
+
+
+    private final WatchService watchService;
+
+
+    private final Thread thread;
+
+
+    /**
+     * Constructs a {@code CircuitFileWatcher} and starts watching the file of the reloader.
+     *
+     * @param reloader The reloader of the watched file.
+     * @param onReload Called with the new data every time the content of the file changes.
+     * @param onError Called with the error every time the new content of the file can't be loaded.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IOException if the directory of the file can't be watched.
+     */
+    public CircuitFileWatcher(CircuitReloader reloader, Consumer<CompiledCircuitData> onReload,
+                              Consumer<RuntimeException> onError) throws IOException {
+        if(reloader == null)
+            throw new NullPointerException("reloader is null");
+        if(onReload == null)
+            throw new NullPointerException("onReload is null");
+        if(onError == null)
+            throw new NullPointerException("onError is null");
+
+        this.reloader = reloader;
+        this.onReload = onReload;
+        this.onError = onError;
+
+        Path directory = reloader.getFile().getAbsoluteFile().toPath().getParent();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            this.watchService.close();
+            throw e;
+        }
+
+        this.thread = new Thread(this::watch, "circuit-watcher-" + reloader.getFile().getName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+
+    /**
+     * Waits for the events of the watched file until the watcher is closed.
+     */
+    private void watch() {
+        Path fileName = this.reloader.getFile().toPath().getFileName();
+        try {
+            while(true) {
+                if(!isFileEvent(this.watchService.take(), fileName))
+                    continue;
+
+                WatchKey key;
+                while((key = this.watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null)
+                    isFileEvent(key, fileName);
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The watcher has been closed.
+        }
+    }
+
+
+    /**
+     * Consumes the events of a key, checking if any of them is about the watched file.
+     */
+    private static boolean isFileEvent(WatchKey key, Path fileName) {
+        boolean isFileEvent = false;
+        for(WatchEvent<?> event : key.pollEvents())
+            isFileEvent |= fileName.equals(event.context());
+        key.reset();
+        return isFileEvent;
+    }
+
+
+    private void reload() {
+        CompiledCircuitData oldData = this.reloader.getData();
+        CompiledCircuitData newData;
+        try {
+            newData = this.reloader.reload();
+        } catch (RuntimeException e) {
+            this.onError.accept(e);
+            return;
+        }
+        if(newData != oldData)
+            this.onReload.accept(newData);
+    }
+
+
+    /**
+     * Returns the reloader of the watched file.
+     *
+     * @return The reloader.
+     */
+    public CircuitReloader getReloader() {return this.reloader;}
+
+
+    /**
+     * Stops watching the file.
+     *
+     * @throws IOException if the watch service can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.thread.interrupt();
+        this.watchService.close();
+    }
+}
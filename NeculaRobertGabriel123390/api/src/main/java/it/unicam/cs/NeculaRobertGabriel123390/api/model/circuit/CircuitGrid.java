@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+
+/**
+ * Compact and immutable representation of the layout of a {@link Circuit}.
+ * <p>
+ * The grid stores one byte per node, row by row, describing whether the node is outside the track,
+ * part of the track, part of the start line or part of the end line. Track nodes are also given a dense
+ * index, so that tables with one entry per track node (e.g. bot policies) can be stored in plain arrays.
+ * </p>
+ * <p>
+ * Unlike the {@link Circuit}, the grid does not keep track of occupied nodes: it only describes the static
+ * layout, which does not change during a race. This makes it suitable to be shared between threads and races.
+ * </p>
+ */
+public final class CircuitGrid {
+
+
+    /**
+     * Code of a node that is not part of the track.
+     */
+    public static final byte NON_TRACK = 0;
+
+
+    /**
+     * Code of a node that is part of the track.
+     */
+    public static final byte TRACK = 1;
+
+
+    /**
+     * Code of a node that is part of the start line.
+     */
+    public static final byte START = 2;
+
+
+    /**
+     * Code of a node that is part of the end line.
+     */
+    public static final byte END = 3;
+
+
+    private final int width;
+
+
+    private final int height;
+
+
+    /**
+     * Node codes stored row by row, the node (x, y) is at index {@code y * width + x}.
+     */
+    private final byte[] cells;
+
+
+    /**
+     * Dense index of each node in the track, or -1 if the node is not part of the track.
+     */
+    private final int[] trackIndexes;
+
+
+    /**
+     * Index in {@link #cells} of each track node, ordered by dense index.
+     */
+    private final int[] trackCells;
+
+
+    private volatile String contentHash;
+
+
+    /**
+     * Constructs a {@code CircuitGrid} with the given dimensions and node codes.
+     *
+     * @param width The number of nodes in the X-axis.
+     * @param height The number of nodes in the Y-axis.
+     * @param cells The node codes, row by row. The array is copied.
+     * @throws NullPointerException if {@code cells} is {@code null}.
+     * @throws IllegalArgumentException if the dimensions are not positive, do not match the number of cells
+     *                                  or if an unknown node code is found.
+     */
+    public CircuitGrid(int width, int height, byte[] cells) {
+        validateGrid(width, height, cells);
+        this.width = width;
+        this.height = height;
+        this.cells = cells.clone();
+        this.trackIndexes = new int[cells.length];
+        this.trackCells = indexTrackCells();
+    }
+
+
+    private static void validateGrid(int width, int height, byte[] cells) {
+        if(cells == null)
+            throw new NullPointerException("cells is null");
+        if(width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Grid dimensions need to be positive, found " + width + "x" + height);
+        if((long) width * height != cells.length)
+            throw new IllegalArgumentException("Grid dimensions " + width + "x" + height + " do not match " + cells.length + " cells");
+        for(byte cell : cells)
+            if(cell < NON_TRACK || cell > END)
+                throw new IllegalArgumentException("Unknown node code " + cell);
+    }
+
+
+    private int[] indexTrackCells() {
+        int count = 0;
+        for(byte cell : this.cells)
+            if(cell != NON_TRACK) count++;
+
+        int[] indexedCells = new int[count];
+        int next = 0;
+        for (int i = 0; i < this.cells.length; i++) {
+            if(this.cells[i] == NON_TRACK) {
+                this.trackIndexes[i] = -1;
+            } else {
+                this.trackIndexes[i] = next;
+                indexedCells[next++] = i;
+            }
+        }
+        return indexedCells;
+    }
+
+
+    /**
+     * Creates the grid describing the layout of the given circuit.
+     * The grid is large enough to contain every node of the circuit; start and end nodes
+     * are taken from the start and end lines of the circuit.
+     *
+     * @param circuit The circuit to describe.
+     * @return The grid of the circuit.
+     * @throws NullPointerException if {@code circuit} is {@code null}.
+     */
+    public static CircuitGrid of(Circuit circuit) {
+        if(circuit == null)
+            throw new NullPointerException("Circuit is null");
+
+        int width = 0;
+        int height = 0;
+        for(Position position : circuit.getPositions()) {
+            width = Math.max(width, position.getX() + 1);
+            height = Math.max(height, position.getY() + 1);
+        }
+
+        byte[] cells = new byte[width * height];
+        for(Position position : circuit.getPositions())
+            cells[position.getY() * width + position.getX()] = TRACK;
+        for(Position position : circuit.getStartLine().getPositions())
+            cells[position.getY() * width + position.getX()] = START;
+        for(Position position : circuit.getEndLine().getPositions())
+            cells[position.getY() * width + position.getX()] = END;
+
+        return new CircuitGrid(width, height, cells);
+    }
+
+
+    /**
+     * Returns the number of nodes in the X-axis.
+     *
+     * @return The width of the grid.
+     */
+    public int getWidth() {return this.width;}
+
+
+    /**
+     * Returns the number of nodes in the Y-axis.
+     *
+     * @return The height of the grid.
+     */
+    public int getHeight() {return this.height;}
+
+
+    /**
+     * Checks if the given coordinates are inside the grid.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return {@code true} if the coordinates are inside the grid, {@code false} otherwise.
+     */
+    public boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.width && y < this.height;
+    }
+
+
+    /**
+     * Returns the code of the node at the given coordinates.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The code of the node, or {@link #NON_TRACK} if the coordinates are outside the grid.
+     */
+    public byte getCell(int x, int y) {
+        return isInside(x, y) ? this.cells[y * this.width + x] : NON_TRACK;
+    }
+
+
+    /**
+     * Returns the state of the node at the given coordinates.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The state of the node; nodes outside the grid are {@link CircuitNodeState#nonTrackNode}.
+     */
+    public CircuitNodeState getState(int x, int y) {
+        return switch (getCell(x, y)) {
+            case TRACK -> CircuitNodeState.trackNode;
+            case START -> CircuitNodeState.startNode;
+            case END -> CircuitNodeState.endNode;
+            default -> CircuitNodeState.nonTrackNode;
+        };
+    }
+
+
+    /**
+     * Checks if the node at the given coordinates is part of the track (start and end lines included).
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return {@code true} if the node is part of the track, {@code false} otherwise.
+     */
+    public boolean isTrack(int x, int y) {return getCell(x, y) != NON_TRACK;}
+
+
+    /**
+     * Checks if the node at the given coordinates is part of the end line.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return {@code true} if the node is part of the end line, {@code false} otherwise.
+     */
+    public boolean isEnd(int x, int y) {return getCell(x, y) == END;}
+
+
+    /**
+     * Returns the number of nodes that are part of the track.
+     *
+     * @return The number of track nodes.
+     */
+    public int getTrackCellCount() {return this.trackCells.length;}
+
+
+    /**
+     * Returns the dense index of the track node at the given coordinates.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The index of the node among the track nodes, or -1 if the node is not part of the track.
+     */
+    public int getTrackIndex(int x, int y) {
+        return isInside(x, y) ? this.trackIndexes[y * this.width + x] : -1;
+    }
+
+
+    /**
+     * Returns the x-coordinate of the track node with the given dense index.
+     *
+     * @param trackIndex The dense index of the track node.
+     * @return The x-coordinate of the node.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getTrackCellX(int trackIndex) {return this.trackCells[trackIndex] % this.width;}
+
+
+    /**
+     * Returns the y-coordinate of the track node with the given dense index.
+     *
+     * @param trackIndex The dense index of the track node.
+     * @return The y-coordinate of the node.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getTrackCellY(int trackIndex) {return this.trackCells[trackIndex] / this.width;}
+
+
+    /**
+     * Determines the outcome of moving from (x0, y0) to (x1, y1).
+     * <p>
+     * The nodes of the segment are the ones computed by {@link it.unicam.cs.NeculaRobertGabriel123390.api.model.BresenhamLineAlgorithm},
+     * walked without allocating any position. The rules are the ones of the
+     * {@link it.unicam.cs.NeculaRobertGabriel123390.api.model.manager.CircuitManager}: a segment ending outside the
+     * board (see {@link PositionUtils#isOnBoard(int, int)}) crashes; otherwise it wins if any of its nodes is on the
+     * end line, even if it ends outside the grid, and it crashes if any of its nodes is not part of the track.
+     * </p>
+     *
+     * @param x0 The x-coordinate of the starting node.
+     * @param y0 The y-coordinate of the starting node.
+     * @param x1 The x-coordinate of the ending node.
+     * @param y1 The y-coordinate of the ending node.
+     * @return The outcome of the segment.
+     */
+    public SegmentOutcome traceSegment(int x0, int y0, int x1, int y1) {
+        if(!PositionUtils.isOnBoard(x1, y1))
+            return SegmentOutcome.CRASH;
+
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = (x0 < x1) ? 1 : -1;
+        int sy = (y0 < y1) ? 1 : -1;
+        int err = dx - dy;
+        boolean crashed = false;
+
+        while (true) {
+            byte cell = getCell(x0, y0);
+            if(cell == END)
+                return SegmentOutcome.WIN;
+            if(cell == NON_TRACK)
+                crashed = true;
+
+            if (x0 == x1 && y0 == y1)
+                break;
+
+            int e2 = 2 * err;
+            if (e2 > -dy) {
+                err -= dy;
+                x0 += sx;
+            }
+            if (e2 < dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+
+        return crashed ? SegmentOutcome.CRASH : SegmentOutcome.CLEAR;
+    }
+
+
+    /**
+     * Returns a hash of the layout of the circuit.
+     * Two grids have the same hash if and only if (barring collisions) they have the same dimensions and nodes,
+     * so the hash can be used to identify a circuit regardless of the file it was loaded from.
+     *
+     * @return The SHA-256 of the grid, as a lowercase hexadecimal string.
+     */
+    public String getContentHash() {
+        String hash = this.contentHash;
+        if(hash == null) {
+            hash = computeContentHash();
+            this.contentHash = hash;
+        }
+        return hash;
+    }
+
+
+    private String computeContentHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(2 * Integer.BYTES).putInt(this.width).putInt(this.height).array());
+            digest.update(this.cells);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CircuitGrid grid = (CircuitGrid) o;
+        return this.width == grid.width && this.height == grid.height && Arrays.equals(this.cells, grid.cells);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.width + this.height) + Arrays.hashCode(this.cells);
+    }
+
+
+    @Override
+    public String toString() {
+        return "CircuitGrid: " + this.width + "x" + this.height + ", " + getTrackCellCount() + " track nodes";
+    }
+}
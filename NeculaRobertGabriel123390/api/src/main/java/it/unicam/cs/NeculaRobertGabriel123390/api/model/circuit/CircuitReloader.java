@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitLine;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNode;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.StartEndCircuitLine;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.SymbolViolation;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.LoadingLogger;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitSymbols;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+
+/**
+ * Loads a circuit file and loads it again after it has been edited, doing as little work as the edit allows.
+ * <p>
+ * If only the rows of the circuit of a TXT file changed, only those rows are decoded again, and the new circuit is
+ * validated with {@link CircuitValidator#validateRows}, which looks for narrow zones only around the changed rows.
+ * Any other edit, or a file of another format, is loaded again through the {@link CompiledCircuitCache}.
+ * Either way the new data is published in the cache, so that it is found by the next load of the same content.
+ * </p>
+ * <p>
+ * A reload that fails leaves the reloader with the last valid data, so the edit can be fixed and reloaded.
+ * </p>
+ */
+public final class CircuitReloader {
+
+
+    /**
+     * The value of {@link #getChangedRows()} when the whole file has been parsed.
+     */
+    public static final int WHOLE_FILE = -1;
+
+
+    private static final String TXT_SUFFIX = ".txt";
+
+
+    private final File file;
+
+
+    private final CompiledCircuitCache cache;
+
+
+    /**
+     * The rows of the last valid content of a TXT file, or {@code null} if the file can't be reloaded row by row.
+     */
+    private List<String> rows;
+
+
+    private CompiledCircuitData data;
+
+
+    private int changedRows = WHOLE_FILE;
+
+
+    /**
+     * Constructs a {@code CircuitReloader}, loading the given file through the cache.
+     *
+     * @param file The circuit file.
+     * @param cache The cache through which the file is loaded and where the reloaded circuits are published.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while reading the file.
+     * @throws FileFormatError if the content of the file is not valid.
+     */
+    public CircuitReloader(File file, CompiledCircuitCache cache) {
+        if(file == null)
+            throw new NullPointerException("file is null");
+        if(cache == null)
+            throw new NullPointerException("cache is null");
+
+        this.file = file;
+        this.cache = cache;
+        byte[] content = read();
+        this.data = cache.load(file, ByteBuffer.wrap(content));
+        this.rows = splitRows(content, this.data);
+    }
+
+
+    /**
+     * Loads the file again, if its content changed since the last load.
+     *
+     * @return The data of the new content of the file, or the current data if the content didn't change.
+     * @throws FileParsingException if an I/O error occurs while reading the file.
+     * @throws FileFormatError if the new content of the file is not valid.
+     */
+    public synchronized CompiledCircuitData reload() {
+        byte[] content = read();
+        String contentHash = CompiledCircuitCache.hash(content);
+        if(contentHash.equals(this.data.getContentHash())) {
+            this.changedRows = 0;
+            return this.data;
+        }
+
+        List<String> newRows = splitRows(content, this.data);
+        BitSet changedRows = circuitRowChanges(newRows);
+        CompiledCircuitData newData;
+        if(changedRows == null) {
+            newData = this.cache.load(this.file, ByteBuffer.wrap(content));
+            newRows = splitRows(content, newData);
+        } else
+            newData = this.cache.put(reloadRows(contentHash, newRows, changedRows));
+
+        this.data = newData;
+        this.rows = newRows;
+        this.changedRows = changedRows == null ? WHOLE_FILE : changedRows.cardinality();
+        return newData;
+    }
+
+
+    private byte[] read() {
+        try {
+            return Files.readAllBytes(this.file.toPath());
+        } catch (IOException e) {
+            throw new FileParsingException("Error parsing file", e);
+        }
+    }
+
+
+    /**
+     * Splits the content of a TXT file in rows as the TXT parsers do, one character per byte.
+     *
+     * @return The rows, or {@code null} if the data doesn't come from a TXT file.
+     */
+    private List<String> splitRows(byte[] content, CompiledCircuitData data) {
+        if(!this.file.getName().toLowerCase().endsWith(TXT_SUFFIX) || !(data.getSourceData() instanceof TXTStreamedData))
+            return null;
+
+        List<String> rows = new ArrayList<>(TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW + 1);
+        String text = new String(content, StandardCharsets.ISO_8859_1);
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            if(character != '\n' && character != '\r')
+                continue;
+
+            rows.add(text.substring(start, i));
+            if(character == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n')
+                i++;
+            start = i + 1;
+        }
+        if(start < text.length())
+            rows.add(text.substring(start));
+        return rows;
+    }
+
+
+    /**
+     * Finds the rows of the circuit that differ from the last valid content.
+     *
+     * @return The Y-coordinates of the changed rows, or {@code null} if any other row changed.
+     */
+    private BitSet circuitRowChanges(List<String> newRows) {
+        if(this.rows == null || newRows == null || newRows.size() != this.rows.size())
+            return null;
+
+        BitSet changedRows = new BitSet();
+        for (int row = 0; row < newRows.size(); row++) {
+            if(newRows.get(row).equals(this.rows.get(row)))
+                continue;
+            if(row < 1 || row > TXTCircuitSetup.MAX_NODES_Y)
+                return null;
+            changedRows.set(row);
+        }
+        return changedRows;
+    }
+
+
+    /**
+     * Decodes the changed rows into the states of the current data and creates the new circuit from them.
+     */
+    private CompiledCircuitData reloadRows(String contentHash, List<String> newRows, BitSet changedRows) {
+        TXTStreamedData source = (TXTStreamedData) this.data.getSourceData();
+        CircuitNodeState[] nodeStates = source.getData();
+        List<SymbolViolation> violations = new ArrayList<>();
+
+        for (int row = changedRows.nextSetBit(0); row >= 0; row = changedRows.nextSetBit(row + 1)) {
+            String line = newRows.get(row);
+            if(line.length() != TXTCircuitSetup.MAX_NODES_X)
+                LoadingLogger.logErrorAndThrow("Circuit length is not valid. Expected " + TXTCircuitSetup.MAX_NODES_X
+                        + " characters, found " + line.length() + ". (line " + row + ")", FileFormatError::new);
+
+            for (int x = 0; x < TXTCircuitSetup.MAX_NODES_X; x++) {
+                CircuitNodeState state = CircuitSymbols.getState(line.charAt(x));
+                if(state == null)
+                    violations.add(new SymbolViolation(row, x, line.charAt(x)));
+                nodeStates[(row - source.getFirstRow()) * source.getWidth() + x] = state;
+            }
+        }
+        if(!violations.isEmpty())
+            LoadingLogger.logErrorAndThrow(SymbolViolation.describe(violations), FileFormatError::new);
+
+        TXTStreamedData newSource = new TXTStreamedData(nodeStates, source.getWidth(), source.getFirstRow(),
+                source.getBotCount(), source.getBotLevel(), source.getHumanPlayers());
+        return new CompiledCircuitData(contentHash, CompiledCircuit.compile(createCircuit(newSource, changedRows)), newSource);
+    }
+
+
+    /**
+     * Creates the circuit of the given data, validating only the region around the changed rows.
+     */
+    private static Circuit createCircuit(TXTStreamedData data, BitSet changedRows) {
+        LinkedHashMap<Position, CircuitNode> circuitMap = new LinkedHashMap<>();
+        CircuitLine startLine = new StartEndCircuitLine();
+        CircuitLine endLine = new StartEndCircuitLine();
+
+        for (int row = 0; row < data.getHeight(); row++) {
+            for (int x = 0; x < data.getWidth(); x++) {
+                CircuitNodeState state = data.getNodeState(x, row);
+                if(state == CircuitNodeState.nonTrackNode)
+                    continue;
+
+                Position position = new Position(x, row + data.getFirstRow());
+                circuitMap.put(position, new CircuitNode(position, state));
+                if(state == CircuitNodeState.startNode)
+                    startLine.addNode(position);
+                else if(state == CircuitNodeState.endNode)
+                    endLine.addNode(position);
+            }
+        }
+
+        CircuitValidator.validateRows(circuitMap, startLine, endLine, changedRows);
+        return new Circuit(circuitMap, startLine, endLine, null);
+    }
+
+
+    /**
+     * Returns the data of the last valid content of the file.
+     *
+     * @return The current data of the file.
+     */
+    public synchronized CompiledCircuitData getData() {return this.data;}
+
+
+    /**
+     * Returns the number of rows of the circuit decoded again by the last reload.
+     *
+     * @return The number of changed rows, {@code 0} if the content didn't change, or {@link #WHOLE_FILE}
+     *         if the whole file was parsed.
+     */
+    public synchronized int getChangedRows() {return this.changedRows;}
+
+
+    /**
+     * Returns the file loaded by this reloader.
+     *
+     * @return The circuit file.
+     */
+    public File getFile() {return this.file;}
+}
@@ -26,6 +26,9 @@ package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
 
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.UnsupportedFileException;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.VRCParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
 
 import java.util.HashMap;
@@ -44,6 +47,9 @@ public final class CircuitSetupFactory {
 
     static {
         setups.put(TXTParsedData.class, new TXTCircuitSetup());
+        setups.put(TXTStreamedData.class, new TXTStreamedCircuitSetup());
+        setups.put(VRCParsedData.class, new VRCCircuitSetup());
+        setups.put(CompiledCircuitData.class, new CompiledCircuitSetup());
     }
 
     /**
@@ -25,9 +25,9 @@ package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
 
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
-import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitUtils;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -35,6 +35,12 @@ import java.util.Map;
 /**
  * Provides validation methods for circuits and their components.
  * Ensures that the circuit map, start line, and end line meet the required criteria.
+ * <p>
+ * The narrow zones are looked for in a single pass over a {@link TrackMask}, one bit per node, testing the
+ * neighbours of 64 nodes at a time with shifts instead of looking them up in the circuit map. The same mask is
+ * flood filled from the start line, to reject circuits whose end line can't be reached.
+ * A {@link Circuit} is validated once, when it is built, and remembers it, so validating it again costs nothing.
+ * </p>
  */
 public final class CircuitValidator {
 
@@ -56,6 +62,8 @@ public final class CircuitValidator {
     public static void validate(Circuit circuit) {
         if (circuit == null)
             throw new NullPointerException("Circuit is null");
+        if (circuit.isValidated())
+            return;
         validate(circuit.getCircuitMap(), circuit.getStartLine(), circuit.getEndLine());
     }
 
@@ -79,11 +87,47 @@ public final class CircuitValidator {
         validateStartLine(circuitMap, startLine);
         validateEndLine(circuitMap, endLine);
         validateStartEndLinePositioning(circuitMap, startLine, endLine);
-        checkForNarrowZones(circuitMap);
+        TrackMask mask = TrackMask.of(circuitMap);
+        checkForNarrowZones(mask, null);
+        checkReachability(mask, startLine, endLine);
 
     }
 
 
+    /**
+     * Validates a circuit that differs from a valid circuit only in the given rows.
+     * The start and end lines are validated as in {@link #validate(Map, CircuitLine, CircuitLine)}, while the narrow
+     * zones are only looked for in the changed rows and in the rows next to them, since whether a node is in a narrow
+     * zone depends only on its 4 neighbours.
+     *
+     * @param circuitMap the map of circuit nodes.
+     * @param startLine the starting line of the circuit.
+     * @param endLine the ending line of the circuit.
+     * @param changedRows the Y-coordinates of the rows that changed.
+     * @throws NullPointerException if any of the parameters are null.
+     * @throws IllegalArgumentException if the circuit map is empty or the lines do not meet the minimum requirements.
+     * @throws FileFormatError if the lines are too close or a changed region contains a narrow zone.
+     */
+    static void validateRows(Map<Position, CircuitNode> circuitMap, CircuitLine startLine, CircuitLine endLine, BitSet changedRows) {
+        if (circuitMap == null)
+            throw new NullPointerException("CircuitNodes is null");
+        if (changedRows == null)
+            throw new NullPointerException("changedRows is null");
+        if (circuitMap.isEmpty())
+            throw new IllegalArgumentException("No circuit node was provided for the circuit.");
+        validateStartLine(circuitMap, startLine);
+        validateEndLine(circuitMap, endLine);
+        validateStartEndLinePositioning(circuitMap, startLine, endLine);
+
+        BitSet affectedRows = new BitSet();
+        for (int row = changedRows.nextSetBit(0); row >= 0; row = changedRows.nextSetBit(row + 1))
+            affectedRows.set(Math.max(row - 1, 0), row + 2);
+        TrackMask mask = TrackMask.of(circuitMap);
+        checkForNarrowZones(mask, affectedRows);
+        checkReachability(mask, startLine, endLine);
+    }
+
+
     /**
      * Validates the starting line of the circuit.
      * Ensures that the start line is not null, is not empty, and that the circuit map contains all positions of the start line.
@@ -190,51 +234,34 @@ public final class CircuitValidator {
 
     /**
      * Checks for narrow zones in the circuit map by ensuring that each node has sufficient neighboring nodes.
-     * A narrow zone is identified if a node has fewer than 2 neighbors or does not have valid neighbors
-     * in both horizontal and vertical directions, as defined by the presence of neighboring nodes in the
-     * left-right and up-down directions.
+     * A narrow zone is identified if a node does not have a neighbour in both horizontal and vertical directions,
+     * as defined by the presence of neighboring nodes in the left-right and up-down directions.
+     * If several zones are narrow, the first one row by row is reported.
      *
-     * @param circuitMap the map of positions to circuit nodes representing the circuit.
+     * @param mask the mask of the nodes of the circuit.
+     * @param rows the Y-coordinates of the rows to check, or {@code null} to check every row.
      * @throws FileFormatError if a zone with insufficient neighboring nodes is detected.
      */
-    private static void checkForNarrowZones(Map<Position, CircuitNode> circuitMap) {
-        for (Position position : circuitMap.keySet()) {
-            List<Position> neighbours = CircuitUtils.get4Neighbours(circuitMap, position);
-            if (neighbours.size() < 2 || !hasValidNeighbours(neighbours, position))
-                throw new FileFormatError("The circuit map contains a zone at " + position + " where the width is less then 2");
-        }
+    private static void checkForNarrowZones(TrackMask mask, BitSet rows) {
+        Position position = rows == null ? mask.findNarrowNode() : mask.findNarrowNode(rows);
+        if (position != null)
+            throw new FileFormatError("The circuit map contains a zone at " + position + " where the width is less then 2");
     }
 
 
     /**
-     * Determines if the given list of neighboring positions includes at least two valid neighbors
-     * such that there are at least one neighbor to the left or right and at least one neighbor above or below
-     * the given node position. This ensures that the node is part of a valid circuit with sufficient width.
+     * Checks that the end line can be reached from the start line moving through the nodes of the circuit.
+     * A player can always stop and move to any of the 8 neighbours of its position, so the end line can be reached
+     * by a legal trajectory if and only if it is connected to the start line through neighbouring nodes.
+     * Since the whole circuit is needed to tell, this check is done on every validation, even of a few changed rows.
      *
-     * @param neighbours a list of {@link Position} objects representing the neighboring positions of a node.
-     * @param position the position of the node whose neighbors are being checked.
-     * @return {@code true} if the node has valid neighbors in both horizontal and vertical directions;
-     *         {@code false} otherwise.
+     * @param mask the mask of the nodes of the circuit.
+     * @param startLine the starting line of the circuit.
+     * @param endLine the ending line of the circuit.
+     * @throws FileFormatError if the end line can't be reached from the start line.
      */
-    private static boolean hasValidNeighbours(List<Position> neighbours, Position position) {
-        boolean hasLeft = false, hasRight = false;
-        boolean hasUp = false, hasDown = false;
-
-        for (Position neighbour : neighbours) {
-            // Check horizontal neighbors
-            if (neighbour.getX() == position.getX() - 1 && neighbour.getY() == position.getY())
-                hasLeft = true;
-            if (neighbour.getX() == position.getX() + 1 && neighbour.getY() == position.getY())
-                hasRight = true;
-
-            // Check vertical neighbors
-            if (neighbour.getX() == position.getX() && neighbour.getY() == position.getY() - 1)
-                hasDown = true;
-            if (neighbour.getX() == position.getX() && neighbour.getY() == position.getY() + 1)
-                hasUp = true;
-        }
-
-        return (hasLeft || hasRight) && (hasUp || hasDown);
-
+    private static void checkReachability(TrackMask mask, CircuitLine startLine, CircuitLine endLine) {
+        if (!mask.connects(startLine.getPositions(), endLine.getPositions()))
+            throw new FileFormatError("The end line can't be reached from the start line");
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+
+/**
+ * Immutable form of a validated {@link Circuit}, from which new circuits can be created without parsing
+ * or validating the layout again.
+ * <p>
+ * A circuit changes during a race, as its nodes get occupied and its lines colored, so it can't be shared between races.
+ * A compiled circuit keeps only what doesn't change: the {@link CircuitGrid} of the layout and the cells of the
+ * start and end lines in their order, and {@link #instantiate()} creates new nodes and lines from them.
+ * The tables derived from the grid by the bots are kept by content hash, so every circuit created from the same
+ * compiled circuit shares them.
+ * </p>
+ */
+public final class CompiledCircuit {
+
+
+    private final CircuitGrid grid;
+
+
+    private final int[] startCells;
+
+
+    private final int[] endCells;
+
+
+    /**
+     * Constructs a {@code CompiledCircuit} from a layout that has already been validated.
+     *
+     * @param grid The layout of the circuit.
+     * @param startCells The cells of the start line, as {@code y * width + x}, in the order of the line.
+     * @param endCells The cells of the end line, as {@code y * width + x}, in the order of the line.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if a cell of the lines is not a start or end cell of the grid.
+     */
+    CompiledCircuit(CircuitGrid grid, int[] startCells, int[] endCells) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+        if(startCells == null || endCells == null)
+            throw new NullPointerException("line cells are null");
+        validateLine(grid, startCells, CircuitGrid.START);
+        validateLine(grid, endCells, CircuitGrid.END);
+
+        this.grid = grid;
+        this.startCells = startCells.clone();
+        this.endCells = endCells.clone();
+    }
+
+
+    private static void validateLine(CircuitGrid grid, int[] cells, byte code) {
+        for(int cell : cells)
+            if(cell < 0 || cell >= grid.getWidth() * grid.getHeight()
+                    || grid.getCell(cell % grid.getWidth(), cell / grid.getWidth()) != code)
+                throw new IllegalArgumentException("Cell " + cell + " is not a line cell of the grid");
+    }
+
+
+    /**
+     * Compiles the given circuit, which has been validated when it was created.
+     *
+     * @param circuit The circuit to compile.
+     * @return The compiled circuit.
+     * @throws NullPointerException if {@code circuit} is {@code null}.
+     */
+    public static CompiledCircuit compile(Circuit circuit) {
+        if(circuit == null)
+            throw new NullPointerException("circuit is null");
+
+        CircuitGrid grid = circuit.getGrid();
+        return new CompiledCircuit(grid, toCells(grid, circuit.getStartLine()), toCells(grid, circuit.getEndLine()));
+    }
+
+
+    private static int[] toCells(CircuitGrid grid, CircuitLine line) {
+        List<Position> positions = line.getPositions();
+        int[] cells = new int[positions.size()];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = positions.get(i).getY() * grid.getWidth() + positions.get(i).getX();
+        return cells;
+    }
+
+
+    /**
+     * Creates a new circuit with the layout of this compiled circuit, ready for a race.
+     *
+     * @return A new {@link Circuit}, with new nodes and lines.
+     */
+    public Circuit instantiate() {
+        LinkedHashMap<Position, CircuitNode> circuitMap = LinkedHashMap.newLinkedHashMap(this.grid.getTrackCellCount());
+        for (int i = 0; i < this.grid.getTrackCellCount(); i++) {
+            int x = this.grid.getTrackCellX(i);
+            int y = this.grid.getTrackCellY(i);
+            Position position = new Position(x, y);
+            circuitMap.put(position, new CircuitNode(position, this.grid.getState(x, y)));
+        }
+
+        return new Circuit(circuitMap, createLine(this.startCells), createLine(this.endCells), this.grid);
+    }
+
+
+    private CircuitLine createLine(int[] cells) {
+        CircuitLine line = new StartEndCircuitLine();
+        for(int cell : cells)
+            line.addNode(new Position(cell % this.grid.getWidth(), cell / this.grid.getWidth()));
+        return line;
+    }
+
+
+    /**
+     * Returns the layout of the circuit.
+     *
+     * @return The grid of the circuit.
+     */
+    public CircuitGrid getGrid() {return this.grid;}
+
+
+    /**
+     * Returns the cells of the start line, as {@code y * width + x}, in the order of the line.
+     *
+     * @return A copy of the cells of the start line.
+     */
+    public int[] getStartCells() {return this.startCells.clone();}
+
+
+    /**
+     * Returns the cells of the end line, as {@code y * width + x}, in the order of the line.
+     *
+     * @return A copy of the cells of the end line.
+     */
+    public int[] getEndCells() {return this.endCells.clone();}
+}
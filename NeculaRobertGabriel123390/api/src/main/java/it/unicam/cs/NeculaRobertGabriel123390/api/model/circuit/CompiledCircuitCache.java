@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Cache of the {@link CompiledCircuit} of the circuit files, keyed by the SHA-256 hash of their content.
+ * <p>
+ * Loading a circuit file through the cache reads the file once, mapping it if it is large, and hashes and parses the
+ * same bytes, so a file changing while it is loaded never gets the hash of another content. If a file with the same content has already
+ * been loaded, its {@link CompiledCircuitData} is returned without parsing or validating anything. Files with the same
+ * content loaded at the same time by several threads may be compiled more than once, but all of them get the same data. Otherwise the file
+ * is parsed, its circuit is created and validated once, and the result is kept in memory, evicting the least recently
+ * used entry when the cache holds {@link #getMaxEntries()} entries.
+ * </p>
+ * <p>
+ * A cache can also store the compiled circuits in a directory, so that they survive the application.
+ * A compiled circuit file is made of a fixed header followed by the cells of the grid and of the lines:
+ * </p>
+ * <pre>
+ *     int magic, int version, int width, int height, int startCount, int endCount,
+ *     byte[width * height] cells, int[startCount] startCells, int[endCount] endCells
+ * </pre>
+ * <p>
+ * A file found there is trusted as the cache wrote it after validating the circuit, so only the players
+ * of the circuit file are parsed.
+ * </p>
+ */
+public final class CompiledCircuitCache {
+
+
+    /**
+     * Number of circuits kept in memory by {@link #getDefault()}.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+
+
+    /**
+     * Extension of the compiled circuit files.
+     */
+    public static final String EXTENSION = "vrcc";
+
+
+    private static final int MAGIC = 0x56524343;
+
+
+    /**
+     * Version of the compiled circuit files, changed along with the validation of the circuits,
+     * so that circuits validated by older rules are compiled again.
+     */
+    private static final int VERSION = 2;
+
+
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+
+    private static volatile CompiledCircuitCache defaultCache;
+
+
+    private final int maxEntries;
+
+
+    private final Path directory;
+
+
+    private final LinkedHashMap<String, CompiledCircuitData> entries;
+
+
+    /**
+     * Constructs a {@code CompiledCircuitCache} that keeps the circuits in memory only.
+     *
+     * @param maxEntries The maximum number of circuits kept in memory.
+     * @throws IllegalArgumentException if {@code maxEntries} is not positive.
+     */
+    public CompiledCircuitCache(int maxEntries) {
+        this(maxEntries, null, false);
+    }
+
+
+    /**
+     * Constructs a {@code CompiledCircuitCache} that keeps the circuits in memory and stores them in the given directory.
+     * The directory is created when the first circuit is stored.
+     *
+     * @param maxEntries The maximum number of circuits kept in memory.
+     * @param directory The directory of the compiled circuit files.
+     * @throws NullPointerException if {@code directory} is {@code null}.
+     * @throws IllegalArgumentException if {@code maxEntries} is not positive.
+     */
+    public CompiledCircuitCache(int maxEntries, Path directory) {
+        this(maxEntries, directory, true);
+    }
+
+
+    private CompiledCircuitCache(int maxEntries, Path directory, boolean stored) {
+        if(maxEntries <= 0)
+            throw new IllegalArgumentException("maxEntries needs to be positive");
+        if(stored && directory == null)
+            throw new NullPointerException("directory is null");
+
+        this.maxEntries = maxEntries;
+        this.directory = directory;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledCircuitData> eldest) {
+                return size() > CompiledCircuitCache.this.maxEntries;
+            }
+        };
+    }
+
+
+    /**
+     * Returns the cache shared by the application, which keeps up to {@link #DEFAULT_MAX_ENTRIES} circuits in memory.
+     *
+     * @return The default cache.
+     */
+    public static CompiledCircuitCache getDefault() {
+        CompiledCircuitCache cache = defaultCache;
+        if(cache == null) {
+            synchronized (CompiledCircuitCache.class) {
+                if(defaultCache == null)
+                    defaultCache = new CompiledCircuitCache(DEFAULT_MAX_ENTRIES);
+                cache = defaultCache;
+            }
+        }
+        return cache;
+    }
+
+
+    /**
+     * Loads the given circuit file, compiling its circuit only if no file with the same content has been loaded.
+     *
+     * @param file The circuit file.
+     * @return The data of the file, from which races are set up as from the data of its {@link FileParserFactory parser}.
+     * @throws NullPointerException if {@code file} is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while reading the file.
+     * @throws FileFormatError if the content of the file is not valid.
+     */
+    public CompiledCircuitData load(File file) {
+        if(file == null)
+            throw new NullPointerException("file is null");
+        return load(file, readContent(file));
+    }
+
+
+    /**
+     * Loads the given content of a circuit file, compiling its circuit only if no file with the same content has been loaded.
+     * Used by the {@link CircuitReloader}, which has already read the file.
+     *
+     * @param file The circuit file, whose name gives the format of the content.
+     * @param content The content of the file, between the position and the limit of the buffer, which are left unchanged.
+     * @return The data of the file.
+     * @throws FileFormatError if the content is not valid.
+     */
+    CompiledCircuitData load(File file, ByteBuffer content) {
+        String contentHash = hash(content);
+        CompiledCircuitData data = get(contentHash);
+        if(data != null)
+            return data;
+
+        ParsedData<?> parsedData = FileParserFactory.getMappedParser(file).parseContent(file, content);
+        CompiledCircuit compiledCircuit = this.directory == null ? null : read(contentHash);
+        if(compiledCircuit == null) {
+            compiledCircuit = CompiledCircuit.compile(CircuitSetupFactory.getCircuitSetup(parsedData).setup(parsedData));
+            if(this.directory != null)
+                store(contentHash, compiledCircuit);
+        }
+
+        return put(new CompiledCircuitData(contentHash, compiledCircuit, parsedData));
+    }
+
+
+    /**
+     * Keeps the given data in memory, unless data with the same content hash is already there.
+     * Used by the {@link CircuitReloader} to publish the circuits it compiles itself.
+     *
+     * @param data The data of a circuit file.
+     * @return The data kept in memory for the content hash of {@code data}.
+     */
+    CompiledCircuitData put(CompiledCircuitData data) {
+        synchronized (this.entries) {
+            CompiledCircuitData loadedData = this.entries.putIfAbsent(data.getContentHash(), data);
+            return loadedData == null ? data : loadedData;
+        }
+    }
+
+
+    /**
+     * Returns the data of the file with the given content hash, if it is in memory.
+     *
+     * @param contentHash The SHA-256 hash of the content of the file, in hexadecimal.
+     * @return The data of the file, or {@code null} if it is not in memory.
+     */
+    public CompiledCircuitData get(String contentHash) {
+        synchronized (this.entries) {
+            return this.entries.get(contentHash);
+        }
+    }
+
+
+    /**
+     * Returns the compiled circuit of the file with the given content hash, looking for it in memory
+     * and then, if the cache stores the circuits, in its directory.
+     * Used to refer to a circuit by its hash, without the file it was loaded from.
+     *
+     * @param contentHash The SHA-256 hash of the content of the file, in hexadecimal.
+     * @return The compiled circuit, or {@code null} if the cache doesn't have it.
+     * @throws NullPointerException if {@code contentHash} is {@code null}.
+     * @throws IllegalArgumentException if {@code contentHash} is not a SHA-256 hash in hexadecimal.
+     */
+    public CompiledCircuit getCompiledCircuit(String contentHash) {
+        if(contentHash == null)
+            throw new NullPointerException("contentHash is null");
+        if(contentHash.length() != 64 || !contentHash.chars().allMatch(HexFormat::isHexDigit))
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + contentHash);
+
+        CompiledCircuitData data = get(contentHash);
+        if(data != null)
+            return data.getData();
+        return this.directory == null ? null : read(contentHash);
+    }
+
+
+    /**
+     * Returns the number of circuits in memory.
+     *
+     * @return The number of entries of the cache.
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+
+    /**
+     * Removes every circuit from memory. The stored files are kept.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+
+    /**
+     * Reads the content of the given file with a single read, mapping the files of at least
+     * {@link FileParserFactory#MAPPED_FILE_THRESHOLD} bytes instead of copying them on the heap.
+     * A valid TXT file never reaches the threshold (see {@link it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTMappedFileParser}),
+     * so for now the mapping is mostly taken by files that are then rejected.
+     */
+    private static ByteBuffer readContent(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE)
+                throw new FileParsingException("Error parsing file", new IOException(file.getName() + " is too large"));
+            if(size >= FileParserFactory.MAPPED_FILE_THRESHOLD)
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            ByteBuffer content = ByteBuffer.allocate((int) size);
+            while (content.hasRemaining())
+                if(channel.read(content) < 0)
+                    break;
+            return content.flip();
+        } catch (IOException e) {
+            throw new FileParsingException("Error parsing file", e);
+        }
+    }
+
+
+    /**
+     * Returns the SHA-256 hash of the given content, in hexadecimal.
+     */
+    static String hash(byte[] content) {
+        return hash(ByteBuffer.wrap(content));
+    }
+
+
+    /**
+     * Returns the SHA-256 hash of the remaining bytes of the given buffer, in hexadecimal, without changing its position.
+     */
+    static String hash(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
+    private Path filePath(String contentHash) {
+        return this.directory.resolve(contentHash + "-v" + VERSION + "." + EXTENSION);
+    }
+
+
+    /**
+     * Reads the compiled circuit stored for the given content hash.
+     *
+     * @return The compiled circuit, or {@code null} if the file is missing, unreadable or not valid.
+     */
+    private CompiledCircuit read(String contentHash) {
+        Path file = filePath(contentHash);
+        if(!Files.isRegularFile(file))
+            return null;
+
+        try {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+            if(content.remaining() < HEADER_SIZE || content.getInt() != MAGIC || content.getInt() != VERSION)
+                return null;
+
+            int width = content.getInt();
+            int height = content.getInt();
+            int startCount = content.getInt();
+            int endCount = content.getInt();
+            if(width <= 0 || height <= 0 || startCount < 0 || endCount < 0
+                    || content.remaining() != (long) width * height + (long) (startCount + endCount) * Integer.BYTES)
+                return null;
+
+            byte[] cells = new byte[width * height];
+            content.get(cells);
+            int[] startCells = new int[startCount];
+            for (int i = 0; i < startCount; i++)
+                startCells[i] = content.getInt();
+            int[] endCells = new int[endCount];
+            for (int i = 0; i < endCount; i++)
+                endCells[i] = content.getInt();
+            return new CompiledCircuit(new CircuitGrid(width, height, cells), startCells, endCells);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Writes the given compiled circuit to a temporary file and moves it in place, so that readers
+     * never see a partially written circuit. A failure only means the circuit will be compiled again.
+     */
+    private void store(String contentHash, CompiledCircuit compiledCircuit) {
+        CircuitGrid grid = compiledCircuit.getGrid();
+        int[] startCells = compiledCircuit.getStartCells();
+        int[] endCells = compiledCircuit.getEndCells();
+        ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + grid.getWidth() * grid.getHeight()
+                + (startCells.length + endCells.length) * Integer.BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(grid.getWidth())
+                .putInt(grid.getHeight())
+                .putInt(startCells.length)
+                .putInt(endCells.length);
+        for (int y = 0; y < grid.getHeight(); y++)
+            for (int x = 0; x < grid.getWidth(); x++)
+                content.put(grid.getCell(x, y));
+        for(int cell : startCells)
+            content.putInt(cell);
+        for(int cell : endCells)
+            content.putInt(cell);
+
+        Path file = filePath(contentHash);
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(this.directory);
+            temporaryFile = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+            Files.write(temporaryFile, content.array());
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+
+    private static void deleteQuietly(Path file) {
+        if(file == null)
+            return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Nothing else can be done, the circuit will be stored again by the next load.
+        }
+    }
+
+
+    /**
+     * Returns the maximum number of circuits kept in memory.
+     *
+     * @return The maximum number of entries of the cache.
+     */
+    public int getMaxEntries() {return this.maxEntries;}
+
+
+    /**
+     * Returns the directory of the compiled circuit files.
+     *
+     * @return The directory of the cache, or {@code null} if the circuits are kept in memory only.
+     */
+    public Path getDirectory() {return this.directory;}
+}
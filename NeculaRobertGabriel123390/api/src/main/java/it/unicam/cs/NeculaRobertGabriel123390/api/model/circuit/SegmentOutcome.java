@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+/**
+ * Enumeration representing the outcome of moving along a segment of a {@link CircuitGrid}.
+ * <p>
+ * The outcome mirrors the rules applied by the race handlers: a segment ending outside the board is a crash;
+ * otherwise crossing the end line wins the race, even if the segment leaves the track afterward,
+ * and leaving the track is a crash.
+ * Collisions with other players are not considered, since they depend on the state of the race.
+ * </p>
+ */
+public enum SegmentOutcome {
+
+
+    /**
+     * Indicates that every node of the segment is part of the track and none of them is on the end line.
+     */
+    CLEAR,
+
+
+    /**
+     * Indicates that the segment doesn't win and at least one of its nodes is not part of the track,
+     * or that it ends outside the board.
+     */
+    CRASH,
+
+
+    /**
+     * Indicates that the segment crosses the end line and ends on the board.
+     */
+    WIN
+}
@@ -30,6 +30,7 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedDataValidator
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedDataValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedData;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitSymbols;
 
 
 import java.util.ArrayList;
@@ -192,12 +193,9 @@ public final class TXTCircuitSetup implements CircuitSetup {
      * @return CircuitNodeState the state based on character value
      */
     public static CircuitNodeState getNodeTypeFromCharacter(char c) {
-        return switch (c) {
-            case '#' -> CircuitNodeState.nonTrackNode;
-            case '@' -> CircuitNodeState.trackNode;
-            case '+' -> CircuitNodeState.startNode;
-            case '-' -> CircuitNodeState.endNode;
-            default -> throw new FileFormatError("Unexpected character: " + c);
-        };
+        CircuitNodeState state = CircuitSymbols.getState(c);
+        if(state == null)
+            throw new FileFormatError("Unexpected character: " + c);
+        return state;
     }
 }
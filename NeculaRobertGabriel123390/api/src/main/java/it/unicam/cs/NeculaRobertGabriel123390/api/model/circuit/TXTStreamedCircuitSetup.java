@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamedData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Class that sets up a circuit from the data of a {@link TXTStreamedData}.
+ * <p>
+ * The data has already been validated while the file was read, so the circuit is created with a single pass
+ * over the states of its nodes, filling the circuit map and the start and end lines at the same time.
+ * Every call creates new nodes, as the nodes of a circuit change state during a race.
+ * </p>
+ */
+public final class TXTStreamedCircuitSetup implements CircuitSetup {
+
+
+    /**
+     * Sets up a {@link Circuit} using the provided parsed file data.
+     *
+     * @param fileData the parsed file data, expected to be of type {@link TXTStreamedData}.
+     * @return a {@link Circuit} object representing the setup circuit.
+     * @throws NullPointerException if the provided file data is null.
+     * @throws IllegalArgumentException if the file data is not of the expected type.
+     */
+    @Override
+    public Circuit setup(ParsedData<?> fileData) {
+        if(fileData == null)
+            throw new NullPointerException("fileData is null");
+        if(!(fileData instanceof TXTStreamedData data))
+            throw new IllegalArgumentException("fileData is not a TXTStreamedData");
+
+        Map<Position, CircuitNode> circuitMap = new LinkedHashMap<>();
+        CircuitLine startLine = new StartEndCircuitLine();
+        CircuitLine endLine = new StartEndCircuitLine();
+
+        for (int row = 0; row < data.getHeight(); row++) {
+            for (int x = 0; x < data.getWidth(); x++) {
+                CircuitNodeState state = data.getNodeState(x, row);
+                if(state == CircuitNodeState.nonTrackNode)
+                    continue;
+
+                Position position = new Position(x, row + data.getFirstRow());
+                circuitMap.put(position, new CircuitNode(position, state));
+                if(state == CircuitNodeState.startNode)
+                    startLine.addNode(position);
+                else if(state == CircuitNodeState.endNode)
+                    endLine.addNode(position);
+            }
+        }
+
+        return new Circuit(circuitMap, startLine, endLine);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNode;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+
+
+/**
+ * Bit mask of the nodes of a circuit map, used by {@link CircuitValidator} to look for narrow zones
+ * and to check that the end line can be reached from the start line.
+ * <p>
+ * The nodes are stored row by row, where each row is made of as many longs as needed for the width of the circuit.
+ * The horizontal neighbours of the nodes of a long are found shifting it by one bit, carrying the bit of the next long,
+ * and the vertical ones are the longs of the rows above and below.
+ * </p>
+ * <p>
+ * Circuit nodes are at most {@link TXTCircuitSetup#MAX_NODES_X} + 1 wide, so a row of a circuit fits in one long and
+ * the whole mask in a few dozen longs: checking it takes less than handing it to another thread.
+ * </p>
+ */
+final class TrackMask {
+
+
+    private final long[] mask;
+
+
+    private final int minX;
+
+
+    private final int minY;
+
+
+    private final int height;
+
+
+    /**
+     * The number of longs of each row.
+     */
+    private final int rowLength;
+
+
+    private TrackMask(long[] mask, int minX, int minY, int height, int rowLength) {
+        this.mask = mask;
+        this.minX = minX;
+        this.minY = minY;
+        this.height = height;
+        this.rowLength = rowLength;
+    }
+
+
+    /**
+     * Creates the mask of the nodes of the given circuit map.
+     *
+     * @param circuitMap a non-empty map of positions to circuit nodes.
+     * @return The mask of the nodes of the map.
+     */
+    static TrackMask of(Map<Position, CircuitNode> circuitMap) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (Position position : circuitMap.keySet()) {
+            minX = Math.min(minX, position.getX());
+            minY = Math.min(minY, position.getY());
+            maxX = Math.max(maxX, position.getX());
+            maxY = Math.max(maxY, position.getY());
+        }
+
+        int height = maxY - minY + 1;
+        int rowLength = ((maxX - minX) >>> 6) + 1;
+        long[] mask = new long[Math.multiplyExact(height, rowLength)];
+        for (Position position : circuitMap.keySet()) {
+            int x = position.getX() - minX;
+            mask[(position.getY() - minY) * rowLength + (x >>> 6)] |= 1L << x;
+        }
+        return new TrackMask(mask, minX, minY, height, rowLength);
+    }
+
+
+    /**
+     * Finds the first node, row by row, that doesn't have a neighbour in both horizontal and vertical directions.
+     *
+     * @return The position of the node, or {@code null} if there is no narrow zone.
+     */
+    Position findNarrowNode() {return findNarrowNode(0, this.height);}
+
+
+    /**
+     * Finds the first node of the given rows that doesn't have a neighbour in both horizontal and vertical directions.
+     *
+     * @param rows the Y-coordinates of the rows to check.
+     * @return The position of the node, or {@code null} if there is no narrow zone in the rows.
+     */
+    Position findNarrowNode(BitSet rows) {
+        for (int y = rows.nextSetBit(Math.max(this.minY, 0)); y >= 0 && y < this.minY + this.height; y = rows.nextSetBit(y + 1)) {
+            Position narrowNode = findNarrowNode(y - this.minY, y - this.minY + 1);
+            if (narrowNode != null)
+                return narrowNode;
+        }
+        return null;
+    }
+
+
+    /**
+     * Checks the rows of the mask from {@code fromRow} (inclusive) to {@code toRow} (exclusive).
+     */
+    private Position findNarrowNode(int fromRow, int toRow) {
+        for (int y = fromRow; y < toRow; y++) {
+            int row = y * this.rowLength;
+            for (int i = 0; i < this.rowLength; i++) {
+                long nodes = this.mask[row + i];
+                if (nodes == 0)
+                    continue;
+
+                long left = nodes << 1 | (i > 0 ? this.mask[row + i - 1] >>> 63 : 0);
+                long right = nodes >>> 1 | (i + 1 < this.rowLength ? this.mask[row + i + 1] << 63 : 0);
+                long up = y > 0 ? this.mask[row - this.rowLength + i] : 0;
+                long down = y + 1 < this.height ? this.mask[row + this.rowLength + i] : 0;
+                long narrowNodes = nodes & ~((left | right) & (up | down));
+                if (narrowNodes != 0)
+                    return new Position(this.minX + (i << 6) + Long.numberOfTrailingZeros(narrowNodes), this.minY + y);
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Checks if any of the targets can be reached from any of the sources, moving from node to node of the mask
+     * through any of the 8 neighbours, as a player can move diagonally between nodes touching at a corner.
+     * <p>
+     * The nodes are visited breadth first, marking them in a second mask when they are queued,
+     * so every node is visited at most once and the check is linear in the number of nodes.
+     * </p>
+     *
+     * @param sources the positions from which the nodes are visited.
+     * @param targets the positions to reach.
+     * @return {@code true} if a target node is reached, {@code false} otherwise.
+     */
+    boolean connects(Collection<Position> sources, Collection<Position> targets) {
+        long[] targetMask = new long[this.mask.length];
+        for (Position target : targets) {
+            int cell = getCell(target);
+            if (cell >= 0)
+                targetMask[cell >>> 6] |= 1L << cell;
+        }
+
+        long[] visited = new long[this.mask.length];
+        int[] queue = new int[getNodeCount()];
+        int head = 0, tail = 0;
+        for (Position source : sources) {
+            int cell = getCell(source);
+            if (cell >= 0 && isSet(this.mask, cell) && !isSet(visited, cell)) {
+                visited[cell >>> 6] |= 1L << cell;
+                queue[tail++] = cell;
+            }
+        }
+
+        int stride = this.rowLength << 6;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (isSet(targetMask, cell))
+                return true;
+
+            int x = cell % stride, y = cell / stride;
+            for (int neighbourY = Math.max(y - 1, 0); neighbourY <= Math.min(y + 1, this.height - 1); neighbourY++)
+                for (int neighbourX = Math.max(x - 1, 0); neighbourX <= Math.min(x + 1, stride - 1); neighbourX++) {
+                    int neighbour = neighbourY * stride + neighbourX;
+                    if (isSet(this.mask, neighbour) && !isSet(visited, neighbour)) {
+                        visited[neighbour >>> 6] |= 1L << neighbour;
+                        queue[tail++] = neighbour;
+                    }
+                }
+        }
+        return false;
+    }
+
+
+    /**
+     * Returns the index of the bit of the given position, or -1 if the position is outside the mask.
+     */
+    private int getCell(Position position) {
+        int x = position.getX() - this.minX, y = position.getY() - this.minY;
+        if (x < 0 || y < 0 || x >= this.rowLength << 6 || y >= this.height)
+            return -1;
+        return y * (this.rowLength << 6) + x;
+    }
+
+
+    private int getNodeCount() {
+        int count = 0;
+        for (long nodes : this.mask)
+            count += Long.bitCount(nodes);
+        return count;
+    }
+
+
+    private static boolean isSet(long[] mask, int cell) {
+        return (mask[cell >>> 6] & 1L << cell) != 0;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuit;
+
+
+/**
+ * Implementation of the {@link ParsedData} interface for the circuits kept by the
+ * {@link it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache}.
+ * <p>
+ * It holds the {@link CompiledCircuit} of a file, from which the circuits are created without validating them again,
+ * and the data parsed from the same file, from which the players are created.
+ * </p>
+ */
+public final class CompiledCircuitData implements ParsedData<CompiledCircuit> {
+
+
+    private final String contentHash;
+
+
+    private final CompiledCircuit compiledCircuit;
+
+
+    private final ParsedData<?> sourceData;
+
+
+    /**
+     * Constructs a {@code CompiledCircuitData}.
+     *
+     * @param contentHash The hash of the content of the file.
+     * @param compiledCircuit The compiled circuit of the file.
+     * @param sourceData The data parsed from the file.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public CompiledCircuitData(String contentHash, CompiledCircuit compiledCircuit, ParsedData<?> sourceData) {
+        if(contentHash == null)
+            throw new NullPointerException("contentHash is null");
+        if(compiledCircuit == null)
+            throw new NullPointerException("compiledCircuit is null");
+        if(sourceData == null)
+            throw new NullPointerException("sourceData is null");
+
+        this.contentHash = contentHash;
+        this.compiledCircuit = compiledCircuit;
+        this.sourceData = sourceData;
+    }
+
+
+    /**
+     * Retrieves the compiled circuit of the file.
+     *
+     * @return the compiled circuit.
+     */
+    @Override
+    public CompiledCircuit getData() {return this.compiledCircuit;}
+
+
+    /**
+     * Returns the data parsed from the file, used to create the players.
+     *
+     * @return The parsed data of the file.
+     */
+    public ParsedData<?> getSourceData() {return this.sourceData;}
+
+
+    /**
+     * Returns the hash of the content of the file, which identifies the entry in the cache.
+     *
+     * @return The SHA-256 hash of the file, in hexadecimal.
+     */
+    public String getContentHash() {return this.contentHash;}
+}
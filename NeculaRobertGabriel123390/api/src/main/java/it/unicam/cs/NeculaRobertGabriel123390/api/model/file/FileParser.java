@@ -25,6 +25,7 @@ package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
 
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -46,4 +47,22 @@ public interface FileParser {
      */
     ParsedData<?> parseFile(File file);
 
+
+    /**
+     * Parses the content of the given file, already read in memory, so that the bytes that have been parsed are the
+     * ones the caller read, e.g. to hash them, and the file is not read twice.
+     * The default implementation reads the file again; the parsers able to decode the bytes override it.
+     *
+     * @param file the file the content was read from, whose name gives its format
+     * @param content the bytes of the file, between the position and the limit of the buffer, which are left unchanged
+     * @return {@link ParsedData} the data representation specific to the file's format
+     * @throws NullPointerException if {@code file} or {@code content} is {@code null}
+     * @throws IllegalArgumentException if the file format is unsupported or if the content is invalid
+     */
+    default ParsedData<?> parseContent(File file, ByteBuffer content) {
+        if(content == null)
+            throw new NullPointerException("content is null");
+        return parseFile(file);
+    }
+
 }
@@ -49,6 +49,19 @@ public final class FileParserFactory {
     private static final Map<String, FileParser> parserMap = new HashMap<>();
 
 
+    private static final Map<String, FileParser> streamingParserMap = new HashMap<>();
+
+
+    private static final Map<String, FileParser> mappedParserMap = new HashMap<>();
+
+
+    /**
+     * The size, in bytes, from which {@link #getStreamingParser(File)} returns the parser that maps the file in memory.
+     * No valid TXT file reaches it yet, see {@link TXTMappedFileParser}.
+     */
+    public static final long MAPPED_FILE_THRESHOLD = 1L << 20;
+
+
     /**
      * Private constructor to prevent instantiation.
      * <p>
@@ -61,6 +74,12 @@ public final class FileParserFactory {
 
     static {
         parserMap.put("txt", new TXTFileParser());
+        streamingParserMap.put("txt", new TXTStreamingFileParser());
+        mappedParserMap.put("txt", new TXTMappedFileParser());
+        parserMap.put(VRCFileParser.EXTENSION, new VRCFileParser());
+        ImageFileParser imageParser = new ImageFileParser();
+        parserMap.put(ImageFileParser.PGM_EXTENSION, imageParser);
+        parserMap.put("png", imageParser);
         // Add other parsers here
     }
 
@@ -89,6 +108,59 @@ public final class FileParserFactory {
     }
 
 
+    /**
+     * Returns a {@link FileParser} for the specified file that reads it in a single pass,
+     * producing data that the setups can use without validating it again.
+     * <p>
+     * Files of at least {@link #MAPPED_FILE_THRESHOLD} bytes are read through the parser of
+     * {@link #getMappedParser(File)}, smaller ones through a buffered stream. If no such parser is registered
+     * for the file extension, the parser of {@link #getParser(File)} is returned.
+     * </p>
+     *
+     * @param file The file for which the parser is to be obtained.
+     * @return A {@link FileParser} instance for the file's extension.
+     * @throws UnsupportedFileException If the file format is not supported by any registered parser.
+     */
+    public static FileParser getStreamingParser(File file) {
+        validateFile(file);
+        if(file.length() >= MAPPED_FILE_THRESHOLD)
+            return getMappedParser(file);
+
+        FileParser parser = streamingParserMap.get(getFileExtension(file.getName()));
+        return parser == null ? getParser(file) : parser;
+    }
+
+
+    /**
+     * Returns a {@link FileParser} for the specified file that maps it in memory and decodes it
+     * straight from the mapped bytes, producing the same data as {@link #getStreamingParser(File)}.
+     * <p>
+     * If no such parser is registered for the file extension, the parser of {@link #getParser(File)} is returned.
+     * </p>
+     *
+     * @param file The file for which the parser is to be obtained.
+     * @return A {@link FileParser} instance for the file's extension.
+     * @throws UnsupportedFileException If the file format is not supported by any registered parser.
+     */
+    public static FileParser getMappedParser(File file) {
+        validateFile(file);
+        FileParser parser = mappedParserMap.get(getFileExtension(file.getName()));
+        return parser == null ? getParser(file) : parser;
+    }
+
+
+    /**
+     * Checks if a parser is registered for the extension of the given file.
+     *
+     * @param file The file to check.
+     * @return {@code true} if the file can be parsed.
+     */
+    public static boolean isSupported(File file) {
+        validateFile(file);
+        return parserMap.containsKey(getFileExtension(file.getName()));
+    }
+
+
     /**
      * Validates that the provided file is not null.
      * <p>
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+/**
+ * A record representing a single problem found in a circuit file by {@link TXTParsedDataValidator#validateAll(ParsedData)}.
+ *
+ * @param kind The part of the file the problem was found in.
+ * @param line The index of the line of the file, as in the messages of the parsers, or {@link #NO_LINE}.
+ * @param column The index of the character in the line, or {@link #NO_COLUMN}.
+ * @param message The description of the problem.
+ */
+public record FileViolation(Kind kind, int line, int column, String message) {
+
+
+    /**
+     * Line of the problems that are not bound to a line, such as the ones of the whole circuit.
+     */
+    public static final int NO_LINE = -1;
+
+
+    /**
+     * Column of the problems that are not bound to a character of their line.
+     */
+    public static final int NO_COLUMN = -1;
+
+
+    /**
+     * The parts of a circuit file a problem can be found in.
+     */
+    public enum Kind {
+
+        /**
+         * The headers of the sections and the number of lines of the file.
+         */
+        STRUCTURE,
+
+        /**
+         * The length of a row of the circuit.
+         */
+        CIRCUIT_ROW,
+
+        /**
+         * A symbol of a row of the circuit.
+         */
+        SYMBOL,
+
+        /**
+         * The players count and the human players declarations.
+         */
+        PLAYERS,
+
+        /**
+         * The circuit as a whole, e.g. its narrow zones or its start and end lines.
+         */
+        CIRCUIT
+    }
+
+
+    /**
+     * Constructs a new {@code FileViolation}.
+     *
+     * @param kind The part of the file the problem was found in.
+     * @param line The index of the line, or {@link #NO_LINE}.
+     * @param column The index of the character, or {@link #NO_COLUMN}.
+     * @param message The description of the problem.
+     * @throws NullPointerException if {@code kind} or {@code message} is {@code null}.
+     * @throws IllegalArgumentException if {@code line} or {@code column} is negative and not the value of no line or column.
+     */
+    public FileViolation {
+        if(kind == null)
+            throw new NullPointerException("kind is null");
+        if(message == null)
+            throw new NullPointerException("message is null");
+        if(line < NO_LINE || column < NO_COLUMN)
+            throw new IllegalArgumentException("line and column can't be negative");
+    }
+
+
+    /**
+     * Creates the violation of an invalid symbol of a circuit row.
+     *
+     * @param violation The invalid symbol.
+     * @return The violation.
+     * @throws NullPointerException if {@code violation} is {@code null}.
+     */
+    public static FileViolation of(SymbolViolation violation) {
+        if(violation == null)
+            throw new NullPointerException("violation is null");
+        return new FileViolation(Kind.SYMBOL, violation.line(), violation.column(),
+                "Invalid symbol '" + violation.symbol() + "'");
+    }
+
+
+    @Override
+    public String toString() {
+        if(this.line == NO_LINE)
+            return this.message;
+        if(this.column == NO_COLUMN)
+            return "line " + this.line + ": " + this.message;
+        return "line " + this.line + ", column " + this.column + ": " + this.message;
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.LoadingLogger;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayersCount;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataFormatImpl;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Class that implements the {@link FileParser} interface for circuits drawn as raster images.
+ * <p>
+ * Every pixel is a node of the circuit, and its class gives the state of the node as defined by {@link #PIXEL_CLASSES}:
+ * in grayscale images the range of values is split in as many bands as there are classes, from the darkest to the
+ * lightest, so a black, dark gray, light gray and white image is read as walls, start line, end line and track;
+ * in indexed images the class is the palette index. The first row of pixels is the first row of the circuit,
+ * as in the TXT files.
+ * </p>
+ * <p>
+ * PGM files, both binary ({@code P5}) and plain ({@code P2}), are decoded directly; the other formats, such as PNG,
+ * are read through {@link ImageIO}. The players are declared in the text of the image, as in the TXT files:
+ * a {@value #PLAYERS_KEY} entry with the players count and, if there are human players, a {@value #HUMANS_KEY}
+ * entry with their names and colors. In PGM files they are comments such as {@code # players: 1B 1H greedy},
+ * in PNG files text chunks with those keywords.
+ * </p>
+ * <p>
+ * The size of the image is checked before its pixels are decoded, so an image larger than the circuits that
+ * can be raced on is rejected without decoding it.
+ * </p>
+ */
+public final class ImageFileParser implements FileParser {
+
+
+    /**
+     * The extension of the PGM files, which are decoded without {@link ImageIO}.
+     */
+    public static final String PGM_EXTENSION = "pgm";
+
+
+    /**
+     * The keyword of the text entry declaring the players count, as {@code 2B 1H greedy}.
+     */
+    public static final String PLAYERS_KEY = "players";
+
+
+    /**
+     * The keyword of the text entry declaring the human players, as {@code robert:red,shaz:blue}.
+     */
+    public static final String HUMANS_KEY = "humans";
+
+
+    /**
+     * The states of the pixel classes, from the darkest to the lightest or by palette index.
+     */
+    public static final List<CircuitNodeState> PIXEL_CLASSES = List.of(CircuitNodeState.nonTrackNode,
+            CircuitNodeState.startNode, CircuitNodeState.endNode, CircuitNodeState.trackNode);
+
+
+    /**
+     * Parses the given image into a {@link TXTStreamedData} object.
+     *
+     * @param file the image chosen by the user to be parsed.
+     * @return {@link TXTStreamedData} representing the validated circuit and players.
+     * @throws NullPointerException if the file is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while reading the file.
+     * @throws FileFormatError if the image is not a valid circuit.
+     */
+    @Override
+    public ParsedData<?> parseFile(File file) {
+        TXTStreamingFileParser.validateFile(file);
+
+        try {
+            if(file.getName().toLowerCase().endsWith("." + PGM_EXTENSION))
+                return parsePGM(Files.readAllBytes(file.toPath()));
+            return parseImage(file, file.getName());
+        } catch (IOException e) {
+            throw new FileParsingException("Error parsing file", e);
+        }
+    }
+
+
+    /**
+     * Parses the given content of an image, as read from the file.
+     *
+     * @param file the image the content was read from, whose extension tells if it is a PGM file.
+     * @param content the bytes of the file, between the position and the limit of the buffer, which are left unchanged.
+     * @return {@link TXTStreamedData} representing the validated circuit and players.
+     * @throws NullPointerException if {@code file} or {@code content} is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while decoding the image.
+     * @throws FileFormatError if the image is not a valid circuit.
+     */
+    @Override
+    public ParsedData<?> parseContent(File file, ByteBuffer content) {
+        TXTStreamingFileParser.validateFile(file);
+        if(content == null)
+            throw new NullPointerException("content is null");
+
+        byte[] bytes = new byte[content.remaining()];
+        content.get(content.position(), bytes);
+        try {
+            if(file.getName().toLowerCase().endsWith("." + PGM_EXTENSION))
+                return parsePGM(bytes);
+            return parseImage(new ByteArrayInputStream(bytes), file.getName());
+        } catch (IOException e) {
+            throw new FileParsingException("Error parsing file", e);
+        }
+    }
+
+
+    /**
+     * Parses the content of a PGM file.
+     *
+     * @param content the bytes of the file.
+     * @return {@link TXTStreamedData} representing the validated circuit and players.
+     * @throws NullPointerException if {@code content} is {@code null}.
+     * @throws FileFormatError if the content is not a valid circuit.
+     */
+    public TXTStreamedData parsePGM(byte[] content) {
+        if(content == null)
+            throw new NullPointerException("content is null");
+
+        PGMReader reader = new PGMReader(content);
+        String magic = reader.nextToken();
+        if(!magic.equals("P5") && !magic.equals("P2"))
+            fail("The file is not a PGM image, it starts with " + magic);
+
+        int width = reader.nextNumber();
+        int height = reader.nextNumber();
+        checkDimensions(width, height);
+        int maxValue = reader.nextNumber();
+        if(maxValue <= 0 || maxValue > 0xFFFF)
+            fail("The maximum gray value of a PGM image needs to be between 1 and 65535, found " + maxValue);
+
+        CircuitNodeState[] states = new CircuitNodeState[width * height];
+        if(magic.equals("P5"))
+            reader.skipSingleWhitespace();
+        for (int i = 0; i < states.length; i++) {
+            int value = magic.equals("P5") ? reader.nextSample(maxValue > 0xFF) : reader.nextNumber();
+            states[i] = grayState(value, maxValue, i % width, i / width);
+        }
+
+        return createData(states, width, reader.comments);
+    }
+
+
+    /**
+     * Parses an image in any format readable by {@link ImageIO}, from a file or a stream.
+     */
+    private TXTStreamedData parseImage(Object source, String name) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if(readers == null || !readers.hasNext())
+                fail("The image format of " + name + " is not supported");
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int width = reader.getWidth(0);
+                checkDimensions(width, reader.getHeight(0));
+                Map<String, String> text = readText(reader.getImageMetadata(0));
+                return createData(decodePixels(reader.read(0)), width, text);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+
+    /**
+     * Reads the text entries of the image from its metadata in the standard format.
+     */
+    private static Map<String, String> readText(IIOMetadata metadata) {
+        Map<String, String> text = new HashMap<>();
+        if(metadata == null || !metadata.isStandardMetadataFormatSupported())
+            return text;
+
+        Node root = metadata.getAsTree(IIOMetadataFormatImpl.standardMetadataFormatName);
+        for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if(!child.getNodeName().equals("Text"))
+                continue;
+            for (Node entry = child.getFirstChild(); entry != null; entry = entry.getNextSibling()) {
+                NamedNodeMap attributes = entry.getAttributes();
+                Node keyword = attributes == null ? null : attributes.getNamedItem("keyword");
+                Node value = attributes == null ? null : attributes.getNamedItem("value");
+                if(keyword != null && value != null)
+                    text.put(keyword.getNodeValue().trim().toLowerCase(), value.getNodeValue().trim());
+            }
+        }
+        return text;
+    }
+
+
+    /**
+     * Decodes the pixels of an image: indexed images by palette index, the others by gray level.
+     */
+    private CircuitNodeState[] decodePixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Raster raster = image.getRaster();
+        CircuitNodeState[] states = new CircuitNodeState[width * height];
+
+        if(image.getColorModel() instanceof IndexColorModel) {
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++) {
+                    int index = raster.getSample(x, y, 0);
+                    if(index >= PIXEL_CLASSES.size())
+                        fail("The pixel at column " + x + ", row " + y + " has palette index " + index
+                                + ", only the first " + PIXEL_CLASSES.size() + " colors are circuit nodes");
+                    states[y * width + x] = PIXEL_CLASSES.get(index);
+                }
+        } else if(raster.getNumBands() <= 2) {
+            int maxValue = (1 << raster.getSampleModel().getSampleSize(0)) - 1;
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    states[y * width + x] = grayState(raster.getSample(x, y, 0), maxValue, x, y);
+        } else {
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++) {
+                    int rgb = image.getRGB(x, y);
+                    int gray = (299 * ((rgb >> 16) & 0xFF) + 587 * ((rgb >> 8) & 0xFF) + 114 * (rgb & 0xFF) + 500) / 1000;
+                    states[y * width + x] = grayState(gray, 0xFF, x, y);
+                }
+        }
+        return states;
+    }
+
+
+    /**
+     * Returns the state of a pixel of the given gray value.
+     */
+    private CircuitNodeState grayState(int value, int maxValue, int x, int y) {
+        if(value > maxValue)
+            fail("The pixel at column " + x + ", row " + y + " has value " + value + ", above the maximum of " + maxValue);
+        return PIXEL_CLASSES.get((int) ((long) value * PIXEL_CLASSES.size() / (maxValue + 1)));
+    }
+
+
+    /**
+     * Checks that the image fits in the area where circuits are drawn.
+     */
+    private void checkDimensions(int width, int height) {
+        if(width <= 0 || height <= 0)
+            fail("The image is empty");
+        if(width > TXTCircuitSetup.MAX_NODES_X || height > TXTCircuitSetup.MAX_NODES_Y)
+            fail("The image of " + width + "x" + height + " pixels exceeds the maximum circuit of "
+                    + TXTCircuitSetup.MAX_NODES_X + "x" + TXTCircuitSetup.MAX_NODES_Y + " nodes");
+    }
+
+
+    /**
+     * Creates the data of the circuit, reading the players from the text of the image.
+     */
+    private TXTStreamedData createData(CircuitNodeState[] states, int width, Map<String, String> text) {
+        String playersCount = text.get(PLAYERS_KEY);
+        if(playersCount == null)
+            fail("The image does not declare the players with a '" + PLAYERS_KEY + "' text entry");
+
+        try {
+            PlayersCount count = PlayerDeclarations.parseCount(playersCount);
+            List<TXTStreamedData.HumanPlayerData> humanPlayers = count.humans() == 0
+                    ? List.of() : PlayerDeclarations.parseHumans(text.getOrDefault(HUMANS_KEY, ""), count.humans());
+            return new TXTStreamedData(states, width, 1, count.bots(), count.botLevel(), humanPlayers);
+        } catch (FileFormatError e) {
+            fail(e.getMessage());
+            return null;
+        }
+    }
+
+
+    private static void fail(String message) {
+        LoadingLogger.logErrorAndThrow(message, FileFormatError::new);
+    }
+
+
+    /**
+     * Reads the tokens, comments and samples of a PGM file.
+     */
+    private static final class PGMReader {
+
+
+        private final byte[] content;
+
+
+        private final Map<String, String> comments = new HashMap<>();
+
+
+        private int position;
+
+
+        private PGMReader(byte[] content) {
+            this.content = content;
+        }
+
+
+        /**
+         * Returns the next token of the header, collecting the {@code key: value} comments met before it.
+         */
+        private String nextToken() {
+            skipWhitespaceAndComments();
+            int start = this.position;
+            while (this.position < this.content.length && !isWhitespace(this.content[this.position]) && this.content[this.position] != '#')
+                this.position++;
+            if(start == this.position)
+                fail("The PGM image is truncated");
+            return new String(this.content, start, this.position - start, StandardCharsets.US_ASCII);
+        }
+
+
+        private int nextNumber() {
+            String token = nextToken();
+            try {
+                return Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                fail("Expected a number in the PGM image, found " + token);
+                return 0;
+            }
+        }
+
+
+        private void skipWhitespaceAndComments() {
+            while (this.position < this.content.length) {
+                byte next = this.content[this.position];
+                if(next == '#')
+                    readComment();
+                else if(isWhitespace(next))
+                    this.position++;
+                else
+                    return;
+            }
+        }
+
+
+        private void readComment() {
+            int start = ++this.position;
+            while (this.position < this.content.length && this.content[this.position] != '\n' && this.content[this.position] != '\r')
+                this.position++;
+
+            String comment = new String(this.content, start, this.position - start, StandardCharsets.UTF_8);
+            int separator = comment.indexOf(':');
+            if(separator > 0)
+                this.comments.putIfAbsent(comment.substring(0, separator).trim().toLowerCase(), comment.substring(separator + 1).trim());
+        }
+
+
+        private void skipSingleWhitespace() {
+            if(this.position >= this.content.length || !isWhitespace(this.content[this.position]))
+                fail("The PGM header needs to end with a whitespace");
+            this.position++;
+        }
+
+
+        /**
+         * Returns the next binary sample, of one byte or of two bytes in big-endian order.
+         */
+        private int nextSample(boolean wide) {
+            int size = wide ? 2 : 1;
+            if(this.position + size > this.content.length)
+                fail("The PGM image is truncated");
+
+            int sample = this.content[this.position++] & 0xFF;
+            if(wide)
+                sample = (sample << 8) | (this.content[this.position++] & 0xFF);
+            return sample;
+        }
+
+
+        private static boolean isWhitespace(byte value) {
+            return value == ' ' || value == '\t' || value == '\n' || value == '\r' || value == '\f' || value == 0x0B;
+        }
+    }
+}
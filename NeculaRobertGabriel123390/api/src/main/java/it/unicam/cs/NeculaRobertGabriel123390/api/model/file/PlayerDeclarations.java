@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategyFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayerUtils;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayersCount;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Utility class that decodes and checks the player declarations shared by the circuit formats:
+ * the players count, as {@code "2B 1H greedy"}, and the human players, as {@code "robert:red,shaz:blue"}.
+ * <p>
+ * Errors are thrown as {@link FileFormatError} without being logged, so that the parsers can add
+ * the position where they were found before logging them.
+ * </p>
+ */
+final class PlayerDeclarations {
+
+
+    /**
+     * Don't allow user to instantiate a PlayerDeclarations object because that's not how this class is meant to work.
+     */
+    private PlayerDeclarations() {}
+
+
+    /**
+     * Decodes the players count.
+     *
+     * @param line The players count declaration.
+     * @return The players count, with the {@link BotStrategyConstants#DEFAULT_LEVEL} if no level is declared.
+     * @throws FileFormatError if the declaration is not valid, there are less than 2 players or the level is unknown.
+     */
+    static PlayersCount parseCount(String line) {
+        PlayersCount playersCount = PlayerUtils.parsePlayersCount(line);
+        if(playersCount.total() < 2)
+            throw new FileFormatError("A minimum of 2 players is required.");
+
+        String level = playersCount.botLevel();
+        if(level != null && !BotStrategyFactory.isLevel(level))
+            throw new FileFormatError("Unknown bot level: " + level + ". Known levels are " + BotStrategyFactory.getLevels());
+        return new PlayersCount(playersCount.bots(), playersCount.humans(), level == null ? BotStrategyConstants.DEFAULT_LEVEL : level);
+    }
+
+
+    /**
+     * Decodes the human players.
+     *
+     * @param line The human players declaration.
+     * @param humanCount The number of human players declared by the players count.
+     * @return The human players, in the order of the declaration.
+     * @throws FileFormatError if the declaration is not valid or doesn't hold {@code humanCount} players.
+     */
+    static List<TXTStreamedData.HumanPlayerData> parseHumans(String line, int humanCount) {
+        String[] humanData = line.split(",");
+        if(humanData.length != humanCount)
+            throw new FileFormatError("Mismatch between declared and supplied human player data.");
+
+        List<TXTStreamedData.HumanPlayerData> players = new ArrayList<>(humanData.length);
+        for(String data : humanData) {
+            String[] playerInfo = data.split(":");
+            if(playerInfo.length != 2)
+                throw new FileFormatError("Name or color for the player are missing");
+            if(playerInfo[0].isEmpty())
+                throw new FileFormatError("A player does not have a name");
+            if(playerInfo[1].isEmpty())
+                throw new FileFormatError("A player does not have a color");
+
+            players.add(new TXTStreamedData.HumanPlayerData(playerInfo[0], toColor(playerInfo[1])));
+        }
+        return players;
+    }
+
+
+    private static Color toColor(String color) {
+        try {
+            return Color.valueOf(color);
+        } catch (IllegalArgumentException e) {
+            throw new FileFormatError("Unknown color " + color);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitSymbols;
+
+import java.util.List;
+
+
+/**
+ * A record representing an invalid symbol found in a circuit row of a file.
+ *
+ * @param line The index of the line of the file, which is also the Y-coordinate of the row.
+ * @param column The index of the symbol in the line, which is also its X-coordinate.
+ * @param symbol The invalid symbol.
+ */
+public record SymbolViolation(int line, int column, char symbol) {
+
+
+    /**
+     * The maximum number of violations listed by {@link #describe(List)}.
+     */
+    public static final int MAX_DESCRIBED = 10;
+
+
+    /**
+     * Describes the given violations in a single message, listing at most {@link #MAX_DESCRIBED} of them.
+     *
+     * @param violations The violations, in the order they were found.
+     * @return The message.
+     * @throws NullPointerException if {@code violations} is {@code null}.
+     * @throws IllegalArgumentException if {@code violations} is empty.
+     */
+    public static String describe(List<SymbolViolation> violations) {
+        if(violations == null)
+            throw new NullPointerException("violations is null");
+        if(violations.isEmpty())
+            throw new IllegalArgumentException("violations is empty");
+
+        StringBuilder message = new StringBuilder("Invalid symbols found: ");
+        for (int i = 0; i < Math.min(violations.size(), MAX_DESCRIBED); i++)
+            message.append(i == 0 ? "" : "; ").append(violations.get(i));
+        if(violations.size() > MAX_DESCRIBED)
+            message.append("; and ").append(violations.size() - MAX_DESCRIBED).append(" more");
+
+        return message.append(".\nOnly valid symbols are ").append(CircuitSymbols.VALID_SYMBOLS).append(".").toString();
+    }
+
+
+    @Override
+    public String toString() {return "'" + this.symbol + "' at line " + this.line + ", column " + this.column;}
+}
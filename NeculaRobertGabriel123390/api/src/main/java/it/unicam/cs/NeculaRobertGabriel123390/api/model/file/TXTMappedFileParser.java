@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Class that implements the {@link FileParser} interface for TXT files, reading them through a memory mapping.
+ * <p>
+ * The file is mapped with {@link FileChannel#map} and its bytes are decoded straight from the mapped buffer,
+ * as done by {@link TXTStreamingFileParser}, so they are never copied to the heap: no reader decodes them and no
+ * string is created for the rows of the circuit. The cost of loading a large file is then dominated by the page
+ * faults of the first access rather than by the parsing. Files larger than {@link #WINDOW_SIZE} are mapped one
+ * window at a time.
+ * </p>
+ * <p>
+ * Mapping a file has a fixed cost that is not worth paying for small files, which is why
+ * {@link FileParserFactory#getStreamingParser(File)} only returns this parser for files of at least
+ * {@link FileParserFactory#MAPPED_FILE_THRESHOLD} bytes.
+ * </p>
+ * <p>
+ * The TXT format can't describe a circuit that large yet: {@link TXTRowReader} requires rows of
+ * {@code MAX_NODES_X} characters and {@code MAX_NODES_Y} rows, so a valid file is a few kilobytes and every file
+ * above the threshold is rejected, at the first invalid row. Until the format allows larger circuits, the mapped
+ * path is only reached by such files and by callers of {@link FileParserFactory#getMappedParser(File)}.
+ * </p>
+ */
+public final class TXTMappedFileParser implements FileParser {
+
+
+    /**
+     * The maximum number of bytes mapped at the same time.
+     */
+    public static final long WINDOW_SIZE = 1L << 28;
+
+
+    /**
+     * Parses the given TXT file into a {@link TXTStreamedData} object.
+     *
+     * @param file the TXT file chosen by the user to be parsed.
+     * @return {@link TXTStreamedData} representing the validated file data.
+     * @throws NullPointerException if the file is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while mapping or reading the file.
+     * @throws FileFormatError if the content of the file is not valid.
+     */
+    @Override
+    public ParsedData<?> parseFile(File file) {
+        TXTStreamingFileParser.validateFile(file);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            TXTRowReader reader = new TXTRowReader();
+            long size = channel.size();
+            for (long position = 0; position < size; position += WINDOW_SIZE) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+                reader.accept(window);
+            }
+            return reader.finish();
+        } catch (IOException e) {
+            throw new FileParsingException("Error parsing file", e);
+        }
+    }
+
+
+    /**
+     * Parses the given content of a TXT file, e.g. a mapping of the whole file, into a {@link TXTStreamedData} object.
+     *
+     * @param file the TXT file the content was read from.
+     * @param content the bytes of the file, between the position and the limit of the buffer, which are left unchanged.
+     * @return {@link TXTStreamedData} representing the validated file data.
+     * @throws NullPointerException if {@code file} or {@code content} is {@code null}.
+     * @throws FileFormatError if the content is not valid.
+     */
+    @Override
+    public ParsedData<?> parseContent(File file, ByteBuffer content) {
+        TXTStreamingFileParser.validateFile(file);
+        if(content == null)
+            throw new NullPointerException("content is null");
+
+        TXTRowReader reader = new TXTRowReader();
+        reader.accept(content);
+        return reader.finish();
+    }
+}
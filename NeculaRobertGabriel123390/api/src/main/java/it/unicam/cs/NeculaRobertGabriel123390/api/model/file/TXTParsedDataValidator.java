@@ -24,12 +24,17 @@
 package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
 
 
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategyFactory;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.LoadingLogger;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitSymbols;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayerUtils;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayersCount;
+import javafx.scene.paint.Color;
 
 
+import java.time.Duration;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -41,6 +46,11 @@ import java.util.ArrayList;
  * for creating a circuit. It ensures that the file matches the expected format,
  * including checking the circuit layout, player data, and file structure.
  * </p>
+ * <p>
+ * The file can be validated in two modes, running the same checks: {@link #validateData(ParsedData)} stops at the
+ * first problem, logging it and throwing a {@link FileFormatError}, while {@link #validateAll(ParsedData)} scans
+ * the whole file once and returns every problem found in a {@link ValidationReport}, without logging them.
+ * </p>
  */
 public final class TXTParsedDataValidator implements ParsedDataValidator {
 
@@ -48,7 +58,13 @@ public final class TXTParsedDataValidator implements ParsedDataValidator {
     private List<String> dataToList;
 
 
-    private static final String SYMBOL_REGEX = "[@*#+-]*";
+    private PlayersCount playersCount;
+
+
+    /**
+     * The problems found so far by {@link #validateAll(ParsedData)}, or {@code null} if the validation stops at the first one.
+     */
+    private List<FileViolation> violations;
 
 
     /**
@@ -66,9 +82,37 @@ public final class TXTParsedDataValidator implements ParsedDataValidator {
     public void validateData(ParsedData<?> fileData) {
         validateFileData(fileData);
         this.dataToList = extractDataToList(fileData);
-        checkFileFormat();
-        checkPlayersFormat();
-        checkCircuitFormat();
+        this.violations = null;
+        checkFile();
+    }
+
+
+    /**
+     * Validates the given file data as {@link #validateData(ParsedData)} does, but collects every problem of the
+     * file instead of throwing at the first one.
+     * <p>
+     * If the format of the file is valid, the circuit is also created, so that the problems of the circuit as a whole,
+     * such as its narrow zones, are reported too.
+     * </p>
+     *
+     * @param fileData the parsed file data to be validated
+     * @return the report of the problems found and of the time spent finding them
+     * @throws NullPointerException if the file data is null.
+     * @throws IllegalArgumentException if the file data is not of type {@link TXTParsedData}
+     */
+    public ValidationReport validateAll(ParsedData<?> fileData) {
+        validateFileData(fileData);
+        long start = System.nanoTime();
+        this.dataToList = extractDataToList(fileData);
+        this.violations = new ArrayList<>();
+        try {
+            checkFile();
+            if(this.violations.isEmpty())
+                checkCircuit(fileData);
+            return new ValidationReport(this.violations, Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            this.violations = null;
+        }
     }
 
 
@@ -104,6 +148,62 @@ public final class TXTParsedDataValidator implements ParsedDataValidator {
     }
 
 
+    /**
+     * Reports a problem of the file: the problem is collected if all of them are being collected,
+     * otherwise it is logged and thrown.
+     *
+     * @param kind the part of the file the problem was found in
+     * @param line the index of the line, or {@link FileViolation#NO_LINE}
+     * @param column the index of the character, or {@link FileViolation#NO_COLUMN}
+     * @param message the description of the problem
+     * @throws FileFormatError if the problems are not being collected.
+     */
+    private void report(FileViolation.Kind kind, int line, int column, String message) {
+        if(this.violations == null)
+            LoadingLogger.logErrorAndThrow(message, FileFormatError::new);
+        this.violations.add(new FileViolation(kind, line, column, message));
+    }
+
+
+    /**
+     * Runs all the checks of the format of the file.
+     */
+    private void checkFile() {
+        if (this.dataToList.isEmpty()) {
+            report(FileViolation.Kind.STRUCTURE, FileViolation.NO_LINE, FileViolation.NO_COLUMN, "Circuit cannot be empty");
+            return;
+        }
+
+        this.playersCount = readPlayersCount();
+        checkFileFormat();
+        checkPlayersFormat();
+        checkCircuitFormat();
+    }
+
+
+    /**
+     * Parses the players count of the file.
+     *
+     * @return the players count, or {@code null} if it is missing or not valid and the problems are being collected.
+     */
+    private PlayersCount readPlayersCount() {
+        if (this.dataToList.size() <= TXTCircuitSetup.PLAYERS_COUNT_ROW) {
+            report(FileViolation.Kind.STRUCTURE, this.dataToList.size(), FileViolation.NO_COLUMN, "The file provided is too short. Line "
+                    + TXTCircuitSetup.PLAYERS_COUNT_ROW + " needs to be populated by the players count, like 2B 1H");
+            return null;
+        }
+
+        try {
+            return PlayerUtils.parsePlayersCount(this.dataToList.get(TXTCircuitSetup.PLAYERS_COUNT_ROW));
+        } catch (FileFormatError e) {
+            if (this.violations == null)
+                throw e;
+            report(FileViolation.Kind.PLAYERS, TXTCircuitSetup.PLAYERS_COUNT_ROW, FileViolation.NO_COLUMN, e.getMessage());
+            return null;
+        }
+    }
+
+
     /**
      * Checks the overall format of the TXT file, including header lines and file length.
      * <p>
@@ -115,43 +215,97 @@ public final class TXTParsedDataValidator implements ParsedDataValidator {
      * </p>
      */
     private void checkFileFormat() {
+        int playersHeaderRow = TXTCircuitSetup.MAX_NODES_Y + 1;
 
-        int lastRow;
-        if(PlayerUtils.getHumanCount(this.dataToList.get(TXTCircuitSetup.MAX_NODES_Y + 2)) == 0)
-            lastRow = 37;
-        else
-            lastRow = 38;
-
-        if (this.dataToList.isEmpty())
-            LoadingLogger.logErrorAndThrow("Circuit cannot be empty", FileFormatError.class);
         if (!this.dataToList.getFirst().equals("::CIRCUIT"))
-            LoadingLogger.logErrorAndThrow("Circuit does not have the first line equal to ::CIRCUIT", FileFormatError.class);
-        if (!this.dataToList.get(TXTCircuitSetup.MAX_NODES_Y + 1).equals("::PLAYERS"))
-            LoadingLogger.logErrorAndThrow("The " + TXTCircuitSetup.MAX_NODES_Y + " line in the file is not like ::PLAYERS. " + this.dataToList.get(TXTCircuitSetup.MAX_NODES_Y + 1) + " was found instead.", FileFormatError.class);
+            report(FileViolation.Kind.STRUCTURE, 0, FileViolation.NO_COLUMN, "Circuit does not have the first line equal to ::CIRCUIT");
+        if (this.dataToList.size() > playersHeaderRow && !this.dataToList.get(playersHeaderRow).equals("::PLAYERS"))
+            report(FileViolation.Kind.STRUCTURE, playersHeaderRow, FileViolation.NO_COLUMN, "The " + TXTCircuitSetup.MAX_NODES_Y
+                    + " line in the file is not like ::PLAYERS. " + this.dataToList.get(playersHeaderRow) + " was found instead.");
 
+        if (this.playersCount == null)
+            return;
 
-        if (this.dataToList.size() - 1 != lastRow)
-            LoadingLogger.logErrorAndThrow("The file provided is too long. The last row needs to be only populated by [name:color],[name:color] ... for human players", FileFormatError.class);
+        int lastRow;
+        if(this.playersCount.humans() == 0)
+            lastRow = TXTCircuitSetup.PLAYERS_COUNT_ROW;
+        else
+            lastRow = TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW;
 
+        if (this.dataToList.size() - 1 != lastRow)
+            report(FileViolation.Kind.STRUCTURE, Math.min(this.dataToList.size(), lastRow + 1), FileViolation.NO_COLUMN,
+                    "The file provided is too long. The last row needs to be only populated by [name:color],[name:color] ... for human players");
     }
 
 
     /**
      * Validates the player data format within the TXT file.
      * <p>
-     * This method ensures that there are enough players specified and that the format
-     * of the player data matches the expected pattern.
+     * This method ensures that there are enough players specified, that the level of the bots is a known one
+     * and that the human players are declared with a name and a color, as many as the players count says.
      * </p>
      */
     private void checkPlayersFormat() {
-        String playersString = this.dataToList.get(TXTCircuitSetup.PLAYERS_COUNT_ROW);
-        if (PlayerUtils.getBotCount(playersString) <= 0
-                && PlayerUtils.getHumanCount(playersString) <= 0)
-            LoadingLogger.logErrorAndThrow("Insufficient player count given. At least 2 player's are needed to create a race.", FileFormatError.class);
+        if (this.playersCount == null)
+            return;
+
+        if (this.playersCount.total() <= 0)
+            report(FileViolation.Kind.PLAYERS, TXTCircuitSetup.PLAYERS_COUNT_ROW, FileViolation.NO_COLUMN,
+                    "Insufficient player count given. At least 2 player's are needed to create a race.");
+        else if (this.playersCount.total() < 2)
+            report(FileViolation.Kind.PLAYERS, TXTCircuitSetup.PLAYERS_COUNT_ROW, FileViolation.NO_COLUMN, "A minimum of 2 players is required.");
+
+        String botLevel = this.playersCount.botLevel();
+        if (botLevel != null && !BotStrategyFactory.isLevel(botLevel))
+            report(FileViolation.Kind.PLAYERS, TXTCircuitSetup.PLAYERS_COUNT_ROW, FileViolation.NO_COLUMN,
+                    "Unknown bot level: " + botLevel + ". Known levels are " + BotStrategyFactory.getLevels());
+
+        if (this.playersCount.humans() > 0 && this.dataToList.size() > TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW)
+            checkHumanPlayersFormat(this.dataToList.get(TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW));
+    }
+
 
-        if (!this.dataToList.get(TXTCircuitSetup.PLAYERS_COUNT_ROW).matches(PlayerUtils.PLAYER_COUNT_REGEX))
-            LoadingLogger.logErrorAndThrow("The format of number of player needs to be xB yH where x is a non-negative number (>=0).", FileFormatError.class);
+    /**
+     * Validates the declarations of the human players, in the format "name:color,name:color".
+     *
+     * @param line the line of the human players declarations
+     */
+    private void checkHumanPlayersFormat(String line) {
+        int row = TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW;
+        String[] humanData = line.split(",");
+        if (humanData.length != this.playersCount.humans())
+            report(FileViolation.Kind.PLAYERS, row, FileViolation.NO_COLUMN, "Mismatch between declared and supplied human player data.");
+
+        int column = 0;
+        for (String data : humanData) {
+            String[] playerInfo = data.split(":");
+            if (playerInfo.length != 2)
+                report(FileViolation.Kind.PLAYERS, row, column, "Name or color for the player are missing");
+            else if (playerInfo[0].isEmpty())
+                report(FileViolation.Kind.PLAYERS, row, column, "A player does not have a name");
+            else if (playerInfo[1].isEmpty())
+                report(FileViolation.Kind.PLAYERS, row, column, "A player does not have a color");
+            else if (!isColor(playerInfo[1]))
+                report(FileViolation.Kind.PLAYERS, row, column + playerInfo[0].length() + 1, "Unknown color " + playerInfo[1]);
+
+            column += data.length() + 1;
+        }
+    }
 
+
+    /**
+     * Checks if the given string is the name or the code of a color.
+     *
+     * @param color the string to check
+     * @return true if the string can be converted to a {@link Color}
+     */
+    private static boolean isColor(String color) {
+        try {
+            Color.valueOf(color);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 
 
@@ -159,24 +313,47 @@ public final class TXTParsedDataValidator implements ParsedDataValidator {
      * Validates the circuit data format within the TXT file.
      * <p>
      * This method ensures that each line of the circuit data has the correct length
-     * and contains only valid symbols.
+     * and contains only valid symbols. The symbols are checked with a single scan of each line,
+     * and all the invalid ones are reported together with their line and column.
      * </p>
      */
     private void checkCircuitFormat() {
 
-        for (int i = 1; i <= TXTCircuitSetup.MAX_NODES_Y; i++) {
+        List<SymbolViolation> symbolViolations = new ArrayList<>();
+        int lastRow = Math.min(TXTCircuitSetup.MAX_NODES_Y, this.dataToList.size() - 1);
+        for (int i = 1; i <= lastRow; i++) {
 
             String line = this.dataToList.get(i);
 
             if (!checkLineLength(line))
-                LoadingLogger.logErrorAndThrow("Circuit length is not valid at line " + i + ".\n" +
-                        "Expected " + TXTCircuitSetup.MAX_NODES_X + " characters, found " + line.length() + ".", FileFormatError.class);
+                report(FileViolation.Kind.CIRCUIT_ROW, i, Math.min(line.length(), TXTCircuitSetup.MAX_NODES_X),
+                        "Circuit length is not valid at line " + i + ".\n" +
+                        "Expected " + TXTCircuitSetup.MAX_NODES_X + " characters, found " + line.length() + ".");
 
-            if (!checkLineSymbols(line))
-                LoadingLogger.logErrorAndThrow("Invalid symbol found at line " + i + ".\n" +
-                        "Only valid symbols are " + SYMBOL_REGEX + ".", FileFormatError.class);
+            findInvalidSymbols(line, i, symbolViolations);
         }
 
+        if (symbolViolations.isEmpty())
+            return;
+        if (this.violations == null)
+            LoadingLogger.logErrorAndThrow(SymbolViolation.describe(symbolViolations), FileFormatError::new);
+        for (SymbolViolation symbolViolation : symbolViolations)
+            this.violations.add(FileViolation.of(symbolViolation));
+    }
+
+
+    /**
+     * Creates the circuit of a file whose format is valid, reporting the problem of the circuit as a whole, if any.
+     *
+     * @param fileData the parsed file data
+     */
+    private void checkCircuit(ParsedData<?> fileData) {
+        try {
+            new TXTCircuitSetup().setup(fileData);
+        } catch (FileFormatError | IllegalArgumentException e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            report(FileViolation.Kind.CIRCUIT, FileViolation.NO_LINE, FileViolation.NO_COLUMN, message);
+        }
     }
 
 
@@ -192,13 +369,18 @@ public final class TXTParsedDataValidator implements ParsedDataValidator {
 
 
     /**
-     * Checks if the given line contains only valid symbols for the circuit.
+     * Adds the invalid symbols of the given line to the violations.
      *
      * @param line a line from the circuit data
-     * @return true if the line matches the allowed symbols pattern, false otherwise
+     * @param lineIndex the index of the line in the file
+     * @param violations the violations found so far
      */
-    private boolean checkLineSymbols(String line) {
-        return line.matches(SYMBOL_REGEX);
+    private void findInvalidSymbols(String line, int lineIndex, List<SymbolViolation> violations) {
+        int column = CircuitSymbols.findInvalidSymbol(line, 0);
+        while (column != -1) {
+            violations.add(new SymbolViolation(lineIndex, column, line.charAt(column)));
+            column = CircuitSymbols.findInvalidSymbol(line, column + 1);
+        }
     }
 
 }
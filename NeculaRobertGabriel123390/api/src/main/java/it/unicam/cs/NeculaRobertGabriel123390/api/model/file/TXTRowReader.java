@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.LoadingLogger;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitSymbols;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayersCount;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * State of the reading of a single TXT file, which is fed to it in blocks of bytes.
+ * <p>
+ * The bytes are split in rows as {@code readLine} does, and every row is validated as soon as it ends: the rows
+ * of the circuit are decoded straight into the states of their nodes through the table of {@link CircuitSymbols},
+ * without creating a string per row, while the header and player rows are decoded and checked as they are met.
+ * Errors are reported with the line, and the column for invalid symbols, where they are found.
+ * </p>
+ * <p>
+ * Used by the parsers producing {@link TXTStreamedData}, whatever the source of their bytes.
+ * </p>
+ */
+final class TXTRowReader {
+
+
+    private final CircuitNodeState[] nodeStates = new CircuitNodeState[TXTCircuitSetup.MAX_NODES_X * TXTCircuitSetup.MAX_NODES_Y];
+
+
+    /**
+     * The bytes of the current row, for the rows that are not part of the circuit.
+     */
+    private final ByteArrayOutputStream text = new ByteArrayOutputStream();
+
+
+    /**
+     * The invalid symbols of the circuit rows, reported together at the end of the circuit.
+     */
+    private final List<SymbolViolation> violations = new ArrayList<>();
+
+
+    private int row;
+
+
+    private int column;
+
+
+    private boolean afterCarriageReturn;
+
+
+    private int botCount;
+
+
+    private int humanCount = -1;
+
+
+    private String botLevel;
+
+
+    private List<TXTStreamedData.HumanPlayerData> humanPlayers = List.of();
+
+
+    /**
+     * Consumes the first {@code length} bytes of the given array.
+     *
+     * @param buffer the bytes to consume.
+     * @param length the number of bytes to consume.
+     */
+    void accept(byte[] buffer, int length) {
+        for (int i = 0; i < length; i++)
+            accept(buffer[i]);
+    }
+
+
+    /**
+     * Consumes the remaining bytes of the given buffer, without changing its position.
+     *
+     * @param buffer the bytes to consume.
+     */
+    void accept(ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++)
+            accept(buffer.get(i));
+    }
+
+
+    private void accept(byte character) {
+        if(character == '\n' && this.afterCarriageReturn) {
+            this.afterCarriageReturn = false;
+            return;
+        }
+
+        this.afterCarriageReturn = character == '\r';
+        if(character == '\n' || character == '\r')
+            endRow();
+        else
+            acceptByte(character);
+    }
+
+
+    private void acceptByte(byte character) {
+        if(isCircuitRow(this.row)) {
+            if(this.column < TXTCircuitSetup.MAX_NODES_X)
+                this.nodeStates[(this.row - 1) * TXTCircuitSetup.MAX_NODES_X + this.column] = toNodeState(character);
+        }
+        else {
+            if(this.row > lastRow())
+                fail("The file provided is too long. The last row needs to be only populated by [name:color],[name:color] ... for human players", this.row);
+            this.text.write(character);
+        }
+        this.column++;
+    }
+
+
+    private CircuitNodeState toNodeState(byte character) {
+        CircuitNodeState state = CircuitSymbols.getState(character & 0xFF);
+        if(state == null)
+            this.violations.add(new SymbolViolation(this.row, this.column, (char) (character & 0xFF)));
+        return state;
+    }
+
+
+    /**
+     * Validates the row that just ended and moves to the next one.
+     */
+    private void endRow() {
+        if(isCircuitRow(this.row)) {
+            if(this.column != TXTCircuitSetup.MAX_NODES_X)
+                fail("Circuit length is not valid. Expected " + TXTCircuitSetup.MAX_NODES_X + " characters, found " + this.column + ".", this.row);
+            if(this.row == TXTCircuitSetup.MAX_NODES_Y && !this.violations.isEmpty())
+                LoadingLogger.logErrorAndThrow(SymbolViolation.describe(this.violations), FileFormatError::new);
+        }
+        else {
+            if(this.row > lastRow())
+                fail("The file provided is too long. The last row needs to be only populated by [name:color],[name:color] ... for human players", this.row);
+            endTextRow(this.text.toString(StandardCharsets.UTF_8));
+        }
+
+        this.text.reset();
+        this.column = 0;
+        this.row++;
+    }
+
+
+    private void endTextRow(String line) {
+        if(this.row == 0 && !line.equals(TXTStreamingFileParser.CIRCUIT_HEADER))
+            fail("Circuit does not have the first line equal to " + TXTStreamingFileParser.CIRCUIT_HEADER, this.row);
+        else if(this.row == TXTCircuitSetup.MAX_NODES_Y + 1 && !line.equals(TXTStreamingFileParser.PLAYERS_HEADER))
+            fail("The line is not like " + TXTStreamingFileParser.PLAYERS_HEADER + ". " + line + " was found instead.", this.row);
+        else if(this.row == TXTCircuitSetup.PLAYERS_COUNT_ROW)
+            readPlayersCount(line);
+        else if(this.row == TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW)
+            readHumanPlayers(line);
+    }
+
+
+    private void readPlayersCount(String line) {
+        try {
+            PlayersCount playersCount = PlayerDeclarations.parseCount(line);
+            this.botCount = playersCount.bots();
+            this.humanCount = playersCount.humans();
+            this.botLevel = playersCount.botLevel();
+        } catch (FileFormatError e) {
+            fail(e.getMessage(), this.row);
+        }
+    }
+
+
+    private void readHumanPlayers(String line) {
+        try {
+            this.humanPlayers = PlayerDeclarations.parseHumans(line, this.humanCount);
+        } catch (FileFormatError e) {
+            fail(e.getMessage(), this.row);
+        }
+    }
+
+
+    /**
+     * Ends the last row, if it has no line terminator, and checks that no row is missing.
+     */
+    TXTStreamedData finish() {
+        if(this.column > 0)
+            endRow();
+
+        if(this.row <= lastRow())
+            fail("The file provided is too short. Expected " + (lastRow() + 1) + " lines, found " + this.row + ".", this.row);
+
+        return new TXTStreamedData(this.nodeStates, TXTCircuitSetup.MAX_NODES_X, 1, this.botCount, this.botLevel, this.humanPlayers);
+    }
+
+
+    /**
+     * Returns the index of the last row of the file, which depends on the declared human players.
+     */
+    private int lastRow() {
+        if(this.humanCount == 0)
+            return TXTCircuitSetup.PLAYERS_COUNT_ROW;
+        return TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW;
+    }
+
+
+    private static boolean isCircuitRow(int row) {return row >= 1 && row <= TXTCircuitSetup.MAX_NODES_Y;}
+
+
+    /**
+     * Logs the given error, with the position where it was found, and throws a {@link FileFormatError}.
+     */
+    private static void fail(String message, int row) {
+        LoadingLogger.logErrorAndThrow(message + " (line " + row + ")", FileFormatError::new);
+    }
+}
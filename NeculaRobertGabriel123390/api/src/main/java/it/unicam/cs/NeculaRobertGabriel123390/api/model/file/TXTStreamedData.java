@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import javafx.scene.paint.Color;
+
+import java.util.List;
+
+
+/**
+ * Implementation of the {@link ParsedData} interface for TXT files read by the {@link TXTStreamingFileParser},
+ * also used for the circuits drawn as images read by the {@link ImageFileParser}.
+ * <p>
+ * Unlike {@link TXTParsedData}, the data is already validated and decoded: the circuit is kept as the states
+ * of its nodes in row-major order, and the players as the declared bots and the names and colors of the humans.
+ * The setups can therefore create circuits and players from it directly, as many times as needed,
+ * without reading or validating the file again.
+ * </p>
+ */
+public final class TXTStreamedData implements ParsedData<CircuitNodeState[]> {
+
+
+    private final CircuitNodeState[] nodeStates;
+
+
+    private final int width;
+
+
+    private final int height;
+
+
+    private final int firstRow;
+
+
+    private final int botCount;
+
+
+    private final String botLevel;
+
+
+    private final List<HumanPlayerData> humanPlayers;
+
+
+    /**
+     * A record representing a human player declared in the file.
+     *
+     * @param name The name of the player.
+     * @param color The color of the player.
+     */
+    public record HumanPlayerData(String name, Color color) {}
+
+
+    /**
+     * Constructs a {@code TXTStreamedData}.
+     *
+     * @param nodeStates The states of the nodes of the circuit, in row-major order.
+     * @param width The number of nodes of each row.
+     * @param firstRow The Y-coordinate of the first row of nodes.
+     * @param botCount The number of bots.
+     * @param botLevel The level of the bots.
+     * @param humanPlayers The human players, in the order of the file.
+     * @throws NullPointerException if {@code nodeStates}, {@code botLevel} or {@code humanPlayers} is {@code null}.
+     * @throws IllegalArgumentException if {@code nodeStates} is empty or not made of complete rows, or {@code botCount} is negative.
+     */
+    public TXTStreamedData(CircuitNodeState[] nodeStates, int width, int firstRow, int botCount, String botLevel, List<HumanPlayerData> humanPlayers) {
+        if(nodeStates == null)
+            throw new NullPointerException("nodeStates is null");
+        if(botLevel == null)
+            throw new NullPointerException("botLevel is null");
+        if(humanPlayers == null)
+            throw new NullPointerException("humanPlayers is null");
+        if(width <= 0 || nodeStates.length == 0 || nodeStates.length % width != 0)
+            throw new IllegalArgumentException("nodeStates is not made of complete rows of " + width + " nodes");
+        if(botCount < 0)
+            throw new IllegalArgumentException("botCount is negative");
+
+        this.nodeStates = nodeStates;
+        this.width = width;
+        this.height = nodeStates.length / width;
+        this.firstRow = firstRow;
+        this.botCount = botCount;
+        this.botLevel = botLevel;
+        this.humanPlayers = List.copyOf(humanPlayers);
+    }
+
+
+    /**
+     * Retrieves a copy of the states of the nodes of the circuit, in row-major order.
+     *
+     * @return the states of the nodes.
+     */
+    @Override
+    public CircuitNodeState[] getData() {return this.nodeStates.clone();}
+
+
+    /**
+     * Returns the state of the node at the given index of its row and column.
+     *
+     * @param column The column of the node, which is also its X-coordinate.
+     * @param row The index of the row of the node, starting from 0.
+     * @return The state of the node.
+     * @throws IndexOutOfBoundsException if the node is outside the circuit.
+     */
+    public CircuitNodeState getNodeState(int column, int row) {
+        if(column < 0 || column >= this.width || row < 0 || row >= this.height)
+            throw new IndexOutOfBoundsException("Node " + column + ", " + row + " is outside the circuit");
+        return this.nodeStates[row * this.width + column];
+    }
+
+
+    /**
+     * Returns the number of nodes of each row of the circuit.
+     *
+     * @return The width of the circuit.
+     */
+    public int getWidth() {return this.width;}
+
+
+    /**
+     * Returns the number of rows of the circuit.
+     *
+     * @return The height of the circuit.
+     */
+    public int getHeight() {return this.height;}
+
+
+    /**
+     * Returns the Y-coordinate of the first row of nodes.
+     *
+     * @return The Y-coordinate of the first row.
+     */
+    public int getFirstRow() {return this.firstRow;}
+
+
+    /**
+     * Returns the number of bots declared in the file.
+     *
+     * @return The number of bots.
+     */
+    public int getBotCount() {return this.botCount;}
+
+
+    /**
+     * Returns the level of the bots, the default one if the file doesn't declare it.
+     *
+     * @return The level of the bots.
+     */
+    public String getBotLevel() {return this.botLevel;}
+
+
+    /**
+     * Returns the human players declared in the file.
+     *
+     * @return The unmodifiable list of the human players.
+     */
+    public List<HumanPlayerData> getHumanPlayers() {return this.humanPlayers;}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Class that implements the {@link FileParser} interface for TXT files, reading them in a single pass.
+ * <p>
+ * The bytes of the file are read once, in blocks, and every row is validated as soon as it ends: the rows of the
+ * circuit are decoded straight into the states of their nodes, without creating a string per row, while the
+ * header and player rows are decoded and checked as they are met. The result is a {@link TXTStreamedData}
+ * that needs no further validation, so loading a file takes time and memory proportional to its size.
+ * </p>
+ * <p>
+ * The accepted format is the same as the one of {@link TXTFileParser} and {@link TXTParsedDataValidator},
+ * and errors are reported with the row and column where they are found.
+ * </p>
+ *
+ * @see TXTMappedFileParser
+ */
+public final class TXTStreamingFileParser implements FileParser {
+
+
+    /**
+     * The first row of the file.
+     */
+    public static final String CIRCUIT_HEADER = "::CIRCUIT";
+
+
+    /**
+     * The row of the file following the circuit.
+     */
+    public static final String PLAYERS_HEADER = "::PLAYERS";
+
+
+    private static final int BUFFER_SIZE = 8192;
+
+
+    /**
+     * Parses the given TXT file into a {@link TXTStreamedData} object.
+     *
+     * @param file the TXT file chosen by the user to be parsed.
+     * @return {@link TXTStreamedData} representing the validated file data.
+     * @throws NullPointerException if the file is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while reading the file.
+     * @throws FileFormatError if the content of the file is not valid.
+     */
+    @Override
+    public ParsedData<?> parseFile(File file) {
+        validateFile(file);
+
+        try (InputStream input = new FileInputStream(file)) {
+            return parse(input);
+        } catch (IOException e) {
+            throw new FileParsingException("Error parsing file", e);
+        }
+    }
+
+
+    /**
+     * Parses the content of a TXT file from the given stream, which is not closed.
+     *
+     * @param input the stream with the content of the file.
+     * @return {@link TXTStreamedData} representing the validated file data.
+     * @throws NullPointerException if {@code input} is {@code null}.
+     * @throws IOException if an I/O error occurs while reading the stream.
+     * @throws FileFormatError if the content of the stream is not valid.
+     */
+    public TXTStreamedData parse(InputStream input) throws IOException {
+        if(input == null)
+            throw new NullPointerException("input is null");
+
+        TXTRowReader reader = new TXTRowReader();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1)
+            reader.accept(buffer, read);
+
+        return reader.finish();
+    }
+
+
+    /**
+     * Validates the provided file, as done by {@link TXTFileParser}.
+     *
+     * @param file the file to be validated.
+     */
+    static void validateFile(File file) {
+        if(file == null)
+            throw new NullPointerException("File is null");
+        if(!file.exists())
+            throw new RuntimeException(new IOException("File not found"));
+        if(!file.canRead())
+            throw new RuntimeException(new IOException("File is not readable"));
+        if(!file.isFile())
+            throw new RuntimeException(new IOException("File is not a file"));
+    }
+}
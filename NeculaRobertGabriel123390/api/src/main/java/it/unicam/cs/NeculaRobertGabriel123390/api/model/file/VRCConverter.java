@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+import javafx.scene.paint.Color;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+
+/**
+ * Utility class that converts the TXT circuit files into the binary VRC format read by the {@link VRCFileParser}.
+ */
+public final class VRCConverter {
+
+
+    /**
+     * Don't allow user to instantiate a VRCConverter object because that's not how this class is meant to work.
+     */
+    private VRCConverter() {}
+
+
+    /**
+     * Converts a TXT circuit file into a VRC file, replacing it if it exists.
+     *
+     * @param txtFile The TXT file to convert.
+     * @param vrcFile The VRC file to write.
+     * @throws NullPointerException if any of the files is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while reading or writing the files.
+     * @throws FileFormatError if the content of the TXT file is not valid.
+     */
+    public static void convert(File txtFile, File vrcFile) {
+        if(vrcFile == null)
+            throw new NullPointerException("vrcFile is null");
+
+        TXTStreamedData data = (TXTStreamedData) new TXTStreamingFileParser().parseFile(txtFile);
+        try {
+            Files.write(vrcFile.toPath(), encode(data));
+        } catch (IOException e) {
+            throw new FileParsingException("Error writing file", e);
+        }
+    }
+
+
+    /**
+     * Encodes the data of a TXT circuit file in the VRC format.
+     *
+     * @param data The data of the TXT file.
+     * @return The content of the VRC file.
+     * @throws NullPointerException if {@code data} is {@code null}.
+     * @throws IllegalArgumentException if there are more than 255 human players or a name longer than 255 bytes.
+     */
+    public static byte[] encode(TXTStreamedData data) {
+        if(data == null)
+            throw new NullPointerException("data is null");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(VRCFileParser.MAGIC);
+            out.writeShort(data.getWidth());
+            out.writeShort(data.getHeight());
+            out.writeShort(data.getFirstRow());
+
+            byte[] runs = encodeRuns(data.getData());
+            out.writeInt(runs.length);
+            out.write(runs);
+
+            out.writeShort(data.getBotCount());
+            writeString(out, data.getBotLevel());
+            if(data.getHumanPlayers().size() > 0xFF)
+                throw new IllegalArgumentException("A VRC file can't hold more than 255 human players");
+            out.writeByte(data.getHumanPlayers().size());
+            for (TXTStreamedData.HumanPlayerData humanPlayer : data.getHumanPlayers()) {
+                writeString(out, humanPlayer.name());
+                writeColor(out, humanPlayer.color());
+            }
+        } catch (IOException e) {
+            throw new FileParsingException("Error encoding circuit", e);
+        }
+        return bytes.toByteArray();
+    }
+
+
+    /**
+     * Run-length encodes the states of the nodes as described by {@link VRCParsedData}.
+     *
+     * @param cells The states of the nodes, in row-major order.
+     * @return The encoded runs.
+     */
+    static byte[] encodeRuns(CircuitNodeState[] cells) {
+        ByteArrayOutputStream runs = new ByteArrayOutputStream();
+        int start = 0;
+        while (start < cells.length) {
+            int end = start + 1;
+            while (end < cells.length && cells[end] == cells[start])
+                end++;
+
+            long run = ((long) (end - start) << 2) | code(cells[start]);
+            while (run >= 0x80) {
+                runs.write((int) (run & 0x7F) | 0x80);
+                run >>>= 7;
+            }
+            runs.write((int) run);
+            start = end;
+        }
+        return runs.toByteArray();
+    }
+
+
+    private static int code(CircuitNodeState state) {
+        for (int code = 0; code < VRCFileParser.CELL_STATES.length; code++)
+            if(VRCFileParser.CELL_STATES[code] == state)
+                return code;
+        throw new IllegalArgumentException("Unknown node state: " + state);
+    }
+
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > 0xFF)
+            throw new IllegalArgumentException("A VRC file can't hold strings longer than 255 bytes: " + value);
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+
+    private static void writeColor(DataOutputStream out, Color color) throws IOException {
+        out.writeByte((int) Math.round(color.getRed() * 255));
+        out.writeByte((int) Math.round(color.getGreen() * 255));
+        out.writeByte((int) Math.round(color.getBlue() * 255));
+        out.writeByte((int) Math.round(color.getOpacity() * 255));
+    }
+}
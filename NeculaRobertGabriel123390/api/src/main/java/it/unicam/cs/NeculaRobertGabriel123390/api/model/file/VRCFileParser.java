@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategyFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.LoadingLogger;
+import javafx.scene.paint.Color;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Class that implements the {@link FileParser} interface for the binary VRC circuit files.
+ * <p>
+ * A VRC file holds the same race as a TXT file in a compact form, and is created from it by the {@link VRCConverter}.
+ * All the numbers are big-endian and the strings are a one-byte length followed by their UTF-8 bytes:
+ * <ul>
+ *     <li>the four bytes of {@link #MAGIC}, whose last byte is the version of the format;</li>
+ *     <li>the width, the height and the Y-coordinate of the first row of the circuit, as unsigned shorts;</li>
+ *     <li>the length of the encoded cells, as an int, followed by the cells run-length encoded as described by
+ *     {@link VRCParsedData};</li>
+ *     <li>the number of bots, as an unsigned short, and their level;</li>
+ *     <li>the number of human players, as an unsigned byte, each followed by its name and by the red, green, blue and
+ *     opacity components of its color, one byte each.</li>
+ * </ul>
+ * The start and end lines are the cells in the start and end states, as in the TXT files.
+ * The whole file is validated while it is read, so the resulting {@link VRCParsedData} needs no further validation.
+ * </p>
+ */
+public final class VRCFileParser implements FileParser {
+
+
+    /**
+     * The extension of the VRC files.
+     */
+    public static final String EXTENSION = "vrc";
+
+
+    /**
+     * The first four bytes of a VRC file: the characters {@code VRC} and the version of the format.
+     */
+    public static final int MAGIC = ('V' << 24) | ('R' << 16) | ('C' << 8) | 1;
+
+
+    /**
+     * The states of the cells, indexed by their code in the encoded runs.
+     */
+    static final CircuitNodeState[] CELL_STATES = {CircuitNodeState.nonTrackNode, CircuitNodeState.trackNode,
+            CircuitNodeState.startNode, CircuitNodeState.endNode};
+
+
+    /**
+     * Parses the given VRC file into a {@link VRCParsedData} object.
+     *
+     * @param file the VRC file chosen by the user to be parsed.
+     * @return {@link VRCParsedData} representing the validated file data.
+     * @throws NullPointerException if the file is {@code null}.
+     * @throws FileParsingException if an I/O error occurs while reading the file.
+     * @throws FileFormatError if the content of the file is not valid.
+     */
+    @Override
+    public ParsedData<?> parseFile(File file) {
+        TXTStreamingFileParser.validateFile(file);
+
+        try {
+            return parse(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            throw new FileParsingException("Error parsing file", e);
+        }
+    }
+
+
+    /**
+     * Parses the content of a VRC file.
+     *
+     * @param content the bytes of the file.
+     * @return {@link VRCParsedData} representing the validated file data.
+     * @throws NullPointerException if {@code content} is {@code null}.
+     * @throws FileFormatError if the content is not valid.
+     */
+    public VRCParsedData parse(byte[] content) {
+        if(content == null)
+            throw new NullPointerException("content is null");
+        return parse(ByteBuffer.wrap(content));
+    }
+
+
+    /**
+     * Parses the given content of a VRC file, e.g. a mapping of the whole file.
+     *
+     * @param file the VRC file the content was read from.
+     * @param content the bytes of the file, between the position and the limit of the buffer, which are left unchanged.
+     * @return {@link VRCParsedData} representing the validated file data.
+     * @throws NullPointerException if {@code file} or {@code content} is {@code null}.
+     * @throws FileFormatError if the content is not valid.
+     */
+    @Override
+    public ParsedData<?> parseContent(File file, ByteBuffer content) {
+        TXTStreamingFileParser.validateFile(file);
+        if(content == null)
+            throw new NullPointerException("content is null");
+        return parse(content.slice());
+    }
+
+
+    /**
+     * Parses the bytes of a VRC file, from the beginning of the given buffer to its limit.
+     */
+    private VRCParsedData parse(ByteBuffer buffer) {
+        try {
+            if(buffer.getInt() != MAGIC)
+                fail("The file is not a VRC circuit of version " + (MAGIC & 0xFF));
+
+            int width = Short.toUnsignedInt(buffer.getShort());
+            int height = Short.toUnsignedInt(buffer.getShort());
+            int firstRow = Short.toUnsignedInt(buffer.getShort());
+            checkDimensions(width, height, firstRow);
+
+            byte[] runs = readRuns(buffer, width * height);
+            int botCount = Short.toUnsignedInt(buffer.getShort());
+            String botLevel = readString(buffer);
+            if(!BotStrategyFactory.isLevel(botLevel))
+                fail("Unknown bot level: " + botLevel + ". Known levels are " + BotStrategyFactory.getLevels());
+
+            List<TXTStreamedData.HumanPlayerData> humanPlayers = readHumanPlayers(buffer);
+            if(botCount + humanPlayers.size() < 2)
+                fail("A minimum of 2 players is required.");
+            if(buffer.hasRemaining())
+                fail("The file has " + buffer.remaining() + " unexpected bytes after the players");
+
+            return new VRCParsedData(runs, width, height, firstRow, botCount, botLevel, humanPlayers);
+        } catch (BufferUnderflowException e) {
+            fail("The file is truncated");
+            return null;
+        }
+    }
+
+
+    /**
+     * Checks that the circuit fits in the area where circuits are drawn.
+     */
+    private void checkDimensions(int width, int height, int firstRow) {
+        if(width == 0 || height == 0)
+            fail("The circuit is empty");
+        if(width > TXTCircuitSetup.MAX_NODES_X || firstRow + height - 1 > TXTCircuitSetup.MAX_NODES_Y)
+            fail("The circuit of " + width + "x" + height + " nodes from row " + firstRow + " exceeds the maximum of "
+                    + TXTCircuitSetup.MAX_NODES_X + "x" + TXTCircuitSetup.MAX_NODES_Y + " nodes");
+    }
+
+
+    private byte[] readRuns(ByteBuffer buffer, int cellCount) {
+        int length = buffer.getInt();
+        if(length < 0 || length > buffer.remaining())
+            fail("The file is truncated");
+
+        byte[] runs = new byte[length];
+        buffer.get(runs);
+        try {
+            VRCParsedData.decodeRuns(runs, cellCount);
+        } catch (IllegalArgumentException e) {
+            fail("The cells of the circuit are not valid: " + e.getMessage());
+        }
+        return runs;
+    }
+
+
+    private List<TXTStreamedData.HumanPlayerData> readHumanPlayers(ByteBuffer buffer) {
+        int humanCount = Byte.toUnsignedInt(buffer.get());
+        List<TXTStreamedData.HumanPlayerData> humanPlayers = new ArrayList<>(humanCount);
+        for (int i = 0; i < humanCount; i++) {
+            String name = readString(buffer);
+            if(name.isEmpty())
+                fail("A player does not have a name");
+
+            Color color = Color.rgb(Byte.toUnsignedInt(buffer.get()), Byte.toUnsignedInt(buffer.get()),
+                    Byte.toUnsignedInt(buffer.get()), Byte.toUnsignedInt(buffer.get()) / 255.0);
+            humanPlayers.add(new TXTStreamedData.HumanPlayerData(name, color));
+        }
+        return humanPlayers;
+    }
+
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Byte.toUnsignedInt(buffer.get())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    private static void fail(String message) {
+        LoadingLogger.logErrorAndThrow(message, FileFormatError::new);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+
+import java.util.List;
+
+
+/**
+ * Implementation of the {@link ParsedData} interface for the binary VRC circuit files read by the {@link VRCFileParser}.
+ * <p>
+ * The cells of the circuit are kept as in the file, run-length encoded in row-major order: every run is an unsigned
+ * LEB128 varint holding the length of the run shifted left by two bits and the code of the state of its cells in the
+ * two low bits, as defined by {@link VRCFileParser#CELL_STATES}. The runs have been validated by the parser, so the
+ * setups can decode them without further checks.
+ * </p>
+ */
+public final class VRCParsedData implements ParsedData<byte[]> {
+
+
+    private final byte[] runs;
+
+
+    private final int width;
+
+
+    private final int height;
+
+
+    private final int firstRow;
+
+
+    private final int botCount;
+
+
+    private final String botLevel;
+
+
+    private final List<TXTStreamedData.HumanPlayerData> humanPlayers;
+
+
+    /**
+     * Constructs a {@code VRCParsedData}.
+     *
+     * @param runs The run-length encoded cells of the circuit.
+     * @param width The number of nodes of each row.
+     * @param height The number of rows.
+     * @param firstRow The Y-coordinate of the first row of nodes.
+     * @param botCount The number of bots.
+     * @param botLevel The level of the bots.
+     * @param humanPlayers The human players.
+     * @throws NullPointerException if {@code runs}, {@code botLevel} or {@code humanPlayers} is {@code null}.
+     * @throws IllegalArgumentException if the dimensions are not positive or {@code botCount} is negative.
+     */
+    public VRCParsedData(byte[] runs, int width, int height, int firstRow, int botCount, String botLevel,
+                         List<TXTStreamedData.HumanPlayerData> humanPlayers) {
+        if(runs == null)
+            throw new NullPointerException("runs is null");
+        if(botLevel == null)
+            throw new NullPointerException("botLevel is null");
+        if(humanPlayers == null)
+            throw new NullPointerException("humanPlayers is null");
+        if(width <= 0 || height <= 0)
+            throw new IllegalArgumentException("The dimensions of the circuit need to be positive");
+        if(botCount < 0)
+            throw new IllegalArgumentException("botCount is negative");
+
+        this.runs = runs;
+        this.width = width;
+        this.height = height;
+        this.firstRow = firstRow;
+        this.botCount = botCount;
+        this.botLevel = botLevel;
+        this.humanPlayers = List.copyOf(humanPlayers);
+    }
+
+
+    /**
+     * Retrieves a copy of the run-length encoded cells of the circuit.
+     *
+     * @return the encoded cells.
+     */
+    @Override
+    public byte[] getData() {return this.runs.clone();}
+
+
+    /**
+     * Decodes the cells of the circuit.
+     *
+     * @return The states of the nodes, in row-major order.
+     * @throws IllegalArgumentException if the runs don't describe exactly {@code width * height} cells.
+     */
+    public CircuitNodeState[] decodeCells() {
+        return decodeRuns(this.runs, this.width * this.height);
+    }
+
+
+    /**
+     * Decodes run-length encoded cells.
+     *
+     * @param runs The encoded cells.
+     * @param cellCount The expected number of cells.
+     * @return The states of the nodes, in row-major order.
+     * @throws NullPointerException if {@code runs} is {@code null}.
+     * @throws IllegalArgumentException if the runs are truncated or don't describe exactly {@code cellCount} cells.
+     */
+    public static CircuitNodeState[] decodeRuns(byte[] runs, int cellCount) {
+        if(runs == null)
+            throw new NullPointerException("runs is null");
+
+        CircuitNodeState[] cells = new CircuitNodeState[cellCount];
+        int cell = 0;
+        int index = 0;
+        while (index < runs.length) {
+            long run = 0;
+            int shift = 0;
+            byte next;
+            do {
+                if(index == runs.length || shift > 35)
+                    throw new IllegalArgumentException("Truncated run at byte " + index);
+                next = runs[index++];
+                run |= (long) (next & 0x7F) << shift;
+                shift += 7;
+            } while ((next & 0x80) != 0);
+
+            long length = run >>> 2;
+            if(length == 0 || cell + length > cellCount)
+                throw new IllegalArgumentException("Run of " + length + " cells at cell " + cell + " doesn't fit in " + cellCount + " cells");
+
+            CircuitNodeState state = VRCFileParser.CELL_STATES[(int) (run & 0b11)];
+            for (int end = cell + (int) length; cell < end; cell++)
+                cells[cell] = state;
+        }
+
+        if(cell != cellCount)
+            throw new IllegalArgumentException("The runs describe " + cell + " cells instead of " + cellCount);
+        return cells;
+    }
+
+
+    /**
+     * Returns the number of nodes of each row of the circuit.
+     *
+     * @return The width of the circuit.
+     */
+    public int getWidth() {return this.width;}
+
+
+    /**
+     * Returns the number of rows of the circuit.
+     *
+     * @return The height of the circuit.
+     */
+    public int getHeight() {return this.height;}
+
+
+    /**
+     * Returns the Y-coordinate of the first row of nodes.
+     *
+     * @return The Y-coordinate of the first row.
+     */
+    public int getFirstRow() {return this.firstRow;}
+
+
+    /**
+     * Returns the number of bots declared in the file.
+     *
+     * @return The number of bots.
+     */
+    public int getBotCount() {return this.botCount;}
+
+
+    /**
+     * Returns the level of the bots.
+     *
+     * @return The level of the bots.
+     */
+    public String getBotLevel() {return this.botLevel;}
+
+
+    /**
+     * Returns the human players declared in the file.
+     *
+     * @return The unmodifiable list of the human players.
+     */
+    public List<TXTStreamedData.HumanPlayerData> getHumanPlayers() {return this.humanPlayers;}
+}
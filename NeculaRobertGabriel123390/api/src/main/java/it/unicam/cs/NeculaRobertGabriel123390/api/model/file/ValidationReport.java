@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.file;
+
+
+import java.time.Duration;
+import java.util.List;
+
+
+/**
+ * A record representing every problem found in a circuit file by a single scan of
+ * {@link TXTParsedDataValidator#validateAll(ParsedData)}, instead of only the first one.
+ *
+ * @param violations The problems found, in the order they were found.
+ * @param scanTime The time spent scanning the file.
+ */
+public record ValidationReport(List<FileViolation> violations, Duration scanTime) {
+
+
+    /**
+     * Constructs a new {@code ValidationReport}, keeping an unmodifiable copy of the violations.
+     *
+     * @param violations The problems found.
+     * @param scanTime The time spent scanning the file.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public ValidationReport {
+        if(violations == null)
+            throw new NullPointerException("violations is null");
+        if(scanTime == null)
+            throw new NullPointerException("scanTime is null");
+        violations = List.copyOf(violations);
+    }
+
+
+    /**
+     * Checks if no problem was found.
+     *
+     * @return {@code true} if the file is valid.
+     */
+    public boolean isValid() {return this.violations.isEmpty();}
+
+
+    /**
+     * Returns the problems of the given kind.
+     *
+     * @param kind The kind of the problems.
+     * @return The problems of that kind, in the order they were found.
+     * @throws NullPointerException if {@code kind} is {@code null}.
+     */
+    public List<FileViolation> getViolations(FileViolation.Kind kind) {
+        if(kind == null)
+            throw new NullPointerException("kind is null");
+        return this.violations.stream().filter(violation -> violation.kind() == kind).toList();
+    }
+
+
+    /**
+     * Describes all the problems found, one per line.
+     *
+     * @return The description of the report.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        description.append(this.violations.size()).append(this.violations.size() == 1 ? " problem" : " problems")
+                .append(" found in ").append(this.scanTime.toMillis()).append(" ms");
+        for(FileViolation violation : this.violations)
+            description.append("\n").append(violation);
+        return description.toString();
+    }
+}
@@ -83,12 +83,12 @@ public final class HandlerValidator {
             throw new IllegalArgumentException("handlers is empty");
 
         if (!(handlers.getFirst() instanceof WinHandler))
-            LoadingLogger.logErrorAndThrow("First handler is not a WinHandler.", IllegalArgumentException.class);
+            LoadingLogger.logErrorAndThrow("First handler is not a WinHandler.", IllegalArgumentException::new);
 
         if (!(handlers.get(1) instanceof CrashHandler))
-            LoadingLogger.logErrorAndThrow("Second handler is not a CrashHandler.", IllegalArgumentException.class);
+            LoadingLogger.logErrorAndThrow("Second handler is not a CrashHandler.", IllegalArgumentException::new);
 
         if (!(handlers.get(2) instanceof CollisionHandler))
-            LoadingLogger.logErrorAndThrow("Third handler is not a CollisionHandler.", IllegalArgumentException.class);
+            LoadingLogger.logErrorAndThrow("Third handler is not a CollisionHandler.", IllegalArgumentException::new);
     }
 }
@@ -68,18 +68,19 @@ public interface RaceHandler {
 
     /**
      * Validates the data provided to the handler, ensuring that the positions and race manager
-     * are valid. This method checks the validity of the positions using {@link PositionUtils#validateCircuitNodePosition(Position)}
+     * are valid. This method checks the previous position using {@link PositionUtils#validateCircuitNodePosition(Position)},
+     * while the new position only needs to be non-null, since a move can leave the board,
      * and ensures that the {@code raceManager} is not null.
      *
      * @param prevPosition the player's position before the move.
-     * @param newPosition the player's position after the move.
+     * @param newPosition the player's position after the move, which can be outside the board.
      * @param raceManager the race manager overseeing the current race.
      * @throws NullPointerException if {@code prevPosition}, {@code newPosition}, or {@code raceManager} is null.
      * @throws IllegalArgumentException if {@code prevPosition} or {@code newPosition} is invalid.
      */
     default void validateData(Position prevPosition, Position newPosition, RaceManager raceManager) {
         PositionUtils.validateCircuitNodePosition(prevPosition);
-        PositionUtils.validateCircuitNodePosition(newPosition);
+        PositionUtils.validatePosition(newPosition);
         if(raceManager == null)
             throw new NullPointerException("race manager is not initialized for the " + this.getClass().getName() + " handler.");
     }
@@ -27,7 +27,6 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResult;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResultType;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.collision.CollisionLog;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
 
 
 /**
@@ -73,7 +72,7 @@ public final class DoNotAllowCollisionHandler extends CollisionHandler {
      */
     @Override
     public void logEvent(Position newPosition) {
-        RaceLogger.log(new CollisionLog(this.raceManager.getCurrentPlayer(), newPosition));
+        this.raceManager.log(new CollisionLog(this.raceManager.getCurrentPlayer(), newPosition));
     }
 
 }
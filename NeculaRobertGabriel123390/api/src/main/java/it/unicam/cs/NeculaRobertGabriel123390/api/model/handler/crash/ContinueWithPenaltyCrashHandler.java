@@ -28,7 +28,6 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResult;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResultType;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.crash.ContinueWithPenaltyCrashLog;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
 
 
 /**
@@ -58,8 +57,10 @@ public final class ContinueWithPenaltyCrashHandler extends CrashHandler {
 
         if(!this.raceManager.getCircuitManager().isCrashing(prevPosition, newPosition)) return null;
 
-        logEvent(newPosition);
-        MoveResult moveResult = new MoveResult(this.raceManager.getCurrentPlayer(), newPosition, MoveResultType.CRASH_CONTINUE_WITH_PENALTY);
+        Position crashPosition = this.raceManager.getCircuitManager().getCrashPosition(prevPosition, newPosition);
+
+        logEvent(crashPosition);
+        MoveResult moveResult = new MoveResult(this.raceManager.getCurrentPlayer(), crashPosition, MoveResultType.CRASH_CONTINUE_WITH_PENALTY);
         updateState();
         return moveResult;
     }
@@ -71,7 +72,7 @@ public final class ContinueWithPenaltyCrashHandler extends CrashHandler {
      */
     @Override
     public void logEvent(Position newPosition) {
-        RaceLogger.log(new ContinueWithPenaltyCrashLog(this.raceManager.getCurrentPlayer(), newPosition));
+        this.raceManager.log(new ContinueWithPenaltyCrashLog(this.raceManager.getCurrentPlayer(), newPosition));
     }
 
 
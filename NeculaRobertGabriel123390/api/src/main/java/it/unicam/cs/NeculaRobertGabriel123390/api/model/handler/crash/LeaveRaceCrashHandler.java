@@ -27,7 +27,6 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResult;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResultType;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.crash.LeaveRaceCrashLog;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
 
 
 /**
@@ -52,8 +51,10 @@ public final class LeaveRaceCrashHandler extends CrashHandler {
         if(!this.raceManager.getCircuitManager().isCrashing(prevPosition, newPosition))
             return null;
 
-        logEvent(newPosition);
-        MoveResult moveResult = new MoveResult(this.raceManager.getCurrentPlayer(), newPosition, MoveResultType.CRASH_LEAVE_RACE);
+        Position crashPosition = this.raceManager.getCircuitManager().getCrashPosition(prevPosition, newPosition);
+
+        logEvent(crashPosition);
+        MoveResult moveResult = new MoveResult(this.raceManager.getCurrentPlayer(), crashPosition, MoveResultType.CRASH_LEAVE_RACE);
         updateState();
 
         return moveResult;
@@ -66,7 +67,7 @@ public final class LeaveRaceCrashHandler extends CrashHandler {
      */
     @Override
     public void logEvent(Position newPosition) {
-        RaceLogger.log(new LeaveRaceCrashLog(this.raceManager.getCurrentPlayer(), newPosition));
+        this.raceManager.log(new LeaveRaceCrashLog(this.raceManager.getCurrentPlayer(), newPosition));
     }
 
 
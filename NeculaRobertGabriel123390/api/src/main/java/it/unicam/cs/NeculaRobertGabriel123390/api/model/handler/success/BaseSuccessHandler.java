@@ -26,7 +26,6 @@ package it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.success;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResult;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResultType;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.success.SuccessMoveLog;
 
 
@@ -72,7 +71,7 @@ public final class BaseSuccessHandler extends SuccessHandler {
      */
     @Override
     public void logEvent(Position newPosition) {
-        RaceLogger.log(new SuccessMoveLog(this.raceManager.getCurrentPlayer(), newPosition));
+        this.raceManager.log(new SuccessMoveLog(this.raceManager.getCurrentPlayer(), newPosition));
     }
 
 
@@ -3,8 +3,8 @@ package it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.win;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResult;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResultType;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.win.WinLog;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.manager.RaceManager;
 
 
 /**
@@ -48,14 +48,14 @@ public final class WinOnCrossEndLineHandler extends WinHandler {
      * Logs the information about the player who has won the race.
      * <p>
      * This method creates a {@link WinLog} with the current player's information
-     * and logs it using the {@link RaceLogger}.
+     * and logs it through the {@link RaceManager} of the race.
      * </p>
      *
      * @param newPosition The position of the player after the move.
      */
     @Override
     public void logEvent(Position newPosition) {
-        RaceLogger.log(new WinLog(this.raceManager.getCurrentPlayer()));
+        this.raceManager.log(new WinLog(this.raceManager.getCurrentPlayer()));
     }
 
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.library;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+
+/**
+ * Registry of the valid circuits of a library, keyed by their path relative to the library directory.
+ * <p>
+ * The circuits are kept as {@link CompiledCircuitData}, so races are set up from them with a
+ * {@link it.unicam.cs.NeculaRobertGabriel123390.api.model.race.RaceSetup} without parsing or validating the files again.
+ * The registry can be filled and read by several threads at once, and lists the circuits sorted by name.
+ * </p>
+ */
+public final class CircuitLibrary {
+
+
+    private final ConcurrentNavigableMap<String, CompiledCircuitData> circuits = new ConcurrentSkipListMap<>();
+
+
+    /**
+     * Registers a circuit, replacing the circuit with the same name.
+     *
+     * @param name The name of the circuit.
+     * @param data The data of the circuit.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public void register(String name, CompiledCircuitData data) {
+        if(name == null)
+            throw new NullPointerException("name is null");
+        if(data == null)
+            throw new NullPointerException("data is null");
+        this.circuits.put(name, data);
+    }
+
+
+    /**
+     * Returns the circuit with the given name.
+     *
+     * @param name The name of the circuit.
+     * @return The data of the circuit, or {@code null} if there is no circuit with that name.
+     * @throws NullPointerException if {@code name} is {@code null}.
+     */
+    public CompiledCircuitData get(String name) {
+        if(name == null)
+            throw new NullPointerException("name is null");
+        return this.circuits.get(name);
+    }
+
+
+    /**
+     * Removes the circuit with the given name.
+     *
+     * @param name The name of the circuit.
+     * @return The data of the removed circuit, or {@code null} if there was no circuit with that name.
+     * @throws NullPointerException if {@code name} is {@code null}.
+     */
+    public CompiledCircuitData remove(String name) {
+        if(name == null)
+            throw new NullPointerException("name is null");
+        return this.circuits.remove(name);
+    }
+
+
+    /**
+     * Returns the names of the registered circuits.
+     *
+     * @return The sorted, unmodifiable list of the names.
+     */
+    public List<String> getNames() {return List.copyOf(this.circuits.keySet());}
+
+
+    /**
+     * Returns the number of registered circuits.
+     *
+     * @return The size of the library.
+     */
+    public int size() {return this.circuits.size();}
+}
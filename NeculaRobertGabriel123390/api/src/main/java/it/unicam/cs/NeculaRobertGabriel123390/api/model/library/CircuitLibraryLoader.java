@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.library;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedDataValidator;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ValidationReport;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerSetupFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+
+/**
+ * Loads every circuit file of a directory tree in parallel, filling a {@link CircuitLibrary} with the valid circuits.
+ * <p>
+ * The files with an extension known to the {@link FileParserFactory} are loaded through a {@link CompiledCircuitCache}
+ * on a fixed pool of threads: each file is parsed, its circuit is created and validated, and its players are
+ * created and validated as they would be for a race. A file that fails any of these steps is reported with its
+ * error and left out of the library, without stopping the others. The error of an invalid TXT file lists all
+ * the problems found by {@link TXTParsedDataValidator#validateAll}, so that they can all be fixed at once.
+ * </p>
+ */
+public final class CircuitLibraryLoader {
+
+
+    private static final String TXT_SUFFIX = ".txt";
+
+
+    private final CompiledCircuitCache cache;
+
+
+    /**
+     * Constructs a {@code CircuitLibraryLoader} that loads the circuits through the given cache.
+     *
+     * @param cache The cache of the compiled circuits.
+     * @throws NullPointerException if {@code cache} is {@code null}.
+     */
+    public CircuitLibraryLoader(CompiledCircuitCache cache) {
+        if(cache == null)
+            throw new NullPointerException("cache is null");
+        this.cache = cache;
+    }
+
+
+    /**
+     * Loads the circuit files found in the given directory and its subdirectories.
+     *
+     * @param directory The directory of the library.
+     * @param library The library where the valid circuits are registered, by their path relative to {@code directory}.
+     * @param threads The number of threads loading the files.
+     * @return The reports of the files, sorted by path.
+     * @throws NullPointerException if {@code directory} or {@code library} is {@code null}.
+     * @throws IllegalArgumentException if {@code threads} is not positive or {@code directory} is not a directory.
+     * @throws IOException if the directory can't be walked.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the files.
+     */
+    public List<CircuitReport> load(Path directory, CircuitLibrary library, int threads) throws IOException, InterruptedException {
+        if(directory == null)
+            throw new NullPointerException("directory is null");
+        if(library == null)
+            throw new NullPointerException("library is null");
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads needs to be positive");
+        if(!Files.isDirectory(directory))
+            throw new IllegalArgumentException(directory + " is not a directory");
+
+        List<Path> files = findCircuitFiles(directory);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<CircuitReport>> reports = new ArrayList<>(files.size());
+            for(Path file : files)
+                reports.add(executor.submit(() -> loadFile(directory, file, library)));
+
+            List<CircuitReport> results = new ArrayList<>(files.size());
+            for(Future<CircuitReport> report : reports)
+                results.add(report.get());
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Loading a circuit failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Returns the circuit files of the directory tree, sorted by path.
+     */
+    private static List<Path> findCircuitFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> FileParserFactory.isSupported(path.toFile()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+
+    /**
+     * Loads a single file, registering it in the library if it is valid.
+     */
+    private CircuitReport loadFile(Path directory, Path file, CircuitLibrary library) {
+        String name = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+        try {
+            CompiledCircuitData data = this.cache.load(file.toFile());
+            int players = PlayerSetupFactory.getPlayerSetup(data).setup(data).size();
+            library.register(name, data);
+            return CircuitReport.valid(name, data, players);
+        } catch (RuntimeException e) {
+            return CircuitReport.invalid(name, describeError(file, e));
+        }
+    }
+
+
+    /**
+     * Describes the error of a file that could not be loaded. A TXT file is scanned again to find all its problems,
+     * falling back to the error itself if the scan finds none.
+     */
+    private static String describeError(Path file, RuntimeException error) {
+        String message = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+        if(!file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(TXT_SUFFIX))
+            return message;
+
+        try {
+            ValidationReport report = new TXTParsedDataValidator().validateAll(new TXTFileParser().parseFile(file.toFile()));
+            return report.isValid() ? message : report.describe();
+        } catch (RuntimeException e) {
+            return message;
+        }
+    }
+
+
+    /**
+     * Writes the given reports to a file, replacing it if it exists.
+     *
+     * @param reports The reports to write.
+     * @param reportFile The report file.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IOException if the file can't be written.
+     */
+    public static void writeReport(List<CircuitReport> reports, Path reportFile) throws IOException {
+        if(reports == null)
+            throw new NullPointerException("reports is null");
+        if(reportFile == null)
+            throw new NullPointerException("reportFile is null");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            writer.write(CircuitReport.CSV_HEADER);
+            writer.newLine();
+            for(CircuitReport report : reports) {
+                writer.write(report.toCsvLine());
+                writer.newLine();
+            }
+        }
+    }
+}
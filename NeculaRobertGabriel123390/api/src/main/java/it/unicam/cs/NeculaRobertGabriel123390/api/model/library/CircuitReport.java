@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.library;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * A record representing the result of loading a single circuit file of a library with the {@link CircuitLibraryLoader}.
+ * <p>
+ * Reports are written one per line in the report file, in the format given by {@link #CSV_HEADER}.
+ * The fields containing commas or quotes, such as most error messages, are quoted as in RFC 4180.
+ * </p>
+ *
+ * @param file The path of the file, relative to the library directory and with {@code /} as separator.
+ * @param contentHash The hash of the content of the file, or an empty string if the file is not valid.
+ * @param width The width of the circuit, or 0 if the file is not valid.
+ * @param height The height of the circuit, or 0 if the file is not valid.
+ * @param trackCells The number of track nodes of the circuit, or 0 if the file is not valid.
+ * @param players The number of players declared in the file, or 0 if the file is not valid.
+ * @param errorLine The line of the file where the error was found, or {@link #NO_LINE}.
+ * @param error The error found in the file, or {@code null} if the file is valid.
+ */
+public record CircuitReport(String file, String contentHash, int width, int height, int trackCells, int players,
+                            int errorLine, String error) {
+
+
+    /**
+     * Header of the report file.
+     */
+    public static final String CSV_HEADER = "file,valid,width,height,track_cells,players,hash,error_line,error";
+
+
+    /**
+     * Error line of the valid files and of the errors that are not bound to a line.
+     */
+    public static final int NO_LINE = -1;
+
+
+    private static final Pattern LINE_PATTERN = Pattern.compile("\\bline (\\d+)");
+
+
+    /**
+     * Constructs a new {@code CircuitReport}.
+     *
+     * @param file The path of the file.
+     * @param contentHash The hash of the content of the file.
+     * @param width The width of the circuit.
+     * @param height The height of the circuit.
+     * @param trackCells The number of track nodes.
+     * @param players The number of players.
+     * @param errorLine The line of the error, or {@link #NO_LINE}.
+     * @param error The error, or {@code null}.
+     * @throws NullPointerException if {@code file} or {@code contentHash} is {@code null}.
+     * @throws IllegalArgumentException if any of the numbers is negative.
+     */
+    public CircuitReport {
+        if(file == null)
+            throw new NullPointerException("file is null");
+        if(contentHash == null)
+            throw new NullPointerException("contentHash is null");
+        if(width < 0 || height < 0 || trackCells < 0 || players < 0 || errorLine < NO_LINE)
+            throw new IllegalArgumentException("Circuit report values can't be negative");
+    }
+
+
+    /**
+     * Creates the report of a valid circuit file.
+     *
+     * @param file The path of the file.
+     * @param data The data loaded from the file.
+     * @param players The number of players declared in the file.
+     * @return The report of the file.
+     * @throws NullPointerException if {@code file} or {@code data} is {@code null}.
+     */
+    public static CircuitReport valid(String file, CompiledCircuitData data, int players) {
+        if(data == null)
+            throw new NullPointerException("data is null");
+
+        CircuitGrid grid = data.getData().getGrid();
+        return new CircuitReport(file, data.getContentHash(), grid.getWidth(), grid.getHeight(),
+                grid.getTrackCellCount(), players, NO_LINE, null);
+    }
+
+
+    /**
+     * Creates the report of a circuit file that could not be loaded.
+     * The line of the error is the first {@code line N} of the message, as written by the parsers, if present.
+     *
+     * @param file The path of the file.
+     * @param error The error found in the file.
+     * @return The report of the file.
+     * @throws NullPointerException if {@code file} or {@code error} is {@code null}.
+     */
+    public static CircuitReport invalid(String file, String error) {
+        if(error == null)
+            throw new NullPointerException("error is null");
+
+        Matcher matcher = LINE_PATTERN.matcher(error);
+        int line = matcher.find() ? Integer.parseInt(matcher.group(1)) : NO_LINE;
+        return new CircuitReport(file, "", 0, 0, 0, 0, line, error);
+    }
+
+
+    /**
+     * Checks if the file was loaded without errors.
+     *
+     * @return {@code true} if the file is valid.
+     */
+    public boolean isValid() {return this.error == null;}
+
+
+    /**
+     * Returns the line representing this report in the report file.
+     *
+     * @return The line, without the line terminator.
+     */
+    public String toCsvLine() {
+        return String.join(",", csvField(this.file), String.valueOf(isValid()), String.valueOf(this.width),
+                String.valueOf(this.height), String.valueOf(this.trackCells), String.valueOf(this.players), this.contentHash,
+                String.valueOf(this.errorLine), this.error == null ? "" : csvField(this.error));
+    }
+
+
+    /**
+     * Quotes the given value if it contains a comma or a quote, and joins its lines.
+     */
+    private static String csvField(String value) {
+        String line = value.replaceAll("\\R", " ");
+        if(line.indexOf(',') < 0 && line.indexOf('"') < 0)
+            return line;
+        return "\"" + line.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -23,10 +23,10 @@
 
 package it.unicam.cs.NeculaRobertGabriel123390.api.model.log;
 
+import javafx.application.Platform;
 import javafx.scene.control.TextArea;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
 
 
 /**
@@ -40,17 +40,23 @@ import java.lang.reflect.InvocationTargetException;
  * <p>To use this logger, initialize it with a {@code TextArea} instance, and then log
  * messages or errors as needed. The class offers methods to append messages to the {@code TextArea},
  * log errors with a specific prefix, and throw exceptions after logging errors.</p>
+ *
+ * <p>If the logger has not been initialized, e.g. when files are loaded without a user interface,
+ * messages are discarded; errors are still thrown by {@link #logErrorAndThrow(String, Function)}.</p>
+ *
+ * <p>Files are parsed outside the JavaFX application thread, so messages logged from any other thread
+ * are appended to the {@code TextArea} later on the JavaFX application thread, in the order they were logged.</p>
  */
 public class LoadingLogger {
 
 
-    private static TextArea logArea;
+    private static volatile TextArea logArea;
 
 
     /**
      * Variable that is used to check if the Logger is already Initialized
      */
-    public static boolean isInitialized = false;
+    public static volatile boolean isInitialized = false;
 
 
     /**
@@ -110,14 +116,23 @@ public class LoadingLogger {
     /**
      * Logs a general message to the {@code TextArea}.
      *
-     * <p>This method appends the provided message to the {@code TextArea}, followed by a newline.</p>
+     * <p>This method appends the provided message to the {@code TextArea}, followed by a newline.
+     * If it is not called on the JavaFX application thread, the message is appended later on that thread.</p>
      *
      * @param message The message to log.
      */
     public static void log(String message) {
         validateMessage(message);
-        validateLogArea(logArea);
-        logArea.appendText(message + "\n");
+        if(!isInitialized)
+            return;
+
+        TextArea area = logArea;
+        validateLogArea(area);
+        String line = message + "\n";
+        if(Platform.isFxApplicationThread())
+            area.appendText(line);
+        else
+            Platform.runLater(() -> area.appendText(line));
     }
 
 
@@ -135,28 +150,22 @@ public class LoadingLogger {
     }
 
     /**
-     * Logs an error message and throws an exception to the specified type.
+     * Logs an error message and throws an exception created by the given factory.
      *
-     * <p>This method logs the error message using {@code logError}, then creates and throws
-     * an exception of the specified class with the message. The exception class must have
-     * a constructor that accepts a {@code String} parameter.</p>
+     * <p>This method logs the error message using {@code logError}, then throws the exception
+     * returned by {@code exceptionFactory} for the message, usually the constructor of the
+     * exception taking a {@code String}, e.g. {@code FileFormatError::new}.</p>
      *
      * @param message The error message to log and include in the exception.
-     * @param exceptionClass The class of the exception to throw.
+     * @param exceptionFactory The function creating the exception from the message.
      * @param <T> The type of the exception, which must extend {@link RuntimeException}.
-     * @throws RuntimeException If the exception cannot be instantiated.
+     * @throws NullPointerException if {@code exceptionFactory} is null.
      */
-    public static <T extends RuntimeException> void logErrorAndThrow(String message, Class<T> exceptionClass) {
+    public static <T extends RuntimeException> void logErrorAndThrow(String message, Function<String, T> exceptionFactory) {
         validateMessage(message);
+        if(exceptionFactory == null)
+            throw new NullPointerException("exceptionFactory cannot be null");
         logError(message);
-
-        try {
-            Constructor<T> constructor = exceptionClass.getConstructor(String.class);
-            throw constructor.newInstance(message);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException("Exception class does not have a constructor with a String argument", e);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("Failed to create exception", e);
-        }
+        throw exceptionFactory.apply(message);
     }
 }
\ No newline at end of file
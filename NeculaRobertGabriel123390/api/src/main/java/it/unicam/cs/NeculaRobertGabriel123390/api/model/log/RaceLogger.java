@@ -28,6 +28,8 @@ import javafx.scene.control.ScrollPane;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 
+import java.util.function.Consumer;
+
 
 /**
  * Provides logging functionality for race events.
@@ -40,10 +42,20 @@ import javafx.scene.text.TextFlow;
  * log events using {@code RaceLog} implementations. Each log message will be added to
  * the {@code TextFlow} with the appropriate color.</p>
  *
+ * <p>The logger belongs to the race scene and must only be used on the JavaFX application thread.
+ * Races run without a user interface give {@link #DISCARD} to their {@code RaceManager} instead, so they never
+ * touch the log area, whether the logger has been initialized or not.</p>
+ *
  */
 public class RaceLogger {
 
 
+    /**
+     * The sink of the logs of races run without a user interface, which discards them.
+     */
+    public static final Consumer<RaceLog> DISCARD = raceLog -> {};
+
+
     private static TextFlow raceLogArea;
 
 
@@ -133,6 +145,9 @@ public class RaceLogger {
      * @param raceLog The {@code RaceLog} instance containing the message and color to log.
      */
     public static void log(RaceLog raceLog) {
+        if(!isInitialized)
+            return;
+
         validateAreas(raceLogArea, raceLogScrollPane);
         validateRaceLog(raceLog);
 
@@ -25,6 +25,7 @@ package it.unicam.cs.NeculaRobertGabriel123390.api.model.manager;
 
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitUtils;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
@@ -93,19 +94,19 @@ public final class CircuitManager {
 
     /**
      * Checks if a player's move will result in a crash by verifying that all nodes between the
-     * start and end positions are part of the track.
+     * start and end positions are part of the track. A move ending outside the board is always a crash.
      *
      * @param prevPosition the previous position of the player
-     * @param newPosition the position of the player after the move
+     * @param newPosition the position of the player after the move, which can be outside the board
      * @return true if the player crashes, false otherwise
      */
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     public boolean isCrashing(Position prevPosition, Position newPosition) {
         PositionUtils.validateCircuitNodePosition(prevPosition);
-        PositionUtils.validateCircuitNodePosition(newPosition);
+        PositionUtils.validatePosition(newPosition);
         checkPositionInCircuit(prevPosition);
 
-        if (this.circuit.getCircuitNode(newPosition) == null) return true;
+        if (!isOnBoard(newPosition) || this.circuit.getCircuitNode(newPosition) == null) return true;
 
         List<Position> positionsBetween = BresenhamLineAlgorithm.getPositionsBetween(prevPosition, newPosition);
         for (Position position : positionsBetween)
@@ -117,17 +118,53 @@ public final class CircuitManager {
 
 
     /**
-     * Determines if a player has won by crossing the finish line.
+     * Determines if a player has won by crossing the finish line. The move can end outside the track, but a move
+     * ending outside the board never wins, since the car can't be placed there: it is a crash even if it crosses
+     * the finish line.
      *
      * @param prevPosition the previous position of the player
-     * @param newPosition the position of the player after the move
+     * @param newPosition the position of the player after the move, which can be outside the board
      * @return true if the player has won, false otherwise
      */
     public boolean hasWon(Position prevPosition, Position newPosition) {
         PositionUtils.validateCircuitNodePosition(prevPosition);
-        PositionUtils.validateCircuitNodePosition(newPosition);
+        PositionUtils.validatePosition(newPosition);
 
-        return hasCrossedEndLine(prevPosition, newPosition);
+        return isOnBoard(newPosition) && hasCrossedEndLine(prevPosition, newPosition);
+    }
+
+
+    /**
+     * Returns the position where a crash of the given move is reported: the position after the move, or the last
+     * position of the move on the board if the move leaves it.
+     *
+     * @param prevPosition the previous position of the player
+     * @param newPosition the position of the player after the move, which can be outside the board
+     * @return the position of the crash, on the board
+     */
+    public Position getCrashPosition(Position prevPosition, Position newPosition) {
+        PositionUtils.validateCircuitNodePosition(prevPosition);
+        PositionUtils.validatePosition(newPosition);
+        checkPositionInCircuit(prevPosition);
+
+        if(isOnBoard(newPosition))
+            return newPosition;
+
+        Position crashPosition = prevPosition;
+        for (Position position : BresenhamLineAlgorithm.getPositionsBetween(prevPosition, newPosition)) {
+            if(!isOnBoard(position))
+                break;
+            crashPosition = position;
+        }
+        return crashPosition;
+    }
+
+
+    /**
+     * Checks if the position is on the board, see {@link PositionUtils#isOnBoard(int, int)}.
+     */
+    private boolean isOnBoard(Position position) {
+        return PositionUtils.isOnBoard(position.getX(), position.getY());
     }
 
 
@@ -203,6 +240,14 @@ public final class CircuitManager {
     public CircuitLine getStartLine() {return this.circuit.getStartLine();}
 
 
+    /**
+     * Retrieves the compact layout of the circuit.
+     *
+     * @return the grid describing the layout of the circuit
+     */
+    public CircuitGrid getGrid() {return this.circuit.getGrid();}
+
+
     /**
      * Finds the first free neighbor position around the given position.
      *
@@ -27,6 +27,8 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.RaceHandler;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.success.BaseSuccessHandler;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.success.SuccessHandler;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLog;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.Race;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.RaceValidator;
@@ -34,6 +36,7 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 /**
@@ -55,12 +58,34 @@ public final class RaceManager{
 
 
     /**
-     * Constructs a {@code RaceManager} with the given race configuration.
+     * The sink of the logs of the events of the race.
+     */
+    private final Consumer<RaceLog> raceLog;
+
+
+    /**
+     * Constructs a {@code RaceManager} with the given race configuration, whose events are logged by the {@link RaceLogger}
+     * of the race scene.
      *
      * @param race the {@link Race} configuration containing the players, circuit, and handlers
      */
     public RaceManager(Race race) {
+        this(race, RaceLogger::log);
+    }
+
+
+    /**
+     * Constructs a {@code RaceManager} with the given race configuration, whose events are logged by the given sink.
+     *
+     * @param race the {@link Race} configuration containing the players, circuit, and handlers
+     * @param raceLog the sink of the logs of the race, e.g. {@link RaceLogger#DISCARD} for races without a user interface
+     * @throws NullPointerException if {@code raceLog} is {@code null}
+     */
+    public RaceManager(Race race, Consumer<RaceLog> raceLog) {
         validateManager(race);
+        if(raceLog == null)
+            throw new NullPointerException("raceLog is null");
+        this.raceLog = raceLog;
         this.playersManager = new PlayersManager(race.players());
         this.circuitManager = new CircuitManager(race.circuit());
         this.handlers = new ArrayList<>(race.handlers());
@@ -111,6 +136,19 @@ public final class RaceManager{
     }
 
 
+    /**
+     * Logs an event of the race through the sink of this race.
+     *
+     * @param raceLog the log of the event
+     * @throws NullPointerException if {@code raceLog} is {@code null}
+     */
+    public void log(RaceLog raceLog) {
+        if(raceLog == null)
+            throw new NullPointerException("raceLog is null");
+        this.raceLog.accept(raceLog);
+    }
+
+
     /**
      * Sets the raceManager to all the handlers of the race.
      */
@@ -23,27 +23,62 @@
 
 package it.unicam.cs.NeculaRobertGabriel123390.api.model.player;
 
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotContext;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategy;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategyFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
 import javafx.scene.paint.Color;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 
 /**
  * A concrete implementation of {@link Player} representing a bot player in the game.
  * <p>
  * This class extends {@link Player} and provides an implementation for a bot player,
- * which is always considered a bot.
+ * which is always considered a bot. The moves of the bot are chosen by its {@link BotStrategy},
+ * and the time spent choosing them is recorded so that the cost of each strategy can be measured.
  * </p>
  */
 public final class BotPlayer extends Player{
 
 
+    private volatile BotStrategy strategy;
+
+
+    private final AtomicLong decisionCount = new AtomicLong();
+
+
+    private final AtomicLong totalDecisionNanos = new AtomicLong();
+
+
+    private final AtomicLong maxDecisionNanos = new AtomicLong();
+
+
     /**
-     * Constructs a {@code BotPlayer} with the specified name and color.
+     * Constructs a {@code BotPlayer} with the specified name and color, using the strategy
+     * of the {@link BotStrategyConstants#DEFAULT_LEVEL}.
      *
      * @param playerName The name of the bot player.
      * @param color The color associated with the bot player.
      */
     public BotPlayer(String playerName, Color color){
+        this(playerName, color, BotStrategyFactory.getStrategy(BotStrategyConstants.DEFAULT_LEVEL));
+    }
+
+
+    /**
+     * Constructs a {@code BotPlayer} with the specified name, color and strategy.
+     *
+     * @param playerName The name of the bot player.
+     * @param color The color associated with the bot player.
+     * @param strategy The strategy choosing the moves of the bot.
+     * @throws NullPointerException if {@code strategy} is {@code null}.
+     */
+    public BotPlayer(String playerName, Color color, BotStrategy strategy){
         super(playerName, color);
+        setStrategy(strategy);
     }
 
 
@@ -62,4 +97,73 @@ public final class BotPlayer extends Player{
     }
 
 
+    /**
+     * Chooses the move of the bot with its strategy, recording the time spent.
+     * Can be invoked outside the JavaFX application thread.
+     *
+     * @param context The snapshot of the race from the point of view of the bot.
+     * @return The move chosen by the strategy, or {@code null} if the strategy has no move to suggest.
+     * @throws NullPointerException if {@code context} is {@code null}.
+     */
+    public Position chooseMove(BotContext context) {
+        if(context == null)
+            throw new NullPointerException("context is null");
+
+        long start = System.nanoTime();
+        try {
+            return this.strategy.chooseMove(context);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            this.decisionCount.incrementAndGet();
+            this.totalDecisionNanos.addAndGet(elapsed);
+            this.maxDecisionNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+
+    /**
+     * Returns the strategy choosing the moves of the bot.
+     *
+     * @return The strategy of the bot.
+     */
+    public BotStrategy getStrategy() {return this.strategy;}
+
+
+    /**
+     * Sets the strategy choosing the moves of the bot.
+     *
+     * @param strategy The new strategy of the bot.
+     * @throws NullPointerException if {@code strategy} is {@code null}.
+     */
+    public void setStrategy(BotStrategy strategy) {
+        if(strategy == null)
+            throw new NullPointerException("strategy is null");
+        this.strategy = strategy;
+    }
+
+
+    /**
+     * Returns the number of moves chosen by the bot.
+     *
+     * @return The number of decisions.
+     */
+    public long getDecisionCount() {return this.decisionCount.get();}
+
+
+    /**
+     * Returns the total time spent by the bot choosing its moves.
+     *
+     * @return The total decision time, in nanoseconds.
+     */
+    public long getTotalDecisionNanos() {return this.totalDecisionNanos.get();}
+
+
+    /**
+     * Returns the longest time spent by the bot choosing a single move.
+     *
+     * @return The longest decision time, in nanoseconds.
+     */
+    public long getMaxDecisionNanos() {return this.maxDecisionNanos.get();}
+
+
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.player;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+
+import java.util.List;
+
+
+/**
+ * Class that sets up the players from the data of a {@link CompiledCircuitData},
+ * using the {@link PlayerSetup} of the data parsed from the same file.
+ */
+public final class CompiledPlayerSetup implements PlayerSetup {
+
+
+    /**
+     * Sets up the players using the provided parsed file data.
+     *
+     * @param fileData The data of a compiled circuit, which must be an instance of {@link CompiledCircuitData}.
+     * @return A list of {@link Player} objects.
+     * @throws NullPointerException if the provided file data is null.
+     * @throws IllegalArgumentException if the file data is not of the expected type.
+     */
+    @Override
+    public List<Player> setup(ParsedData<?> fileData) {
+        if(fileData == null)
+            throw new NullPointerException("fileData is null");
+        if(!(fileData instanceof CompiledCircuitData data))
+            throw new IllegalArgumentException("fileData is not a CompiledCircuitData");
+
+        ParsedData<?> sourceData = data.getSourceData();
+        return PlayerSetupFactory.getPlayerSetup(sourceData).setup(sourceData);
+    }
+}
@@ -24,8 +24,11 @@
 package it.unicam.cs.NeculaRobertGabriel123390.api.model.player;
 
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.UnsupportedFileException;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.VRCParsedData;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -45,6 +48,9 @@ public final class PlayerSetupFactory {
 
     static {
         setups.put(TXTParsedData.class, new TXTPlayerSetup());
+        setups.put(TXTStreamedData.class, new TXTStreamedPlayerSetup());
+        setups.put(VRCParsedData.class, new VRCPlayerSetup());
+        setups.put(CompiledCircuitData.class, new CompiledPlayerSetup());
     }
 
 
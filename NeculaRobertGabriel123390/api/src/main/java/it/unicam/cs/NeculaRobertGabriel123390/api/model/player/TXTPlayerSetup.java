@@ -24,19 +24,19 @@
 package it.unicam.cs.NeculaRobertGabriel123390.api.model.player;
 
 
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategyFactory;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedDataValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedDataValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedData;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.LoadingLogger;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayerUtils;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayersCount;
 import javafx.scene.paint.Color;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 
 /**
@@ -60,21 +60,22 @@ public final class TXTPlayerSetup implements PlayerSetup {
         validateParsedFileData(parsedFileData);
 
         List<String> fileData = extractData(parsedFileData);
-        String playersCountInfo = getPlayersCountInfo(fileData);
-        int numBotsPlayer = PlayerUtils.getBotCount(playersCountInfo);
+        PlayersCount playersCount = getPlayersCount(fileData);
+        int numBotsPlayer = playersCount.bots();
+        String botLevel = getBotLevel(playersCount);
 
         List<Player> players = new ArrayList<>();
 
-        int numHumanPlayer = PlayerUtils.getHumanCount(playersCountInfo);
+        int numHumanPlayer = playersCount.humans();
 
         if(numHumanPlayer == 0) {
-            players.addAll(createBotPlayers(numBotsPlayer));
+            players.addAll(createBotPlayers(numBotsPlayer, botLevel));
             return players;
         }
 
-        String[] humanData = getHumanPlayerData(fileData, playersCountInfo);
+        String[] humanData = getHumanPlayerData(fileData);
         players.addAll(createHumanPlayers(humanData));
-        players.addAll(createBotPlayers(numBotsPlayer));
+        players.addAll(createBotPlayers(numBotsPlayer, botLevel));
 
         return players;
 
@@ -82,7 +83,8 @@ public final class TXTPlayerSetup implements PlayerSetup {
 
 
     /**
-     * Validates that the provided file data is valid to be processed with the {@link TXTParsedDataValidator}.
+     * Validates that the provided file data is valid to be processed with the {@link TXTParsedDataValidator},
+     * which also checks the players count, the level of the bots and the human players declarations.
      *
      * @param fileData The parsed file data to validate.
      */
@@ -92,52 +94,6 @@ public final class TXTPlayerSetup implements PlayerSetup {
     }
 
 
-    /**
-     * Validates that the number of players (bots and humans combined) is at least 2.
-     * @param playersCountInfo The string containing the player count information in the format "xB yH".
-     * @throws IllegalArgumentException If the total number of players is less than 2, if the counts are invalid or the format of th string is invalid.
-     */
-    private void validatePlayersCount(String playersCountInfo) {
-
-        int totalPlayers = PlayerUtils.getBotCount(playersCountInfo) + PlayerUtils.getHumanCount(playersCountInfo);
-
-        if(PlayerUtils.getBotCount(playersCountInfo) < 0)
-            LoadingLogger.logErrorAndThrow("Number of bots needs to be minimum 0", FileFormatError.class);
-
-        if(PlayerUtils.getHumanCount(playersCountInfo) < 0)
-            LoadingLogger.logErrorAndThrow("Number of humans needs to be minimum 0", FileFormatError.class);
-
-        if (totalPlayers < 2)
-            LoadingLogger.logErrorAndThrow("A minimum of 2 players is required.", FileFormatError.class);
-
-    }
-
-
-    /**
-     * Validates that the number of human player data entries matches the number declared in the file.
-     *
-     * @param humanData The array of strings representing human player data.
-     * @param humanPlayers The number of human players declared in the file.
-     * @throws FileFormatError If the number of human player data entries does not match the declared number.
-     */
-    private void validateHumanPlayerData(String[] humanData, int humanPlayers) {
-        if (humanData.length != humanPlayers)
-            LoadingLogger.logErrorAndThrow("Mismatch between declared and supplied human player data.", FileFormatError.class);
-
-        for(String data : humanData) {
-
-            if(data.split(":").length != 2)
-                LoadingLogger.logErrorAndThrow("Name or color for the player are missing", FileFormatError.class);
-
-            if(Objects.requireNonNull(data.split(":")[0]).isEmpty())
-                LoadingLogger.logErrorAndThrow("A player does not have a name", FileFormatError.class);
-
-            if(Objects.requireNonNull(data.split(":")[1]).isEmpty())
-                LoadingLogger.logErrorAndThrow("A player does not have a color", FileFormatError.class);
-        }
-    }
-
-
     /**
      * Converts the parsed file data into a list of strings.
      *
@@ -150,40 +106,40 @@ public final class TXTPlayerSetup implements PlayerSetup {
 
 
     /**
-     * Extracts and validates the player count information from the file.
-     * <p>
-     * This method ensures that the player count data is in the correct format and that it meets the requirements for the game.
-     * </p>
+     * Extracts the player count information from the file, already validated by the {@link TXTParsedDataValidator}.
      *
      * @param fileData The list of strings representing the file data.
-     * @return The string containing player count data in the format "xB yH".
+     * @return The player count data, parsed from the row in the format "xB yH".
      */
-    private String getPlayersCountInfo(List<String> fileData) {
-        String playersCountInfo = fileData.get(TXTCircuitSetup.PLAYERS_COUNT_ROW);
-        validatePlayersCount(playersCountInfo);
-        return playersCountInfo;
+    private PlayersCount getPlayersCount(List<String> fileData) {
+        return PlayerUtils.parsePlayersCount(fileData.get(TXTCircuitSetup.PLAYERS_COUNT_ROW));
     }
 
 
     /**
-     * Retrieves and validates the human player data from the file.
+     * Extracts the level of the bots from the player count information, already validated by the {@link TXTParsedDataValidator}.
+     *
+     * @param playersCount The player count data, parsed from the row in the format "xB yH level".
+     * @return The level of the bots, or {@link BotStrategyConstants#DEFAULT_LEVEL} if the file does not specify it.
+     */
+    private String getBotLevel(PlayersCount playersCount) {
+        String botLevel = playersCount.botLevel();
+        return botLevel == null ? BotStrategyConstants.DEFAULT_LEVEL : botLevel;
+    }
+
+
+    /**
+     * Retrieves the human player data from the file.
      * <p>
-     * This method parses the human player data from a string array, ensuring that the number of human players
+     * The {@link TXTParsedDataValidator} has already checked that the number of human players
      * matches the declared count and that each player has a valid name and color.
      * </p>
      *
      * @param fileData The list of strings representing the file data.
-     * @param playersCountInfo The string containing player count information.
      * @return An array of strings representing the human player data in the format "name:color".
-     * @throws IllegalArgumentException If the human player data is invalid or mismatches the declared count.
      */
-    private String[] getHumanPlayerData(List<String> fileData, String playersCountInfo) {
-        String[] humanData = fileData.get(TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW).split(",");
-
-        int humanCount = PlayerUtils.getHumanCount(playersCountInfo);
-        validateHumanPlayerData(humanData, humanCount);
-
-        return humanData;
+    private String[] getHumanPlayerData(List<String> fileData) {
+        return fileData.get(TXTCircuitSetup.HUMAN_PLAYERS_DATA_ROW).split(",");
     }
 
 
@@ -212,12 +168,13 @@ public final class TXTPlayerSetup implements PlayerSetup {
      * Creates a specified number of bot players with unique names and random colors.
      *
      * @param numBots The number of bot players to create.
+     * @param botLevel The level of the bots, as defined in {@link BotStrategyConstants}.
      * @return A list of {@link BotPlayer} objects.
      */
-    private List<Player> createBotPlayers(int numBots) {
+    static List<Player> createBotPlayers(int numBots, String botLevel) {
         List<Player> botPlayers = new ArrayList<>();
         for (int i = 0; i < numBots; i++)
-            botPlayers.add(new BotPlayer("Bot " + (i + 1), generateRandomColor()));
+            botPlayers.add(new BotPlayer("Bot " + (i + 1), generateRandomColor(), BotStrategyFactory.getStrategy(botLevel)));
 
         return botPlayers;
     }
@@ -228,7 +185,7 @@ public final class TXTPlayerSetup implements PlayerSetup {
      *
      * @return A {@link Color} object with random RGB values.
      */
-    private Color generateRandomColor() {return Color.rgb(getRandomRGBValue(), getRandomRGBValue(), getRandomRGBValue());}
+    private static Color generateRandomColor() {return Color.rgb(getRandomRGBValue(), getRandomRGBValue(), getRandomRGBValue());}
 
 
     /**
@@ -236,5 +193,5 @@ public final class TXTPlayerSetup implements PlayerSetup {
      *
      * @return An integer representing an RGB value.
      */
-    private int getRandomRGBValue() {return (int) (Math.random() * 256);}
+    private static int getRandomRGBValue() {return (int) (Math.random() * 256);}
 }
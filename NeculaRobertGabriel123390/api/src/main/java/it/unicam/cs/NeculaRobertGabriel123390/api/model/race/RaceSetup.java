@@ -103,6 +103,20 @@ public class RaceSetup {
     }
 
 
+    /**
+     * Creates and sets up a new race on the circuit of the parsed file data, ignoring the players of the file.
+     *
+     * @param players The players of the race.
+     * @return A new {@link Race} instance.
+     * @throws NullPointerException if {@code players} is {@code null}.
+     */
+    public Race setupWithPlayers(List<Player> players) {
+        if(players == null)
+            throw new NullPointerException("players is null");
+        return new Race(createCircuit(), players, this.handlers);
+    }
+
+
     /**
      * Creates the circuit from the parsed file data, excluding parts of the track that are not included (e.g., marked with '#').
      *
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import javafx.scene.image.Image;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * Keeps the images of the static layer of the most recently rendered circuits, the grid, the track outline and
+ * the start and end lines, so that a circuit rendered again, e.g. for a new race or after being loaded again,
+ * gets its background without drawing it again.
+ * <p>
+ * The images are identified by the content hash of the {@link CircuitGrid} of their circuit, since the static layer
+ * depends only on the layout of the circuit. Images are created by snapshots, so the cache is only used on the
+ * JavaFX application thread.
+ * </p>
+ */
+final class CircuitBackgroundCache {
+
+
+    /**
+     * The number of images kept, the least recently used being dropped first.
+     */
+    static final int MAX_BACKGROUNDS = 4;
+
+
+    private static final Map<String, Image> backgrounds = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > MAX_BACKGROUNDS;
+        }
+    };
+
+
+    /**
+     * Don't allow user to instantiate a CircuitBackgroundCache object because that's not how this class is meant to work.
+     */
+    private CircuitBackgroundCache() {}
+
+
+    /**
+     * Returns the background of the given grid, drawing it if it is not cached.
+     *
+     * @param grid The grid of the circuit.
+     * @param drawer The function drawing the background of the circuit.
+     * @return The image of the background.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    static Image getOrDraw(CircuitGrid grid, Supplier<Image> drawer) {
+        if(grid == null)
+            throw new NullPointerException("grid is null");
+        if(drawer == null)
+            throw new NullPointerException("drawer is null");
+
+        String contentHash = grid.getContentHash();
+        Image background = backgrounds.get(contentHash);
+        if(background == null) {
+            background = drawer.get();
+            backgrounds.put(contentHash, background);
+        }
+        return background;
+    }
+}
@@ -27,15 +27,22 @@ import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitUtils;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetup;
-import javafx.scene.shape.Rectangle;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -48,12 +55,99 @@ import java.util.List;
  * the circuit layout. It draws lines to represent the circuit's path and highlights the start and end lines. The
  * class also provides methods to update the visual representation to reflect player movements on the circuit.
  * </p>
+ * <p>
+ * The circuit and the moves are drawn on two {@link Canvas} layers added to the grid container, instead of a node
+ * for every tile, line and circle, so the scene graph keeps the same size for the whole race. The static layer,
+ * made of the grid, the track outline and the start and end lines, is drawn once into an image, which is reused
+ * when the same circuit is rendered again; the moves are drawn on the overlay above it, which only receives
+ * the new segment and car of every move, drawn above what is already there. Zoomed out, where only the cars are
+ * shown, the previous marker of the car is also erased and the few marks around it are drawn again, so the work of
+ * a move depends on its length and not on the length of the race.
+ * </p>
+ * <p>
+ * The canvases show the circuit through a {@link Viewport}, which can be zoomed and panned. The moves and the
+ * outline of the track are kept in a {@link RegionIndex}, so that a change of the view only draws the tiles, the
+ * segments and the cars inside it, and a move outside the view draws nothing. Up to the natural size, the static layer
+ * is the scaled image; zoomed in, the visible tiles and outline are drawn again, so they stay sharp. Zoomed out
+ * below {@link Viewport#DETAIL_ZOOM}, the markers of the past positions are left out and only the cars are drawn.
+ * </p>
+ * <p>
+ * The canvases are as large as the container, the view, while the world is the whole board of
+ * {@code MAX_NODES_X} by {@code MAX_NODES_Y} tiles rather than the grid of the circuit: every position of a circuit
+ * and of a move is bounded by {@link PositionUtils#validateCircuitNodePosition(Position)}, moves can end past the
+ * track, and the tiles of the whole board are drawn around it. Since no circuit format can describe a circuit
+ * larger than the board, the world is larger than the view only when zoomed in; the cost of a frame follows the
+ * view, but it can't be measured on circuits larger than the window until the formats allow them.
+ * </p>
  */
 public final class CircuitSceneBuilder extends SceneBuilder<Pane, Circuit> implements Updatable<MoveResult>{
 
 
     /**
-     * Constructs a new {@code CircuitSceneBuilder} instance with the specified grid container and circuit data.
+     * The width of the board at its natural size, in pixels.
+     */
+    private static final double WORLD_WIDTH = TXTCircuitSetup.MAX_NODES_X * CircuitSetup.DIM_RECT;
+
+
+    /**
+     * The height of the board at its natural size, in pixels.
+     */
+    private static final double WORLD_HEIGHT = TXTCircuitSetup.MAX_NODES_Y * CircuitSetup.DIM_RECT;
+
+
+    /**
+     * A segment of a move drawn on the circuit, with the marker of the car at its end.
+     *
+     * @param from The position the move starts from.
+     * @param to The position the move ends at.
+     * @param marker The position of the marker of the car.
+     * @param color The color of the player.
+     */
+    private record TrailMark(Position from, Position to, Position marker, Color color) {}
+
+
+    /**
+     * The canvas where the image of the static layer of the circuit is drawn.
+     */
+    private final Canvas backgroundCanvas;
+
+
+    /**
+     * The canvas where the moves are drawn, above the circuit.
+     */
+    private final Canvas canvas;
+
+
+    private final Viewport viewport;
+
+
+    /**
+     * The moves drawn since the circuit was rendered.
+     */
+    private final RegionIndex<TrailMark> trail = new RegionIndex<>(WORLD_WIDTH, WORLD_HEIGHT);
+
+
+    /**
+     * The last marker of every player, drawn even when the view is zoomed out.
+     */
+    private final Map<Player, TrailMark> cars = new IdentityHashMap<>();
+
+
+    /**
+     * The lines of the track outline and of the start and end lines, created when the view is zoomed in for the first time.
+     */
+    private RegionIndex<CircuitLine> outline;
+
+
+    /**
+     * The region changed by the last move, or {@code null} if no move has been drawn.
+     */
+    private DirtyRegion lastDirtyRegion;
+
+
+    /**
+     * Constructs a new {@code CircuitSceneBuilder} instance with the specified grid container and circuit data,
+     * adding to the container the canvases where the circuit and the moves will be drawn.
      *
      * @param circuitGrid The {@link Pane} where the circuit will be rendered.
      * @param circuit     The {@link Circuit} data used to build and display the grid.
@@ -62,18 +156,126 @@ public final class CircuitSceneBuilder extends SceneBuilder<Pane, Circuit> imple
     public CircuitSceneBuilder(Pane circuitGrid, Circuit circuit){
         super(circuitGrid, circuit);
         CircuitValidator.validate(circuit);
+        this.backgroundCanvas = createViewCanvas(circuitGrid);
+        this.canvas = createViewCanvas(circuitGrid);
+        this.viewport = new Viewport(this.canvas.getWidth(), this.canvas.getHeight(), WORLD_WIDTH, WORLD_HEIGHT);
+        this.container.getChildren().addAll(this.backgroundCanvas, this.canvas);
     }
 
 
     /**
-     * Renders the circuit by first displaying the grid layout, then drawing the circuit shape
-     * based on the provided circuit data. This method implements the {@link Renderable#render()}
-     * method.
+     * Creates a canvas as large as the board at its natural size.
+     *
+     * @return The new canvas.
+     */
+    private static Canvas createCircuitCanvas() {
+        return new Canvas(WORLD_WIDTH, WORLD_HEIGHT);
+    }
+
+
+    /**
+     * Creates a canvas as large as the preferred size of the container, or as the board if the container
+     * doesn't have one.
+     *
+     * @param container The container showing the canvas.
+     * @return The new canvas.
+     */
+    private static Canvas createViewCanvas(Pane container) {
+        double width = container.getPrefWidth() > 0 ? container.getPrefWidth() : WORLD_WIDTH;
+        double height = container.getPrefHeight() > 0 ? container.getPrefHeight() : WORLD_HEIGHT;
+        return new Canvas(width, height);
+    }
+
+
+    /**
+     * Renders the circuit by clearing the moves and drawing the visible part of the grid layout and of the circuit shape,
+     * whose image is drawn only if the same circuit has not been rendered recently. This method implements the
+     * {@link Renderable#render()} method.
      */
     @Override
     public void render() {
-        displayCircuitGrid();
-        displayCircuitShape();
+        this.trail.clear();
+        this.cars.clear();
+        this.lastDirtyRegion = null;
+        redraw();
+    }
+
+
+    /**
+     * Zooms the view of the circuit, keeping the point under the pivot still, and draws it again.
+     *
+     * @param factor The factor multiplying the zoom, greater than {@code 1} to zoom in.
+     * @param pivotX The X-coordinate of the pivot on the canvas.
+     * @param pivotY The Y-coordinate of the pivot on the canvas.
+     * @throws IllegalArgumentException if {@code factor} is not positive.
+     */
+    public void zoom(double factor, double pivotX, double pivotY) {
+        this.viewport.zoom(factor, pivotX, pivotY);
+        redraw();
+    }
+
+
+    /**
+     * Pans the view of the circuit by the given distance on the canvas and draws it again.
+     *
+     * @param deltaX The horizontal distance, in pixels of the canvas.
+     * @param deltaY The vertical distance, in pixels of the canvas.
+     */
+    public void pan(double deltaX, double deltaY) {
+        this.viewport.pan(deltaX, deltaY);
+        redraw();
+    }
+
+
+    /**
+     * Draws the visible part of the static layer and of the moves.
+     */
+    private void redraw() {
+        drawVisibleBackground();
+        drawRegion(this.viewport.getVisibleRegion());
+    }
+
+
+    /**
+     * Draws the visible part of the static layer, from its image up to the natural size of the circuit,
+     * or tile by tile when zoomed in.
+     */
+    private void drawVisibleBackground() {
+        GraphicsContext graphics = this.backgroundCanvas.getGraphicsContext2D();
+        graphics.clearRect(0, 0, this.backgroundCanvas.getWidth(), this.backgroundCanvas.getHeight());
+        DirtyRegion visible = this.viewport.getVisibleRegion();
+
+        if(this.viewport.getZoom() <= 1) {
+            Image background = CircuitBackgroundCache.getOrDraw(this.data.getGrid(), this::drawBackground);
+            double sourceWidth = Math.min(visible.width(), WORLD_WIDTH - visible.x());
+            double sourceHeight = Math.min(visible.height(), WORLD_HEIGHT - visible.y());
+            graphics.drawImage(background, visible.x(), visible.y(), sourceWidth, sourceHeight,
+                    0, 0, sourceWidth * this.viewport.getZoom(), sourceHeight * this.viewport.getZoom());
+            return;
+        }
+
+        graphics.save();
+        this.viewport.apply(graphics);
+        displayCircuitGrid(graphics, visible);
+        getOutline().forEachIn(visible, line -> Renderer.drawLine(graphics, line));
+        graphics.restore();
+    }
+
+
+    /**
+     * Draws the grid layout and the circuit shape on an off-screen canvas and takes its snapshot.
+     *
+     * @return The image of the static layer of the circuit.
+     */
+    private Image drawBackground() {
+        Canvas offScreenCanvas = createCircuitCanvas();
+        GraphicsContext graphics = offScreenCanvas.getGraphicsContext2D();
+        displayCircuitGrid(graphics);
+        displayCircuitShape(graphics);
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return offScreenCanvas.snapshot(parameters, null);
     }
 
 
@@ -83,6 +285,8 @@ public final class CircuitSceneBuilder extends SceneBuilder<Pane, Circuit> imple
      * This method draws a line representing the player's movement from the previous position
      * to the current position and updates the player's position on the grid. It ensures that the
      * visual representation of the player's movement is accurately reflected in the circuit display.
+     * The segment and the car are drawn above the moves already drawn; only the previous marker of the car is erased,
+     * when zoomed out. Nothing is drawn if the move is outside the view.
      * </p>
      *
      * @param moveResult The result of the player's move, containing previous and new positions, as well as the player's color.
@@ -90,78 +294,253 @@ public final class CircuitSceneBuilder extends SceneBuilder<Pane, Circuit> imple
      */
     @Override
     public void update(MoveResult moveResult) {
+        this.lastDirtyRegion = addMark(moveResult);
+    }
+
+
+    /**
+     * Updates the circuit display to reflect several moves at once, e.g. all the moves played in a frame.
+     * <p>
+     * The moves are added and drawn one after the other, as {@link #update(MoveResult)} does, and the region of the
+     * last move covers all of them.
+     * </p>
+     *
+     * @param moveResults The results of the moves, in the order they were played.
+     * @throws NullPointerException if {@code moveResults} or any of its elements is {@code null}.
+     */
+    public void updateAll(List<MoveResult> moveResults) {
+        if(moveResults == null)
+            throw new NullPointerException("moveResults is null");
+        if(moveResults.isEmpty())
+            return;
+
+        DirtyRegion region = null;
+        for(MoveResult moveResult : moveResults) {
+            DirtyRegion moveRegion = addMark(moveResult);
+            region = region == null ? moveRegion : region.union(moveRegion);
+        }
+        this.lastDirtyRegion = region;
+    }
+
+
+    /**
+     * Displays the position of a player before any move, e.g. on the start line.
+     *
+     * @param player The player to display.
+     * @throws NullPointerException if {@code player} is {@code null}.
+     */
+    public void displayPlayer(Player player) {
+        PlayerValidator.validate(player);
+        addMark(player, new TrailMark(player.getPosition(), player.getPosition(), player.getPosition(), player.getColor()));
+    }
+
+
+    /**
+     * Adds the mark of a move to the trail and draws it.
+     *
+     * @return The region of the mark, extended to the previous marker of the car.
+     */
+    private DirtyRegion addMark(MoveResult moveResult) {
         MoveResultValidator.validate(moveResult);
-        CircuitLine moveLine = createCircuitLine(moveResult.prevOrNewPosition(), moveResult.player().getPosition(), moveResult.player().getColor());
-        Renderer.drawLine(this.container, moveLine);
+        Player player = moveResult.player();
+        Position marker = moveResult.moveType() != MoveResultType.CRASH_LEAVE_RACE && moveResult.moveType() != MoveResultType.COLLISION_ALLOWED
+                ? player.getPosition() : moveResult.prevOrNewPosition();
+
+        return addMark(player, new TrailMark(moveResult.prevOrNewPosition(), player.getPosition(), marker, player.getColor()));
+    }
+
+
+    /**
+     * Adds a mark to the trail, as the current marker of the car of the given player, and draws it if it is visible.
+     * Zoomed out, the previous marker of the car is erased first.
+     *
+     * @return The region of the mark, extended to the previous marker of the car.
+     */
+    private DirtyRegion addMark(Player player, TrailMark mark) {
+        DirtyRegion markRegion = DirtyRegion.ofMove(mark.from(), mark.to()).union(DirtyRegion.ofMove(mark.marker(), mark.marker()));
+        this.trail.add(mark, markRegion);
+        TrailMark previousCar = this.cars.put(player, mark);
+        DirtyRegion visible = this.viewport.getVisibleRegion();
+
+        DirtyRegion region = markRegion;
+        if(previousCar != null) {
+            DirtyRegion previousMarker = DirtyRegion.ofMove(previousCar.marker(), previousCar.marker());
+            if(!this.viewport.isDetailed() && visible.intersects(previousMarker))
+                drawRegion(visible.intersection(previousMarker));
+            region = region.union(previousMarker);
+        }
+
+        if(visible.intersects(markRegion))
+            drawMark(mark, markRegion);
+        return region;
+    }
 
-        if(moveResult.moveType() != MoveResultType.CRASH_LEAVE_RACE && moveResult.moveType() != MoveResultType.COLLISION_ALLOWED)
-            Renderer.drawCircle(this.container, moveResult.player());
+
+    /**
+     * Draws a mark above the moves already drawn on the overlay. Zoomed out, the cars around the mark are drawn
+     * again above it, as {@link #drawRegion(DirtyRegion)} does.
+     *
+     * @param mark The mark to draw.
+     * @param region The region of the mark, in world coordinates.
+     */
+    private void drawMark(TrailMark mark, DirtyRegion region) {
+        GraphicsContext graphics = getGraphicsContext();
+
+        graphics.save();
+        this.viewport.apply(graphics);
+        if(!mark.from().equals(mark.to()))
+            Renderer.drawLine(graphics, mark.from(), mark.to(), mark.color());
+        if(this.viewport.isDetailed())
+            Renderer.drawCircle(graphics, mark.marker(), mark.color());
         else
-            Renderer.drawCircle(this.container, moveResult.prevOrNewPosition(), moveResult.player().getColor());
+            for (TrailMark car : this.cars.values())
+                if(region.intersects(DirtyRegion.ofMove(car.marker(), car.marker())))
+                    Renderer.drawCircle(graphics, car.marker(), car.color());
+        graphics.restore();
     }
 
 
+    /**
+     * Clears the given region of the overlay and draws again the moves and the cars inside it.
+     *
+     * @param region The region to draw, in world coordinates.
+     */
+    private void drawRegion(DirtyRegion region) {
+        GraphicsContext graphics = getGraphicsContext();
+        boolean isDetailed = this.viewport.isDetailed();
+
+        graphics.save();
+        this.viewport.apply(graphics);
+        Renderer.clip(graphics, region);
+        graphics.clearRect(region.x(), region.y(), region.width(), region.height());
+        this.trail.forEachIn(region, mark -> {
+            if(!mark.from().equals(mark.to()))
+                Renderer.drawLine(graphics, mark.from(), mark.to(), mark.color());
+            if(isDetailed)
+                Renderer.drawCircle(graphics, mark.marker(), mark.color());
+        });
+        if(!isDetailed)
+            for (TrailMark car : this.cars.values())
+                Renderer.drawCircle(graphics, car.marker(), car.color());
+        graphics.restore();
+        graphics.restore();
+    }
+
 
     /**
-     * Displays the grid where the circuit will be rendered by drawing a grid of white rectangles
-     * on the pane. Each rectangle represents a tile in the circuit grid.
+     * Displays the grid where the circuit will be rendered by drawing a grid of white squares
+     * on the given graphics context. Each square represents a tile in the circuit grid.
+     *
+     * @param graphics The {@link GraphicsContext} where the grid is drawn.
+     * @throws NullPointerException if {@code graphics} is {@code null}.
      */
-    public void displayCircuitGrid() {
-        for (int x = 0; x < TXTCircuitSetup.MAX_NODES_X; x++) {
-            for (int y = 0; y < TXTCircuitSetup.MAX_NODES_Y; y++) {
-                Position tilePosition = new Position(x, y);
-                Rectangle rectangle = createTile(tilePosition);
-                this.container.getChildren().add(rectangle);
-            }
-        }
+    public void displayCircuitGrid(GraphicsContext graphics) {
+        displayCircuitGrid(graphics, new DirtyRegion(0, 0, WORLD_WIDTH, WORLD_HEIGHT));
+    }
+
+
+    /**
+     * Draws the tiles of the grid intersecting the given region.
+     *
+     * @param graphics The {@link GraphicsContext} where the tiles are drawn.
+     * @param region The region to cover, in world coordinates.
+     */
+    private void displayCircuitGrid(GraphicsContext graphics, DirtyRegion region) {
+        int firstX = Math.max(0, (int) (region.x() / CircuitSetup.DIM_RECT));
+        int firstY = Math.max(0, (int) (region.y() / CircuitSetup.DIM_RECT));
+        int lastX = Math.min(TXTCircuitSetup.MAX_NODES_X - 1, (int) ((region.x() + region.width()) / CircuitSetup.DIM_RECT));
+        int lastY = Math.min(TXTCircuitSetup.MAX_NODES_Y - 1, (int) ((region.y() + region.height()) / CircuitSetup.DIM_RECT));
+
+        for (int x = firstX; x <= lastX; x++)
+            for (int y = firstY; y <= lastY; y++)
+                Renderer.drawTile(graphics, new Position(x, y));
     }
 
 
     /**
      * Creates and displays the circuit shape on the grid by drawing lines between circuit nodes
      * based on the circuit data. This includes both the track lines and the start/end lines.
+     *
+     * @param graphics The {@link GraphicsContext} where the shape is drawn.
+     * @throws NullPointerException if {@code graphics} is {@code null}.
      */
-    public void displayCircuitShape(){
+    public void displayCircuitShape(GraphicsContext graphics){
+        for(CircuitLine line : createOutlineLines())
+            Renderer.drawLine(graphics, line);
+    }
 
-        List<Position> extNodes = getPositionOfExternNodes();
-        for(Position nodePosition : extNodes) {
+
+    /**
+     * Creates the lines between the extern nodes of the circuit, followed by the start and end lines.
+     *
+     * @return The lines of the circuit shape.
+     */
+    private List<CircuitLine> createOutlineLines() {
+        List<CircuitLine> lines = new ArrayList<>();
+        for(Position nodePosition : getPositionOfExternNodes()) {
             List<Position> neighbours = CircuitUtils.get8Neighbours(this.data.getCircuitMap(), nodePosition);
 
-            for(Position neighbourPosition : neighbours) {
-                if (isRightOrDown(nodePosition, neighbourPosition) && this.data.isCircuitNodeExtern(neighbourPosition)) {
-                    CircuitLine line = createCircuitLine(nodePosition, neighbourPosition, Color.BLACK);
-                    Renderer.drawLine(this.container, line);
-                }
-            }
+            for(Position neighbourPosition : neighbours)
+                if (isRightOrDown(nodePosition, neighbourPosition) && this.data.isCircuitNodeExtern(neighbourPosition))
+                    lines.add(createCircuitLine(nodePosition, neighbourPosition, Color.BLACK));
         }
 
-        Renderer.drawLine(this.container, createStartLine());
-        Renderer.drawLine(this.container, createEndLine());
+        lines.add(createStartLine());
+        lines.add(createEndLine());
+        return lines;
     }
 
 
     /**
-     * Creates a single tile represented by a white rectangle at the specified position.
+     * Returns the lines of the circuit shape indexed by their region, creating them the first time.
      *
-     * @param tilePosition The position of the tile.
-     * @return A {@link Rectangle} representing the tile at the specified position.
-     * @throws NullPointerException if {@code tilePosition} is {@code null}.
-     * @throws IllegalArgumentException if {@code tilePosition} is ouf of bounds for the circuit.
+     * @return The index of the outline of the circuit.
      */
-    private Rectangle createTile(Position tilePosition) {
-        PositionUtils.validateCircuitNodePosition(tilePosition);
+    private RegionIndex<CircuitLine> getOutline() {
+        if(this.outline == null) {
+            this.outline = new RegionIndex<>(WORLD_WIDTH, WORLD_HEIGHT);
+            for(CircuitLine line : createOutlineLines()) {
+                List<Position> positions = line.getPositions();
+                DirtyRegion region = DirtyRegion.ofMove(positions.get(0), positions.get(0));
+                for (int i = 1; i < positions.size(); i++)
+                    region = region.union(DirtyRegion.ofMove(positions.get(i - 1), positions.get(i)));
+                this.outline.add(line, region);
+            }
+        }
+        return this.outline;
+    }
 
-        Rectangle rectangle = new Rectangle(CircuitSetup.DIM_RECT, CircuitSetup.DIM_RECT);
-        Position rectangleScaledToDrawPosition = PositionUtils.scalePositionToDraw(tilePosition);
 
-        rectangle.setX(rectangleScaledToDrawPosition.getX());
-        rectangle.setY(rectangleScaledToDrawPosition.getY());
+    /**
+     * Returns the canvas where the moves are drawn, above the static layer of the circuit.
+     *
+     * @return The overlay canvas of the circuit.
+     */
+    public Canvas getCanvas() {return this.canvas;}
 
-        rectangle.setFill(Color.WHITE);
-        rectangle.setStroke(Color.DARKGRAY);
 
-        return rectangle;
-    }
+    /**
+     * Returns the region of the circuit changed by the last move.
+     *
+     * @return The region of the last move, or {@code null} if no move has been drawn since the circuit was rendered.
+     */
+    public DirtyRegion getLastDirtyRegion() {return this.lastDirtyRegion;}
+
+
+    /**
+     * Returns the graphics context of the overlay canvas, used to draw on the circuit.
+     *
+     * @return The {@link GraphicsContext} of the overlay canvas.
+     */
+    public GraphicsContext getGraphicsContext() {return this.canvas.getGraphicsContext2D();}
+
+
+    /**
+     * Returns the viewport through which the circuit is shown.
+     *
+     * @return The {@link Viewport} of the canvases.
+     */
+    public Viewport getViewport() {return this.viewport;}
 
 
     /**
@@ -48,6 +48,12 @@ import javafx.scene.layout.GridPane;
 public final class MovesGridSceneBuilder extends SceneBuilder<GridPane, PlayerMoves> implements Updatable<PlayerMoves> {
 
 
+    /**
+     * Style of the buttons whose move crashes.
+     */
+    public static final String UNSAFE_MOVE_STYLE = "-fx-base: #f2b8b5;";
+
+
     /**
      * Constructs a {@code MovesGridSceneBuilder} instance with the specified grid pane and player moves.
      *
@@ -145,6 +151,20 @@ public final class MovesGridSceneBuilder extends SceneBuilder<GridPane, PlayerMo
     }
 
 
+    /**
+     * Shades the buttons whose move crashes, leaving the other ones with their default style.
+     * The buttons are laid out as the actions of the masks, so bit {@code k} refers to the {@code k}-th button.
+     *
+     * @param crashFreeMoves The 9-bit mask of the moves that don't crash.
+     */
+    public void markUnsafeMoves(int crashFreeMoves) {
+        for (int index = 0; index < 9; index++) {
+            Button button = (Button) this.container.getChildren().get(index);
+            button.setStyle((crashFreeMoves & (1 << index)) != 0 ? "" : UNSAFE_MOVE_STYLE);
+        }
+    }
+
+
     /**
      * Disables all buttons in the grid, preventing any further interaction.
      * This method is typically invoked when all players have crashed, and there are no remaining players
@@ -156,4 +176,14 @@ public final class MovesGridSceneBuilder extends SceneBuilder<GridPane, PlayerMo
     }
 
 
+    /**
+     * Enables all buttons in the grid, allowing a human player to choose a move again.
+     * This method is typically invoked when the turn goes back to a human player after a bot has moved.
+     */
+    public void enableGrid(){
+        for(Node node : this.container.getChildren())
+            node.setDisable(false);
+    }
+
+
 }
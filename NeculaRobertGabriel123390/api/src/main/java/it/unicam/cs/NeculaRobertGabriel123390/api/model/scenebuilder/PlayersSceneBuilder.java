@@ -26,13 +26,15 @@ package it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerValidator;
+import javafx.scene.Node;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.Pane;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The {@code PlayersSceneBuilder} class is responsible for building and displaying player data
@@ -42,10 +44,19 @@ import java.util.List;
  * <p>This class extends {@link SceneBuilder} and implements the {@link Updatable} interface,
  * enabling it to render the initial player state and update the display in response to game
  * events such as player moves or game state changes.</p>
+ *
+ * <p>The nodes of every row are kept, so that a player leaving the race only removes its own row
+ * instead of rebuilding the whole grid.</p>
  */
 public final class PlayersSceneBuilder extends SceneBuilder<GridPane, List<Player>> implements Updatable<MoveResult> {
 
 
+    /**
+     * The nodes of the row of every player on the board.
+     */
+    private final Map<Player, List<Node>> playerRows = new IdentityHashMap<>();
+
+
     /**
      * Constructs a {@code PlayersSceneBuilder} instance with the specified list of players and grid pane.
      * @param players     The list of players to be displayed.
@@ -87,15 +98,16 @@ public final class PlayersSceneBuilder extends SceneBuilder<GridPane, List<Playe
 
 
     /**
-     * Clears the {@code GridPane} and displays the updated list of players.
+     * Removes the row of the given player from the {@code GridPane}, leaving the other rows as they are.
      * This method is called when a player leaves the race, ensuring that the board is updated to reflect
      * the current state of the game.
      * @param player The player to remove from the board
      */
     private void removePlayerFromBoard(Player player) {
         this.data.remove(player);
-        this.container.getChildren().clear();
-        displayPlayers();
+        List<Node> row = this.playerRows.remove(player);
+        if(row != null)
+            this.container.getChildren().removeAll(row);
     }
 
 
@@ -109,11 +121,14 @@ public final class PlayersSceneBuilder extends SceneBuilder<GridPane, List<Playe
      * </p>
      */
     private void displayPlayers() {
+        this.container.getChildren().clear();
+        this.playerRows.clear();
         for (int i = 0; i < this.data.size(); i++) {
             Rectangle playerColorRectangle = createRectangleWithPlayerColor(this.data.get(i));
             Text playerNameText = createTextWithPlayerName(this.data.get(i));
             this.container.add(playerColorRectangle, 0, i);
             this.container.add(playerNameText, 1, i);
+            this.playerRows.put(this.data.get(i), List.of(playerColorRectangle, playerNameText));
         }
     }
 
@@ -148,21 +163,21 @@ public final class PlayersSceneBuilder extends SceneBuilder<GridPane, List<Playe
 
 
     /**
-     * Draws circles representing the initial positions of players on the provided {@code Pane}.
+     * Draws circles representing the initial positions of players on the provided {@link CircuitSceneBuilder}.
      *
-     * <p>This method uses the {@link Renderer} class to draw circles for each player at their initial
-     * positions on the circuit grid. This provides a visual representation of the players' starting positions
+     * <p>The circles are added to the moves of the circuit, so that they are drawn again whenever its view
+     * is zoomed or panned. This provides a visual representation of the players' starting positions
      * on the game board.</p>
      *
-     * @param circuitGrid The {@link Pane} where player circles will be drawn.
-     * @throws NullPointerException if {@code circuitGrid} is {@code null}.
+     * @param circuitSceneBuilder The {@link CircuitSceneBuilder} of the circuit, where player circles will be drawn.
+     * @throws NullPointerException if {@code circuitSceneBuilder} is {@code null}.
      */
-    public void displayInitialPlayerPosition(Pane circuitGrid) {
-        if(circuitGrid == null)
-            throw new NullPointerException("circuitGrid is null");
+    public void displayInitialPlayerPosition(CircuitSceneBuilder circuitSceneBuilder) {
+        if(circuitSceneBuilder == null)
+            throw new NullPointerException("circuitSceneBuilder is null");
 
         for (Player player : this.data)
-            Renderer.drawCircle(circuitGrid, player);
+            circuitSceneBuilder.displayPlayer(player);
     }
 
 
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.DirtyRegion;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Keeps the items drawn on the circuit, e.g. the segments of the moves, by the region they cover, so that only the ones
+ * inside the visible part of the circuit are drawn again.
+ * <p>
+ * The world is divided into square buckets of {@link #BUCKET_TILES} tiles per side, and every item is listed in the
+ * buckets its region overlaps. Finding the items of a region only looks at the buckets it overlaps, so its cost
+ * depends on the items near the region rather than on all the items, and the items are given back in the order they
+ * were added, so that the newer ones are drawn above the older ones.
+ * </p>
+ *
+ * @param <T> The type of the items.
+ */
+final class RegionIndex<T> {
+
+
+    /**
+     * The number of tiles per side of a bucket.
+     */
+    static final int BUCKET_TILES = 8;
+
+
+    private static final double BUCKET_SIZE = BUCKET_TILES * CircuitSetup.DIM_RECT;
+
+
+    private final int bucketsX;
+
+
+    private final int bucketsY;
+
+
+    private final List<List<Integer>> buckets;
+
+
+    private final List<T> items = new ArrayList<>();
+
+
+    private final List<DirtyRegion> regions = new ArrayList<>();
+
+
+    /**
+     * Constructs an empty {@code RegionIndex} covering a world of the given size.
+     *
+     * @param worldWidth The width of the world, in pixels.
+     * @param worldHeight The height of the world, in pixels.
+     */
+    RegionIndex(double worldWidth, double worldHeight) {
+        this.bucketsX = (int) Math.ceil(worldWidth / BUCKET_SIZE);
+        this.bucketsY = (int) Math.ceil(worldHeight / BUCKET_SIZE);
+        this.buckets = new ArrayList<>(this.bucketsX * this.bucketsY);
+        for (int i = 0; i < this.bucketsX * this.bucketsY; i++)
+            this.buckets.add(new ArrayList<>());
+    }
+
+
+    /**
+     * Adds an item covering the given region.
+     *
+     * @param item The item.
+     * @param region The region covered by the item, in world coordinates.
+     * @throws NullPointerException if {@code item} or {@code region} is {@code null}.
+     */
+    void add(T item, DirtyRegion region) {
+        if(item == null)
+            throw new NullPointerException("item is null");
+        if(region == null)
+            throw new NullPointerException("region is null");
+
+        int index = this.items.size();
+        this.items.add(item);
+        this.regions.add(region);
+        for (int bucketY = bucketOf(region.y(), this.bucketsY); bucketY <= bucketOf(region.y() + region.height(), this.bucketsY); bucketY++)
+            for (int bucketX = bucketOf(region.x(), this.bucketsX); bucketX <= bucketOf(region.x() + region.width(), this.bucketsX); bucketX++)
+                this.buckets.get(bucketY * this.bucketsX + bucketX).add(index);
+    }
+
+
+    /**
+     * Gives the items whose region intersects the given one to an action, in the order they were added.
+     *
+     * @param region The region, in world coordinates.
+     * @param action The action receiving the items.
+     * @throws NullPointerException if {@code region} or {@code action} is {@code null}.
+     */
+    void forEachIn(DirtyRegion region, Consumer<? super T> action) {
+        if(region == null)
+            throw new NullPointerException("region is null");
+        if(action == null)
+            throw new NullPointerException("action is null");
+
+        List<Integer> found = new ArrayList<>();
+        for (int bucketY = bucketOf(region.y(), this.bucketsY); bucketY <= bucketOf(region.y() + region.height(), this.bucketsY); bucketY++)
+            for (int bucketX = bucketOf(region.x(), this.bucketsX); bucketX <= bucketOf(region.x() + region.width(), this.bucketsX); bucketX++)
+                for (int index : this.buckets.get(bucketY * this.bucketsX + bucketX))
+                    if(this.regions.get(index).intersects(region))
+                        found.add(index);
+
+        found.sort(null);
+        int previous = -1;
+        for (int index : found) {
+            if(index != previous)
+                action.accept(this.items.get(index));
+            previous = index;
+        }
+    }
+
+
+    /**
+     * Returns the index of the bucket containing the given coordinate, clamped to the buckets of the world.
+     */
+    private static int bucketOf(double coordinate, int buckets) {
+        return Math.clamp((int) Math.floor(coordinate / BUCKET_SIZE), 0, buckets - 1);
+    }
+
+
+    /**
+     * Removes all the items.
+     */
+    void clear() {
+        this.items.clear();
+        this.regions.clear();
+        for (List<Integer> bucket : this.buckets)
+            bucket.clear();
+    }
+
+
+    /**
+     * Returns the number of items added.
+     *
+     * @return The number of items.
+     */
+    int size() {return this.items.size();}
+}
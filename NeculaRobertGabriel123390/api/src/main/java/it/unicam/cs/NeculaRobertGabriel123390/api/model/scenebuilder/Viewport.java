@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.DirtyRegion;
+import javafx.scene.canvas.GraphicsContext;
+
+
+/**
+ * The part of the circuit shown on a canvas, which can be zoomed and panned.
+ * <p>
+ * The circuit is drawn in world coordinates, the pixels of the circuit at its natural size, where a tile is
+ * {@code CircuitSetup.DIM_RECT} pixels wide. The viewport maps them to the pixels of the view: a world point
+ * {@code (x, y)} is shown at {@code ((x - offsetX) * zoom, (y - offsetY) * zoom)}. The offsets are kept so that
+ * the view never shows anything beyond the right and bottom edges of the circuit, unless the whole circuit fits in it.
+ * </p>
+ * <p>
+ * Only what intersects {@link #getVisibleRegion()} needs to be drawn, so the cost of drawing the view depends on its
+ * size rather than on the size of the circuit. Below {@link #DETAIL_ZOOM} the view is considered zoomed out, and
+ * details too small to be seen can be left out.
+ * </p>
+ */
+public final class Viewport {
+
+
+    /**
+     * The smallest zoom, at which a tile is a few pixels wide.
+     */
+    public static final double MIN_ZOOM = 0.25;
+
+
+    /**
+     * The largest zoom.
+     */
+    public static final double MAX_ZOOM = 4;
+
+
+    /**
+     * The smallest zoom at which every detail of the circuit is drawn.
+     */
+    public static final double DETAIL_ZOOM = 0.75;
+
+
+    private final double viewWidth;
+
+
+    private final double viewHeight;
+
+
+    private final double worldWidth;
+
+
+    private final double worldHeight;
+
+
+    private double zoom = 1;
+
+
+    private double offsetX;
+
+
+    private double offsetY;
+
+
+    /**
+     * Constructs a new {@code Viewport} showing the top left corner of the world at its natural size.
+     *
+     * @param viewWidth The width of the view, in pixels.
+     * @param viewHeight The height of the view, in pixels.
+     * @param worldWidth The width of the world, in pixels.
+     * @param worldHeight The height of the world, in pixels.
+     * @throws IllegalArgumentException if any of the sizes is not positive.
+     */
+    public Viewport(double viewWidth, double viewHeight, double worldWidth, double worldHeight) {
+        if(viewWidth <= 0 || viewHeight <= 0 || worldWidth <= 0 || worldHeight <= 0)
+            throw new IllegalArgumentException("Viewport sizes need to be positive");
+
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+
+    /**
+     * Multiplies the zoom by the given factor, keeping the world point under the pivot at the same place of the view.
+     * The zoom is kept between {@link #MIN_ZOOM} and {@link #MAX_ZOOM}.
+     *
+     * @param factor The factor multiplying the zoom, greater than {@code 1} to zoom in.
+     * @param pivotX The X-coordinate of the pivot in the view.
+     * @param pivotY The Y-coordinate of the pivot in the view.
+     * @throws IllegalArgumentException if {@code factor} is not positive.
+     */
+    public void zoom(double factor, double pivotX, double pivotY) {
+        if(!(factor > 0))
+            throw new IllegalArgumentException("factor needs to be positive");
+
+        double pivotWorldX = this.offsetX + pivotX / this.zoom;
+        double pivotWorldY = this.offsetY + pivotY / this.zoom;
+        this.zoom = Math.clamp(this.zoom * factor, MIN_ZOOM, MAX_ZOOM);
+        this.offsetX = pivotWorldX - pivotX / this.zoom;
+        this.offsetY = pivotWorldY - pivotY / this.zoom;
+        clampOffsets();
+    }
+
+
+    /**
+     * Moves the world by the given distance in the view, e.g. the distance the mouse has been dragged.
+     *
+     * @param deltaX The horizontal distance, in pixels of the view.
+     * @param deltaY The vertical distance, in pixels of the view.
+     */
+    public void pan(double deltaX, double deltaY) {
+        this.offsetX -= deltaX / this.zoom;
+        this.offsetY -= deltaY / this.zoom;
+        clampOffsets();
+    }
+
+
+    /**
+     * Keeps the view inside the world.
+     */
+    private void clampOffsets() {
+        this.offsetX = Math.clamp(this.offsetX, 0, Math.max(0, this.worldWidth - this.viewWidth / this.zoom));
+        this.offsetY = Math.clamp(this.offsetY, 0, Math.max(0, this.worldHeight - this.viewHeight / this.zoom));
+    }
+
+
+    /**
+     * Sets the transform of the given {@link GraphicsContext} so that drawings in world coordinates end up in the view.
+     * The previous transform should be saved and restored by the caller.
+     *
+     * @param graphics The {@link GraphicsContext} of the view.
+     * @throws NullPointerException if {@code graphics} is {@code null}.
+     */
+    public void apply(GraphicsContext graphics) {
+        if(graphics == null)
+            throw new NullPointerException("graphics is null");
+
+        graphics.scale(this.zoom, this.zoom);
+        graphics.translate(-this.offsetX, -this.offsetY);
+    }
+
+
+    /**
+     * Returns the region of the world shown by the view.
+     *
+     * @return The visible region, in world coordinates.
+     */
+    public DirtyRegion getVisibleRegion() {
+        return new DirtyRegion(this.offsetX, this.offsetY, this.viewWidth / this.zoom, this.viewHeight / this.zoom);
+    }
+
+
+    /**
+     * Checks if any part of the given region of the world is shown by the view.
+     *
+     * @param region The region, in world coordinates.
+     * @return {@code true} if the region intersects the visible region.
+     * @throws NullPointerException if {@code region} is {@code null}.
+     */
+    public boolean isVisible(DirtyRegion region) {
+        return getVisibleRegion().intersects(region);
+    }
+
+
+    /**
+     * Checks if the zoom is large enough for every detail to be drawn.
+     *
+     * @return {@code true} if the zoom is at least {@link #DETAIL_ZOOM}.
+     */
+    public boolean isDetailed() {return this.zoom >= DETAIL_ZOOM;}
+
+
+    /**
+     * Returns the number of view pixels per world pixel.
+     *
+     * @return The current zoom.
+     */
+    public double getZoom() {return this.zoom;}
+
+
+    /**
+     * Returns the X-coordinate of the world shown at the left edge of the view.
+     *
+     * @return The horizontal offset, in world coordinates.
+     */
+    public double getOffsetX() {return this.offsetX;}
+
+
+    /**
+     * Returns the Y-coordinate of the world shown at the top edge of the view.
+     *
+     * @return The vertical offset, in world coordinates.
+     */
+    public double getOffsetY() {return this.offsetY;}
+
+
+    /**
+     * Returns the width of the view.
+     *
+     * @return The width of the view, in pixels.
+     */
+    public double getViewWidth() {return this.viewWidth;}
+
+
+    /**
+     * Returns the height of the view.
+     *
+     * @return The height of the view, in pixels.
+     */
+    public double getViewHeight() {return this.viewHeight;}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategy;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategyFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.LookaheadBotStrategy;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.RandomBotStrategy;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * A record describing a bot taking part in the self-play races: its level and, for the
+ * {@link BotStrategyConstants#LOOKAHEAD} level, the parameters of the search.
+ * <p>
+ * The parameters are ignored by the other levels, which are always built with their default values.
+ * Each configuration is identified by its {@link #getKey() key}, used as the name of the bot and
+ * in the results file.
+ * </p>
+ *
+ * @param level The level of the bot, as defined in {@link BotStrategyConstants}.
+ * @param depth The depth of the lookahead search.
+ * @param riskWeight The risk weight of the lookahead search.
+ */
+public record BotConfiguration(String level, int depth, double riskWeight) {
+
+
+    private static final Pattern LOOKAHEAD_KEY = Pattern.compile(BotStrategyConstants.LOOKAHEAD + "-d(\\d+)-r(.+)");
+
+
+    /**
+     * Constructs a new {@code BotConfiguration}.
+     *
+     * @param level The level of the bot.
+     * @param depth The depth of the lookahead search.
+     * @param riskWeight The risk weight of the lookahead search.
+     * @throws NullPointerException if {@code level} is {@code null}.
+     * @throws IllegalArgumentException if {@code level} is unknown or the lookahead parameters are out of range.
+     */
+    public BotConfiguration {
+        if(level == null)
+            throw new NullPointerException("level is null");
+        if(!BotStrategyFactory.isLevel(level))
+            throw new IllegalArgumentException("Unexpected value for bot level: " + level);
+        if(isLookahead(level) && (depth < 1 || depth > LookaheadBotStrategy.MAX_DEPTH))
+            throw new IllegalArgumentException("depth needs to be between 1 and " + LookaheadBotStrategy.MAX_DEPTH);
+        if(isLookahead(level) && (riskWeight < 0 || !Double.isFinite(riskWeight)))
+            throw new IllegalArgumentException("riskWeight needs to be a non negative number");
+    }
+
+
+    /**
+     * Creates the configuration of the given level with the default lookahead parameters.
+     *
+     * @param level The level of the bot.
+     * @return The configuration of the level.
+     * @throws NullPointerException if {@code level} is {@code null}.
+     * @throws IllegalArgumentException if {@code level} is unknown.
+     */
+    public static BotConfiguration of(String level) {
+        return new BotConfiguration(level, LookaheadBotStrategy.DEFAULT_DEPTH, LookaheadBotStrategy.DEFAULT_RISK_WEIGHT);
+    }
+
+
+    /**
+     * Creates the configuration identified by the given key, the inverse of {@link #getKey()}.
+     * A lookahead level without parameters gets the default ones.
+     *
+     * @param key The key of the configuration, e.g. {@code greedy} or {@code lookahead-d3-r2.0}.
+     * @return The configuration of the key.
+     * @throws NullPointerException if {@code key} is {@code null}.
+     * @throws IllegalArgumentException if {@code key} doesn't identify a configuration.
+     */
+    public static BotConfiguration fromKey(String key) {
+        if(key == null)
+            throw new NullPointerException("key is null");
+
+        Matcher matcher = LOOKAHEAD_KEY.matcher(key);
+        if(!matcher.matches())
+            return of(key);
+        try {
+            return new BotConfiguration(BotStrategyConstants.LOOKAHEAD, Integer.parseInt(matcher.group(1)),
+                    Double.parseDouble(matcher.group(2)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unexpected value for bot configuration: " + key, e);
+        }
+    }
+
+
+    /**
+     * Creates a lookahead configuration for every combination of the given depths and risk weights.
+     *
+     * @param depths The depths to try.
+     * @param riskWeights The risk weights to try.
+     * @return The configurations, ordered by depth and then by risk weight.
+     * @throws NullPointerException if {@code depths} or {@code riskWeights} is {@code null}.
+     * @throws IllegalArgumentException if any of the values is out of range.
+     */
+    public static List<BotConfiguration> lookaheadGrid(int[] depths, double[] riskWeights) {
+        if(depths == null)
+            throw new NullPointerException("depths is null");
+        if(riskWeights == null)
+            throw new NullPointerException("riskWeights is null");
+
+        List<BotConfiguration> configurations = new ArrayList<>();
+        for(int depth : depths)
+            for(double riskWeight : riskWeights)
+                configurations.add(new BotConfiguration(BotStrategyConstants.LOOKAHEAD, depth, riskWeight));
+        return configurations;
+    }
+
+
+    /**
+     * Creates a new strategy following this configuration.
+     *
+     * @return A new {@link BotStrategy}.
+     */
+    public BotStrategy createStrategy() {
+        if(isLookahead(this.level))
+            return new LookaheadBotStrategy(this.depth, this.riskWeight);
+        return BotStrategyFactory.getStrategy(this.level);
+    }
+
+
+    /**
+     * Creates a new strategy following this configuration, drawing its random moves from the given generator.
+     * Only the {@link BotStrategyConstants#RANDOM} level uses the generator; the other levels are deterministic.
+     * The strategy belongs to a single bot in a single race, see {@link RandomBotStrategy#RandomBotStrategy(RandomGenerator)}.
+     *
+     * @param random The generator of the random moves.
+     * @return A new {@link BotStrategy}.
+     * @throws NullPointerException if {@code random} is {@code null}.
+     */
+    public BotStrategy createStrategy(RandomGenerator random) {
+        if(random == null)
+            throw new NullPointerException("random is null");
+        if(BotStrategyConstants.RANDOM.equals(this.level))
+            return new RandomBotStrategy(random);
+        return createStrategy();
+    }
+
+
+    /**
+     * Returns the key identifying this configuration, e.g. {@code greedy} or {@code lookahead-d3-r2.0}.
+     *
+     * @return The key of the configuration.
+     */
+    public String getKey() {
+        if(!isLookahead(this.level))
+            return this.level;
+        return this.level + "-d" + this.depth + "-r" + this.riskWeight;
+    }
+
+
+    /**
+     * Checks if the given level uses the lookahead parameters.
+     */
+    private static boolean isLookahead(String level) {
+        return BotStrategyConstants.LOOKAHEAD.equals(level);
+    }
+
+
+    @Override
+    public String toString() {return getKey();}
+}
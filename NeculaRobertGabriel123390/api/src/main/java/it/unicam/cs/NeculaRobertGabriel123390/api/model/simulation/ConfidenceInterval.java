@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import java.util.Locale;
+
+
+/**
+ * A record representing an estimate together with its 95% confidence interval.
+ *
+ * @param estimate The estimated value.
+ * @param lower The lower bound of the interval.
+ * @param upper The upper bound of the interval.
+ */
+public record ConfidenceInterval(double estimate, double lower, double upper) {
+
+
+    /**
+     * Quantile of the standard normal distribution for a 95% confidence level.
+     */
+    public static final double Z_95 = 1.96;
+
+
+    /**
+     * Creates the Wilson score interval of a proportion.
+     * Unlike the normal approximation, it stays inside {@code [0, 1]} and is meaningful
+     * for proportions close to 0 or 1, which are common when a configuration is much stronger than the other.
+     *
+     * @param successes The number of successes.
+     * @param trials The number of trials.
+     * @return The interval of the proportion, {@code [0, 1]} if there are no trials.
+     * @throws IllegalArgumentException if {@code successes} is negative or greater than {@code trials}.
+     */
+    public static ConfidenceInterval ofProportion(long successes, long trials) {
+        if(successes < 0 || successes > trials)
+            throw new IllegalArgumentException("successes needs to be between 0 and trials");
+        if(trials == 0)
+            return new ConfidenceInterval(0, 0, 1);
+
+        double proportion = (double) successes / trials;
+        double z2 = Z_95 * Z_95;
+        double denominator = 1 + z2 / trials;
+        double center = (proportion + z2 / (2.0 * trials)) / denominator;
+        double margin = Z_95 * Math.sqrt(proportion * (1 - proportion) / trials + z2 / (4.0 * trials * trials)) / denominator;
+
+        return new ConfidenceInterval(proportion, Math.max(0, center - margin), Math.min(1, center + margin));
+    }
+
+
+    /**
+     * Creates the normal interval of a mean from the sums of the samples.
+     *
+     * @param count The number of samples.
+     * @param sum The sum of the samples.
+     * @param sumOfSquares The sum of the squares of the samples.
+     * @return The interval of the mean, collapsed on the mean if there are less than two samples.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     */
+    public static ConfidenceInterval ofMean(long count, double sum, double sumOfSquares) {
+        if(count < 0)
+            throw new IllegalArgumentException("count can't be negative");
+        if(count == 0)
+            return new ConfidenceInterval(0, 0, 0);
+
+        double mean = sum / count;
+        if(count == 1)
+            return new ConfidenceInterval(mean, mean, mean);
+
+        double variance = Math.max(0, (sumOfSquares - count * mean * mean) / (count - 1));
+        double margin = Z_95 * Math.sqrt(variance / count);
+        return new ConfidenceInterval(mean, mean - margin, mean + margin);
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.3f [%.3f, %.3f]", this.estimate, this.lower, this.upper);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResult;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResultType;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotContext;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.manager.RaceManager;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.BotPlayer;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.Race;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.RaceSetup;
+import javafx.scene.paint.Color;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Plays a race between two bots without any view, following the same handlers used by the {@code RaceController}.
+ * <p>
+ * Each race is set up from the parsed data of the circuit with a new circuit and new handlers, so races on the
+ * same circuit can be played by different threads at the same time. A bot without a move makes the fallback move
+ * of its context, as in the race scene.
+ * </p>
+ */
+public final class HeadlessRace {
+
+
+    /**
+     * Don't allow user to instantiate a HeadlessRace object because that's not how this class is meant to work.
+     */
+    private HeadlessRace() {}
+
+
+    /**
+     * Plays a race between the given configurations.
+     * The first configuration starts the races with an even index, the second one the races with an odd index.
+     *
+     * @param circuit The name of the circuit.
+     * @param parsedData The parsed data of the circuit file.
+     * @param first The first configuration.
+     * @param second The second configuration.
+     * @param raceIndex The index of the race.
+     * @param rules The rules of the race.
+     * @return The outcome of the race.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if the two configurations have the same key or {@code raceIndex} is negative.
+     */
+    public static RaceOutcome play(String circuit, ParsedData<?> parsedData, BotConfiguration first, BotConfiguration second,
+                                   int raceIndex, SimulationRules rules) {
+        validateRace(circuit, parsedData, first, second, raceIndex, rules);
+
+        BotPlayer firstPlayer = new BotPlayer(first.getKey(), Color.RED, first.createStrategy());
+        BotPlayer secondPlayer = new BotPlayer(second.getKey(), Color.BLUE, second.createStrategy());
+        List<Player> players = raceIndex % 2 == 0 ? List.of(firstPlayer, secondPlayer) : List.of(secondPlayer, firstPlayer);
+
+        Result result = run(new RaceSetup(parsedData, rules.createHandlers()).setupWithPlayers(players), rules.maxTurns());
+        String winner = result.winner() == null ? RaceOutcome.NO_WINNER : result.winner().getName();
+
+        return new RaceOutcome(circuit, first.getKey(), second.getKey(), raceIndex, winner, result.turns(),
+                meanDecisionNanos(firstPlayer), meanDecisionNanos(secondPlayer));
+    }
+
+
+    /**
+     * A record representing how a race of bots ended.
+     *
+     * @param winner The bot that crossed the end line, or {@code null} if there is no winner.
+     * @param turns The turns played by the winner, or by the longest-lasting bot if there is no winner.
+     */
+    record Result(BotPlayer winner, int turns) {}
+
+
+    /**
+     * Plays the given race, whose players are all bots and whose handlers are in the order expected by the
+     * {@code RaceSetup}, until a bot wins, every bot leaves the race or a bot would play more than {@code maxTurns} turns.
+     * The strategies of the bots are prepared for the circuit before the first turn.
+     *
+     * @param race The race to play.
+     * @param maxTurns The maximum number of turns of each bot.
+     * @return How the race ended.
+     */
+    static Result run(Race race, int maxTurns) {
+        for(Player player : race.players())
+            ((BotPlayer) player).getStrategy().prepare(race.circuit().getGrid());
+
+        RaceManager raceManager = new RaceManager(race, RaceLogger.DISCARD);
+        Map<Player, Integer> turns = new IdentityHashMap<>();
+
+        while(!raceManager.wasLastPlayer()) {
+            BotPlayer currentPlayer = (BotPlayer) raceManager.getCurrentPlayer();
+            if(turns.merge(currentPlayer, 1, Integer::sum) > maxTurns) {
+                turns.merge(currentPlayer, -1, Integer::sum);
+                break;
+            }
+
+            MoveResultType moveType = playTurn(raceManager, currentPlayer);
+            if(moveType == MoveResultType.WIN)
+                return new Result(currentPlayer, turns.get(currentPlayer));
+        }
+
+        return new Result(null, turns.values().stream().mapToInt(Integer::intValue).max().orElse(0));
+    }
+
+
+    /**
+     * Lets the current player choose and make its move.
+     *
+     * @return The type of the result of the move.
+     */
+    private static MoveResultType playTurn(RaceManager raceManager, BotPlayer currentPlayer) {
+        BotContext context = BotContext.of(raceManager);
+        Position move = currentPlayer.chooseMove(context);
+        if(move == null)
+            move = context.getFallbackMove();
+
+        MoveResult moveResult = raceManager.onPlayerMove(move);
+        return moveResult.moveType();
+    }
+
+
+    /**
+     * Returns the mean time spent by the given bot to choose a move, in nanoseconds.
+     */
+    private static long meanDecisionNanos(BotPlayer player) {
+        long decisions = player.getDecisionCount();
+        return decisions == 0 ? 0 : player.getTotalDecisionNanos() / decisions;
+    }
+
+
+    /**
+     * Validates the parameters of a race.
+     */
+    private static void validateRace(String circuit, ParsedData<?> parsedData, BotConfiguration first, BotConfiguration second,
+                                     int raceIndex, SimulationRules rules) {
+        if(circuit == null)
+            throw new NullPointerException("circuit is null");
+        if(parsedData == null)
+            throw new NullPointerException("parsedData is null");
+        if(first == null || second == null)
+            throw new NullPointerException("configuration is null");
+        if(rules == null)
+            throw new NullPointerException("rules is null");
+        if(first.getKey().equals(second.getKey()))
+            throw new IllegalArgumentException("The configurations of a race need different keys");
+        if(raceIndex < 0)
+            throw new IllegalArgumentException("raceIndex can't be negative");
+    }
+}
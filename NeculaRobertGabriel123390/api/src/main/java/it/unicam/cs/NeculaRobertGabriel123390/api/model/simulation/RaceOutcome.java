@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+/**
+ * A record representing the result of a single self-play race between two {@link BotConfiguration}s.
+ * <p>
+ * Outcomes are stored one per line in the results file, in the format given by {@link #CSV_HEADER}.
+ * Keys and circuit names never contain commas, so the lines need no quoting.
+ * </p>
+ *
+ * @param circuit The name of the circuit file.
+ * @param first The key of the first configuration of the pair, starting the races with an even index.
+ * @param second The key of the second configuration of the pair, starting the races with an odd index.
+ * @param raceIndex The index of the race among the races between the two configurations on the circuit.
+ * @param winner The key of the winning configuration, or {@link #NO_WINNER}.
+ * @param turns The turns played by the winner, or by the longest-lasting player if there is no winner.
+ * @param firstDecisionNanos The mean time spent by the first configuration to choose a move, in nanoseconds.
+ * @param secondDecisionNanos The mean time spent by the second configuration to choose a move, in nanoseconds.
+ */
+public record RaceOutcome(String circuit, String first, String second, int raceIndex, String winner, int turns,
+                          long firstDecisionNanos, long secondDecisionNanos) {
+
+
+    /**
+     * Header of the results file.
+     */
+    public static final String CSV_HEADER = "circuit,first,second,race,winner,turns,first_decision_ns,second_decision_ns";
+
+
+    /**
+     * Winner of the races that ended without anybody crossing the end line.
+     */
+    public static final String NO_WINNER = "none";
+
+
+    private static final String SEPARATOR = ",";
+
+
+    /**
+     * Constructs a new {@code RaceOutcome}.
+     *
+     * @param circuit The name of the circuit file.
+     * @param first The key of the first configuration.
+     * @param second The key of the second configuration.
+     * @param raceIndex The index of the race.
+     * @param winner The key of the winning configuration, or {@link #NO_WINNER}.
+     * @param turns The turns played.
+     * @param firstDecisionNanos The mean decision time of the first configuration.
+     * @param secondDecisionNanos The mean decision time of the second configuration.
+     * @throws NullPointerException if any of the strings is {@code null}.
+     * @throws IllegalArgumentException if any of the strings contains a comma or any of the numbers is negative.
+     */
+    public RaceOutcome {
+        validateField(circuit, "circuit");
+        validateField(first, "first");
+        validateField(second, "second");
+        validateField(winner, "winner");
+        if(raceIndex < 0 || turns < 0 || firstDecisionNanos < 0 || secondDecisionNanos < 0)
+            throw new IllegalArgumentException("Race outcome values can't be negative");
+    }
+
+
+    /**
+     * Validates a string field of the outcome.
+     */
+    private static void validateField(String value, String name) {
+        if(value == null)
+            throw new NullPointerException(name + " is null");
+        if(value.contains(SEPARATOR))
+            throw new IllegalArgumentException(name + " can't contain '" + SEPARATOR + "'");
+    }
+
+
+    /**
+     * Parses an outcome from a line of the results file.
+     *
+     * @param line The line to parse.
+     * @return The parsed outcome.
+     * @throws NullPointerException if {@code line} is {@code null}.
+     * @throws IllegalArgumentException if the line is not a valid outcome.
+     */
+    public static RaceOutcome fromCsvLine(String line) {
+        if(line == null)
+            throw new NullPointerException("line is null");
+
+        String[] fields = line.split(SEPARATOR, -1);
+        if(fields.length != 8)
+            throw new IllegalArgumentException("Invalid race outcome: " + line);
+
+        return new RaceOutcome(fields[0], fields[1], fields[2], Integer.parseInt(fields[3]), fields[4],
+                Integer.parseInt(fields[5]), Long.parseLong(fields[6]), Long.parseLong(fields[7]));
+    }
+
+
+    /**
+     * Returns the line representing this outcome in the results file.
+     *
+     * @return The line, without the line terminator.
+     */
+    public String toCsvLine() {
+        return String.join(SEPARATOR, this.circuit, this.first, this.second, String.valueOf(this.raceIndex), this.winner,
+                String.valueOf(this.turns), String.valueOf(this.firstDecisionNanos), String.valueOf(this.secondDecisionNanos));
+    }
+
+
+    /**
+     * Returns the key identifying the race, used to skip the races already played when a run is resumed.
+     *
+     * @return The key of the race.
+     */
+    public String getRaceKey() {return raceKey(this.circuit, this.first, this.second, this.raceIndex);}
+
+
+    /**
+     * Returns the key identifying a race.
+     *
+     * @param circuit The name of the circuit file.
+     * @param first The key of the first configuration.
+     * @param second The key of the second configuration.
+     * @param raceIndex The index of the race.
+     * @return The key of the race.
+     */
+    public static String raceKey(String circuit, String first, String second, int raceIndex) {
+        return circuit + SEPARATOR + first + SEPARATOR + second + SEPARATOR + raceIndex;
+    }
+
+
+    /**
+     * Checks if a configuration won the race.
+     *
+     * @return {@code true} if the race has a winner.
+     */
+    public boolean hasWinner() {return hasWinner(this.winner);}
+
+
+    /**
+     * Checks if the given winner is a configuration.
+     *
+     * @param winner The key of the winner, or {@link #NO_WINNER}.
+     * @return {@code true} if {@code winner} is not {@link #NO_WINNER}.
+     */
+    public static boolean hasWinner(String winner) {return !NO_WINNER.equals(winner);}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+/**
+ * A record representing the result of a {@link ScenarioRace}.
+ * <p>
+ * Outcomes are stored one per line in the results file of the {@link ScenarioRunner}, in the format given by
+ * {@link #CSV_HEADER}. Circuit names and keys never contain commas, so the lines need no quoting.
+ * </p>
+ *
+ * @param line The line of the scenario file declaring the race.
+ * @param circuit The name of the circuit in the scenario file.
+ * @param players The keys of the configurations of the bots, separated by spaces.
+ * @param seed The seed of the random bots.
+ * @param winner The name of the winning bot, as given by {@link ScenarioRace#getPlayerName(int)}, or {@link RaceOutcome#NO_WINNER}.
+ * @param turns The turns played by the winner, or by the longest-lasting bot if there is no winner.
+ */
+public record ScenarioOutcome(int line, String circuit, String players, long seed, String winner, int turns) {
+
+
+    /**
+     * Header of the results file.
+     */
+    public static final String CSV_HEADER = "line,circuit,players,seed,winner,turns";
+
+
+    private static final String SEPARATOR = ",";
+
+
+    /**
+     * Constructs a new {@code ScenarioOutcome}.
+     *
+     * @param line The line of the scenario file declaring the race.
+     * @param circuit The name of the circuit.
+     * @param players The keys of the bots.
+     * @param seed The seed of the random bots.
+     * @param winner The name of the winning bot, or {@link RaceOutcome#NO_WINNER}.
+     * @param turns The turns played.
+     * @throws NullPointerException if any of the strings is {@code null}.
+     * @throws IllegalArgumentException if any of the strings contains a comma, or {@code line} or {@code turns} is negative.
+     */
+    public ScenarioOutcome {
+        validateField(circuit, "circuit");
+        validateField(players, "players");
+        validateField(winner, "winner");
+        if(line < 0 || turns < 0)
+            throw new IllegalArgumentException("Scenario outcome values can't be negative");
+    }
+
+
+    /**
+     * Validates a string field of the outcome.
+     */
+    private static void validateField(String value, String name) {
+        if(value == null)
+            throw new NullPointerException(name + " is null");
+        if(value.contains(SEPARATOR))
+            throw new IllegalArgumentException(name + " can't contain '" + SEPARATOR + "'");
+    }
+
+
+    /**
+     * Returns the line representing this outcome in the results file.
+     *
+     * @return The line, without the line terminator.
+     */
+    public String toCsvLine() {
+        return String.join(SEPARATOR, String.valueOf(this.line), this.circuit, this.players, String.valueOf(this.seed),
+                this.winner, String.valueOf(this.turns));
+    }
+
+
+    /**
+     * Checks if a bot won the race.
+     *
+     * @return {@code true} if the race has a winner.
+     */
+    public boolean hasWinner() {return RaceOutcome.hasWinner(this.winner);}
+}
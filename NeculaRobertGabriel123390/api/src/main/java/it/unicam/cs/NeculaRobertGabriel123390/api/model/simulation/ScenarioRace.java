@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.BotPlayer;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.Race;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+
+/**
+ * A record representing one race of a scenario file, read by the {@link ScenarioReader}.
+ * <p>
+ * The races using the same circuit share its {@link CompiledCircuit}: every race creates its own circuit and
+ * players when it is played, so races of the same scenario can be played by different threads at the same time.
+ * The random bots of the race draw their moves from generators created from the seed, so the same race always
+ * has the same outcome, apart from the decision times.
+ * </p>
+ *
+ * @param line The line of the scenario file declaring the race.
+ * @param circuit The name of the circuit in the scenario file.
+ * @param compiledCircuit The compiled circuit of the race.
+ * @param players The configurations of the bots, in the order they play.
+ * @param rules The rules of the race.
+ * @param seed The seed of the random bots.
+ */
+public record ScenarioRace(int line, String circuit, CompiledCircuit compiledCircuit, List<BotConfiguration> players,
+                           SimulationRules rules, long seed) {
+
+
+    private static final Color[] COLORS = {Color.RED, Color.BLUE, Color.GREEN, Color.ORANGE, Color.PURPLE,
+            Color.BROWN, Color.CYAN, Color.MAGENTA};
+
+
+    /**
+     * Constructs a new {@code ScenarioRace}.
+     *
+     * @param line The line of the scenario file declaring the race.
+     * @param circuit The name of the circuit in the scenario file.
+     * @param compiledCircuit The compiled circuit of the race.
+     * @param players The configurations of the bots.
+     * @param rules The rules of the race.
+     * @param seed The seed of the random bots.
+     * @throws NullPointerException if any of the objects is {@code null}.
+     * @throws IllegalArgumentException if there are less than two players or {@code line} is not positive.
+     */
+    public ScenarioRace {
+        if(circuit == null)
+            throw new NullPointerException("circuit is null");
+        if(compiledCircuit == null)
+            throw new NullPointerException("compiledCircuit is null");
+        if(players == null)
+            throw new NullPointerException("players is null");
+        if(rules == null)
+            throw new NullPointerException("rules is null");
+        if(players.size() < 2)
+            throw new IllegalArgumentException("A race needs at least two players");
+        if(line <= 0)
+            throw new IllegalArgumentException("line needs to be positive");
+        players = List.copyOf(players);
+    }
+
+
+    /**
+     * Plays the race.
+     *
+     * @return The outcome of the race.
+     */
+    public ScenarioOutcome play() {
+        SplittableRandom random = new SplittableRandom(this.seed);
+        List<Player> botPlayers = new ArrayList<>(this.players.size());
+        for (int slot = 0; slot < this.players.size(); slot++)
+            botPlayers.add(new BotPlayer(getPlayerName(slot), COLORS[slot % COLORS.length],
+                    this.players.get(slot).createStrategy(random.split())));
+
+        HeadlessRace.Result result = HeadlessRace.run(new Race(this.compiledCircuit.instantiate(), botPlayers,
+                this.rules.createHandlers()), this.rules.maxTurns());
+        String winner = result.winner() == null ? RaceOutcome.NO_WINNER : result.winner().getName();
+        return new ScenarioOutcome(this.line, this.circuit, getPlayerKeys(), this.seed, winner, result.turns());
+    }
+
+
+    /**
+     * Returns the name of the bot playing in the given slot, made of its position and of the key of its configuration,
+     * e.g. {@code 2:greedy}, so that the same configuration can play more than once in a race.
+     *
+     * @param slot The index of the bot among the players.
+     * @return The name of the bot.
+     * @throws IndexOutOfBoundsException if {@code slot} is not the index of a player.
+     */
+    public String getPlayerName(int slot) {
+        return (slot + 1) + ":" + this.players.get(slot).getKey();
+    }
+
+
+    /**
+     * Returns the keys of the configurations of the bots, separated by spaces.
+     *
+     * @return The keys of the players.
+     */
+    public String getPlayerKeys() {
+        List<String> keys = new ArrayList<>(this.players.size());
+        for(BotConfiguration player : this.players)
+            keys.add(player.getKey());
+        return String.join(" ", keys);
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileParsingException;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.UnsupportedFileException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Reads the races of a scenario file one at a time, so that a scenario of any number of races
+ * is played without keeping them in memory.
+ * <p>
+ * A scenario file is made of lines of words separated by spaces; a word containing spaces is written between double
+ * quotes. Blank lines and lines starting with {@code #} are ignored. The other lines are:
+ * <ul>
+ *     <li>{@code circuit <name> <file>} declares a circuit file, whose path is relative to the directory of the
+ *     scenario file;</li>
+ *     <li>{@code circuit <name> sha256:<hash>} declares a circuit by the hash of the content of its file, which
+ *     has to be in the {@link CompiledCircuitCache} given to the reader;</li>
+ *     <li>{@code race <circuit> <bot> <bot> [<bot>...] [collisions=<rule>] [crash=<rule>] [turns=<n>] [seed=<n>|seeds=<from>..<to>]}
+ *     declares the races of the given bots, identified by the keys of their {@link BotConfiguration}, on a circuit declared
+ *     by a previous line. The rules are the values of {@code RaceHandlerConstants} and default to {@link SimulationRules#defaults()};
+ *     a race is played for every seed of the inclusive range, or once with seed {@code 0} if none is given.</li>
+ * </ul>
+ * Every circuit is loaded once, when it is declared, and shared by all the races using it.
+ * </p>
+ * <pre>
+ *     circuit oval circuits/oval.txt
+ *     race oval greedy lookahead-d3-r2.0 random crash="continue with penalty" seeds=1..1000
+ * </pre>
+ */
+public final class ScenarioReader implements Closeable {
+
+
+    /**
+     * The first word of the lines declaring a circuit.
+     */
+    public static final String CIRCUIT = "circuit";
+
+
+    /**
+     * The first word of the lines declaring races.
+     */
+    public static final String RACE = "race";
+
+
+    /**
+     * The prefix of the circuits declared by the hash of their content.
+     */
+    public static final String HASH_PREFIX = "sha256:";
+
+
+    private static final String COMMENT = "#";
+
+
+    private final BufferedReader reader;
+
+
+    private final Path baseDirectory;
+
+
+    private final CompiledCircuitCache cache;
+
+
+    private final Map<String, CompiledCircuit> circuits = new HashMap<>();
+
+
+    private int lineNumber;
+
+
+    /**
+     * The race with the next seed of the range of the current race line, or {@code null} if the range is over.
+     */
+    private ScenarioRace pendingRace;
+
+
+    private long lastSeed;
+
+
+    /**
+     * Constructs a {@code ScenarioReader}.
+     *
+     * @param reader The reader of the scenario file.
+     * @param baseDirectory The directory against which the paths of the circuit files are resolved.
+     * @param cache The cache through which the circuits are loaded.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public ScenarioReader(BufferedReader reader, Path baseDirectory, CompiledCircuitCache cache) {
+        if(reader == null)
+            throw new NullPointerException("reader is null");
+        if(baseDirectory == null)
+            throw new NullPointerException("baseDirectory is null");
+        if(cache == null)
+            throw new NullPointerException("cache is null");
+
+        this.reader = reader;
+        this.baseDirectory = baseDirectory;
+        this.cache = cache;
+    }
+
+
+    /**
+     * Opens the given scenario file, whose circuit paths are relative to its directory.
+     *
+     * @param scenario The scenario file.
+     * @param cache The cache through which the circuits are loaded.
+     * @return A reader of the races of the file.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IOException if the file can't be opened.
+     */
+    public static ScenarioReader open(Path scenario, CompiledCircuitCache cache) throws IOException {
+        if(scenario == null)
+            throw new NullPointerException("scenario is null");
+
+        Path baseDirectory = scenario.toAbsolutePath().getParent();
+        return new ScenarioReader(Files.newBufferedReader(scenario, StandardCharsets.UTF_8), baseDirectory, cache);
+    }
+
+
+    /**
+     * Reads the next race of the scenario, loading the circuits declared before it.
+     *
+     * @return The next race, or {@code null} if the scenario has no more races.
+     * @throws IllegalArgumentException if a line is not valid or a circuit can't be loaded.
+     * @throws IOException if the scenario can't be read.
+     */
+    public ScenarioRace next() throws IOException {
+        while(this.pendingRace == null) {
+            String line = this.reader.readLine();
+            if(line == null)
+                return null;
+
+            this.lineNumber++;
+            List<String> words = tokenize(line);
+            if(words.isEmpty() || words.get(0).startsWith(COMMENT))
+                continue;
+
+            switch(words.get(0)) {
+                case CIRCUIT -> readCircuit(words);
+                case RACE -> readRace(words);
+                default -> throw error("unknown declaration " + words.get(0));
+            }
+        }
+
+        ScenarioRace race = this.pendingRace;
+        this.pendingRace = race.seed() == this.lastSeed ? null : new ScenarioRace(race.line(), race.circuit(),
+                race.compiledCircuit(), race.players(), race.rules(), race.seed() + 1);
+        return race;
+    }
+
+
+    /**
+     * Splits a line into words separated by white space, keeping together the characters between double quotes.
+     */
+    private List<String> tokenize(String line) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean isInWord = false;
+        boolean isQuoted = false;
+        for(char character : line.toCharArray()) {
+            if(character == '"') {
+                isQuoted = !isQuoted;
+                isInWord = true;
+            } else if(!isQuoted && Character.isWhitespace(character)) {
+                if(isInWord)
+                    words.add(word.toString());
+                word.setLength(0);
+                isInWord = false;
+            } else {
+                word.append(character);
+                isInWord = true;
+            }
+        }
+
+        if(isQuoted)
+            throw error("unterminated quote");
+        if(isInWord)
+            words.add(word.toString());
+        return words;
+    }
+
+
+    private void readCircuit(List<String> words) {
+        if(words.size() != 3)
+            throw error("expected: circuit <name> <file or " + HASH_PREFIX + "hash>");
+
+        String name = words.get(1);
+        if(name.contains(","))
+            throw error("circuit names can't contain ','");
+        if(this.circuits.containsKey(name))
+            throw error("circuit " + name + " is already declared");
+
+        this.circuits.put(name, loadCircuit(words.get(2)));
+    }
+
+
+    private CompiledCircuit loadCircuit(String reference) {
+        if(reference.startsWith(HASH_PREFIX)) {
+            String hash = reference.substring(HASH_PREFIX.length()).toLowerCase(Locale.ROOT);
+            CompiledCircuit compiledCircuit;
+            try {
+                compiledCircuit = this.cache.getCompiledCircuit(hash);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+            if(compiledCircuit == null)
+                throw error("no circuit with hash " + hash + " has been loaded");
+            return compiledCircuit;
+        }
+
+        try {
+            return this.cache.load(this.baseDirectory.resolve(reference).toFile()).getData();
+        } catch (FileFormatError | FileParsingException | UnsupportedFileException e) {
+            throw error("circuit " + reference + " can't be loaded: " + e.getMessage());
+        }
+    }
+
+
+    private void readRace(List<String> words) {
+        if(words.size() < 2 || !this.circuits.containsKey(words.get(1)))
+            throw error("expected: race <declared circuit> <bot> <bot>...");
+
+        List<BotConfiguration> players = new ArrayList<>();
+        SimulationRules defaults = SimulationRules.defaults();
+        String collisionRule = defaults.collisionRule();
+        String crashRule = defaults.crashRule();
+        int maxTurns = defaults.maxTurns();
+        long firstSeed = 0;
+        long lastSeed = 0;
+
+        try {
+            for(String word : words.subList(2, words.size())) {
+                int separator = word.indexOf('=');
+                if(separator == -1) {
+                    players.add(BotConfiguration.fromKey(word));
+                    continue;
+                }
+
+                String value = word.substring(separator + 1);
+                switch(word.substring(0, separator)) {
+                    case "collisions" -> collisionRule = value;
+                    case "crash" -> crashRule = value;
+                    case "turns" -> maxTurns = Integer.parseInt(value);
+                    case "seed" -> firstSeed = lastSeed = Long.parseLong(value);
+                    case "seeds" -> {
+                        int range = value.indexOf("..");
+                        if(range == -1)
+                            throw new IllegalArgumentException("expected seeds=<from>..<to>");
+                        firstSeed = Long.parseLong(value.substring(0, range));
+                        lastSeed = Long.parseLong(value.substring(range + 2));
+                    }
+                    default -> throw new IllegalArgumentException("unknown option " + word);
+                }
+            }
+
+            if(firstSeed > lastSeed)
+                throw new IllegalArgumentException("the seed range is empty");
+            this.pendingRace = new ScenarioRace(this.lineNumber, words.get(1), this.circuits.get(words.get(1)), players,
+                    new SimulationRules(collisionRule, crashRule, maxTurns), firstSeed);
+            this.lastSeed = lastSeed;
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Line " + this.lineNumber + " of the scenario: " + message);
+    }
+
+
+    /**
+     * Returns the number of circuits declared so far.
+     *
+     * @return The number of circuits loaded by this reader.
+     */
+    public int getCircuitCount() {return this.circuits.size();}
+
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+}
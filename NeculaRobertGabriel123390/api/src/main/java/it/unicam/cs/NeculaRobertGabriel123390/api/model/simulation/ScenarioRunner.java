@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Plays all the races of a scenario file, read by a {@link ScenarioReader}, on a fixed pool of threads.
+ * <p>
+ * The races are read while the previous ones are played, and at most a few races per thread wait to be played,
+ * so the memory used doesn't depend on the number of races of the scenario. Every outcome is written to the
+ * results file as soon as the race ends, in the format given by {@link ScenarioOutcome#CSV_HEADER}; the order
+ * of the lines depends on the threads, but each of them holds the line and the seed of its race.
+ * </p>
+ */
+public final class ScenarioRunner {
+
+
+    /**
+     * The number of races per thread read ahead of the races being played.
+     */
+    private static final int QUEUED_RACES_PER_THREAD = 4;
+
+
+    private final CompiledCircuitCache cache;
+
+
+    /**
+     * Constructs a {@code ScenarioRunner}.
+     *
+     * @param cache The cache through which the circuits of the scenarios are loaded.
+     * @throws NullPointerException if {@code cache} is {@code null}.
+     */
+    public ScenarioRunner(CompiledCircuitCache cache) {
+        if(cache == null)
+            throw new NullPointerException("cache is null");
+        this.cache = cache;
+    }
+
+
+    /**
+     * Plays the races of the given scenario file, replacing the results file.
+     *
+     * @param scenario The scenario file.
+     * @param resultsFile The file where the outcomes are written.
+     * @param threads The number of threads playing the races.
+     * @return The number of races played.
+     * @throws NullPointerException if {@code scenario} or {@code resultsFile} is {@code null}.
+     * @throws IllegalArgumentException if {@code threads} is not positive or the scenario is not valid.
+     * @throws IllegalStateException if a race fails.
+     * @throws IOException if the scenario can't be read or the results file can't be written.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the races.
+     */
+    public long run(Path scenario, Path resultsFile, int threads) throws IOException, InterruptedException {
+        if(scenario == null)
+            throw new NullPointerException("scenario is null");
+        if(resultsFile == null)
+            throw new NullPointerException("resultsFile is null");
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads needs to be positive");
+
+        AtomicLong playedRaces = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Semaphore queuedRaces = new Semaphore(threads * QUEUED_RACES_PER_THREAD);
+
+        try(ScenarioReader reader = ScenarioReader.open(scenario, this.cache);
+            BufferedWriter writer = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8)) {
+            writer.write(ScenarioOutcome.CSV_HEADER);
+            writer.newLine();
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                ScenarioRace race;
+                while(failure.get() == null && (race = reader.next()) != null) {
+                    queuedRaces.acquire();
+                    ScenarioRace queuedRace = race;
+                    executor.execute(() -> {
+                        try {
+                            writeOutcome(writer, queuedRace.play());
+                            playedRaces.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            queuedRaces.release();
+                        }
+                    });
+                }
+
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } finally {
+                executor.shutdownNow();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        Throwable cause = failure.get();
+        if(cause != null)
+            throw new IllegalStateException("A scenario race failed: " + cause.getMessage(), cause);
+        return playedRaces.get();
+    }
+
+
+    /**
+     * Appends an outcome to the results file.
+     */
+    private static void writeOutcome(BufferedWriter writer, ScenarioOutcome outcome) {
+        synchronized(writer) {
+            try {
+                writer.write(outcome.toCsvLine());
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Plays headless races between every pair of {@link BotConfiguration}s on a set of circuit files,
+ * to compare the bot levels and tune the parameters of their strategies.
+ * <p>
+ * Each pair of configurations races {@code racesPerPair} times on each circuit, alternating the configuration
+ * that starts. The races are spread over a fixed pool of threads and every outcome is appended to the results
+ * file as soon as the race ends, so an interrupted run loses at most the races in progress. Running again with
+ * the same results file resumes the run: the races already in the file are not played again, but are included
+ * in the returned {@link SelfPlayStatistics}.
+ * </p>
+ */
+public final class SelfPlayHarness {
+
+
+    private final List<File> circuitFiles;
+
+
+    private final List<BotConfiguration> configurations;
+
+
+    private final int racesPerPair;
+
+
+    private final SimulationRules rules;
+
+
+    /**
+     * Constructs a {@code SelfPlayHarness}.
+     *
+     * @param circuitFiles The circuit files to race on, with distinct names.
+     * @param configurations The configurations to compare; configurations with the same key are considered once.
+     * @param racesPerPair The number of races between each pair of configurations on each circuit.
+     * @param rules The rules of the races.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if there are no circuits, less than two distinct configurations,
+     *                                  or {@code racesPerPair} is not positive.
+     */
+    public SelfPlayHarness(List<File> circuitFiles, List<BotConfiguration> configurations, int racesPerPair, SimulationRules rules) {
+        if(circuitFiles == null)
+            throw new NullPointerException("circuitFiles is null");
+        if(configurations == null)
+            throw new NullPointerException("configurations is null");
+        if(rules == null)
+            throw new NullPointerException("rules is null");
+        if(circuitFiles.isEmpty())
+            throw new IllegalArgumentException("circuitFiles is empty");
+        if(racesPerPair <= 0)
+            throw new IllegalArgumentException("racesPerPair needs to be positive");
+
+        Map<String, BotConfiguration> distinctConfigurations = new LinkedHashMap<>();
+        for(BotConfiguration configuration : configurations)
+            distinctConfigurations.putIfAbsent(configuration.getKey(), configuration);
+        if(distinctConfigurations.size() < 2)
+            throw new IllegalArgumentException("At least two distinct configurations are needed");
+
+        this.circuitFiles = List.copyOf(circuitFiles);
+        this.configurations = List.copyOf(distinctConfigurations.values());
+        this.racesPerPair = racesPerPair;
+        this.rules = rules;
+    }
+
+
+    /**
+     * Plays the races missing from the results file.
+     *
+     * @param resultsFile The file where the outcomes are appended, created if it doesn't exist.
+     * @param threads The number of threads playing the races.
+     * @return The statistics of all the races of the run, including the ones found in the results file.
+     * @throws NullPointerException if {@code resultsFile} is {@code null}.
+     * @throws IllegalArgumentException if {@code threads} is not positive, a circuit can't be parsed,
+     *                                  two circuits have the same name or the results file has an unexpected header.
+     * @throws IllegalStateException if a race fails.
+     * @throws IOException if the results file can't be read or written.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the races.
+     */
+    public SelfPlayStatistics run(Path resultsFile, int threads) throws IOException, InterruptedException {
+        if(resultsFile == null)
+            throw new NullPointerException("resultsFile is null");
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads needs to be positive");
+
+        Map<String, ParsedData<?>> circuits = parseCircuits();
+        SelfPlayStatistics statistics = new SelfPlayStatistics();
+        Set<String> playedRaces = readResults(resultsFile, circuits.keySet(), statistics);
+
+        try(BufferedWriter writer = openResults(resultsFile)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> races = new ArrayList<>();
+                for(Map.Entry<String, ParsedData<?>> circuit : circuits.entrySet())
+                    submitRaces(executor, circuit.getKey(), circuit.getValue(), playedRaces, writer, statistics, races);
+
+                for(Future<?> race : races)
+                    race.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A self-play race failed: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        return statistics;
+    }
+
+
+    /**
+     * Submits the races on the given circuit that are not in {@code playedRaces}.
+     */
+    private void submitRaces(ExecutorService executor, String circuit, ParsedData<?> parsedData, Set<String> playedRaces,
+                             BufferedWriter writer, SelfPlayStatistics statistics, List<Future<?>> races) {
+        for(int i = 0; i < this.configurations.size(); i++)
+            for(int j = i + 1; j < this.configurations.size(); j++)
+                for(int raceIndex = 0; raceIndex < this.racesPerPair; raceIndex++) {
+                    BotConfiguration first = this.configurations.get(i);
+                    BotConfiguration second = this.configurations.get(j);
+                    if(playedRaces.contains(RaceOutcome.raceKey(circuit, first.getKey(), second.getKey(), raceIndex)))
+                        continue;
+
+                    int index = raceIndex;
+                    races.add(executor.submit(() -> {
+                        RaceOutcome outcome = HeadlessRace.play(circuit, parsedData, first, second, index, this.rules);
+                        writeOutcome(writer, outcome);
+                        statistics.add(outcome);
+                    }));
+                }
+    }
+
+
+    /**
+     * Loads every circuit file once through the {@link CompiledCircuitCache}; the races create their own circuits
+     * from the compiled data without validating them again.
+     */
+    private Map<String, ParsedData<?>> parseCircuits() {
+        Map<String, ParsedData<?>> circuits = new LinkedHashMap<>();
+        for(File circuitFile : this.circuitFiles) {
+            ParsedData<?> parsedData = CompiledCircuitCache.getDefault().load(circuitFile);
+            if(circuits.putIfAbsent(circuitFile.getName(), parsedData) != null)
+                throw new IllegalArgumentException("Two circuits are named " + circuitFile.getName());
+        }
+        return circuits;
+    }
+
+
+    /**
+     * Reads the outcomes already in the results file, adding the ones belonging to this run to the statistics.
+     * Lines that can't be parsed, such as a line truncated by an interrupted run, are ignored.
+     *
+     * @return The keys of the races of this run found in the file.
+     */
+    private Set<String> readResults(Path resultsFile, Set<String> circuits, SelfPlayStatistics statistics) throws IOException {
+        Set<String> playedRaces = new HashSet<>();
+        if(!Files.exists(resultsFile) || Files.size(resultsFile) == 0)
+            return playedRaces;
+
+        List<String> lines = Files.readAllLines(resultsFile, StandardCharsets.UTF_8);
+        if(!RaceOutcome.CSV_HEADER.equals(lines.get(0)))
+            throw new IllegalArgumentException(resultsFile + " is not a self-play results file");
+
+        Set<String> keys = new HashSet<>();
+        for(BotConfiguration configuration : this.configurations)
+            keys.add(configuration.getKey());
+
+        for(String line : lines.subList(1, lines.size())) {
+            RaceOutcome outcome;
+            try {
+                outcome = RaceOutcome.fromCsvLine(line);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+
+            boolean belongsToRun = circuits.contains(outcome.circuit()) && keys.contains(outcome.first())
+                    && keys.contains(outcome.second()) && outcome.raceIndex() < this.racesPerPair;
+            if(belongsToRun && playedRaces.add(outcome.getRaceKey()))
+                statistics.add(outcome);
+        }
+        return playedRaces;
+    }
+
+
+    /**
+     * Opens the results file for appending, writing the header if the file is new
+     * and terminating the last line if it was truncated.
+     */
+    private BufferedWriter openResults(Path resultsFile) throws IOException {
+        boolean isNew = !Files.exists(resultsFile) || Files.size(resultsFile) == 0;
+        boolean isTruncated = !isNew && !endsWithNewLine(resultsFile);
+
+        BufferedWriter writer = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if(isNew || isTruncated) {
+            if(isNew)
+                writer.write(RaceOutcome.CSV_HEADER);
+            writer.newLine();
+            writer.flush();
+        }
+        return writer;
+    }
+
+
+    /**
+     * Checks if the last character of the given non-empty file is a line terminator.
+     */
+    private static boolean endsWithNewLine(Path file) throws IOException {
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "r")) {
+            randomAccessFile.seek(randomAccessFile.length() - 1);
+            int last = randomAccessFile.read();
+            return last == '\n' || last == '\r';
+        }
+    }
+
+
+    /**
+     * Appends an outcome to the results file, flushing it so that it survives an interrupted run.
+     */
+    private static void writeOutcome(BufferedWriter writer, RaceOutcome outcome) {
+        synchronized(writer) {
+            try {
+                writer.write(outcome.toCsvLine());
+                writer.newLine();
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the configurations compared by this harness.
+     *
+     * @return The list of the distinct configurations.
+     */
+    public List<BotConfiguration> getConfigurations() {return this.configurations;}
+
+
+    /**
+     * Returns the number of races of a complete run.
+     *
+     * @return The number of races between all the pairs of configurations on all the circuits.
+     */
+    public long getRaceCount() {
+        long pairs = (long) this.configurations.size() * (this.configurations.size() - 1) / 2;
+        return pairs * this.racesPerPair * this.circuitFiles.size();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Aggregates the {@link RaceOutcome}s of a self-play run by configuration.
+ * <p>
+ * For each configuration it keeps the races played, the races won, the turns needed to win and the time spent
+ * choosing the moves, from which the win rate and the mean winning turns are estimated with their 95%
+ * {@link ConfidenceInterval}s. Outcomes can be added by several threads at the same time.
+ * </p>
+ */
+public final class SelfPlayStatistics {
+
+
+    private final Map<String, ConfigurationData> data = new HashMap<>();
+
+
+    /**
+     * Adds an outcome to the statistics of both its configurations.
+     *
+     * @param outcome The outcome to add.
+     * @throws NullPointerException if {@code outcome} is {@code null}.
+     */
+    public synchronized void add(RaceOutcome outcome) {
+        if(outcome == null)
+            throw new NullPointerException("outcome is null");
+
+        this.data.computeIfAbsent(outcome.first(), key -> new ConfigurationData()).add(outcome, outcome.first(), outcome.firstDecisionNanos());
+        this.data.computeIfAbsent(outcome.second(), key -> new ConfigurationData()).add(outcome, outcome.second(), outcome.secondDecisionNanos());
+    }
+
+
+    /**
+     * Returns the keys of the configurations with at least one race, from the highest win rate to the lowest.
+     *
+     * @return The list of the keys.
+     */
+    public synchronized List<String> getConfigurations() {
+        List<String> configurations = new ArrayList<>(this.data.keySet());
+        configurations.sort(Comparator.comparingDouble((String key) -> getWinRate(key).estimate()).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return configurations;
+    }
+
+
+    /**
+     * Returns the number of races played by the given configuration.
+     *
+     * @param configuration The key of the configuration.
+     * @return The number of races, 0 if the configuration is unknown.
+     */
+    public synchronized long getRaces(String configuration) {
+        ConfigurationData configurationData = this.data.get(configuration);
+        return configurationData == null ? 0 : configurationData.races;
+    }
+
+
+    /**
+     * Returns the number of races won by the given configuration.
+     *
+     * @param configuration The key of the configuration.
+     * @return The number of wins, 0 if the configuration is unknown.
+     */
+    public synchronized long getWins(String configuration) {
+        ConfigurationData configurationData = this.data.get(configuration);
+        return configurationData == null ? 0 : configurationData.wins;
+    }
+
+
+    /**
+     * Returns the win rate of the given configuration.
+     *
+     * @param configuration The key of the configuration.
+     * @return The Wilson interval of the win rate.
+     */
+    public synchronized ConfidenceInterval getWinRate(String configuration) {
+        return ConfidenceInterval.ofProportion(getWins(configuration), getRaces(configuration));
+    }
+
+
+    /**
+     * Returns the mean number of turns needed by the given configuration to win a race.
+     *
+     * @param configuration The key of the configuration.
+     * @return The interval of the mean winning turns.
+     */
+    public synchronized ConfidenceInterval getWinningTurns(String configuration) {
+        ConfigurationData configurationData = this.data.get(configuration);
+        if(configurationData == null)
+            return ConfidenceInterval.ofMean(0, 0, 0);
+        return ConfidenceInterval.ofMean(configurationData.wins, configurationData.winningTurns, configurationData.winningTurnsSquares);
+    }
+
+
+    /**
+     * Returns the mean time spent by the given configuration to choose a move, in nanoseconds.
+     *
+     * @param configuration The key of the configuration.
+     * @return The mean decision time, 0 if the configuration is unknown.
+     */
+    public synchronized long getMeanDecisionNanos(String configuration) {
+        ConfigurationData configurationData = this.data.get(configuration);
+        return configurationData == null || configurationData.races == 0 ? 0 : configurationData.decisionNanos / configurationData.races;
+    }
+
+
+    /**
+     * Returns a table with one row per configuration, ordered as in {@link #getConfigurations()}.
+     *
+     * @return The table, with a header row.
+     */
+    public synchronized String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-24s %7s %7s  %-26s %-30s %12s%n",
+                "configuration", "races", "wins", "win rate", "winning turns", "decision us"));
+
+        for(String configuration : getConfigurations())
+            table.append(String.format(Locale.ROOT, "%-24s %7d %7d  %-26s %-30s %12.1f%n", configuration,
+                    getRaces(configuration), getWins(configuration), getWinRate(configuration),
+                    getWinningTurns(configuration), getMeanDecisionNanos(configuration) / 1000.0));
+
+        return table.toString();
+    }
+
+
+    /**
+     * Sums of the outcomes of a single configuration.
+     */
+    private static final class ConfigurationData {
+
+
+        private long races;
+
+
+        private long wins;
+
+
+        private double winningTurns;
+
+
+        private double winningTurnsSquares;
+
+
+        private long decisionNanos;
+
+
+        /**
+         * Adds an outcome seen from the given configuration.
+         */
+        private void add(RaceOutcome outcome, String configuration, long meanDecisionNanos) {
+            this.races++;
+            this.decisionNanos += meanDecisionNanos;
+            if(!configuration.equals(outcome.winner()))
+                return;
+
+            this.wins++;
+            this.winningTurns += outcome.turns();
+            this.winningTurnsSquares += (double) outcome.turns() * outcome.turns();
+        }
+    }
+}
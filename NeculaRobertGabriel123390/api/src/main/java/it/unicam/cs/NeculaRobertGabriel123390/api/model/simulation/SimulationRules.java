@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.RaceHandler;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.RaceHandlerFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.RaceHandlerConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A record representing the rules of the self-play races, i.e. the values chosen in the loading scene
+ * for a race played by humans, plus a limit on the length of the races.
+ *
+ * @param collisionRule The collision rule, as defined in {@link RaceHandlerConstants}.
+ * @param crashRule The crash rule, as defined in {@link RaceHandlerConstants}.
+ * @param maxTurns The maximum number of turns of each player, after which the race ends with no winner.
+ */
+public record SimulationRules(String collisionRule, String crashRule, int maxTurns) {
+
+
+    /**
+     * Maximum number of turns of each player when none is given.
+     */
+    public static final int DEFAULT_MAX_TURNS = 200;
+
+
+    /**
+     * Constructs a new {@code SimulationRules}.
+     *
+     * @param collisionRule The collision rule.
+     * @param crashRule The crash rule.
+     * @param maxTurns The maximum number of turns of each player.
+     * @throws NullPointerException if {@code collisionRule} or {@code crashRule} is {@code null}.
+     * @throws IllegalArgumentException if a rule is unknown or {@code maxTurns} is not positive.
+     */
+    public SimulationRules {
+        if(collisionRule == null)
+            throw new NullPointerException("collisionRule is null");
+        if(crashRule == null)
+            throw new NullPointerException("crashRule is null");
+        if(maxTurns <= 0)
+            throw new IllegalArgumentException("maxTurns needs to be positive");
+        RaceHandlerFactory.getCollisionHandler(collisionRule);
+        RaceHandlerFactory.getCrashHandler(crashRule);
+    }
+
+
+    /**
+     * Creates the rules used by default in the loading scene, with the {@link #DEFAULT_MAX_TURNS}.
+     *
+     * @return The default rules.
+     */
+    public static SimulationRules defaults() {
+        return new SimulationRules(RaceHandlerConstants.COLLISION_NOT_ALLOWED, RaceHandlerConstants.CRASH_LEAVE_RACE, DEFAULT_MAX_TURNS);
+    }
+
+
+    /**
+     * Creates new handlers following these rules, in the order expected by the {@code RaceSetup}.
+     *
+     * @return The list of the new handlers.
+     */
+    public List<RaceHandler> createHandlers() {
+        List<RaceHandler> handlers = new ArrayList<>();
+        handlers.add(RaceHandlerFactory.getWinHandler(RaceHandlerConstants.WIN_FIRST_CROSSING_LINE));
+        handlers.add(RaceHandlerFactory.getCrashHandler(this.crashRule));
+        handlers.add(RaceHandlerFactory.getCollisionHandler(this.collisionRule));
+        return handlers;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.utils;
+
+
+/**
+ * Class containing constant values for the levels of the bots.
+ * <p>
+ * The levels can be written after the players count in the {@code ::PLAYERS} section of a circuit file
+ * (e.g. {@code 2B 1H greedy}) or chosen in the loading scene. They are ordered from the weakest and cheapest
+ * to the strongest.
+ * </p>
+ */
+public final class BotStrategyConstants {
+
+
+    /**
+     * Don't allow user to instantiate a BotStrategyConstants object because that's not how this class is meant to work.
+     */
+    private BotStrategyConstants() {}
+
+
+    /**
+     * Constant for bots choosing a random move.
+     */
+    public static final String RANDOM = "random";
+
+
+    /**
+     * Constant for bots choosing the move landing closest to the end line.
+     */
+    public static final String GREEDY = "greedy";
+
+
+    /**
+     * Constant for bots exploring the next moves before choosing.
+     */
+    public static final String LOOKAHEAD = "lookahead";
+
+
+    /**
+     * Constant for bots following the min-turns policy of the circuit.
+     */
+    public static final String OPTIMAL = "optimal";
+
+
+    /**
+     * Constant indicating that the level of the bots is the one written in the circuit file.
+     */
+    public static final String AS_IN_FILE = "as in file";
+
+
+    /**
+     * Level of the bots when none is given.
+     */
+    public static final String DEFAULT_LEVEL = RANDOM;
+}
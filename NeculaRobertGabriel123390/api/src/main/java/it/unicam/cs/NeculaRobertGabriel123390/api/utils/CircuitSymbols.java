@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package it.unicam.cs.NeculaRobertGabriel123390.api.utils;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+
+
+/**
+ * Utility class mapping the symbols of the circuit rows of a file to the states of the nodes.
+ * <p>
+ * The mapping is a table indexed by the value of the symbol, so validating a row is a plain scan of its
+ * characters or bytes, with no regular expression. The valid symbols are {@code #} for the nodes outside the
+ * track, {@code @} for the track, {@code +} for the start line and {@code -} for the end line.
+ * </p>
+ */
+public final class CircuitSymbols {
+
+
+    /**
+     * The valid symbols, as shown in the error messages.
+     */
+    public static final String VALID_SYMBOLS = "#, @, + and -";
+
+
+    private static final CircuitNodeState[] STATES = new CircuitNodeState[256];
+
+
+    static {
+        STATES['#'] = CircuitNodeState.nonTrackNode;
+        STATES['@'] = CircuitNodeState.trackNode;
+        STATES['+'] = CircuitNodeState.startNode;
+        STATES['-'] = CircuitNodeState.endNode;
+    }
+
+
+    /**
+     * Don't allow user to instantiate a CircuitSymbols object because that's not how this class is meant to work.
+     */
+    private CircuitSymbols() {}
+
+
+    /**
+     * Returns the state of the nodes represented by the given symbol.
+     *
+     * @param symbol The symbol, either a character or an unsigned byte.
+     * @return The state of the node, or {@code null} if the symbol is not valid.
+     */
+    public static CircuitNodeState getState(int symbol) {
+        return symbol >= 0 && symbol < STATES.length ? STATES[symbol] : null;
+    }
+
+
+    /**
+     * Checks if the given symbol is valid.
+     *
+     * @param symbol The symbol, either a character or an unsigned byte.
+     * @return {@code true} if the symbol represents a node.
+     */
+    public static boolean isValid(int symbol) {return getState(symbol) != null;}
+
+
+    /**
+     * Returns the index of the first invalid symbol of a row, starting from the given index.
+     *
+     * @param row The row to scan.
+     * @param from The index where the scan starts.
+     * @return The index of the first invalid symbol, or -1 if the rest of the row is valid.
+     * @throws NullPointerException if {@code row} is {@code null}.
+     */
+    public static int findInvalidSymbol(CharSequence row, int from) {
+        if(row == null)
+            throw new NullPointerException("row is null");
+
+        for (int i = Math.max(from, 0); i < row.length(); i++)
+            if(!isValid(row.charAt(i)))
+                return i;
+        return -1;
+    }
+
+
+    /**
+     * Returns the index of the first invalid symbol of the bytes between {@code from} and {@code to}.
+     *
+     * @param bytes The bytes to scan.
+     * @param from The index where the scan starts, inclusive.
+     * @param to The index where the scan ends, exclusive.
+     * @return The index of the first invalid symbol, or -1 if all the bytes are valid.
+     * @throws NullPointerException if {@code bytes} is {@code null}.
+     * @throws IndexOutOfBoundsException if the range is not inside {@code bytes}.
+     */
+    public static int findInvalidSymbol(byte[] bytes, int from, int to) {
+        if(bytes == null)
+            throw new NullPointerException("bytes is null");
+        if(from < 0 || to > bytes.length || from > to)
+            throw new IndexOutOfBoundsException("Range " + from + ", " + to + " is not inside the bytes");
+
+        for (int i = from; i < to; i++)
+            if(STATES[bytes[i] & 0xFF] == null)
+                return i;
+        return -1;
+    }
+}
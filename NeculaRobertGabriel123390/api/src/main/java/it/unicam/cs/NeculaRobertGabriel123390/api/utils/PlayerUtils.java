@@ -36,9 +36,11 @@ public final class PlayerUtils {
 
 
     /**
-     * REGEX used to validate the string format of the players count information in the file.
+     * REGEX describing the string format of the players count information in the file.
+     * The count can be followed by the level of the bots, e.g. "2B 1H greedy".
+     * The string is checked by {@link #parsePlayersCount(String)} without compiling this expression.
      */
-    public static final String PLAYER_COUNT_REGEX = "\\d+B \\d+H";
+    public static final String PLAYER_COUNT_REGEX = "\\d+B \\d+H( [a-z]+)?";
 
 
     /**
@@ -57,16 +59,8 @@ public final class PlayerUtils {
      * @return The number of bot players parsed from the input string.
      * @throws NumberFormatException if the extracted number cannot be parsed to an integer.
      */
-    public static int getBotCount(String playersCountString) {
-        validatePlayersCountStringFormat(playersCountString);
-        String botPart = playersCountString.split(" ")[0].replaceAll("\\D+", "");
-        try{
-            return Integer.parseInt(botPart);
-        }
-        catch(NumberFormatException e){
-            throw new FileFormatError("The value given for bots is not a number.");
-        }
-    }
+    public static int getBotCount(String playersCountString) {return parsePlayersCount(playersCountString).bots();}
+
 
     /**
      * Retrieves the number of human players from a string containing player information.
@@ -78,29 +72,98 @@ public final class PlayerUtils {
      * @return The number of human players parsed from the input string.
      * @throws NumberFormatException if the extracted number cannot be parsed to an integer.
      * */
-    public static int getHumanCount(String playersCountString) {
-        validatePlayersCountStringFormat(playersCountString);
-        String humanPart = playersCountString.split(" ")[1].replaceAll("\\D+", "");
-        try{
-            return Integer.parseInt(humanPart);
-        }
-        catch(NumberFormatException e){
-            throw new FileFormatError("The value given for humans is not a number.");
-        }
-    }
+    public static int getHumanCount(String playersCountString) {return parsePlayersCount(playersCountString).humans();}
+
+
+    /**
+     * Retrieves the level of the bot players from a string containing player information.
+     * <p>
+     * The expected format of the input string is "xB xH level", where the level is optional.
+     * </p>
+     *
+     * @param playersCountString A string containing player information in the format "xB xH level".
+     * @return The level of the bots, or {@code null} if the string does not specify it.
+     * @throws FileFormatError if the format of the string is not valid.
+     */
+    public static String getBotLevel(String playersCountString) {return parsePlayersCount(playersCountString).botLevel();}
 
 
     /**
-     * Checks if the format of the string given is correct.
+     * Parses the whole players count information in a single scan of the string, without regular expressions.
+     * <p>
+     * The accepted format is the one described by {@link #PLAYER_COUNT_REGEX}. Callers that need more than one of
+     * the values should use this method instead of calling {@link #getBotCount(String)}, {@link #getHumanCount(String)}
+     * and {@link #getBotLevel(String)}, which parse the string every time.
+     * </p>
+     *
      * @param playersCountString The string representing the count info of the players.
+     * @return The parsed players count.
      * @throws NullPointerException if the given string is null.
-     * @throws IllegalArgumentException if the format is not correct.
+     * @throws FileFormatError if the format is not correct, with the column of the first unexpected character.
      */
-    private static void validatePlayersCountStringFormat(String playersCountString) {
+    public static PlayersCount parsePlayersCount(String playersCountString) {
         if(playersCountString == null)
             throw new NullPointerException("playerCount string is null.");
-        if(!playersCountString.matches(PLAYER_COUNT_REGEX))
-            throw new FileFormatError("Invalid playersCountString: " + playersCountString + ". The format must be xB yH, where x, y are 2 non negative numbers");
+
+        int botsEnd = skipDigits(playersCountString, 0);
+        checkCharacter(playersCountString, botsEnd, 'B', botsEnd > 0);
+        checkCharacter(playersCountString, botsEnd + 1, ' ', true);
+
+        int humansStart = botsEnd + 2;
+        int humansEnd = skipDigits(playersCountString, humansStart);
+        checkCharacter(playersCountString, humansEnd, 'H', humansEnd > humansStart);
+
+        int bots = parseCount(playersCountString, 0, botsEnd, "bots");
+        int humans = parseCount(playersCountString, humansStart, humansEnd, "humans");
+        if(humansEnd + 1 == playersCountString.length())
+            return new PlayersCount(bots, humans, null);
+
+        checkCharacter(playersCountString, humansEnd + 1, ' ', true);
+        int levelStart = humansEnd + 2;
+        int levelEnd = levelStart;
+        while (levelEnd < playersCountString.length() && playersCountString.charAt(levelEnd) >= 'a' && playersCountString.charAt(levelEnd) <= 'z')
+            levelEnd++;
+        if(levelEnd == levelStart || levelEnd != playersCountString.length())
+            throwFormatError(playersCountString, levelEnd);
+
+        return new PlayersCount(bots, humans, playersCountString.substring(levelStart));
+    }
+
+
+    /**
+     * Returns the index of the first character at or after {@code from} that is not an ASCII digit.
+     */
+    private static int skipDigits(String string, int from) {
+        int index = from;
+        while (index < string.length() && string.charAt(index) >= '0' && string.charAt(index) <= '9')
+            index++;
+        return index;
+    }
+
+
+    /**
+     * Checks that the character at the given index is the expected one and that the preceding part was valid.
+     */
+    private static void checkCharacter(String string, int index, char expected, boolean isValidSoFar) {
+        if(!isValidSoFar || index >= string.length() || string.charAt(index) != expected)
+            throwFormatError(string, index);
+    }
+
+
+    private static int parseCount(String string, int from, int to, String players) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            count = count * 10 + (string.charAt(i) - '0');
+            if(count > Integer.MAX_VALUE)
+                throw new FileFormatError("The value given for " + players + " is not a number.");
+        }
+        return (int) count;
+    }
+
+
+    private static void throwFormatError(String playersCountString, int column) {
+        throw new FileFormatError("Invalid playersCountString: " + playersCountString + " at column " + column
+                + ". The format must be xB yH, where x, y are 2 non negative numbers, optionally followed by the level of the bots");
     }
 
 
@@ -78,13 +78,26 @@ public final class PositionUtils {
      */
     public static void validateCircuitNodePosition(Position position) {
         validatePosition(position);
-        if(position.getX() < 0 || position.getX() > TXTCircuitSetup.MAX_NODES_X ||
-                position.getY() < 0 || position.getY() > TXTCircuitSetup.MAX_NODES_Y)
+        if(!isOnBoard(position.getX(), position.getY()))
             throw new IllegalArgumentException(position + " is out of bounds");
 
     }
 
 
+    /**
+     * Checks if the given coordinates are within the bounds of the circuit grid, the same bounds checked by
+     * {@link #validateCircuitNodePosition(Position)}. The bounds don't depend on the circuit, so a position can be
+     * on the board and still outside the track.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return {@code true} if the coordinates are on the board, {@code false} otherwise.
+     */
+    public static boolean isOnBoard(int x, int y) {
+        return x >= 0 && x <= TXTCircuitSetup.MAX_NODES_X && y >= 0 && y <= TXTCircuitSetup.MAX_NODES_Y;
+    }
+
+
     /**
      * Validates the given position to ensure it is not null.
      *
@@ -0,0 +1,21 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+
+/**
+ * The grid shared by the tests of the bots: a straight corridor on row 1, with the start at x = 1 and the end at x = 10.
+ */
+public class CorridorGrid {
+
+
+    public static CircuitGrid create() {
+        int width = 12;
+        byte[] cells = new byte[width * 3];
+        cells[width + 1] = CircuitGrid.START;
+        for (int x = 2; x < 10; x++)
+            cells[width + x] = CircuitGrid.TRACK;
+        cells[width + 10] = CircuitGrid.END;
+        return new CircuitGrid(width, 3, cells);
+    }
+
+}
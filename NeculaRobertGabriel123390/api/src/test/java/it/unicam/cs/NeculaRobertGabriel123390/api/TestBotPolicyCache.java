@@ -0,0 +1,124 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotPolicy;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotPolicyCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotPolicySolver;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.SegmentOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestBotPolicyCache {
+
+
+    @TempDir
+    Path cacheDirectory;
+
+
+    @Test
+    public void testTraceSegment() {
+        CircuitGrid grid = CorridorGrid.create();
+
+        assertEquals(SegmentOutcome.CLEAR, grid.traceSegment(1, 1, 9, 1));
+        assertEquals(SegmentOutcome.WIN, grid.traceSegment(7, 1, 11, 1));
+        assertEquals(SegmentOutcome.CRASH, grid.traceSegment(2, 1, 4, 0));
+        assertEquals(SegmentOutcome.CRASH, grid.traceSegment(2, 1, 2, -3));
+    }
+
+
+    @Test
+    public void testSolvedPolicyReachesEndLine() {
+        CircuitGrid grid = CorridorGrid.create();
+        BotPolicy policy = BotPolicySolver.solve(grid, 4);
+
+        Position position = new Position(1, 1);
+        Position velocity = new Position(0, 0);
+        int turns = 0;
+
+        while (true) {
+            Position move = policy.getMove(position, velocity);
+            assertNotNull(move);
+            turns++;
+
+            Position next = new Position(position.getX() + move.getX(), position.getY() + move.getY());
+            SegmentOutcome outcome = grid.traceSegment(position.getX(), position.getY(), next.getX(), next.getY());
+            assertNotEquals(SegmentOutcome.CRASH, outcome);
+            if(outcome == SegmentOutcome.WIN)
+                break;
+
+            position = next;
+            velocity = move;
+        }
+
+        assertEquals(4, turns);
+    }
+
+
+    @Test
+    public void testPolicyWithoutWinningMove() {
+        CircuitGrid grid = CorridorGrid.create();
+        BotPolicy policy = BotPolicySolver.solve(grid, 4);
+
+        assertNull(policy.getMove(new Position(0, 0), new Position(0, 0)));
+        assertNull(policy.getMove(new Position(2, 1), new Position(-4, 0)));
+    }
+
+
+    @Test
+    public void testCacheStoresAndMapsPolicy() {
+        CircuitGrid grid = CorridorGrid.create();
+        BotPolicyCache cache = new BotPolicyCache(this.cacheDirectory);
+
+        assertFalse(cache.contains(grid, 4));
+        assertNull(cache.getIfAvailable(grid, 4));
+        BotPolicy computed = cache.getOrCompute(grid, 4);
+        assertSame(computed, cache.getIfAvailable(grid, 4));
+        assertSame(computed, cache.getOrCompute(grid, 4));
+
+        BotPolicyCache reopened = new BotPolicyCache(this.cacheDirectory);
+        assertTrue(reopened.contains(grid, 4));
+        BotPolicy loaded = reopened.getIfAvailable(grid, 4);
+        assertNotNull(loaded);
+        assertSame(loaded, reopened.getOrCompute(grid, 4));
+
+        for (int x = 1; x < 10; x++)
+            for (int vx = -4; vx <= 4; vx++)
+                assertEquals(computed.getMove(new Position(x, 1), new Position(vx, 0)),
+                        loaded.getMove(new Position(x, 1), new Position(vx, 0)));
+    }
+
+
+    @Test
+    public void testSolverStopsWhenInterrupted() {
+        CircuitGrid grid = CorridorGrid.create();
+        BotPolicyCache cache = new BotPolicyCache(this.cacheDirectory);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> cache.getOrCompute(grid, 4));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertNull(cache.getIfAvailable(grid, 4));
+        assertFalse(cache.contains(grid, 4));
+    }
+
+
+    @Test
+    public void testContentHash() {
+        CircuitGrid grid = CorridorGrid.create();
+
+        assertEquals(grid.getContentHash(), CorridorGrid.create().getContentHash());
+        assertNotEquals(grid.getContentHash(), new CircuitGrid(12, 3, new byte[36]).getContentHash());
+    }
+}
@@ -0,0 +1,231 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.*;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitGrid;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.SegmentOutcome;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.RaceHandler;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.collision.AllowCollisionHandler;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.crash.LeaveRaceCrashHandler;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.win.WinOnCrossEndLineHandler;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.manager.CircuitManager;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.BotPlayer;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.RaceSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayerUtils;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestBotStrategy {
+
+
+    @TempDir
+    Path cacheDirectory;
+
+
+    private static int countTurnsToWin(BotStrategy strategy) {
+        CircuitGrid grid = CorridorGrid.create();
+        Position position = new Position(1, 1);
+        Position velocity = new Position(0, 0);
+
+        for (int turn = 1; turn <= 20; turn++) {
+            Position move = strategy.chooseMove(new BotContext(grid, position, velocity, Set.of()));
+            assertNotNull(move);
+
+            Position next = new Position(position.getX() + move.getX(), position.getY() + move.getY());
+            SegmentOutcome outcome = grid.traceSegment(position.getX(), position.getY(), next.getX(), next.getY());
+            assertNotEquals(SegmentOutcome.CRASH, outcome);
+            if(outcome == SegmentOutcome.WIN)
+                return turn;
+
+            position = next;
+            velocity = move;
+        }
+        return -1;
+    }
+
+
+    @Test
+    public void testStrategiesReachEndLine() {
+        assertTrue(countTurnsToWin(new GreedyBotStrategy()) > 0);
+        assertTrue(countTurnsToWin(new LookaheadBotStrategy()) > 0);
+        OptimalBotStrategy optimalStrategy = new OptimalBotStrategy(new BotPolicyCache(this.cacheDirectory), 4);
+        optimalStrategy.prepare(CorridorGrid.create());
+        assertEquals(4, countTurnsToWin(optimalStrategy));
+    }
+
+
+    @Test
+    public void testOptimalStrategyDoesNotSolveWhileDeciding() {
+        BotPolicyCache cache = new BotPolicyCache(this.cacheDirectory);
+        BotContext context = new BotContext(CorridorGrid.create(), new Position(1, 1), new Position(0, 0), Set.of());
+
+        assertNotNull(new OptimalBotStrategy(cache, 4).chooseMove(context));
+        assertFalse(cache.contains(CorridorGrid.create(), 4));
+    }
+
+
+    @Test
+    public void testGreedyAvoidsOccupiedPositions() {
+        CircuitGrid grid = CorridorGrid.create();
+        BotContext context = new BotContext(grid, new Position(3, 1), new Position(1, 0), Set.of(new Position(5, 1)));
+
+        Position move = new GreedyBotStrategy().chooseMove(context);
+        assertNotEquals(new Position(2, 0), move);
+    }
+
+
+    @Test
+    public void testLegalMoveMasks() {
+        LegalMoveMasks masks = LegalMoveMasks.of(CorridorGrid.create());
+
+        int startMask = masks.getMask(1, 1, 0, 0);
+        assertEquals(0b110000, LegalMoveMasks.crashFreeActions(startMask));
+        assertEquals(0, LegalMoveMasks.winningActions(startMask));
+        assertEquals(startMask, masks.getMask(1, 1, 0, 0));
+
+        int endMask = masks.getMask(9, 1, 0, 0);
+        assertTrue(LegalMoveMasks.isWinning(endMask, 5));
+        assertTrue(LegalMoveMasks.isCrashFree(endMask, 5));
+        assertFalse(LegalMoveMasks.isCrashFree(endMask, 0));
+        assertEquals(0, LegalMoveMasks.crashFreeActions(masks.getMask(2, 1, LegalMoveMasks.MAX_SPEED + 5, 3)));
+    }
+
+
+    @Test
+    public void testLegalMoveMasksFollowTheRaceRules() {
+        File file = new File(Objects.requireNonNull(getClass().getClassLoader().getResource("ovalCircuit.txt")).getFile());
+        List<RaceHandler> handlers = new ArrayList<>();
+        handlers.add(new WinOnCrossEndLineHandler());
+        handlers.add(new LeaveRaceCrashHandler());
+        handlers.add(new AllowCollisionHandler());
+        Circuit circuit = new RaceSetup(FileParserFactory.getParser(file).parseFile(file), handlers).setup().circuit();
+        CircuitManager circuitManager = new CircuitManager(circuit);
+        CircuitGrid grid = circuit.getGrid();
+        LegalMoveMasks masks = LegalMoveMasks.of(grid);
+
+        for (int trackIndex = 0; trackIndex < grid.getTrackCellCount(); trackIndex++) {
+            int x = grid.getTrackCellX(trackIndex);
+            int y = grid.getTrackCellY(trackIndex);
+            Position position = new Position(x, y);
+            for (int vx = -9; vx <= 9; vx += 3) {
+                for (int vy = -9; vy <= 9; vy += 3) {
+                    int mask = masks.getMask(x, y, vx, vy);
+                    for (int action = 0; action < StateSpace.ACTIONS; action++) {
+                        Position next = new Position(x + vx + StateSpace.accelerationX(action), y + vy + StateSpace.accelerationY(action));
+                        boolean hasWon = circuitManager.hasWon(position, next);
+                        assertEquals(hasWon, LegalMoveMasks.isWinning(mask, action), position + " to " + next);
+                        assertEquals(hasWon || !circuitManager.isCrashing(position, next), LegalMoveMasks.isCrashFree(mask, action), position + " to " + next);
+                    }
+                }
+            }
+        }
+
+        assertTrue(LegalMoveMasks.isWinning(masks.getMask(8, 24, 0, 7), StateSpace.KEEP_VELOCITY_ACTION));
+        assertFalse(LegalMoveMasks.isCrashFree(masks.getMask(8, 24, 0, 15), StateSpace.KEEP_VELOCITY_ACTION));
+    }
+
+
+    @Test
+    public void testLegalMoveMasksKeepRecentGrids() {
+        CircuitGrid grid = CorridorGrid.create();
+        LegalMoveMasks masks = LegalMoveMasks.of(grid);
+
+        for (int width = 13; width < 13 + LegalMoveMasks.MAX_CACHED_GRIDS; width++)
+            LegalMoveMasks.of(new CircuitGrid(width, 3, new byte[width * 3]));
+        assertNotSame(masks, LegalMoveMasks.of(grid));
+
+        masks = LegalMoveMasks.of(grid);
+        for (int width = 13; width < 13 + LegalMoveMasks.MAX_CACHED_GRIDS - 1; width++) {
+            LegalMoveMasks.of(new CircuitGrid(width, 3, new byte[width * 3]));
+            assertSame(masks, LegalMoveMasks.of(grid));
+        }
+    }
+
+
+    @Test
+    public void testDistanceField() {
+        CircuitGrid grid = CorridorGrid.create();
+        DistanceField field = DistanceField.of(grid);
+
+        assertEquals(0, field.getDistance(10, 1));
+        assertEquals(9, field.getDistance(1, 1));
+        assertSame(field, DistanceField.of(CorridorGrid.create()));
+
+        for (int width = 13; width < 13 + DistanceField.MAX_CACHED_GRIDS; width++)
+            DistanceField.of(new CircuitGrid(width, 3, new byte[width * 3]));
+        assertNotSame(field, DistanceField.of(grid));
+    }
+
+
+    @Test
+    public void testMovesAvoidCrashes() {
+        BotContext context = new BotContext(CorridorGrid.create(), new Position(2, 1), new Position(-2, 0), Set.of());
+
+        assertEquals(new Position(-1, 0), context.getFallbackMove());
+        for (int i = 0; i < 20; i++)
+            assertEquals(new Position(-1, 0), new RandomBotStrategy().chooseMove(context));
+
+        BotContext safeContext = new BotContext(CorridorGrid.create(), new Position(3, 1), new Position(1, 0), Set.of());
+        assertEquals(new Position(1, 0), safeContext.getFallbackMove());
+    }
+
+
+    @Test
+    public void testLookaheadParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new LookaheadBotStrategy(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LookaheadBotStrategy(LookaheadBotStrategy.MAX_DEPTH + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LookaheadBotStrategy(2, -1));
+        assertDoesNotThrow(() -> new LookaheadBotStrategy(2, 0));
+    }
+
+
+    @Test
+    public void testBotStrategyFactory() {
+        for(String level : BotStrategyFactory.getLevels())
+            assertEquals(level, BotStrategyFactory.getStrategy(level).getLevel());
+
+        assertThrows(IllegalArgumentException.class, () -> BotStrategyFactory.getStrategy("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> BotStrategyFactory.getStrategy(null));
+    }
+
+
+    @Test
+    public void testBotPlayerRecordsDecisions() {
+        BotPlayer botPlayer = new BotPlayer("bot", Color.RED, new GreedyBotStrategy());
+        BotContext context = new BotContext(CorridorGrid.create(), new Position(1, 1), new Position(0, 0), Set.of());
+
+        botPlayer.chooseMove(context);
+        botPlayer.chooseMove(context);
+
+        assertEquals(2, botPlayer.getDecisionCount());
+        assertTrue(botPlayer.getMaxDecisionNanos() <= botPlayer.getTotalDecisionNanos());
+        assertEquals(BotStrategyConstants.RANDOM, new BotPlayer("bot", Color.RED).getStrategy().getLevel());
+    }
+
+
+    @Test
+    public void testBotLevelInPlayersCount() {
+        assertNull(PlayerUtils.getBotLevel("2B 1H"));
+        assertEquals(BotStrategyConstants.GREEDY, PlayerUtils.getBotLevel("2B 1H greedy"));
+        assertEquals(2, PlayerUtils.getBotCount("2B 1H greedy"));
+        assertEquals(1, PlayerUtils.getHumanCount("2B 1H greedy"));
+        assertThrows(FileFormatError.class, () -> PlayerUtils.getBotLevel("2B 1H greedy extra"));
+    }
+}
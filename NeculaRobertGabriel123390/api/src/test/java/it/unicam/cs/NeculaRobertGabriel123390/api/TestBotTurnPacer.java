@@ -0,0 +1,131 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotTurnPace;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotTurnPacer;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestBotTurnPacer {
+
+
+    private static final long MILLIS = 1_000_000;
+
+
+    private static final long FRAME = 16 * MILLIS;
+
+
+    /**
+     * The fake clock of the pacers, in nanoseconds.
+     */
+    private long now;
+
+
+    private BotTurnPacer createPacer(BotTurnPace pace) {
+        return new BotTurnPacer(pace, Duration.ofMillis(10), () -> this.now);
+    }
+
+
+    /**
+     * Plays the turns granted to a frame starting at the current time, each one taking the given time.
+     *
+     * @return The number of turns played.
+     */
+    private int playFrame(BotTurnPacer pacer, long turnNanos) {
+        pacer.beginFrame(this.now);
+        while (pacer.canPlayTurn()) {
+            this.now += turnNanos;
+            pacer.turnPlayed();
+        }
+        return pacer.getPlayedTurns();
+    }
+
+
+    @Test
+    public void testBotTurnPace() {
+        assertEquals(1, BotTurnPace.DEFAULT.turnsPerFrame());
+        assertFalse(BotTurnPace.perFrame(3).isRealTime());
+        assertTrue(BotTurnPace.perSecond(0.5).isRealTime());
+        assertEquals(new BotTurnPace(0, 2), BotTurnPace.perSecond(2));
+
+        assertThrows(IllegalArgumentException.class, () -> BotTurnPace.perFrame(0));
+        assertThrows(IllegalArgumentException.class, () -> BotTurnPace.perSecond(-1));
+        assertThrows(IllegalArgumentException.class, () -> BotTurnPace.perSecond(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> BotTurnPace.perSecond(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> new BotTurnPace(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BotTurnPace(0, 0));
+    }
+
+
+    @Test
+    public void testTurnsPerFrameWithinBudget() {
+        BotTurnPacer pacer = createPacer(BotTurnPace.perFrame(3));
+
+        assertEquals(3, playFrame(pacer, MILLIS));
+        this.now += FRAME;
+        assertEquals(3, playFrame(pacer, MILLIS));
+    }
+
+
+    @Test
+    public void testTurnsNotFittingTheBudgetAreDropped() {
+        BotTurnPacer pacer = createPacer(BotTurnPace.perFrame(5));
+
+        assertEquals(3, playFrame(pacer, 4 * MILLIS));
+        assertTrue(pacer.getRemainingNanos() <= 0);
+
+        this.now += FRAME;
+        assertEquals(5, pacer.beginFrame(this.now));
+        assertTrue(pacer.canPlayTurn());
+    }
+
+
+    @Test
+    public void testFirstTurnIsPlayedOverBudget() {
+        BotTurnPacer pacer = createPacer(BotTurnPace.perFrame(2));
+
+        assertEquals(1, playFrame(pacer, 50 * MILLIS));
+        assertThrows(IllegalStateException.class, () -> {
+            pacer.beginFrame(this.now);
+            pacer.turnPlayed();
+            pacer.turnPlayed();
+            pacer.turnPlayed();
+        });
+    }
+
+
+    @Test
+    public void testRealTimePace() {
+        BotTurnPacer pacer = createPacer(BotTurnPace.perSecond(10));
+
+        assertEquals(1, playFrame(pacer, MILLIS));
+        int turns = 0;
+        for (int frame = 0; frame < 60; frame++) {
+            this.now += FRAME;
+            turns += playFrame(pacer, 0);
+        }
+        assertEquals(9, turns);
+
+        pacer.restart();
+        this.now += FRAME;
+        assertEquals(1, playFrame(pacer, 0));
+    }
+
+
+    @Test
+    public void testRealTimeTurnsAreNotOwed() {
+        BotTurnPacer pacer = createPacer(BotTurnPace.perSecond(10));
+        playFrame(pacer, 0);
+
+        this.now += 500 * MILLIS;
+        assertEquals(3, playFrame(pacer, 4 * MILLIS));
+
+        this.now += FRAME;
+        assertEquals(0, playFrame(pacer, 0));
+    }
+}
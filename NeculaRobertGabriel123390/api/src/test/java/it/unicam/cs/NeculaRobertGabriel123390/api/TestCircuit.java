@@ -3,6 +3,7 @@ package it.unicam.cs.NeculaRobertGabriel123390.api;
 
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.annotation.Testable;
@@ -129,6 +130,11 @@ public class TestCircuit {
         circuitNodes.put(node14.getPosition(), node14);
         circuitNodes.put(node15.getPosition(), node15);
 
+        // connects the start line to the end line
+        for (Position position : List.of(new Position(7, 6), new Position(7, 7), new Position(8, 7), new Position(8, 8),
+                new Position(9, 8), new Position(9, 9), new Position(10, 9), new Position(10, 10), new Position(11, 10)))
+            circuitNodes.put(position, new CircuitNode(position, CircuitNodeState.trackNode));
+
 
         CircuitLine startLine = new StartEndCircuitLine();
 
@@ -208,6 +214,11 @@ public class TestCircuit {
         circuitNodes.put(node14.getPosition(), node14);
         circuitNodes.put(node15.getPosition(), node15);
 
+        // connects the start line to the end line
+        for (Position position : List.of(new Position(7, 6), new Position(7, 7), new Position(8, 7), new Position(8, 8),
+                new Position(9, 8), new Position(9, 9), new Position(10, 9), new Position(10, 10), new Position(11, 10)))
+            circuitNodes.put(position, new CircuitNode(position, CircuitNodeState.trackNode));
+
 
         CircuitLine startLine = new StartEndCircuitLine();
 
@@ -293,4 +304,51 @@ public class TestCircuit {
 
     }
 
+
+    @Test
+    public void testNarrowZonesAcrossWideRows(){
+        Map<Position, CircuitNode> circuitNodes = new HashMap<>();
+        for (int y = 1; y <= 2; y++)
+            for (int x = 0; x <= 63; x++)
+                circuitNodes.put(new Position(x, y), new CircuitNode(new Position(x, y), CircuitNodeState.trackNode));
+
+        CircuitLine startLine = new StartEndCircuitLine();
+        CircuitLine endLine = new StartEndCircuitLine();
+        for (int x = 1; x <= 3; x++) {
+            startLine.addNode(new Position(x, 1));
+            endLine.addNode(new Position(x + 4, 1));
+        }
+
+        circuitNodes.put(new Position(62, 3), new CircuitNode(new Position(62, 3), CircuitNodeState.trackNode));
+        circuitNodes.put(new Position(63, 3), new CircuitNode(new Position(63, 3), CircuitNodeState.trackNode));
+        Circuit circuit = new Circuit(circuitNodes, startLine, endLine);
+        assertThrows(UnsupportedOperationException.class, () -> circuit.getCircuitMap().remove(new Position(1, 1)));
+
+        circuitNodes.remove(new Position(62, 3));
+        FileFormatError error = assertThrows(FileFormatError.class, () -> new Circuit(circuitNodes, startLine, endLine));
+        assertTrue(error.getMessage().contains(new Position(63, 3).toString()));
+    }
+
+
+    @Test
+    public void testEndLineNeedsToBeReachable(){
+        Map<Position, CircuitNode> circuitNodes = new HashMap<>();
+        for (int y : new int[]{1, 2, 5, 6})
+            for (int x = 0; x <= 10; x++)
+                circuitNodes.put(new Position(x, y), new CircuitNode(new Position(x, y), CircuitNodeState.trackNode));
+
+        CircuitLine startLine = new StartEndCircuitLine();
+        CircuitLine endLine = new StartEndCircuitLine();
+        for (int x = 1; x <= 3; x++) {
+            startLine.addNode(new Position(x, 1));
+            endLine.addNode(new Position(x, 5));
+        }
+        assertThrows(FileFormatError.class, () -> new Circuit(circuitNodes, startLine, endLine));
+
+        for (int y = 3; y <= 4; y++)
+            for (int x = 9; x <= 10; x++)
+                circuitNodes.put(new Position(x, y), new CircuitNode(new Position(x, y), CircuitNodeState.trackNode));
+        assertDoesNotThrow(() -> new Circuit(circuitNodes, startLine, endLine));
+    }
+
 }
@@ -0,0 +1,75 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.library.CircuitLibrary;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.library.CircuitLibraryLoader;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.library.CircuitReport;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestCircuitLibraryLoader {
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private Path getFile(String name) {
+        return new File(Objects.requireNonNull(getClass().getClassLoader().getResource(name)).getFile()).toPath();
+    }
+
+
+    @Test
+    public void testLibraryIsLoaded(@TempDir Path directory) throws Exception {
+        Files.createDirectories(directory.resolve("ovals"));
+        Files.copy(getFile("ovalCircuit.txt"), directory.resolve("ovalCircuit.txt"));
+        Files.copy(getFile("ovalCircuit.txt"), directory.resolve("ovals").resolve("copy.txt"));
+        for (int i = 1; i <= 8; i++)
+            Files.copy(getFile("errorCircuit" + i + ".txt"), directory.resolve("errorCircuit" + i + ".txt"));
+        Files.writeString(directory.resolve("notes.md"), "not a circuit");
+
+        CircuitLibrary library = new CircuitLibrary();
+        List<CircuitReport> reports = new CircuitLibraryLoader(new CompiledCircuitCache(4)).load(directory, library, 4);
+
+        assertEquals(10, reports.size());
+        assertEquals(List.of("ovalCircuit.txt", "ovals/copy.txt"), library.getNames());
+        assertSame(library.get("ovalCircuit.txt"), library.get("ovals/copy.txt"));
+        assertEquals(8, reports.stream().filter(report -> !report.isValid()).count());
+
+        CircuitReport oval = reports.stream().filter(report -> report.file().equals("ovalCircuit.txt")).findFirst().orElseThrow();
+        assertTrue(oval.isValid());
+        assertEquals(2, oval.players());
+        assertEquals(library.get("ovalCircuit.txt").getData().getGrid().getTrackCellCount(), oval.trackCells());
+        assertTrue(reports.stream().anyMatch(report -> report.errorLine() != CircuitReport.NO_LINE));
+
+        Path reportFile = directory.resolve("report.csv");
+        CircuitLibraryLoader.writeReport(reports, reportFile);
+        List<String> lines = Files.readAllLines(reportFile);
+        assertEquals(CircuitReport.CSV_HEADER, lines.get(0));
+        assertEquals(11, lines.size());
+    }
+
+
+    @Test
+    public void testReportLine() {
+        CircuitReport report = CircuitReport.invalid("bad.txt", "Unknown color \"x\", found (line 38)");
+        assertEquals(38, report.errorLine());
+        assertEquals("bad.txt,false,0,0,0,0,,38,\"Unknown color \"\"x\"\", found (line 38)\"", report.toCsvLine());
+        assertEquals(CircuitReport.NO_LINE, CircuitReport.invalid("bad.txt", "A minimum of 2 players is required.").errorLine());
+    }
+}
@@ -64,4 +64,19 @@ public class TestCircuitLine {
         assertThrows(IllegalArgumentException.class, ()-> line.addNode(new Position(4,1)));
 
     }
+
+
+    @Test
+    public void testStartEndCircuitLineKeepsValidNodes(){
+        CircuitLine line = new StartEndCircuitLine();
+        for (int x = 0; x <= 63; x++)
+            line.addNode(new Position(x, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> line.addNode(new Position(0, 6)));
+        assertThrows(IllegalArgumentException.class, () -> line.addNode(new Position(64, 5)));
+        assertThrows(IllegalArgumentException.class, () -> line.addNode(new Position(63, 5)));
+        assertThrows(UnsupportedOperationException.class, () -> line.getPositions().removeLast());
+        assertEquals(64, line.getPositions().size());
+        assertEquals(new Position(63, 5), line.getPositions().getLast());
+    }
 }
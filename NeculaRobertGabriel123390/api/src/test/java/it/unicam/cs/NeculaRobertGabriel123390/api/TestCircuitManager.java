@@ -92,12 +92,31 @@ public class TestCircuitManager {
         CircuitManager circuitManager = new CircuitManager(this.race.circuit());
         assertThrows(IllegalArgumentException.class, () -> circuitManager.isOccupied(new Position(0,0)));
         assertThrows(IllegalArgumentException.class, () -> circuitManager.isColliding(new Position(-1,-1)));
-        assertThrows(IllegalArgumentException.class, () -> circuitManager.hasWon(new Position(10,10), new Position(1,-1)));
+        assertThrows(IllegalArgumentException.class, () -> circuitManager.hasWon(new Position(1,-1), new Position(10,10)));
         assertThrows(IllegalArgumentException.class, () -> circuitManager.setOccupied(new Position(-1,0)));
 
     }
 
 
+    @Test
+    public void testMoveLandingOutsideTheTrack() {
+        CircuitManager circuitManager = new CircuitManager(this.race.circuit());
+        Position prevPosition = new Position(8,24);
+
+        Position pastTheTrack = new Position(8,32);
+        assertFalse(this.race.circuit().getGrid().isInside(pastTheTrack.getX(), pastTheTrack.getY()));
+        assertTrue(circuitManager.hasWon(prevPosition, pastTheTrack));
+        assertTrue(circuitManager.isCrashing(prevPosition, pastTheTrack));
+        assertEquals(pastTheTrack, circuitManager.getCrashPosition(prevPosition, pastTheTrack));
+
+        Position pastTheBoard = new Position(8,40);
+        assertFalse(circuitManager.hasWon(prevPosition, pastTheBoard));
+        assertTrue(circuitManager.isCrashing(prevPosition, pastTheBoard));
+        assertEquals(new Position(8,35), circuitManager.getCrashPosition(prevPosition, pastTheBoard));
+        assertFalse(circuitManager.hasWon(new Position(10,10), new Position(1,-1)));
+    }
+
+
     @Test
     public void testPositionOutOfCircuitThrowsException(){
         CircuitManager circuitManager = new CircuitManager(this.race.circuit());
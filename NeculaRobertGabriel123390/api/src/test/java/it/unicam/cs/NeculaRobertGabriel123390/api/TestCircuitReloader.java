@@ -0,0 +1,135 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitFileWatcher;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitReloader;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestCircuitReloader {
+
+
+    private static final int EDITED_ROW = 16;
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private Path copyOval(Path directory) throws Exception {
+        Path file = directory.resolve("oval.txt");
+        Files.copy(new File(Objects.requireNonNull(getClass().getClassLoader().getResource("ovalCircuit.txt")).getFile())
+                .toPath(), file);
+        return file;
+    }
+
+
+    private void editRow(Path file, int row, String content) throws Exception {
+        List<String> rows = new ArrayList<>(Files.readAllLines(file));
+        rows.set(row, content);
+        Files.write(file, rows);
+    }
+
+
+    /**
+     * Widens the left side of the oval by two nodes in two rows, so that the circuit stays valid.
+     */
+    private void widenTrack(Path file) throws Exception {
+        for(int row = EDITED_ROW; row < EDITED_ROW + 2; row++) {
+            String content = Files.readAllLines(file).get(row);
+            editRow(file, row, content.substring(0, 11) + "@@" + content.substring(13));
+        }
+    }
+
+
+    @Test
+    public void testOnlyChangedRowsAreReloaded(@TempDir Path directory) throws Exception {
+        Path file = copyOval(directory);
+        CompiledCircuitCache cache = new CompiledCircuitCache(4);
+        CircuitReloader reloader = new CircuitReloader(file.toFile(), cache);
+        CompiledCircuitData oldData = reloader.getData();
+
+        assertSame(oldData, reloader.reload());
+        assertEquals(0, reloader.getChangedRows());
+
+        widenTrack(file);
+        CompiledCircuitData newData = reloader.reload();
+        assertEquals(2, reloader.getChangedRows());
+        assertNotEquals(oldData.getContentHash(), newData.getContentHash());
+        assertSame(newData, cache.load(file.toFile()));
+
+        Circuit reloaded = newData.getData().instantiate();
+        Circuit parsed = new CompiledCircuitCache(4).load(file.toFile()).getData().instantiate();
+        assertEquals(parsed.getPositions(), reloaded.getPositions());
+        assertEquals(oldData.getData().instantiate().getPositions().size() + 4, reloaded.getPositions().size());
+        assertEquals(parsed.getStartLine().getPositions(), reloaded.getStartLine().getPositions());
+    }
+
+
+    @Test
+    public void testOtherEditsReloadTheWholeFile(@TempDir Path directory) throws Exception {
+        Path file = copyOval(directory);
+        CircuitReloader reloader = new CircuitReloader(file.toFile(), new CompiledCircuitCache(4));
+
+        List<String> rows = Files.readAllLines(file);
+        editRow(file, rows.size() - 2, "1B 2H");
+        reloader.reload();
+        assertEquals(CircuitReloader.WHOLE_FILE, reloader.getChangedRows());
+    }
+
+
+    @Test
+    public void testInvalidEditsKeepTheLastData(@TempDir Path directory) throws Exception {
+        Path file = copyOval(directory);
+        CircuitReloader reloader = new CircuitReloader(file.toFile(), new CompiledCircuitCache(4));
+        CompiledCircuitData data = reloader.getData();
+        byte[] content = Files.readAllBytes(file);
+        String row = Files.readAllLines(file).get(EDITED_ROW);
+
+        editRow(file, EDITED_ROW, row.substring(1));
+        assertThrows(FileFormatError.class, reloader::reload);
+        editRow(file, EDITED_ROW, "X" + row.substring(1));
+        assertThrows(FileFormatError.class, reloader::reload);
+        assertSame(data, reloader.getData());
+
+        Files.write(file, content);
+        assertSame(data, reloader.reload());
+    }
+
+
+    @Test
+    public void testWatcherReloadsSavedFile(@TempDir Path directory) throws Exception {
+        Path file = copyOval(directory);
+        CircuitReloader reloader = new CircuitReloader(file.toFile(), new CompiledCircuitCache(4));
+        BlockingQueue<CompiledCircuitData> reloads = new LinkedBlockingQueue<>();
+
+        try(CircuitFileWatcher ignored = new CircuitFileWatcher(reloader, reloads::add, e -> {})) {
+            widenTrack(file);
+            CompiledCircuitData data = reloads.poll(10, TimeUnit.SECONDS);
+            assertNotNull(data);
+            assertSame(reloader.getData(), data);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetupFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerSetupFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestCompiledCircuitCache {
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private File getFile(String name) {
+        return new File(Objects.requireNonNull(getClass().getClassLoader().getResource(name)).getFile());
+    }
+
+
+    @Test
+    public void testCompiledCircuitMatchesParsedCircuit() {
+        File file = getFile("ovalCircuit.txt");
+        CompiledCircuitData data = new CompiledCircuitCache(4).load(file);
+
+        Circuit compiledCircuit = CircuitSetupFactory.getCircuitSetup(data).setup(data);
+        Circuit parsedCircuit = new TXTCircuitSetup().setup(new TXTFileParser().parseFile(file));
+        assertEquals(parsedCircuit.getCircuitMap(), compiledCircuit.getCircuitMap());
+        assertEquals(parsedCircuit.getGrid(), compiledCircuit.getGrid());
+        assertEquals(new HashSet<>(parsedCircuit.getStartLine().getPositions()), new HashSet<>(compiledCircuit.getStartLine().getPositions()));
+        assertEquals(new HashSet<>(parsedCircuit.getEndLine().getPositions()), new HashSet<>(compiledCircuit.getEndLine().getPositions()));
+
+        List<Player> players = PlayerSetupFactory.getPlayerSetup(data).setup(data);
+        assertEquals(2, players.size());
+        assertEquals("robert", players.get(0).getName());
+    }
+
+
+    @Test
+    public void testLoadParsesTheHashedContent() throws Exception {
+        File file = getFile("ovalCircuit.txt");
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        CompiledCircuitData data = new CompiledCircuitCache(4).load(file);
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)), data.getContentHash());
+
+        ByteBuffer content = ByteBuffer.allocate(bytes.length + 3).position(3).put(bytes).position(3);
+        ParsedData<?> parsedData = FileParserFactory.getMappedParser(file).parseContent(file, content);
+        assertEquals(3, content.position());
+        assertEquals(CircuitSetupFactory.getCircuitSetup(data).setup(data).getGrid(),
+                CircuitSetupFactory.getCircuitSetup(parsedData).setup(parsedData).getGrid());
+    }
+
+
+    @Test
+    public void testCircuitsAreNotShared() {
+        CompiledCircuitData data = new CompiledCircuitCache(4).load(getFile("ovalCircuit.txt"));
+        Circuit first = data.getData().instantiate();
+        Circuit second = data.getData().instantiate();
+
+        Position position = first.getStartLine().getNode(0);
+        first.getCircuitNode(position).setState(CircuitNodeState.occupied);
+        assertEquals(CircuitNodeState.startNode, second.getCircuitNode(position).getState());
+        assertNotSame(first.getStartLine(), second.getStartLine());
+        assertSame(first.getGrid(), second.getGrid());
+    }
+
+
+    @Test
+    public void testEntriesAreKeyedByContent(@TempDir Path directory) throws Exception {
+        File file = getFile("ovalCircuit.txt");
+        File copy = directory.resolve("copy.txt").toFile();
+        Files.copy(file.toPath(), copy.toPath());
+
+        CompiledCircuitCache cache = new CompiledCircuitCache(1);
+        CompiledCircuitData data = cache.load(file);
+        assertSame(data, cache.load(copy));
+        assertEquals(1, cache.size());
+
+        Files.writeString(copy.toPath(), Files.readString(file.toPath()) + "\n");
+        assertNotSame(data, cache.load(copy));
+        assertEquals(1, cache.size());
+        assertNull(cache.get(data.getContentHash()));
+        assertThrows(FileFormatError.class, () -> cache.load(getFile("errorCircuit1.txt")));
+    }
+
+
+    @Test
+    public void testStoredCircuitIsReused(@TempDir Path directory) {
+        File file = getFile("ovalCircuit.txt");
+        CompiledCircuitData stored = new CompiledCircuitCache(4, directory).load(file);
+        assertTrue(Files.isRegularFile(directory.resolve(stored.getContentHash() + "-v2." + CompiledCircuitCache.EXTENSION)));
+
+        CompiledCircuitData read = new CompiledCircuitCache(4, directory).load(file);
+        assertNotSame(stored.getData(), read.getData());
+        assertEquals(stored.getData().getGrid(), read.getData().getGrid());
+        assertArrayEquals(stored.getData().getStartCells(), read.getData().getStartCells());
+        assertArrayEquals(stored.getData().getEndCells(), read.getData().getEndCells());
+    }
+}
@@ -0,0 +1,61 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.DirtyRegion;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetup;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestDirtyRegion {
+
+
+    @Test
+    public void testRegionCoversTheMove() {
+        DirtyRegion region = DirtyRegion.ofMove(new Position(5, 4), new Position(2, 6));
+        assertEquals(new DirtyRegion(2 * CircuitSetup.DIM_RECT - DirtyRegion.PADDING, 4 * CircuitSetup.DIM_RECT - DirtyRegion.PADDING,
+                3 * CircuitSetup.DIM_RECT + 2 * DirtyRegion.PADDING, 2 * CircuitSetup.DIM_RECT + 2 * DirtyRegion.PADDING), region);
+        assertEquals(region, DirtyRegion.ofMove(new Position(2, 6), new Position(5, 4)));
+
+        DirtyRegion stop = DirtyRegion.ofMove(new Position(3, 3), new Position(3, 3));
+        assertEquals(2 * DirtyRegion.PADDING, stop.width());
+        assertEquals(2 * DirtyRegion.PADDING, stop.height());
+    }
+
+
+    @Test
+    public void testIntersects() {
+        DirtyRegion region = DirtyRegion.ofMove(new Position(5, 5), new Position(7, 5));
+        assertTrue(region.intersects(DirtyRegion.ofMove(new Position(7, 5), new Position(9, 9))));
+        assertFalse(region.intersects(DirtyRegion.ofMove(new Position(20, 20), new Position(21, 20))));
+        assertFalse(region.intersects(new DirtyRegion(region.x() + region.width(), region.y(), 10, 10)));
+    }
+
+
+    @Test
+    public void testUnion() {
+        DirtyRegion union = new DirtyRegion(10, 20, 5, 5).union(new DirtyRegion(0, 30, 4, 10));
+        assertEquals(new DirtyRegion(0, 20, 15, 20), union);
+    }
+
+
+    @Test
+    public void testIntersection() {
+        DirtyRegion intersection = new DirtyRegion(10, 20, 10, 10).intersection(new DirtyRegion(0, 25, 15, 30));
+        assertEquals(new DirtyRegion(10, 25, 5, 5), intersection);
+        assertThrows(IllegalArgumentException.class, () -> new DirtyRegion(0, 0, 5, 5).intersection(new DirtyRegion(10, 10, 5, 5)));
+    }
+
+
+    @Test
+    public void shouldDirtyRegionThrowException() {
+        assertThrows(NullPointerException.class, () -> DirtyRegion.ofMove(null, new Position(1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> DirtyRegion.ofMove(new Position(-1, 1), new Position(1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new DirtyRegion(0, 0, -1, 1));
+        assertThrows(NullPointerException.class, () -> new DirtyRegion(0, 0, 1, 1).intersects(null));
+        assertThrows(NullPointerException.class, () -> new DirtyRegion(0, 0, 1, 1).union(null));
+        assertThrows(NullPointerException.class, () -> new DirtyRegion(0, 0, 1, 1).intersection(null));
+    }
+}
@@ -0,0 +1,147 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.CircuitNodeState;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetupFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ImageFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamingFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerSetupFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataFormatImpl;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestImageFileParser {
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private TXTStreamedData getOvalCircuit() {
+        File file = new File(Objects.requireNonNull(getClass().getClassLoader().getResource("ovalCircuit.txt")).getFile());
+        return (TXTStreamedData) new TXTStreamingFileParser().parseFile(file);
+    }
+
+
+    private static int grayOf(CircuitNodeState state) {
+        return ImageFileParser.PIXEL_CLASSES.indexOf(state) * 85;
+    }
+
+
+    private static byte[] toPGM(TXTStreamedData circuit, boolean binary) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        String header = (binary ? "P5" : "P2") + "\n# players: 1B 1H greedy\n# humans: robert:red\n"
+                + circuit.getWidth() + " " + circuit.getHeight() + "\n255\n";
+        content.writeBytes(header.getBytes(StandardCharsets.US_ASCII));
+        for(CircuitNodeState state : circuit.getData()) {
+            if(binary)
+                content.write(grayOf(state));
+            else
+                content.writeBytes((grayOf(state) + " ").getBytes(StandardCharsets.US_ASCII));
+        }
+        return content.toByteArray();
+    }
+
+
+    @Test
+    public void testPGMCircuitMatchesTXTCircuit() {
+        TXTStreamedData circuit = getOvalCircuit();
+        ImageFileParser parser = new ImageFileParser();
+
+        for(boolean binary : new boolean[]{true, false}) {
+            TXTStreamedData imageData = parser.parsePGM(toPGM(circuit, binary));
+            assertArrayEquals(circuit.getData(), imageData.getData());
+            assertEquals(1, imageData.getBotCount());
+            assertEquals("greedy", imageData.getBotLevel());
+            assertEquals("robert", imageData.getHumanPlayers().get(0).name());
+
+            Circuit imageCircuit = CircuitSetupFactory.getCircuitSetup(imageData).setup(imageData);
+            assertEquals(CircuitSetupFactory.getCircuitSetup(circuit).setup(circuit).getCircuitMap(), imageCircuit.getCircuitMap());
+        }
+    }
+
+
+    @Test
+    public void testPNGCircuit(@TempDir Path directory) throws Exception {
+        TXTStreamedData circuit = getOvalCircuit();
+        BufferedImage image = new BufferedImage(circuit.getWidth(), circuit.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < circuit.getHeight(); y++)
+            for (int x = 0; x < circuit.getWidth(); x++)
+                image.getRaster().setSample(x, y, 0, grayOf(circuit.getNodeState(x, y)));
+
+        File file = directory.resolve("ovalCircuit.png").toFile();
+        writePNG(image, file, "players", "2B 0H");
+
+        ParsedData<?> imageData = FileParserFactory.getParser(file).parseFile(file);
+        assertArrayEquals(circuit.getData(), ((TXTStreamedData) imageData).getData());
+        List<Player> players = PlayerSetupFactory.getPlayerSetup(imageData).setup(imageData);
+        assertEquals(2, players.size());
+
+        File noPlayers = directory.resolve("noPlayers.png").toFile();
+        writePNG(image, noPlayers, "title", "oval");
+        assertThrows(FileFormatError.class, () -> new ImageFileParser().parseFile(noPlayers));
+    }
+
+
+    private static void writePNG(BufferedImage image, File file, String keyword, String value) throws Exception {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        IIOMetadataNode entry = new IIOMetadataNode("TextEntry");
+        entry.setAttribute("keyword", keyword);
+        entry.setAttribute("value", value);
+        IIOMetadataNode text = new IIOMetadataNode("Text");
+        text.appendChild(entry);
+        IIOMetadataNode root = new IIOMetadataNode(IIOMetadataFormatImpl.standardMetadataFormatName);
+        root.appendChild(text);
+        metadata.mergeTree(IIOMetadataFormatImpl.standardMetadataFormatName, root);
+
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(output);
+            writer.write(new IIOImage(image, null, metadata));
+        } finally {
+            writer.dispose();
+        }
+    }
+
+
+    @Test
+    public void shouldImageParserThrowException() {
+        ImageFileParser parser = new ImageFileParser();
+        byte[] content = toPGM(getOvalCircuit(), true);
+
+        assertThrows(FileFormatError.class, () -> parser.parsePGM("P5\n# players: 2B 0H\n64 35\n255\n".getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(FileFormatError.class, () -> parser.parsePGM(java.util.Arrays.copyOf(content, content.length - 1)));
+        assertThrows(FileFormatError.class, () -> parser.parsePGM("P6\n1 1\n255\n0".getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(FileFormatError.class, () -> parser.parsePGM("P2\n# players: 1B 0H\n2 1\n255\n0 0".getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(FileFormatError.class, () -> parser.parsePGM("P2\n# players: 2B 0H\n2 1\n3\n0 4".getBytes(StandardCharsets.US_ASCII)));
+    }
+}
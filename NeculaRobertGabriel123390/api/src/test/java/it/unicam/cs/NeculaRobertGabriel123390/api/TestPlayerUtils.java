@@ -3,6 +3,7 @@ package it.unicam.cs.NeculaRobertGabriel123390.api;
 
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayerUtils;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PlayersCount;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.annotation.Testable;
 
@@ -35,4 +36,18 @@ public class TestPlayerUtils {
         assertDoesNotThrow(() -> PlayerUtils.getBotCount("2B 4H"));
 
     }
+
+
+    @Test
+    public void testParsePlayersCount() {
+        assertEquals(new PlayersCount(2, 4, null), PlayerUtils.parsePlayersCount("2B 4H"));
+        assertEquals(new PlayersCount(12, 3, "greedy"), PlayerUtils.parsePlayersCount("12B 003H greedy"));
+        assertEquals(15, PlayerUtils.parsePlayersCount("12B 3H").total());
+
+        assertThrows(NullPointerException.class, () -> PlayerUtils.parsePlayersCount(null));
+        assertThrows(FileFormatError.class, () -> PlayerUtils.parsePlayersCount("2B 4H "));
+        assertThrows(FileFormatError.class, () -> PlayerUtils.parsePlayersCount("2B  4H"));
+        assertThrows(FileFormatError.class, () -> PlayerUtils.parsePlayersCount("2B 4H Greedy"));
+        assertThrows(FileFormatError.class, () -> PlayerUtils.parsePlayersCount("99999999999B 4H"));
+    }
 }
@@ -3,6 +3,8 @@ package it.unicam.cs.NeculaRobertGabriel123390.api;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResult;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.MoveResultType;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotContext;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategy;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.*;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.collision.AllowCollisionHandler;
@@ -212,6 +214,46 @@ public class TestRaceManager {
     }
 
 
+    @Test
+    public void testBotLeavingTheBoardCrashes() {
+        BotStrategy leftOfTheBoard = new BotStrategy() {
+            @Override
+            public Position chooseMove(BotContext context) {return new Position(-context.position().getX() - 5, 0);}
+
+            @Override
+            public String getLevel() {return "left of the board";}
+        };
+        BotPlayer leavingBot = new BotPlayer("leaving", Color.RED, leftOfTheBoard);
+        BotPlayer penaltyBot = new BotPlayer("penalty", Color.BLUE, leftOfTheBoard);
+
+        List<RaceHandler> handlers = new ArrayList<>();
+        handlers.add(new WinOnCrossEndLineHandler());
+        handlers.add(new LeaveRaceCrashHandler());
+        handlers.add(new AllowCollisionHandler());
+        RaceManager raceManager = new RaceManager(new RaceSetup(this.parsedData, handlers).setupWithPlayers(List.of(leavingBot, penaltyBot)));
+
+        Position start = leavingBot.getPosition();
+        MoveResult moveResult = raceManager.onPlayerMove(leavingBot.chooseMove(BotContext.of(raceManager)));
+        assertEquals(MoveResultType.CRASH_LEAVE_RACE, moveResult.moveType());
+        assertEquals(new Position(0, start.getY()), moveResult.prevOrNewPosition());
+        assertEquals(List.of(penaltyBot), raceManager.getPlayersManager().getPlayers());
+
+        handlers = new ArrayList<>();
+        handlers.add(new WinOnCrossEndLineHandler());
+        handlers.add(new ContinueWithPenaltyCrashHandler());
+        handlers.add(new AllowCollisionHandler());
+        raceManager = new RaceManager(new RaceSetup(this.parsedData, handlers).setupWithPlayers(List.of(penaltyBot, leavingBot)));
+
+        start = penaltyBot.getPosition();
+        moveResult = raceManager.onPlayerMove(penaltyBot.chooseMove(BotContext.of(raceManager)));
+        assertEquals(MoveResultType.CRASH_CONTINUE_WITH_PENALTY, moveResult.moveType());
+        assertEquals(start, penaltyBot.getPosition());
+        assertSame(leavingBot, raceManager.getCurrentPlayer());
+        assertTrue(raceManager.getCircuitManager().isCrashing(start, new Position(1000, start.getY())));
+        assertFalse(raceManager.getCircuitManager().hasWon(start, new Position(start.getX(), -1000)));
+    }
+
+
     @Test
     public void shouldRaceManagerThrowException(){
         List<RaceHandler> handlers = new ArrayList<>();
@@ -0,0 +1,126 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.CompiledCircuitData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.BotConfiguration;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.ScenarioOutcome;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.ScenarioRace;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.ScenarioReader;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.ScenarioRunner;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.RaceHandlerConstants;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestScenarioRunner {
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private Path getDirectory() {
+        return new File(Objects.requireNonNull(getClass().getClassLoader().getResource("ovalCircuit.txt")).getFile())
+                .toPath().getParent();
+    }
+
+
+    private List<ScenarioRace> readAll(String scenario, CompiledCircuitCache cache) throws Exception {
+        List<ScenarioRace> races = new ArrayList<>();
+        try(ScenarioReader reader = new ScenarioReader(new BufferedReader(new StringReader(scenario)), getDirectory(), cache)) {
+            ScenarioRace race;
+            while((race = reader.next()) != null)
+                races.add(race);
+        }
+        return races;
+    }
+
+
+    @Test
+    public void testRacesAreExpanded() throws Exception {
+        List<ScenarioRace> races = readAll("""
+                # two circuits with the same content
+                circuit oval ovalCircuit.txt
+                circuit copy ovalCircuit.txt
+
+                race oval greedy random seeds=3..5
+                race copy random lookahead-d2-r1.5 greedy crash="continue with penalty" collisions=true turns=20
+                """, new CompiledCircuitCache(4));
+
+        assertEquals(4, races.size());
+        assertEquals(List.of(3L, 4L, 5L), races.subList(0, 3).stream().map(ScenarioRace::seed).toList());
+        assertSame(races.get(0).compiledCircuit(), races.get(3).compiledCircuit());
+
+        ScenarioRace last = races.get(3);
+        assertEquals(6, last.line());
+        assertEquals("copy", last.circuit());
+        assertEquals(new BotConfiguration("lookahead", 2, 1.5), last.players().get(1));
+        assertEquals("random lookahead-d2-r1.5 greedy", last.getPlayerKeys());
+        assertEquals("2:lookahead-d2-r1.5", last.getPlayerName(1));
+        assertEquals(RaceHandlerConstants.CRASH_CONTINUE_WITH_PENALTY, last.rules().crashRule());
+        assertEquals(RaceHandlerConstants.COLLISION_ALLOWED, last.rules().collisionRule());
+        assertEquals(20, last.rules().maxTurns());
+        assertEquals(0, last.seed());
+    }
+
+
+    @Test
+    public void testCircuitByHash() throws Exception {
+        CompiledCircuitCache cache = new CompiledCircuitCache(4);
+        CompiledCircuitData data = cache.load(getDirectory().resolve("ovalCircuit.txt").toFile());
+
+        List<ScenarioRace> races = readAll("circuit oval sha256:" + data.getContentHash().toUpperCase() + "\nrace oval greedy greedy\n", cache);
+        assertEquals(1, races.size());
+        assertSame(data.getData(), races.get(0).compiledCircuit());
+    }
+
+
+    @Test
+    public void testInvalidScenarios() {
+        CompiledCircuitCache cache = new CompiledCircuitCache(4);
+        assertThrows(IllegalArgumentException.class, () -> readAll("race oval greedy greedy", cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("circuit oval sha256:" + "0".repeat(64), cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("circuit oval missing.txt", cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("circuit oval ovalCircuit.txt\ncircuit oval ovalCircuit.txt", cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("circuit oval ovalCircuit.txt\nrace oval greedy", cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("circuit oval ovalCircuit.txt\nrace oval greedy unknown", cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("circuit oval ovalCircuit.txt\nrace oval greedy random seeds=5..1", cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("circuit oval ovalCircuit.txt\nrace oval greedy random crash=\"leave", cache));
+        assertThrows(IllegalArgumentException.class, () -> readAll("lap oval", cache));
+    }
+
+
+    @Test
+    public void testRacesAreRepeatable(@TempDir Path directory) throws Exception {
+        Files.copy(getDirectory().resolve("ovalCircuit.txt"), directory.resolve("oval.txt"));
+        Path scenario = directory.resolve("sweep.scenario");
+        Files.writeString(scenario, "circuit oval oval.txt\nrace oval random random seeds=1..30\n");
+
+        ScenarioRunner runner = new ScenarioRunner(new CompiledCircuitCache(4));
+        assertEquals(30, runner.run(scenario, directory.resolve("first.csv"), 4));
+        assertEquals(30, runner.run(scenario, directory.resolve("second.csv"), 1));
+
+        List<String> first = Files.readAllLines(directory.resolve("first.csv"));
+        List<String> second = Files.readAllLines(directory.resolve("second.csv"));
+        assertEquals(ScenarioOutcome.CSV_HEADER, first.get(0));
+        assertEquals(31, first.size());
+        assertEquals(first.stream().sorted().toList(), second.stream().sorted().toList());
+    }
+}
@@ -0,0 +1,121 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.BotConfiguration;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.ConfidenceInterval;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.RaceOutcome;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.SelfPlayHarness;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.SelfPlayStatistics;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.SimulationRules;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestSelfPlayHarness {
+
+
+    @TempDir
+    Path resultsDirectory;
+
+
+    private SelfPlayHarness createHarness() {
+        File file = new File(Objects.requireNonNull(getClass().getClassLoader().getResource("ovalCircuit.txt")).getFile());
+        List<BotConfiguration> configurations = List.of(BotConfiguration.of(BotStrategyConstants.GREEDY),
+                new BotConfiguration(BotStrategyConstants.LOOKAHEAD, 1, 0), new BotConfiguration(BotStrategyConstants.LOOKAHEAD, 2, 1));
+        return new SelfPlayHarness(List.of(file), configurations, 4, SimulationRules.defaults());
+    }
+
+
+    @Test
+    public void testRunWritesEveryRace() throws Exception {
+        SelfPlayHarness harness = createHarness();
+        Path resultsFile = this.resultsDirectory.resolve("results.csv");
+
+        SelfPlayStatistics statistics = harness.run(resultsFile, 2);
+        List<String> lines = Files.readAllLines(resultsFile);
+
+        assertEquals(12, harness.getRaceCount());
+        assertEquals(RaceOutcome.CSV_HEADER, lines.get(0));
+        assertEquals(13, lines.size());
+        assertEquals(8, statistics.getRaces(BotStrategyConstants.GREEDY));
+        assertEquals(12, statistics.getWins(BotStrategyConstants.GREEDY) + statistics.getWins("lookahead-d1-r0.0")
+                + statistics.getWins("lookahead-d2-r1.0"));
+    }
+
+
+    @Test
+    public void testRunDoesNotLogToTheRaceScene() throws Exception {
+        InitializerRaceLogger.initialize();
+        int logs = InitializerRaceLogger.textFlow.getChildren().size();
+
+        createHarness().run(this.resultsDirectory.resolve("results.csv"), 2);
+
+        assertEquals(logs, InitializerRaceLogger.textFlow.getChildren().size());
+    }
+
+
+    @Test
+    public void testRunResumesFromResultsFile() throws Exception {
+        SelfPlayHarness harness = createHarness();
+        Path resultsFile = this.resultsDirectory.resolve("results.csv");
+        harness.run(resultsFile, 2);
+
+        List<String> lines = Files.readAllLines(resultsFile);
+        String truncated = String.join(System.lineSeparator(), lines.subList(0, 8)) + System.lineSeparator() + lines.get(8).substring(0, 5);
+        Files.writeString(resultsFile, truncated);
+
+        SelfPlayStatistics statistics = harness.run(resultsFile, 2);
+
+        assertEquals(14, Files.readAllLines(resultsFile).size());
+        assertEquals(8, statistics.getRaces(BotStrategyConstants.GREEDY));
+        assertEquals(8, statistics.getRaces("lookahead-d2-r1.0"));
+    }
+
+
+    @Test
+    public void testRaceOutcomeCsv() {
+        RaceOutcome outcome = new RaceOutcome("oval.txt", "greedy", "optimal", 3, "optimal", 7, 1200, 3400);
+
+        assertEquals(outcome, RaceOutcome.fromCsvLine(outcome.toCsvLine()));
+        assertEquals("oval.txt,greedy,optimal,3", outcome.getRaceKey());
+        assertThrows(IllegalArgumentException.class, () -> RaceOutcome.fromCsvLine("oval.txt,greedy"));
+        assertThrows(IllegalArgumentException.class, () -> new RaceOutcome("a,b", "greedy", "optimal", 0, RaceOutcome.NO_WINNER, 0, 0, 0));
+    }
+
+
+    @Test
+    public void testConfidenceIntervals() {
+        ConfidenceInterval allWins = ConfidenceInterval.ofProportion(20, 20);
+        assertEquals(1, allWins.estimate());
+        assertEquals(1, allWins.upper());
+        assertTrue(allWins.lower() > 0.8 && allWins.lower() < 0.9);
+
+        ConfidenceInterval half = ConfidenceInterval.ofProportion(50, 100);
+        assertEquals(0.5, half.estimate());
+        assertEquals(0.5 - half.lower(), half.upper() - 0.5, 1e-9);
+
+        ConfidenceInterval mean = ConfidenceInterval.ofMean(4, 2 + 4 + 4 + 6, 4 + 16 + 16 + 36);
+        assertEquals(4, mean.estimate());
+        assertEquals(4 - 1.96 * Math.sqrt(8.0 / 3 / 4), mean.lower(), 1e-9);
+    }
+
+
+    @Test
+    public void testBotConfigurationKeys() {
+        assertEquals("greedy", BotConfiguration.of(BotStrategyConstants.GREEDY).getKey());
+        assertEquals("lookahead-d2-r0.5", new BotConfiguration(BotStrategyConstants.LOOKAHEAD, 2, 0.5).getKey());
+        assertEquals(4, BotConfiguration.lookaheadGrid(new int[]{1, 2}, new double[]{0, 1}).size());
+        assertThrows(IllegalArgumentException.class, () -> new BotConfiguration(BotStrategyConstants.LOOKAHEAD, 9, 1));
+        assertThrows(IllegalArgumentException.class, () -> BotConfiguration.of("unknown"));
+    }
+}
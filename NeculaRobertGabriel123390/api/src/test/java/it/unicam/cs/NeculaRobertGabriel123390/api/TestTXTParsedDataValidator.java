@@ -0,0 +1,99 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileViolation;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedDataValidator;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ValidationReport;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestTXTParsedDataValidator {
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private File getFile(String name) {
+        return new File(Objects.requireNonNull(getClass().getClassLoader().getResource(name)).getFile());
+    }
+
+
+    private List<String> readLines(String name) {
+        return new ArrayList<>(((TXTParsedData) new TXTFileParser().parseFile(getFile(name))).getData());
+    }
+
+
+    @Test
+    public void testValidFileHasNoViolations() {
+        ValidationReport report = new TXTParsedDataValidator().validateAll(new TXTFileParser().parseFile(getFile("ovalCircuit.txt")));
+        assertTrue(report.isValid());
+        assertTrue(report.violations().isEmpty());
+        assertFalse(report.scanTime().isNegative());
+    }
+
+
+    @Test
+    public void testAllViolationsAreReported() {
+        List<String> lines = readLines("ovalCircuit.txt");
+        lines.set(3, "?" + lines.get(3).substring(1, 10) + "!" + lines.get(3).substring(11));
+        lines.set(5, lines.get(5).substring(0, 60));
+        lines.set(38, "robert:GREEN,shaz:NOCOLOR");
+        ParsedData<?> parsedData = new TXTParsedData(lines);
+
+        ValidationReport report = new TXTParsedDataValidator().validateAll(parsedData);
+        assertFalse(report.isValid());
+        assertEquals(4, report.violations().size());
+        assertEquals(List.of(new FileViolation(FileViolation.Kind.PLAYERS, 38, 18, "Unknown color NOCOLOR")),
+                report.getViolations(FileViolation.Kind.PLAYERS));
+        assertEquals(new FileViolation(FileViolation.Kind.CIRCUIT_ROW, 5, 60, report.getViolations(FileViolation.Kind.CIRCUIT_ROW).get(0).message()),
+                report.getViolations(FileViolation.Kind.CIRCUIT_ROW).get(0));
+        assertEquals(List.of(new FileViolation(FileViolation.Kind.SYMBOL, 3, 0, "Invalid symbol '?'"),
+                new FileViolation(FileViolation.Kind.SYMBOL, 3, 10, "Invalid symbol '!'")), report.getViolations(FileViolation.Kind.SYMBOL));
+        assertTrue(report.describe().startsWith("4 problems found in "));
+        assertTrue(report.describe().contains("line 3, column 10: Invalid symbol '!'"));
+
+        assertThrows(FileFormatError.class, () -> new TXTParsedDataValidator().validateData(parsedData));
+    }
+
+
+    @Test
+    public void testShortAndCircuitViolations() {
+        List<String> lines = readLines("ovalCircuit.txt");
+        ValidationReport shortReport = new TXTParsedDataValidator().validateAll(new TXTParsedData(lines.subList(0, 20)));
+        assertEquals(List.of(FileViolation.Kind.STRUCTURE), shortReport.violations().stream().map(FileViolation::kind).toList());
+        assertThrows(FileFormatError.class, () -> new TXTParsedDataValidator().validateData(new TXTParsedData(lines.subList(0, 20))));
+
+        lines.replaceAll(line -> line.replace('-', '@'));
+        ValidationReport circuitReport = new TXTParsedDataValidator().validateAll(new TXTParsedData(lines));
+        assertEquals(1, circuitReport.violations().size());
+        assertEquals(FileViolation.Kind.CIRCUIT, circuitReport.violations().get(0).kind());
+        assertEquals(FileViolation.NO_LINE, circuitReport.violations().get(0).line());
+    }
+
+
+    @Test
+    public void testErrorFilesAreReportedWithoutThrowing() {
+        for (int i = 1; i <= 8; i++) {
+            ParsedData<?> parsedData = new TXTFileParser().parseFile(getFile("errorCircuit" + i + ".txt"));
+            ValidationReport report = assertDoesNotThrow(() -> new TXTParsedDataValidator().validateAll(parsedData));
+            assertFalse(report.isValid(), "errorCircuit" + i + ".txt");
+        }
+    }
+}
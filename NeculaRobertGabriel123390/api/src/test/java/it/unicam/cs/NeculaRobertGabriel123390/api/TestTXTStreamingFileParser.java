@@ -0,0 +1,135 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetupFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.SymbolViolation;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTMappedFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamingFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerSetupFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.CircuitSymbols;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestTXTStreamingFileParser {
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private File getFile(String name) {
+        return new File(Objects.requireNonNull(getClass().getClassLoader().getResource(name)).getFile());
+    }
+
+
+    @Test
+    public void testStreamedCircuitMatchesParsedCircuit() {
+        File file = getFile("ovalCircuit.txt");
+        ParsedData<?> streamedData = FileParserFactory.getStreamingParser(file).parseFile(file);
+        assertTrue(streamedData instanceof TXTStreamedData);
+
+        Circuit streamedCircuit = CircuitSetupFactory.getCircuitSetup(streamedData).setup(streamedData);
+        Circuit parsedCircuit = new TXTCircuitSetup().setup(new TXTFileParser().parseFile(file));
+
+        assertEquals(parsedCircuit.getCircuitMap(), streamedCircuit.getCircuitMap());
+        assertEquals(parsedCircuit.getGrid(), streamedCircuit.getGrid());
+        assertEquals(parsedCircuit.getStartLine().getPositions().size(), streamedCircuit.getStartLine().getPositions().size());
+        assertNotSame(streamedCircuit.getCircuitMap(), CircuitSetupFactory.getCircuitSetup(streamedData).setup(streamedData).getCircuitMap());
+    }
+
+
+    @Test
+    public void testStreamedPlayers() {
+        File file = getFile("ovalCircuit.txt");
+        ParsedData<?> streamedData = FileParserFactory.getStreamingParser(file).parseFile(file);
+
+        List<Player> players = PlayerSetupFactory.getPlayerSetup(streamedData).setup(streamedData);
+        assertEquals(2, players.size());
+        assertEquals("robert", players.get(0).getName());
+        assertEquals("shaz", players.get(1).getName());
+    }
+
+
+    @Test
+    public void testLineTerminators() throws Exception {
+        String content = Files.readString(getFile("ovalCircuit.txt").toPath()).replace("\r\n", "\n");
+        TXTStreamingFileParser parser = new TXTStreamingFileParser();
+
+        TXTStreamedData unixData = parser.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        TXTStreamedData windowsData = parser.parse(new ByteArrayInputStream(content.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8)));
+        TXTStreamedData terminatedData = parser.parse(new ByteArrayInputStream((content + "\n").getBytes(StandardCharsets.UTF_8)));
+
+        assertArrayEquals(unixData.getData(), windowsData.getData());
+        assertArrayEquals(unixData.getData(), terminatedData.getData());
+        assertThrows(FileFormatError.class, () -> parser.parse(new ByteArrayInputStream((content + "\n\n").getBytes(StandardCharsets.UTF_8))));
+    }
+
+
+    @Test
+    public void shouldStreamingParserThrowException() {
+        TXTStreamingFileParser parser = new TXTStreamingFileParser();
+        for (int i = 1; i <= 8; i++) {
+            File file = getFile("errorCircuit" + i + ".txt");
+            assertThrows(FileFormatError.class, () -> parser.parseFile(file));
+        }
+        assertThrows(FileFormatError.class, () -> parser.parse(new ByteArrayInputStream("::CIRCUIT\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+
+    @Test
+    public void testEverySymbolViolationIsReported() throws Exception {
+        List<String> lines = Files.readAllLines(getFile("ovalCircuit.txt").toPath());
+        lines.set(3, "*" + lines.get(3).substring(1));
+        lines.set(10, lines.get(10).substring(0, 62) + "x");
+        byte[] content = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+
+        FileFormatError error = assertThrows(FileFormatError.class, () -> new TXTStreamingFileParser().parse(new ByteArrayInputStream(content)));
+        assertTrue(error.getMessage().contains(new SymbolViolation(3, 0, '*').toString()));
+        assertTrue(error.getMessage().contains(new SymbolViolation(10, 62, 'x').toString()));
+
+        byte[] row = lines.get(3).getBytes(StandardCharsets.UTF_8);
+        assertEquals(0, CircuitSymbols.findInvalidSymbol(row, 0, row.length));
+        assertEquals(-1, CircuitSymbols.findInvalidSymbol(row, 1, row.length));
+        assertEquals(62, CircuitSymbols.findInvalidSymbol(lines.get(10), 0));
+    }
+
+
+    @Test
+    public void testMappedParserMatchesStreamingParser() {
+        File file = getFile("ovalCircuit.txt");
+        TXTStreamedData mappedData = (TXTStreamedData) FileParserFactory.getMappedParser(file).parseFile(file);
+        TXTStreamedData streamedData = (TXTStreamedData) new TXTStreamingFileParser().parseFile(file);
+
+        assertArrayEquals(streamedData.getData(), mappedData.getData());
+        assertEquals(streamedData.getHumanPlayers(), mappedData.getHumanPlayers());
+        assertTrue(FileParserFactory.getStreamingParser(file) instanceof TXTStreamingFileParser);
+
+        TXTMappedFileParser parser = new TXTMappedFileParser();
+        for (int i = 1; i <= 8; i++) {
+            File errorFile = getFile("errorCircuit" + i + ".txt");
+            assertThrows(FileFormatError.class, () -> parser.parseFile(errorFile));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.Circuit;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitSetupFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.TXTCircuitSetup;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTStreamingFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.VRCConverter;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.VRCFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.VRCParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.PlayerSetupFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestVRCFileParser {
+
+
+    @BeforeAll
+    public static void setupJavaFX() {
+        InitializerLoadingLogger.initialize();
+    }
+
+
+    private File getFile(String name) {
+        return new File(Objects.requireNonNull(getClass().getClassLoader().getResource(name)).getFile());
+    }
+
+
+    @Test
+    public void testConvertedCircuitMatchesTXTCircuit(@TempDir Path directory) {
+        File txtFile = getFile("ovalCircuit.txt");
+        File vrcFile = directory.resolve("ovalCircuit.vrc").toFile();
+        VRCConverter.convert(txtFile, vrcFile);
+        assertTrue(vrcFile.length() * 10 < txtFile.length());
+
+        ParsedData<?> vrcData = FileParserFactory.getParser(vrcFile).parseFile(vrcFile);
+        assertTrue(vrcData instanceof VRCParsedData);
+
+        Circuit vrcCircuit = CircuitSetupFactory.getCircuitSetup(vrcData).setup(vrcData);
+        Circuit txtCircuit = new TXTCircuitSetup().setup(new TXTFileParser().parseFile(txtFile));
+        assertEquals(txtCircuit.getCircuitMap(), vrcCircuit.getCircuitMap());
+        assertEquals(txtCircuit.getStartLine().getPositions().size(), vrcCircuit.getStartLine().getPositions().size());
+        assertEquals(txtCircuit.getEndLine().getPositions().size(), vrcCircuit.getEndLine().getPositions().size());
+
+        List<Player> players = PlayerSetupFactory.getPlayerSetup(vrcData).setup(vrcData);
+        assertEquals(2, players.size());
+        assertEquals("robert", players.get(0).getName());
+        assertEquals("shaz", players.get(1).getName());
+    }
+
+
+    @Test
+    public void shouldVRCParserThrowException() {
+        TXTStreamedData data = (TXTStreamedData) new TXTStreamingFileParser().parseFile(getFile("ovalCircuit.txt"));
+        byte[] content = VRCConverter.encode(data);
+        VRCFileParser parser = new VRCFileParser();
+        assertEquals(data.getWidth(), parser.parse(content).getWidth());
+
+        byte[] wrongMagic = content.clone();
+        wrongMagic[3] = 2;
+        assertThrows(FileFormatError.class, () -> parser.parse(wrongMagic));
+        assertThrows(FileFormatError.class, () -> parser.parse(Arrays.copyOf(content, content.length - 1)));
+        assertThrows(FileFormatError.class, () -> parser.parse(Arrays.copyOf(content, content.length + 1)));
+
+        byte[] wrongWidth = content.clone();
+        wrongWidth[5] = (byte) (TXTCircuitSetup.MAX_NODES_X + 1);
+        assertThrows(FileFormatError.class, () -> parser.parse(wrongWidth));
+    }
+}
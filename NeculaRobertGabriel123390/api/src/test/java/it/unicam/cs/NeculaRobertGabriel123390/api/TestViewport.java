@@ -0,0 +1,71 @@
+package it.unicam.cs.NeculaRobertGabriel123390.api;
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.DirtyRegion;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder.Viewport;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testable
+public class TestViewport {
+
+
+    @Test
+    public void testZoomKeepsThePivotStill() {
+        Viewport viewport = new Viewport(400, 200, 1260, 700);
+        viewport.pan(-300, -100);
+        double pivotWorldX = viewport.getOffsetX() + 100 / viewport.getZoom();
+        double pivotWorldY = viewport.getOffsetY() + 50 / viewport.getZoom();
+
+        viewport.zoom(2, 100, 50);
+        assertEquals(2, viewport.getZoom());
+        assertEquals(pivotWorldX, viewport.getOffsetX() + 100 / viewport.getZoom(), 1e-9);
+        assertEquals(pivotWorldY, viewport.getOffsetY() + 50 / viewport.getZoom(), 1e-9);
+        assertEquals(new DirtyRegion(viewport.getOffsetX(), viewport.getOffsetY(), 200, 100), viewport.getVisibleRegion());
+    }
+
+
+    @Test
+    public void testViewStaysInsideTheWorld() {
+        Viewport viewport = new Viewport(400, 200, 1260, 700);
+        viewport.pan(100, 100);
+        assertEquals(0, viewport.getOffsetX());
+        assertEquals(0, viewport.getOffsetY());
+
+        viewport.pan(-10000, -10000);
+        assertEquals(1260 - 400, viewport.getOffsetX());
+        assertEquals(700 - 200, viewport.getOffsetY());
+
+        viewport.zoom(100, 0, 0);
+        assertEquals(Viewport.MAX_ZOOM, viewport.getZoom());
+        viewport.zoom(0.001, 0, 0);
+        assertEquals(Viewport.MIN_ZOOM, viewport.getZoom());
+        assertEquals(0, viewport.getOffsetX());
+        assertEquals(0, viewport.getOffsetY());
+        assertFalse(viewport.isDetailed());
+    }
+
+
+    @Test
+    public void testVisibility() {
+        Viewport viewport = new Viewport(400, 200, 1260, 700);
+        assertTrue(viewport.isDetailed());
+        assertTrue(viewport.isVisible(new DirtyRegion(390, 190, 20, 20)));
+        assertFalse(viewport.isVisible(new DirtyRegion(800, 100, 20, 20)));
+
+        viewport.pan(-500, 0);
+        assertTrue(viewport.isVisible(new DirtyRegion(800, 100, 20, 20)));
+        assertFalse(viewport.isVisible(new DirtyRegion(390, 190, 20, 20)));
+    }
+
+
+    @Test
+    public void shouldViewportThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(0, 200, 1260, 700));
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(400, 200, 1260, -1));
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(400, 200, 1260, 700).zoom(0, 0, 0));
+        assertThrows(NullPointerException.class, () -> new Viewport(400, 200, 1260, 700).isVisible(null));
+        assertThrows(NullPointerException.class, () -> new Viewport(400, 200, 1260, 700).apply(null));
+    }
+}
@@ -0,0 +1,131 @@
+package it.unicam.cs.NeculaRobertGabriel123390.app;
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+
+/**
+ * Computes bot moves away from the JavaFX application thread.
+ * <p>
+ * Each decision runs on a virtual thread of a dedicated executor and is bounded by a deadline.
+ * If the decision does not complete in time (or fails), the computation is interrupted and the
+ * supplied fallback move is used instead. The chosen move is handed back through a future, so that the caller
+ * can wait for it, e.g. within the time left in a frame, and apply it on the JavaFX application thread.
+ * </p>
+ */
+public final class BotMoveScheduler {
+
+
+    /**
+     * Default amount of time a bot has to choose its move.
+     */
+    public static final Duration DEFAULT_DEADLINE = Duration.ofMillis(500);
+
+
+    private final ExecutorService executor;
+
+
+    private final Duration deadline;
+
+
+    /**
+     * Constructs a {@code BotMoveScheduler} with the {@link #DEFAULT_DEADLINE}.
+     */
+    public BotMoveScheduler() {
+        this(DEFAULT_DEADLINE);
+    }
+
+
+    /**
+     * Constructs a {@code BotMoveScheduler} with the given per-move deadline.
+     *
+     * @param deadline The maximum time a bot has to choose its move.
+     * @throws NullPointerException if {@code deadline} is {@code null}.
+     * @throws IllegalArgumentException if {@code deadline} is zero or negative.
+     */
+    public BotMoveScheduler(Duration deadline) {
+        validateDeadline(deadline);
+        this.deadline = deadline;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+
+    private void validateDeadline(Duration deadline) {
+        if(deadline == null)
+            throw new NullPointerException("deadline is null");
+        if(deadline.isNegative() || deadline.isZero())
+            throw new IllegalArgumentException("deadline needs to be positive");
+    }
+
+
+    /**
+     * Starts the computation of a bot move, whose result can be awaited by the caller.
+     *
+     * @param decision The computation that chooses the bot move. It runs outside the JavaFX application thread.
+     * @param fallbackMove The move used if {@code decision} misses the deadline, fails or returns {@code null}.
+     * @return The future completed with the chosen move, within the deadline.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalStateException if the scheduler has been shut down.
+     */
+    public CompletableFuture<Position> submit(Supplier<Position> decision, Position fallbackMove) {
+        validateSubmit(decision, fallbackMove);
+
+        Future<Position> computation = this.executor.submit(decision::get);
+        CompletableFuture<Position> move = new CompletableFuture<>();
+        this.executor.execute(() -> move.complete(awaitDecision(computation, fallbackMove)));
+        return move;
+    }
+
+
+    private void validateSubmit(Supplier<Position> decision, Position fallbackMove) {
+        if(decision == null)
+            throw new NullPointerException("decision is null");
+        PositionUtils.validatePosition(fallbackMove);
+        if(this.executor.isShutdown())
+            throw new IllegalStateException("The bot move scheduler has been shut down");
+    }
+
+
+    /**
+     * Waits for the decision until the deadline, falling back to the given move if the
+     * decision is late, fails or does not provide any move.
+     *
+     * @param computation The running decision.
+     * @param fallbackMove The move to use if the decision is not usable.
+     * @return The move chosen by the bot or the fallback move.
+     */
+    private Position awaitDecision(Future<Position> computation, Position fallbackMove) {
+        try {
+            Position move = computation.get(this.deadline.toNanos(), TimeUnit.NANOSECONDS);
+            return move != null ? move : fallbackMove;
+        } catch (TimeoutException | ExecutionException e) {
+            computation.cancel(true);
+            return fallbackMove;
+        } catch (InterruptedException e) {
+            computation.cancel(true);
+            Thread.currentThread().interrupt();
+            return fallbackMove;
+        }
+    }
+
+
+    /**
+     * Interrupts any decision in flight and stops the executor.
+     * After this call no other decision can be submitted.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+
+    /**
+     * Returns the deadline each bot has to choose its move.
+     *
+     * @return The per-move deadline.
+     */
+    public Duration getDeadline() {return this.deadline;}
+}
@@ -0,0 +1,188 @@
+package it.unicam.cs.NeculaRobertGabriel123390.app;
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.Position;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotTurnPace;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotTurnPacer;
+import javafx.animation.AnimationTimer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+
+/**
+ * Plays the turns of the bots frame by frame, on the JavaFX application thread.
+ * <p>
+ * In every frame the loop plays the turns granted by its {@link BotTurnPacer}, asking for the decision of the
+ * current bot, waiting for it within the frame budget and applying it, and then renders the race once, however many
+ * turns have been played. Turns that don't fit in the frame budget, or whose decision isn't ready yet, are dropped
+ * by the pacer, and the view is still refreshed every frame.
+ * </p>
+ * <p>
+ * The loop stops by itself when there is no bot to move, and is started again when a bot has to play.
+ * </p>
+ */
+public final class BotTurnLoop extends AnimationTimer {
+
+
+    private final BotTurnPacer pacer;
+
+
+    private final Supplier<CompletableFuture<Position>> nextDecision;
+
+
+    private final Predicate<Position> applyMove;
+
+
+    private final Runnable render;
+
+
+    /**
+     * The decision of the current bot, or {@code null} if it hasn't been asked for yet.
+     */
+    private CompletableFuture<Position> pendingDecision;
+
+
+    private boolean isRunning;
+
+
+    /**
+     * Constructs a {@code BotTurnLoop} with the {@link BotTurnPacer#DEFAULT_FRAME_BUDGET}.
+     *
+     * @param pace The pace of the turns.
+     * @param nextDecision Starts the decision of the current bot, returning {@code null} if the current player is not a bot.
+     * @param applyMove Applies the move of the current bot, returning {@code true} if the next player is a bot too.
+     * @param render Renders the turns played in a frame.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public BotTurnLoop(BotTurnPace pace, Supplier<CompletableFuture<Position>> nextDecision, Predicate<Position> applyMove, Runnable render) {
+        this(pace, BotTurnPacer.DEFAULT_FRAME_BUDGET, nextDecision, applyMove, render);
+    }
+
+
+    /**
+     * Constructs a {@code BotTurnLoop}.
+     *
+     * @param pace The pace of the turns.
+     * @param frameBudget The time of a frame spent playing turns.
+     * @param nextDecision Starts the decision of the current bot, returning {@code null} if the current player is not a bot.
+     * @param applyMove Applies the move of the current bot, returning {@code true} if the next player is a bot too.
+     * @param render Renders the turns played in a frame.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if {@code frameBudget} is zero or negative.
+     */
+    public BotTurnLoop(BotTurnPace pace, Duration frameBudget, Supplier<CompletableFuture<Position>> nextDecision,
+                       Predicate<Position> applyMove, Runnable render) {
+        if(nextDecision == null)
+            throw new NullPointerException("nextDecision is null");
+        if(applyMove == null)
+            throw new NullPointerException("applyMove is null");
+        if(render == null)
+            throw new NullPointerException("render is null");
+
+        this.pacer = new BotTurnPacer(pace, frameBudget, System::nanoTime);
+        this.nextDecision = nextDecision;
+        this.applyMove = applyMove;
+        this.render = render;
+    }
+
+
+    /**
+     * Starts playing the turns of the bots from the next frame, if the loop isn't already running.
+     * A real time pace plays the first turn right away.
+     */
+    @Override
+    public void start() {
+        if(!this.isRunning) {
+            this.isRunning = true;
+            this.pacer.restart();
+        }
+        super.start();
+    }
+
+
+    /**
+     * Stops playing the turns of the bots, discarding the decision in flight.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        this.isRunning = false;
+        this.pendingDecision = null;
+    }
+
+
+    /**
+     * Plays the turns of the frame and renders them.
+     *
+     * @param now The time of the frame, in nanoseconds.
+     */
+    @Override
+    public void handle(long now) {
+        this.pacer.beginFrame(now);
+        boolean hasBotToMove = true;
+
+        while(this.pacer.canPlayTurn()) {
+            if(this.pendingDecision == null)
+                this.pendingDecision = this.nextDecision.get();
+            if(this.pendingDecision == null) {
+                hasBotToMove = false;
+                break;
+            }
+
+            Position move = awaitDecision(this.pacer.getRemainingNanos());
+            if(move == null)
+                break;
+            this.pendingDecision = null;
+            this.pacer.turnPlayed();
+            hasBotToMove = this.applyMove.test(move);
+            if(!hasBotToMove)
+                break;
+        }
+
+        if(!hasBotToMove)
+            stop();
+        if(this.pacer.getPlayedTurns() > 0)
+            this.render.run();
+    }
+
+
+    /**
+     * Waits for the pending decision until the end of the frame budget.
+     *
+     * @return The decided move, or {@code null} if it isn't ready within the budget.
+     */
+    private Position awaitDecision(long remainingNanos) {
+        try {
+            return remainingNanos > 0 ? this.pendingDecision.get(remainingNanos, TimeUnit.NANOSECONDS)
+                    : this.pendingDecision.getNow(null);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The decision of a bot failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+
+    /**
+     * Checks if the loop is playing the turns of the bots.
+     *
+     * @return {@code true} if the loop has been started and hasn't stopped.
+     */
+    public boolean isRunning() {return this.isRunning;}
+
+
+    /**
+     * Returns the pace of the turns.
+     *
+     * @return The {@link BotTurnPace} of the loop.
+     */
+    public BotTurnPace getPace() {return this.pacer.getPace();}
+}
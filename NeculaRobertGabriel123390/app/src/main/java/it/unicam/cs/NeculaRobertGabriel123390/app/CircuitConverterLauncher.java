@@ -0,0 +1,73 @@
+package it.unicam.cs.NeculaRobertGabriel123390.app;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.VRCConverter;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.VRCFileParser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Command line entry point of the {@link VRCConverter}, run by the {@code convertCircuits} gradle task.
+ * <p>
+ * Every argument is a TXT circuit file or a directory of TXT circuit files, and every circuit is written
+ * next to its TXT file with the {@code .vrc} extension.
+ * </p>
+ */
+public final class CircuitConverterLauncher {
+
+
+    private static final String TXT_EXTENSION = ".txt";
+
+
+    /**
+     * Don't allow user to instantiate a CircuitConverterLauncher object because that's not how this class is meant to work.
+     */
+    private CircuitConverterLauncher() {}
+
+
+    /**
+     * Converts the circuits given as arguments and prints the size of each file before and after.
+     *
+     * @param args The TXT circuit files or directories of TXT circuit files.
+     */
+    public static void main(String[] args) {
+        if(args.length == 0)
+            throw new IllegalArgumentException("Missing circuit files");
+
+        for(File txtFile : findCircuits(args)) {
+            String name = txtFile.getName();
+            File vrcFile = new File(txtFile.getParentFile(),
+                    name.substring(0, name.length() - TXT_EXTENSION.length()) + "." + VRCFileParser.EXTENSION);
+            VRCConverter.convert(txtFile, vrcFile);
+            System.out.println(txtFile + " (" + txtFile.length() + " bytes) -> " + vrcFile + " (" + vrcFile.length() + " bytes)");
+        }
+    }
+
+
+    /**
+     * Returns the TXT circuit files given as files or directories, sorted by name within each directory.
+     */
+    private static List<File> findCircuits(String[] paths) {
+        List<File> circuits = new ArrayList<>();
+        for(String path : paths) {
+            File file = new File(path);
+            if(!file.isDirectory()) {
+                if(!path.toLowerCase().endsWith(TXT_EXTENSION))
+                    throw new IllegalArgumentException("Not a TXT circuit file: " + path);
+                circuits.add(file);
+                continue;
+            }
+
+            File[] files = file.listFiles((dir, name) -> name.toLowerCase().endsWith(TXT_EXTENSION));
+            if(files == null)
+                throw new IllegalArgumentException("Can't read the directory " + path);
+            Arrays.sort(files);
+            circuits.addAll(Arrays.asList(files));
+        }
+        return circuits;
+    }
+}
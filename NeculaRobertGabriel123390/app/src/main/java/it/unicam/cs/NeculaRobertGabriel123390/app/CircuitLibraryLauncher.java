@@ -0,0 +1,79 @@
+package it.unicam.cs.NeculaRobertGabriel123390.app;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.library.CircuitLibrary;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.library.CircuitLibraryLoader;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.library.CircuitReport;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Command line entry point of the {@link CircuitLibraryLoader}, run by the {@code validateCircuits} gradle task.
+ * <p>
+ * Options, all optional except {@code --dir}:
+ * <ul>
+ *     <li>{@code --dir} the directory of the circuit library, walked with its subdirectories;</li>
+ *     <li>{@code --out} the report file, {@code circuit-report.csv} by default;</li>
+ *     <li>{@code --threads} the threads loading the circuits, the available processors by default.</li>
+ * </ul>
+ * </p>
+ */
+public final class CircuitLibraryLauncher {
+
+
+    /**
+     * Don't allow user to instantiate a CircuitLibraryLauncher object because that's not how this class is meant to work.
+     */
+    private CircuitLibraryLauncher() {}
+
+
+    /**
+     * Loads the circuit library described by the arguments, writes the report and prints the invalid files.
+     *
+     * @param args The options, as pairs of name and value.
+     * @throws Exception if the library can't be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if(!options.containsKey("dir"))
+            throw new IllegalArgumentException("Missing --dir option");
+
+        Path directory = Path.of(options.get("dir"));
+        Path reportFile = Path.of(options.getOrDefault("out", "circuit-report.csv"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        long start = System.nanoTime();
+        CircuitLibrary library = new CircuitLibrary();
+        List<CircuitReport> reports = new CircuitLibraryLoader(new CompiledCircuitCache(CompiledCircuitCache.DEFAULT_MAX_ENTRIES))
+                .load(directory, library, threads);
+        CircuitLibraryLoader.writeReport(reports, reportFile);
+
+        for(CircuitReport report : reports)
+            if(!report.isValid())
+                System.out.println(report.file() + ": " + report.error());
+        System.out.printf("%d of %d circuits valid in %.1f s on %d threads, report in %s%n", library.size(), reports.size(),
+                (System.nanoTime() - start) / 1e9, threads, reportFile.toAbsolutePath());
+    }
+
+
+    /**
+     * Parses the arguments as pairs of {@code --name value}.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        if(args.length % 2 != 0)
+            throw new IllegalArgumentException("Every option needs a value");
+
+        Map<String, String> options = new HashMap<>();
+        for(int i = 0; i < args.length; i += 2) {
+            if(!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
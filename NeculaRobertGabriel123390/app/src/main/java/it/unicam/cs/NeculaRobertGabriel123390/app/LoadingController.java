@@ -1,33 +1,66 @@
 package it.unicam.cs.NeculaRobertGabriel123390.app;
 
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategyFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotTurnPace;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.exception.FileFormatError;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.LoadingLogger;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.BotPlayer;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.Player;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.RaceSetup;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParser;
-import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.FileParserFactory;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitFileWatcher;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CircuitReloader;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ParsedData;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTFileParser;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.TXTParsedDataValidator;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.file.ValidationReport;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.RaceHandler;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.handler.RaceHandlerFactory;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.Race;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.RaceValidator;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.BotStrategyConstants;
 import it.unicam.cs.NeculaRobertGabriel123390.api.utils.RaceHandlerConstants;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextArea;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 
 /**
  * Controller for the loading scene of the racing application.
  * Handles file selection, parsing, and setting up the race based on user-defined rules.
+ * <p>
+ * Parsing the file and setting up the race run outside the JavaFX application thread, one task at a time,
+ * so that large circuits don't freeze the window. Their progress is shown by a progress bar, they can be
+ * cancelled, and their results are published back on the JavaFX application thread when they are ready.
+ * </p>
+ * <p>
+ * If the watch option is selected, the loaded file is watched by a {@link CircuitFileWatcher}: every time it is
+ * saved it is loaded again, decoding only the rows of the circuit that changed, and the new circuit replaces the
+ * one used to start the race, without opening the file again. If a saved TXT file is not valid, all its problems
+ * are logged, so that they can be fixed before the next save.
+ * </p>
  */
 public class LoadingController {
 
@@ -44,6 +77,12 @@ public class LoadingController {
     public static final int HEIGHT = 800;
 
 
+    /**
+     * The paces the turns of the bots can be played at, by the name shown in the choice box.
+     */
+    private static final Map<String, BotTurnPace> BOT_TURN_PACES = createBotTurnPaces();
+
+
     /**
      * The ChoiceBox with the collision handling option.
      */
@@ -65,6 +104,20 @@ public class LoadingController {
     private ChoiceBox<String> winConditionChoiceBox;
 
 
+    /**
+     * The ChoiceBox with the level of the bots.
+     */
+    @FXML
+    private ChoiceBox<String> botLevelChoiceBox;
+
+
+    /**
+     * The ChoiceBox with the pace of the turns of the bots.
+     */
+    @FXML
+    private ChoiceBox<String> botPaceChoiceBox;
+
+
     /**
      * The area where errors in the file will be logged.
      */
@@ -72,6 +125,59 @@ public class LoadingController {
     public TextArea loadingLogArea;
 
 
+    /**
+     * The button that opens the file to load.
+     */
+    @FXML
+    private Button loadFileButton;
+
+
+    /**
+     * The button that starts the race.
+     */
+    @FXML
+    private Button startRaceButton;
+
+
+    /**
+     * The button that cancels the running task.
+     */
+    @FXML
+    private Button cancelLoadingButton;
+
+
+    /**
+     * The bar showing the progress of the running task.
+     */
+    @FXML
+    private ProgressBar loadingProgressBar;
+
+
+    /**
+     * The CheckBox that enables watching the loaded file for changes.
+     */
+    @FXML
+    private CheckBox watchFileCheckBox;
+
+
+    /**
+     * Runs the tasks that parse the files and set up the races.
+     */
+    private final ExecutorService loadingExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+
+    /**
+     * The running task, or {@code null} if there is none.
+     */
+    private Task<?> loadingTask;
+
+
+    /**
+     * The watcher of the loaded file, or {@code null} if the file is not watched.
+     */
+    private CircuitFileWatcher fileWatcher;
+
+
     private Race race;
 
 
@@ -101,15 +207,23 @@ public class LoadingController {
 
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Open File");
-        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Txt Files", "*.txt"));
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Txt Files", "*.txt"),
+                new FileChooser.ExtensionFilter("VRC Files", "*.vrc"),
+                new FileChooser.ExtensionFilter("Image Files", "*.pgm", "*.png"));
 
         File selectedFile = fileChooser.showOpenDialog(((Node) event.getSource()).getScene().getWindow());
 
         if(selectedFile == null)
-            LoadingLogger.logErrorAndThrow("No file has been received", NullPointerException.class);
+            LoadingLogger.logErrorAndThrow("No file has been received", NullPointerException::new);
 
         initializeHandlersData();
-        tryParseFile(selectedFile);
+        stopWatching();
+        boolean isWatched = this.watchFileCheckBox.isSelected();
+        runInBackground(parseFileTask(selectedFile), parsedData -> {
+            this.parsedData = parsedData;
+            if(isWatched)
+                watchFile(selectedFile);
+        });
 
     }
 
@@ -121,23 +235,212 @@ public class LoadingController {
     @FXML
     private void onStartRace() {
         RaceSetup raceSetup = new RaceSetup(this.parsedData, extractHandlers());
-        this.race = raceSetup.setup();
+        runInBackground(setupRaceTask(raceSetup, this.botLevelChoiceBox.getValue()), race -> {
+            this.race = race;
+            stopWatching();
+            loadRaceScene();
+        });
+    }
+
 
-        RaceValidator.validate(this.race);
-        loadRaceScene();
+    /**
+     * Cancels the running task, discarding its result.
+     */
+    @FXML
+    private void onCancelLoading() {
+        if(this.loadingTask != null && this.loadingTask.cancel())
+            LoadingLogger.log("Loading cancelled.");
     }
 
 
     /**
-     * Parses and validates the supplied file to set up a new race.
+     * Creates the task that parses and validates the supplied file to set up a new race.
+     * A file whose content has already been loaded is taken from the {@link CompiledCircuitCache}.
      * @throws NullPointerException If the supplied file is null
      * @param file The file to be parsed.
+     * @return The task returning the parsed data.
+     */
+    private Task<ParsedData<?>> parseFileTask(File file) {
+        if(file == null)
+            throw new NullPointerException("file is null");
+
+        return new Task<>() {
+            @Override
+            protected ParsedData<?> call() {
+                LoadingLogger.log("Parsing " + file.getName() + "...");
+                ParsedData<?> parsedData = CompiledCircuitCache.getDefault().load(file);
+                updateProgress(1, 1);
+                LoadingLogger.log("Successfully parsed the file.");
+                return parsedData;
+            }
+        };
+    }
+
+
+    /**
+     * Starts watching the loaded file, replacing the parsed data every time the file is saved with a valid content.
+     * The file is already in the {@link CompiledCircuitCache}, so the reloader gets its data without parsing it again.
+     *
+     * @param file The loaded file.
+     */
+    private void watchFile(File file) {
+        try {
+            CircuitReloader reloader = new CircuitReloader(file, CompiledCircuitCache.getDefault());
+            this.fileWatcher = new CircuitFileWatcher(reloader, parsedData -> {
+                int changedRows = reloader.getChangedRows();
+                Platform.runLater(() -> onFileReloaded(reloader, parsedData, changedRows));
+            }, exception -> {
+                if(exception instanceof FileFormatError)
+                    logAllProblems(file);
+                else
+                    LoadingLogger.logError("Reload failed: " + exception.getMessage());
+            });
+            LoadingLogger.log("Watching " + file.getName() + " for changes.");
+        } catch (IOException | RuntimeException e) {
+            if(!(e instanceof FileFormatError))
+                LoadingLogger.logError("The file can't be watched: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Logs every problem of a watched TXT file whose new content is not valid.
+     *
+     * @param file The watched file.
+     */
+    private static void logAllProblems(File file) {
+        if(!file.getName().toLowerCase().endsWith(".txt"))
+            return;
+
+        try {
+            ValidationReport report = new TXTParsedDataValidator().validateAll(new TXTFileParser().parseFile(file));
+            if(!report.isValid())
+                LoadingLogger.logError(report.describe());
+        } catch (RuntimeException e) {
+            LoadingLogger.logError("The file can't be checked: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Publishes the data of the reloaded file, unless another file has been opened in the meantime.
+     */
+    private void onFileReloaded(CircuitReloader reloader, ParsedData<?> parsedData, int changedRows) {
+        if(this.fileWatcher == null || this.fileWatcher.getReloader() != reloader)
+            return;
+
+        this.parsedData = parsedData;
+        LoadingLogger.log(changedRows == CircuitReloader.WHOLE_FILE ? "Reloaded the file."
+                : "Reloaded the circuit (" + changedRows + " rows changed).");
+    }
+
+
+    /**
+     * Stops watching the loaded file, if it is watched.
+     */
+    private void stopWatching() {
+        if(this.fileWatcher == null)
+            return;
+
+        try {
+            this.fileWatcher.close();
+        } catch (IOException e) {
+            LoadingLogger.logError("The file watcher can't be closed: " + e.getMessage());
+        }
+        this.fileWatcher = null;
+    }
+
+
+    /**
+     * Creates the task that builds the circuit and the players of the race and validates them.
+     * Each of the four steps advances the progress of the task, which stops between them if it is cancelled.
+     * The last step prepares the strategies of the bots, e.g. computing the optimal policy of a new circuit,
+     * so that no decision of the race has to do it within its deadline.
+     *
+     * @param raceSetup The setup of the race, with the parsed data and the handlers.
+     * @param botLevel The level selected for the bots, read beforehand on the JavaFX application thread.
+     * @return The task returning the race, ready to start.
+     */
+    private Task<Race> setupRaceTask(RaceSetup raceSetup, String botLevel) {
+        return new Task<>() {
+            @Override
+            protected Race call() {
+                updateProgress(0, 4);
+                Race race = raceSetup.setup();
+                if(isCancelled())
+                    return null;
+
+                updateProgress(1, 4);
+                RaceValidator.validate(race);
+                if(isCancelled())
+                    return null;
+
+                updateProgress(2, 4);
+                applyBotLevel(race, botLevel);
+                if(isCancelled())
+                    return null;
+
+                updateProgress(3, 4);
+                prepareBots(race);
+                updateProgress(4, 4);
+                return race;
+            }
+        };
+    }
+
+
+    /**
+     * Runs the given task outside the JavaFX application thread, cancelling the one still running.
+     * While the task runs, its progress is shown and the buttons starting other tasks are disabled.
+     * Errors that were not already logged by the parsers are logged when the task fails.
+     *
+     * @param task The task to run.
+     * @param onLoaded The action receiving the result of the task, invoked on the JavaFX application thread
+     *                 only if the task succeeds.
+     * @param <T> The type of the result of the task.
      */
-    private void tryParseFile(File file) {
+    private <T> void runInBackground(Task<T> task, Consumer<T> onLoaded) {
+        if(this.loadingTask != null)
+            this.loadingTask.cancel();
+
+        this.loadingTask = task;
+        this.loadingProgressBar.progressProperty().bind(task.progressProperty());
+        setLoading(true);
+
+        task.setOnSucceeded(event -> {
+            finishLoading(task);
+            onLoaded.accept(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            finishLoading(task);
+            Throwable exception = task.getException();
+            if(!(exception instanceof FileFormatError))
+                LoadingLogger.logError(exception.getMessage() != null ? exception.getMessage() : exception.toString());
+        });
+        task.setOnCancelled(event -> finishLoading(task));
+
+        this.loadingExecutor.execute(task);
+    }
+
 
-        FileParser fileParser = FileParserFactory.getParser(file);
-        this.parsedData = fileParser.parseFile(file);
-        LoadingLogger.log("Successfully parsed the file.");
+    /**
+     * Restores the controls once the given task is done, unless another task has replaced it.
+     */
+    private void finishLoading(Task<?> task) {
+        if(task != this.loadingTask)
+            return;
+
+        this.loadingTask = null;
+        this.loadingProgressBar.progressProperty().unbind();
+        this.loadingProgressBar.setProgress(0);
+        setLoading(false);
+    }
+
+
+    private void setLoading(boolean isLoading) {
+        this.loadFileButton.setDisable(isLoading);
+        this.startRaceButton.setDisable(isLoading);
+        this.cancelLoadingButton.setDisable(!isLoading);
     }
 
 
@@ -152,15 +455,36 @@ public class LoadingController {
         this.allowCollisionsChoiceBox.getItems().addAll(RaceHandlerConstants.COLLISION_ALLOWED, RaceHandlerConstants.COLLISION_NOT_ALLOWED);
         this.onCrashChoiceBox.getItems().addAll(RaceHandlerConstants.CRASH_LEAVE_RACE, RaceHandlerConstants.CRASH_CONTINUE_WITH_PENALTY);
         this.winConditionChoiceBox.getItems().addAll(RaceHandlerConstants.WIN_FIRST_CROSSING_LINE);
+        this.botLevelChoiceBox.getItems().add(BotStrategyConstants.AS_IN_FILE);
+        this.botLevelChoiceBox.getItems().addAll(BotStrategyFactory.getLevels());
+        this.botPaceChoiceBox.getItems().addAll(BOT_TURN_PACES.keySet());
 
         this.allowCollisionsChoiceBox.setValue(RaceHandlerConstants.COLLISION_NOT_ALLOWED);
         this.onCrashChoiceBox.setValue(RaceHandlerConstants.CRASH_LEAVE_RACE);
         this.winConditionChoiceBox.setValue(RaceHandlerConstants.WIN_FIRST_CROSSING_LINE);
+        this.botLevelChoiceBox.setValue(BotStrategyConstants.AS_IN_FILE);
+        this.botPaceChoiceBox.setValue(this.botPaceChoiceBox.getItems().get(0));
 
         this.areHandlersInitialized = true;
     }
 
 
+    /**
+     * Creates the paces the turns of the bots can be played at, the default one first.
+     * The paces per frame follow the frame rate of the scene, the ones per second are the same on every screen.
+     *
+     * @return The paces by the name shown in the choice box.
+     */
+    private static Map<String, BotTurnPace> createBotTurnPaces() {
+        Map<String, BotTurnPace> paces = new LinkedHashMap<>();
+        paces.put("1 turn per frame", BotTurnPace.DEFAULT);
+        paces.put("4 turns per frame", BotTurnPace.perFrame(4));
+        paces.put("2 turns per second", BotTurnPace.perSecond(2));
+        paces.put("10 turns per second", BotTurnPace.perSecond(10));
+        return Collections.unmodifiableMap(paces);
+    }
+
+
     /**
      * Creates a list of race handlers based on the selected rules.
      * The order of handlers is important:
@@ -179,12 +503,44 @@ public class LoadingController {
     }
 
 
+    /**
+     * Gives every bot of the race the strategy of the selected level.
+     * If the selected level is {@link BotStrategyConstants#AS_IN_FILE}, the bots keep the level written in the file.
+     *
+     * @param race The race whose bots get the strategy.
+     * @param botLevel The selected level.
+     */
+    private static void applyBotLevel(Race race, String botLevel) {
+        if(botLevel == null || botLevel.equals(BotStrategyConstants.AS_IN_FILE))
+            return;
+
+        for(Player player : race.players())
+            if(player instanceof BotPlayer botPlayer)
+                botPlayer.setStrategy(BotStrategyFactory.getStrategy(botLevel));
+        LoadingLogger.log("Bots will play at level: " + botLevel);
+    }
+
+
+    /**
+     * Prepares the strategy of every bot of the race for its circuit.
+     * Cancelling the task interrupts the preparation.
+     *
+     * @param race The race whose bots are prepared.
+     */
+    private static void prepareBots(Race race) {
+        for(Player player : race.players())
+            if(player instanceof BotPlayer botPlayer)
+                botPlayer.getStrategy().prepare(race.circuit().getGrid());
+    }
+
+
     /**
      * Loads the race scene when the start button is pressed.
      */
     private void loadRaceScene() {
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/RaceScene.fxml"));
-        RaceController raceController = new RaceController(this.race);
+        RaceController raceController = new RaceController(this.race,
+                BOT_TURN_PACES.getOrDefault(this.botPaceChoiceBox.getValue(), BotTurnPace.DEFAULT));
         fxmlLoader.setController(raceController);
         Stage stage = (Stage) this.onCrashChoiceBox.getScene().getWindow();
 
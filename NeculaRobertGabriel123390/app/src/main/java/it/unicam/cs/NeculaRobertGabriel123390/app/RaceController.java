@@ -1,13 +1,19 @@
 package it.unicam.cs.NeculaRobertGabriel123390.app;
 
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.*;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotContext;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.LegalMoveMasks;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotStrategy;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.bot.BotTurnPace;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.log.RaceLogger;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.manager.RaceManager;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.player.BotPlayer;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.Race;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.race.RaceValidator;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder.CircuitSceneBuilder;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder.MovesGridSceneBuilder;
 import it.unicam.cs.NeculaRobertGabriel123390.api.model.scenebuilder.PlayersSceneBuilder;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.PositionUtils;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 
@@ -21,7 +27,10 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 import javafx.stage.Stage;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 
 
 /**
@@ -30,6 +39,12 @@ import java.util.Random;
 public class RaceController {
 
 
+    /**
+     * The factor multiplying the zoom of the circuit for every step of the mouse wheel.
+     */
+    private static final double ZOOM_STEP = 1.1;
+
+
     @FXML
     private Pane circuitGrid;
 
@@ -71,20 +86,56 @@ public class RaceController {
 
     private MovesGridSceneBuilder movesGridSceneBuilder;
 
+
+    private final BotMoveScheduler botMoveScheduler;
+
+
+    private final BotTurnLoop botTurnLoop;
+
+
     /**
-     * Constructor for the RaceController.
+     * The moves applied to the race and not yet drawn, drawn together by {@link #refreshView()}.
+     */
+    private final List<MoveResult> pendingMoveResults = new ArrayList<>();
+
+
+    private boolean isRaceOver;
+
+
+    private double lastDragX;
+
+
+    private double lastDragY;
+
+    /**
+     * Constructor for the RaceController, playing the turns of the bots at the {@link BotTurnPace#DEFAULT} pace.
      *
      * @param race The race object to be managed by this controller.
      */
     public RaceController(Race race) {
+        this(race, BotTurnPace.DEFAULT);
+    }
+
+
+    /**
+     * Constructor for the RaceController.
+     *
+     * @param race The race object to be managed by this controller.
+     * @param botTurnPace The pace at which the turns of the bots are played.
+     * @throws NullPointerException if {@code botTurnPace} is {@code null}.
+     */
+    public RaceController(Race race, BotTurnPace botTurnPace) {
         RaceValidator.validate(race);
         this.race = race;
+        this.botMoveScheduler = new BotMoveScheduler();
+        this.botTurnLoop = new BotTurnLoop(botTurnPace, this::decideBotMove, this::applyBotMove, this::refreshView);
     }
 
 
     /**
      * Builds the entire race scene based on the provided race data.
      * Initializes the race manager, renders the circuit, sets up player grids, and displays the current player.
+     * If the first player is a bot, the turns of the bots start being played from the next frame.
      */
     public void build() {
 
@@ -94,7 +145,7 @@ public class RaceController {
 
         initializeSceneBuilders();
         renderSceneBuilders();
-        displayCurrentPlayer();
+        refreshView();
     }
 
 
@@ -106,7 +157,29 @@ public class RaceController {
         this.renderer = new Renderer();
 
         this.renderer.render(this.circuitSceneBuilder, this.playersSceneBuilder, this.movesGridSceneBuilder);
-        this.playersSceneBuilder.displayInitialPlayerPosition(this.circuitSceneBuilder.getContainer());
+        this.playersSceneBuilder.displayInitialPlayerPosition(this.circuitSceneBuilder);
+        handleCircuitViewInput();
+    }
+
+
+    /**
+     * Lets the user zoom the circuit with the mouse wheel, around the pointer, and pan it by dragging the mouse.
+     */
+    private void handleCircuitViewInput() {
+        this.circuitGrid.setOnScroll(event -> {
+            if(event.getDeltaY() != 0)
+                this.circuitSceneBuilder.zoom(event.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, event.getX(), event.getY());
+            event.consume();
+        });
+        this.circuitGrid.setOnMousePressed(event -> {
+            this.lastDragX = event.getX();
+            this.lastDragY = event.getY();
+        });
+        this.circuitGrid.setOnMouseDragged(event -> {
+            this.circuitSceneBuilder.pan(event.getX() - this.lastDragX, event.getY() - this.lastDragY);
+            this.lastDragX = event.getX();
+            this.lastDragY = event.getY();
+        });
     }
 
 
@@ -137,11 +210,13 @@ public class RaceController {
 
         MoveResult moveResult = this.raceManager.onPlayerMove(buttonPosition);
         processMoveResult(moveResult);
+        refreshView();
     }
 
 
     /**
-     * Processes the result of a player's move and updates the view or handles special cases (e.g., win, no winner ecc).
+     * Processes the result of a player's move, queueing it to be drawn by {@link #refreshView()},
+     * or handles special cases (e.g., win, no winner ecc).
      *
      * @param moveResult The result of the move.
      * @throws IllegalStateException if the moveType is not valid.
@@ -149,21 +224,16 @@ public class RaceController {
     private void processMoveResult(MoveResult moveResult) {
         MoveResultValidator.validate(moveResult);
         switch (moveResult.moveType()) {
-            case MoveResultType.SUCCESS, MoveResultType.COLLISION_ALLOWED ->{
-                updateView(moveResult);
-                updateTurnData();
-            }
+            case MoveResultType.SUCCESS, MoveResultType.COLLISION_ALLOWED ->
+                this.pendingMoveResults.add(moveResult);
 
-            case MoveResultType.CRASH_CONTINUE_WITH_PENALTY, MoveResultType.COLLISION_NOT_ALLOWED ->
-                updateTurnData();
+            case MoveResultType.CRASH_CONTINUE_WITH_PENALTY, MoveResultType.COLLISION_NOT_ALLOWED -> {}
 
             case MoveResultType.CRASH_LEAVE_RACE -> {
                 if(this.raceManager.wasLastPlayer())
                     handleNoWinner();
-                else {
-                    updateView(moveResult);
-                    updateTurnData();
-                }
+                else
+                    this.pendingMoveResults.add(moveResult);
             }
 
             case MoveResultType.WIN -> handleWin(moveResult);
@@ -174,20 +244,33 @@ public class RaceController {
 
 
     /**
-     * Updates the view based on the provided move result and displays the current player.
-     *
-     * @param moveResult The updated move result.
+     * Draws the moves played since the last refresh in a single pass, then displays the current player
+     * and updates the turn data. Invoked after the move of a human and once per frame while the bots are playing.
      */
-    private void updateView(MoveResult moveResult) {
-        MoveResultValidator.validate(moveResult);
-        this.renderer.update(this.circuitSceneBuilder, moveResult);
-        this.renderer.update(this.playersSceneBuilder, moveResult);
+    private void refreshView() {
+        if(this.isRaceOver)
+            return;
+
+        drawPendingMoves();
         displayCurrentPlayer();
+        updateTurnData();
+    }
+
+
+    /**
+     * Draws the moves applied to the race and not yet drawn.
+     */
+    private void drawPendingMoves() {
+        this.circuitSceneBuilder.updateAll(this.pendingMoveResults);
+        for (MoveResult moveResult : this.pendingMoveResults)
+            this.renderer.update(this.playersSceneBuilder, moveResult);
+        this.pendingMoveResults.clear();
     }
 
 
     /**
-     * Updates the move grid for the next player and handles bot moves if applicable.
+     * Updates the move grid for the next player, shading the moves that crash, and starts the {@link BotTurnLoop} if the next player is a bot.
+     * The grid is enabled only when the next player is a human, so that no input is accepted while a bot is choosing its move.
      * @throws NullPointerException if the player moves is null
      */
     private void updateTurnData() {
@@ -197,24 +280,50 @@ public class RaceController {
             throw new NullPointerException("nextPlayerMoves is null");
 
         this.renderer.update(this.movesGridSceneBuilder, nextPlayerMoves);
-        handleMoveIfBot(nextPlayerMoves);
+        this.movesGridSceneBuilder.markUnsafeMoves(LegalMoveMasks.crashFreeActions(BotContext.of(this.raceManager).getMoveMask()));
+
+        if(this.raceManager.getCurrentPlayer().isBot()) {
+            this.movesGridSceneBuilder.disableGrid();
+            this.botTurnLoop.start();
+        } else
+            this.movesGridSceneBuilder.enableGrid();
     }
 
 
     /**
-     * Handles the case where the current player is a bot by making a random move.
-     * @param nextPlayerMoves The possible moves for the current player.
-     * @throws NullPointerException If {@code nextPlayerMoves} is null;
+     * Starts the decision of the current player, if it is a bot.
+     * <p>
+     * The move is chosen by the {@link BotStrategy} of the bot outside the JavaFX application thread, on a
+     * {@link BotContext} snapshot of the race. If the bot misses its deadline or has no move to suggest,
+     * the fallback move of the context, which keeps the current velocity unless it crashes, is used.
+     * The {@link BotTurnLoop} waits for the move and applies it by {@link #applyBotMove(Position)}.
+     * </p>
+     *
+     * @return The decision of the bot, or {@code null} if the race is over or the current player is not a bot.
      */
-    private void handleMoveIfBot(PlayerMoves nextPlayerMoves) {
-        if(nextPlayerMoves == null)
-            throw new NullPointerException("nextPlayerMoves is null");
+    private CompletableFuture<Position> decideBotMove() {
+        if(this.isRaceOver || !(this.raceManager.getCurrentPlayer() instanceof BotPlayer botPlayer))
+            return null;
 
-        if(this.raceManager.getCurrentPlayer().isBot() ) {
-            Position randomMove = nextPlayerMoves.getMoves()[getRandomIndex()][getRandomIndex()];
-            MoveResult moveResult = this.raceManager.onPlayerMove(randomMove);
-            processMoveResult(moveResult);
-        }
+        BotContext botContext = BotContext.of(this.raceManager);
+        return this.botMoveScheduler.submit(() -> botPlayer.chooseMove(botContext), botContext.getFallbackMove());
+    }
+
+
+    /**
+     * Applies the move chosen by a bot to the race and processes its result, without drawing it.
+     * Invoked on the JavaFX application thread by the {@link BotTurnLoop}.
+     *
+     * @param botMove The move chosen by the bot.
+     * @return {@code true} if the race goes on and the next player is a bot too.
+     * @throws NullPointerException If {@code botMove} is null.
+     */
+    private boolean applyBotMove(Position botMove) {
+        PositionUtils.validatePosition(botMove);
+
+        MoveResult moveResult = this.raceManager.onPlayerMove(botMove);
+        processMoveResult(moveResult);
+        return !this.isRaceOver && this.raceManager.getCurrentPlayer().isBot();
     }
 
 
@@ -226,7 +335,9 @@ public class RaceController {
     private void handleWin(MoveResult moveResult) {
         MoveResultValidator.validate(moveResult);
 
-        updateView(moveResult);
+        stopRace();
+        this.pendingMoveResults.add(moveResult);
+        drawPendingMoves();
         loadWinScene(moveResult);
     }
 
@@ -237,11 +348,22 @@ public class RaceController {
      * It is typically called when the last player crashes and leaves the race.
      */
     private void handleNoWinner() {
+        stopRace();
         this.movesGridSceneBuilder.disableGrid();
         loadNoWinnerScene();
     }
 
 
+    /**
+     * Stops playing the turns of the bots, once the race is over.
+     */
+    private void stopRace() {
+        this.isRaceOver = true;
+        this.botTurnLoop.stop();
+        this.botMoveScheduler.shutdown();
+    }
+
+
     /**
      * Displays the win scene with the player who has won.
      *
@@ -282,11 +404,4 @@ public class RaceController {
     }
 
 
-    /**
-     * Method used to get a random index between 0 and 2 to choose a random move for a bot player
-     * @return int A random index between 0 and 2
-     */
-    private int getRandomIndex() {return new Random().nextInt(3);}
-
-
 }
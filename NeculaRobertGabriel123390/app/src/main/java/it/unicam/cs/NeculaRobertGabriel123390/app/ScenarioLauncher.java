@@ -0,0 +1,75 @@
+package it.unicam.cs.NeculaRobertGabriel123390.app;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.circuit.CompiledCircuitCache;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.ScenarioReader;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.ScenarioRunner;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Command line entry point of the {@link ScenarioRunner}, run by the {@code runScenario} gradle task.
+ * <p>
+ * Options, all optional except {@code --scenario}:
+ * <ul>
+ *     <li>{@code --scenario} the scenario file, in the format described by {@link ScenarioReader};</li>
+ *     <li>{@code --out} the results file, {@code scenario-results.csv} by default;</li>
+ *     <li>{@code --cache} the directory where the compiled circuits are stored, so that circuits can be referred to
+ *     by their hash; by default the circuits are kept in memory only;</li>
+ *     <li>{@code --threads} the threads playing the races, the available processors by default.</li>
+ * </ul>
+ * </p>
+ */
+public final class ScenarioLauncher {
+
+
+    /**
+     * Don't allow user to instantiate a ScenarioLauncher object because that's not how this class is meant to work.
+     */
+    private ScenarioLauncher() {}
+
+
+    /**
+     * Plays the scenario described by the arguments and prints how many races were played.
+     *
+     * @param args The options, as pairs of name and value.
+     * @throws Exception if the scenario can't be played.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if(!options.containsKey("scenario"))
+            throw new IllegalArgumentException("Missing --scenario option");
+
+        Path scenario = Path.of(options.get("scenario"));
+        Path resultsFile = Path.of(options.getOrDefault("out", "scenario-results.csv"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        CompiledCircuitCache cache = options.containsKey("cache")
+                ? new CompiledCircuitCache(CompiledCircuitCache.DEFAULT_MAX_ENTRIES, Path.of(options.get("cache")))
+                : new CompiledCircuitCache(CompiledCircuitCache.DEFAULT_MAX_ENTRIES);
+
+        long start = System.nanoTime();
+        long races = new ScenarioRunner(cache).run(scenario, resultsFile, threads);
+        System.out.printf("%d races played in %.1f s on %d threads, results in %s%n", races,
+                (System.nanoTime() - start) / 1e9, threads, resultsFile.toAbsolutePath());
+    }
+
+
+    /**
+     * Parses the arguments as pairs of {@code --name value}.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        if(args.length % 2 != 0)
+            throw new IllegalArgumentException("Every option needs a value");
+
+        Map<String, String> options = new HashMap<>();
+        for(int i = 0; i < args.length; i += 2) {
+            if(!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
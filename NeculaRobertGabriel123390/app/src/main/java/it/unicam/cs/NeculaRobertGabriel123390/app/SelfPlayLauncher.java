@@ -0,0 +1,131 @@
+package it.unicam.cs.NeculaRobertGabriel123390.app;
+
+
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.BotConfiguration;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.SelfPlayHarness;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.SelfPlayStatistics;
+import it.unicam.cs.NeculaRobertGabriel123390.api.model.simulation.SimulationRules;
+import it.unicam.cs.NeculaRobertGabriel123390.api.utils.RaceHandlerConstants;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Command line entry point of the {@link SelfPlayHarness}, run by the {@code selfPlay} gradle task.
+ * <p>
+ * Options, all optional except {@code --circuits}:
+ * <ul>
+ *     <li>{@code --circuits} comma separated circuit files or directories of circuit files;</li>
+ *     <li>{@code --out} the results file, {@code self-play.csv} by default;</li>
+ *     <li>{@code --races} the races between each pair of configurations on each circuit, 10 by default;</li>
+ *     <li>{@code --threads} the threads playing the races, the available processors by default;</li>
+ *     <li>{@code --levels} comma separated levels raced with their default parameters, {@code greedy,optimal} by default;</li>
+ *     <li>{@code --depths} and {@code --risks} comma separated lookahead depths and risk weights, whose combinations are raced;</li>
+ *     <li>{@code --max-turns} the turns after which a race ends with no winner;</li>
+ *     <li>{@code --crash} and {@code --collision} the race rules, as in the loading scene.</li>
+ * </ul>
+ * </p>
+ */
+public final class SelfPlayLauncher {
+
+
+    private static final String CIRCUIT_EXTENSION = ".txt";
+
+
+    /**
+     * Don't allow user to instantiate a SelfPlayLauncher object because that's not how this class is meant to work.
+     */
+    private SelfPlayLauncher() {}
+
+
+    /**
+     * Runs the self-play races described by the arguments and prints the statistics of each configuration.
+     *
+     * @param args The options, as pairs of name and value.
+     * @throws Exception if the races can't be run.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if(!options.containsKey("circuits"))
+            throw new IllegalArgumentException("Missing --circuits option");
+
+        List<BotConfiguration> configurations = new ArrayList<>();
+        for(String level : split(options.getOrDefault("levels", "greedy,optimal")))
+            configurations.add(BotConfiguration.of(level));
+        if(options.containsKey("depths") || options.containsKey("risks"))
+            configurations.addAll(BotConfiguration.lookaheadGrid(
+                    split(options.getOrDefault("depths", "3")).stream().mapToInt(Integer::parseInt).toArray(),
+                    split(options.getOrDefault("risks", "2.0")).stream().mapToDouble(Double::parseDouble).toArray()));
+
+        SimulationRules rules = new SimulationRules(
+                options.getOrDefault("collision", RaceHandlerConstants.COLLISION_NOT_ALLOWED),
+                options.getOrDefault("crash", RaceHandlerConstants.CRASH_LEAVE_RACE),
+                Integer.parseInt(options.getOrDefault("max-turns", String.valueOf(SimulationRules.DEFAULT_MAX_TURNS))));
+
+        SelfPlayHarness harness = new SelfPlayHarness(findCircuits(options.get("circuits")), configurations,
+                Integer.parseInt(options.getOrDefault("races", "10")), rules);
+        Path resultsFile = Path.of(options.getOrDefault("out", "self-play.csv"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        System.out.println("Running " + harness.getRaceCount() + " races between " + harness.getConfigurations()
+                + " on " + threads + " threads, results in " + resultsFile.toAbsolutePath());
+
+        long start = System.nanoTime();
+        SelfPlayStatistics statistics = harness.run(resultsFile, threads);
+        System.out.printf("Done in %.1f s%n%n", (System.nanoTime() - start) / 1e9);
+        System.out.print(statistics.toTable());
+    }
+
+
+    /**
+     * Parses the arguments as pairs of {@code --name value}.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        if(args.length % 2 != 0)
+            throw new IllegalArgumentException("Every option needs a value");
+
+        Map<String, String> options = new HashMap<>();
+        for(int i = 0; i < args.length; i += 2) {
+            if(!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+
+    /**
+     * Returns the circuit files given as files or directories, sorted by name within each directory.
+     */
+    private static List<File> findCircuits(String paths) {
+        List<File> circuits = new ArrayList<>();
+        for(String path : split(paths)) {
+            File file = new File(path);
+            if(!file.isDirectory()) {
+                circuits.add(file);
+                continue;
+            }
+
+            File[] files = file.listFiles((dir, name) -> name.endsWith(CIRCUIT_EXTENSION));
+            if(files == null)
+                throw new IllegalArgumentException("Can't read the directory " + path);
+            Arrays.sort(files);
+            circuits.addAll(Arrays.asList(files));
+        }
+        return circuits;
+    }
+
+
+    /**
+     * Splits a comma separated option, ignoring the blank values.
+     */
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}